@@ -23,7 +23,7 @@ import java.util.List;
  * @since 1.4.3
  */
 abstract class AbstractGeocachingApi implements GeocachingApi {
-    @Nullable String session;
+    @Nullable volatile String session;
 
     @Nullable
     @Override
@@ -0,0 +1,26 @@
+package com.arcao.geocaching.api;
+
+import com.arcao.geocaching.api.data.Geocache;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+
+/**
+ * Receiver of Geocaches parsed from a response. Each Geocache is passed to the sink as soon as it
+ * is read, so the whole list doesn't have to be kept in memory.
+ *
+ * @author arcao
+ * @see GeocachingApi#searchForGeocaches(com.arcao.geocaching.api.data.SearchForGeocachesRequest, GeocacheSink)
+ * @since 2.1
+ */
+public interface GeocacheSink {
+    /**
+     * Called for every Geocache in the response in the order of the response.
+     *
+     * @param geocache parsed Geocache
+     * @throws IOException If the Geocache can't be processed, the rest of the response is not read
+     *                     and the API call fails with {@link com.arcao.geocaching.api.exception.NetworkException}
+     */
+    void accept(@NotNull Geocache geocache) throws IOException;
+}
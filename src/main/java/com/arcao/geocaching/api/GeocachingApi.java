@@ -10,6 +10,7 @@ import com.arcao.geocaching.api.data.GeocacheLog;
 import com.arcao.geocaching.api.data.GeocacheStatus;
 import com.arcao.geocaching.api.data.ImageData;
 import com.arcao.geocaching.api.data.SearchForGeocachesRequest;
+import com.arcao.geocaching.api.data.SearchForGeocachesResponse;
 import com.arcao.geocaching.api.data.Trackable;
 import com.arcao.geocaching.api.data.TrackableLog;
 import com.arcao.geocaching.api.data.TrackableTravel;
@@ -186,6 +187,79 @@ public interface GeocachingApi {
     @NotNull
     List<Geocache> getMoreGeocaches(@NotNull ResultQuality resultQuality, int startIndex, int maxPerPage, int geocacheLogCount, int trackableLogCount) throws GeocachingApiException;
 
+    /**
+     * Search for geocaches and return the whole response. Unlike
+     * {@link #searchForGeocaches(SearchForGeocachesRequest)} the cache limits and count of found
+     * caches are returned together with the caches, which is safe when the instance is shared
+     * between threads.
+     *
+     * @param request search request object
+     * @return response containing found caches, count of found caches and cache limits
+     * @throws GeocachingApiException If error occurs during searching caches
+     * @since 2.1
+     */
+    @NotNull
+    SearchForGeocachesResponse searchForGeocachesResponse(@NotNull SearchForGeocachesRequest request) throws GeocachingApiException;
+
+    /**
+     * Retrieve next geocaches searched by searchForGeocaches method and return the whole response.
+     *
+     * @param resultQuality     How much data will be returned
+     * @param startIndex        count of caches to skip
+     * @param maxPerPage        count of caches to get
+     * @param geocacheLogCount  count of caches to get
+     * @param trackableLogCount count of trackables to get
+     * @return response containing found caches, count of found caches and cache limits
+     * @throws GeocachingApiException If error occurs during searching caches
+     * @see #searchForGeocachesResponse(SearchForGeocachesRequest)
+     * @since 2.1
+     */
+    @NotNull
+    SearchForGeocachesResponse getMoreGeocachesResponse(@NotNull ResultQuality resultQuality, int startIndex, int maxPerPage, int geocacheLogCount, int trackableLogCount) throws GeocachingApiException;
+
+    /**
+     * Search for geocaches and pass every found geocache to the sink as soon as it is parsed. Only
+     * one geocache is held in memory at a time.
+     *
+     * @param request search request object
+     * @param sink    receiver of found caches
+     * @return response containing count of found caches and cache limits, the list of caches is empty
+     * @throws GeocachingApiException If error occurs during searching caches or the sink fails
+     * @since 2.1
+     */
+    @NotNull
+    SearchForGeocachesResponse searchForGeocaches(@NotNull SearchForGeocachesRequest request, @NotNull GeocacheSink sink) throws GeocachingApiException;
+
+    /**
+     * Retrieve next geocaches searched by searchForGeocaches method and return the whole response.
+     * Result quality, page size, log counts and parsed fields are taken from the search request.
+     *
+     * @param request    search request object used for the search
+     * @param startIndex count of caches to skip
+     * @return response containing found caches, count of found caches and cache limits
+     * @throws GeocachingApiException If error occurs during searching caches
+     * @see #searchForGeocachesResponse(SearchForGeocachesRequest)
+     * @since 2.1
+     */
+    @NotNull
+    SearchForGeocachesResponse getMoreGeocachesResponse(@NotNull SearchForGeocachesRequest request, int startIndex) throws GeocachingApiException;
+
+    /**
+     * Retrieve next geocaches searched by searchForGeocaches method and pass every geocache to the
+     * sink as soon as it is parsed. Result quality, page size, log counts and parsed fields are taken
+     * from the search request.
+     *
+     * @param request    search request object used for the search
+     * @param startIndex count of caches to skip
+     * @param sink       receiver of found caches
+     * @return response containing count of found caches and cache limits, the list of caches is empty
+     * @throws GeocachingApiException If error occurs during searching caches or the sink fails
+     * @see #searchForGeocaches(SearchForGeocachesRequest, GeocacheSink)
+     * @since 2.1
+     */
+    @NotNull
+    SearchForGeocachesResponse getMoreGeocaches(@NotNull SearchForGeocachesRequest request, int startIndex, @NotNull GeocacheSink sink) throws GeocachingApiException;
+
     /**
      * Get an information about user
      *
@@ -286,7 +360,8 @@ public interface GeocachingApi {
 
     /**
      * Return the cache limits received with a last Geocache request. If the
-     * last request was not Geocache request, returns null.
+     * last request was not Geocache request, returns null. The value is tracked
+     * per thread, it belongs to the last request made by the current thread.
      *
      * @return cache limits or null
      * @since 1.5.10
@@ -296,7 +371,8 @@ public interface GeocachingApi {
 
     /**
      * Return count of Geocaches found in a last Geocache request. If the
-     * last request was not Geocache request, returns <tt>0</tt>.
+     * last request was not Geocache request, returns <tt>0</tt>. The value is
+     * tracked per thread, it belongs to the last request made by the current thread.
      *
      * @return count of Geocaches found
      * @since 1.6
@@ -2,17 +2,20 @@ package com.arcao.geocaching.api;
 
 
 import com.arcao.geocaching.api.builder.JsonBuilder;
+import com.arcao.geocaching.api.builder.JsonSerializable;
 import com.arcao.geocaching.api.configuration.GeocachingApiConfiguration;
 import com.arcao.geocaching.api.configuration.impl.DefaultProductionGeocachingApiConfiguration;
 import com.arcao.geocaching.api.data.DeviceInfo;
 import com.arcao.geocaching.api.data.FavoritePointResult;
 import com.arcao.geocaching.api.data.FavoritedGeocache;
 import com.arcao.geocaching.api.data.Geocache;
+import com.arcao.geocaching.api.data.GeocacheField;
 import com.arcao.geocaching.api.data.GeocacheLimits;
 import com.arcao.geocaching.api.data.GeocacheLog;
 import com.arcao.geocaching.api.data.GeocacheStatus;
 import com.arcao.geocaching.api.data.ImageData;
 import com.arcao.geocaching.api.data.SearchForGeocachesRequest;
+import com.arcao.geocaching.api.data.SearchForGeocachesResponse;
 import com.arcao.geocaching.api.data.Trackable;
 import com.arcao.geocaching.api.data.TrackableLog;
 import com.arcao.geocaching.api.data.TrackableTravel;
@@ -29,6 +32,7 @@ import com.arcao.geocaching.api.data.sort.SortOrder;
 import com.arcao.geocaching.api.data.type.GeocacheLogType;
 import com.arcao.geocaching.api.downloader.DefaultJsonDownloader;
 import com.arcao.geocaching.api.downloader.JsonDownloader;
+import com.arcao.geocaching.api.downloader.StreamingJsonDownloader;
 import com.arcao.geocaching.api.exception.GeocachingApiException;
 import com.arcao.geocaching.api.exception.InvalidCredentialsException;
 import com.arcao.geocaching.api.exception.InvalidResponseException;
@@ -64,15 +68,16 @@ import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
 import java.io.StringWriter;
-import java.io.UnsupportedEncodingException;
 import java.net.MalformedURLException;
 import java.net.URL;
 import java.net.URLEncoder;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.Date;
 import java.util.List;
 import java.util.Locale;
+import java.util.Set;
 
 /**
  * Implementation of Life Geocaching Api provided by Groundspeak. To use this class you need consumer and license key, ask Groundspeak for them.<br>
@@ -84,6 +89,11 @@ import java.util.Locale;
  * <li>geocacheLogCount = 30</li>
  * <li>trackableLogCount = 30</li>
  * </ul>
+ * <br>
+ * The instance is thread-safe, one instance can serve several threads at once. In that case use
+ * {@link #searchForGeocachesResponse(SearchForGeocachesRequest)} and
+ * {@link #getMoreGeocachesResponse(SearchForGeocachesRequest, int)}, which return the cache limits and
+ * count of found caches together with the caches.
  *
  * @author arcao
  */
@@ -93,10 +103,16 @@ public class LiveGeocachingApi extends AbstractGeocachingApi {
     private final GeocachingApiConfiguration configuration;
     private final JsonDownloader downloader;
 
-    @Nullable private GeocacheLimits lastGeocacheLimits = null;
-    private int lastSearchResultsFound = 0;
+    // values received with the last response are kept per thread, so concurrent calls
+    // (e.g. from AsyncGeocachingApi) can't overwrite each other's values
+    private final ThreadLocal<LastResponse> lastResponse = new ThreadLocal<LastResponse>() {
+        @Override
+        protected LastResponse initialValue() {
+            return new LastResponse();
+        }
+    };
 
-    private boolean sessionValid = false;
+    private volatile boolean sessionValid = false;
 
     /**
      * Create a new instance of LiveGeocachingApi with configuration specified by configuration parameter
@@ -128,72 +144,65 @@ public class LiveGeocachingApi extends AbstractGeocachingApi {
     @NotNull
     @Override
     public List<Geocache> searchForGeocaches(@NotNull SearchForGeocachesRequest request) throws GeocachingApiException {
-        List<Geocache> list = new ArrayList<Geocache>();
+        return storeLastResponse(searchForGeocachesResponse(request)).geocaches();
+    }
 
-        if (session == null)
-            throw new InvalidSessionException("Session is closed");
+    @NotNull
+    @Override
+    public SearchForGeocachesResponse searchForGeocachesResponse(@NotNull SearchForGeocachesRequest request) throws GeocachingApiException {
+        GeocacheListSink sink = new GeocacheListSink();
+        return sink.toResponse(searchForGeocaches(request, sink));
+    }
+
+    @NotNull
+    @Override
+    public SearchForGeocachesResponse searchForGeocaches(@NotNull final SearchForGeocachesRequest request, @NotNull GeocacheSink sink) throws GeocachingApiException {
+        final String session = requireSession();
 
-        lastSearchResultsFound = 0;
         JsonReader r = null;
         try {
-            StringWriter sw = new StringWriter();
-            JsonWriter w = new JsonWriter(sw);
-            w.beginObject();
-            w.name("AccessToken").value(session);
-            w.name("IsLite").value(request.resultQuality() == ResultQuality.LITE);
-            w.name("IsSummaryOnly").value(request.resultQuality() == ResultQuality.SUMMARY);
-            w.name("MaxPerPage").value(request.maxPerPage());
-
-            if (request.geocacheLogCount() >= 0)
-                w.name("GeocacheLogCount").value(request.geocacheLogCount());
-
-            if (request.trackableLogCount() >= 0)
-                w.name("TrackableLogCount").value(request.trackableLogCount());
-
-            for (Filter filter : request.filters()) {
-                if (filter.valid())
-                    filter.writeJson(w);
-            }
-
-            Collection<SortBy> sortKeys = request.sortKeys();
-            if (!sortKeys.isEmpty()) {
-                w.name("SortBys").beginArray();
-                for (SortBy sortBy : sortKeys) {
-                    w.name("SortFilterId").value(sortBy.key().id);
-                    w.name("AscendingOrder").value(sortBy.order() == SortOrder.ASCENDING);
-                }
-                w.endArray();
-            }
-
-            Coordinates sortPoint = request.sortPoint();
-            if (sortPoint != null) {
-                w.name("SortPoint").beginObject()
-                        .name("Latitude").value(sortPoint.latitude())
-                        .name("Longitude").value(sortPoint.longitude())
-                        .endObject();
-            }
+            r = callPost("SearchForGeocaches?format=json", new JsonSerializable() {
+                @Override
+                public void writeJson(@NotNull JsonWriter w) throws IOException {
+                    w.beginObject();
+                    w.name("AccessToken").value(session);
+                    w.name("IsLite").value(request.resultQuality() == ResultQuality.LITE);
+                    w.name("IsSummaryOnly").value(request.resultQuality() == ResultQuality.SUMMARY);
+                    w.name("MaxPerPage").value(request.maxPerPage());
+
+                    if (request.geocacheLogCount() >= 0)
+                        w.name("GeocacheLogCount").value(request.geocacheLogCount());
+
+                    if (request.trackableLogCount() >= 0)
+                        w.name("TrackableLogCount").value(request.trackableLogCount());
+
+                    for (Filter filter : request.filters()) {
+                        if (filter.valid())
+                            filter.writeJson(w);
+                    }
 
-            w.endObject();
-            w.close();
+                    Collection<SortBy> sortKeys = request.sortKeys();
+                    if (!sortKeys.isEmpty()) {
+                        w.name("SortBys").beginArray();
+                        for (SortBy sortBy : sortKeys) {
+                            w.name("SortFilterId").value(sortBy.key().id);
+                            w.name("AscendingOrder").value(sortBy.order() == SortOrder.ASCENDING);
+                        }
+                        w.endArray();
+                    }
 
-            r = callPost("SearchForGeocaches?format=json", sw.toString());
-            r.beginObject();
-            checkError(r);
+                    Coordinates sortPoint = request.sortPoint();
+                    if (sortPoint != null) {
+                        w.name("SortPoint").beginObject()
+                                .name("Latitude").value(sortPoint.latitude())
+                                .name("Longitude").value(sortPoint.longitude())
+                                .endObject();
+                    }
 
-            while (r.hasNext()) {
-                String name = r.nextName();
-                if ("Geocaches".equals(name)) {
-                    list = GeocacheJsonParser.parseList(r);
-                } else if ("CacheLimits".equals(name)) {
-                    lastGeocacheLimits = CacheLimitsJsonParser.parse(r);
-                } else if ("TotalMatchingCaches".equals(name)) {
-                    lastSearchResultsFound = r.nextInt();
-                } else {
-                    r.skipValue();
+                    w.endObject();
                 }
-            }
-            r.endObject();
-            return list;
+            });
+            return parseSearchForGeocachesResponse(r, request.fields(), sink);
         } catch (IOException e) {
             throw handleIOException(e);
         } finally {
@@ -204,50 +213,56 @@ public class LiveGeocachingApi extends AbstractGeocachingApi {
     @NotNull
     @Override
     public List<Geocache> getMoreGeocaches(@NotNull ResultQuality resultQuality, int startIndex, int maxPerPage, int geocacheLogCount, int trackableLogCount) throws GeocachingApiException {
-        List<Geocache> list = new ArrayList<Geocache>();
-
-        if (session == null)
-            throw new InvalidSessionException("Session is closed");
-
-        lastSearchResultsFound = 0;
-        JsonReader r = null;
-        try {
-            StringWriter sw = new StringWriter();
-            JsonWriter w = new JsonWriter(sw);
-            w.beginObject();
-            w.name("AccessToken").value(session);
-            w.name("IsLite").value(resultQuality == ResultQuality.LITE);
-            w.name("IsSummaryOnly").value(resultQuality == ResultQuality.SUMMARY);
-            w.name("StartIndex").value(startIndex);
-            w.name("MaxPerPage").value(maxPerPage);
+        return storeLastResponse(getMoreGeocachesResponse(resultQuality, startIndex, maxPerPage, geocacheLogCount, trackableLogCount)).geocaches();
+    }
 
-            if (geocacheLogCount >= 0)
-                w.name("GeocacheLogCount").value(geocacheLogCount);
+    @NotNull
+    @Override
+    public SearchForGeocachesResponse getMoreGeocachesResponse(@NotNull ResultQuality resultQuality, int startIndex, int maxPerPage, int geocacheLogCount, int trackableLogCount) throws GeocachingApiException {
+        GeocacheListSink sink = new GeocacheListSink();
+        return sink.toResponse(getMoreGeocaches(resultQuality, startIndex, maxPerPage, geocacheLogCount, trackableLogCount, null, sink));
+    }
 
-            if (trackableLogCount >= 0)
-                w.name("TrackableLogCount").value(trackableLogCount);
+    @NotNull
+    @Override
+    public SearchForGeocachesResponse getMoreGeocachesResponse(@NotNull SearchForGeocachesRequest request, int startIndex) throws GeocachingApiException {
+        GeocacheListSink sink = new GeocacheListSink();
+        return sink.toResponse(getMoreGeocaches(request, startIndex, sink));
+    }
 
-            w.endObject();
-            w.close();
+    @NotNull
+    @Override
+    public SearchForGeocachesResponse getMoreGeocaches(@NotNull SearchForGeocachesRequest request, int startIndex, @NotNull GeocacheSink sink) throws GeocachingApiException {
+        return getMoreGeocaches(request.resultQuality(), startIndex, request.maxPerPage(), request.geocacheLogCount(),
+                request.trackableLogCount(), request.fields(), sink);
+    }
 
-            r = callPost("GetMoreGeocaches?format=json", sw.toString());
-            r.beginObject();
-            checkError(r);
+    @NotNull
+    private SearchForGeocachesResponse getMoreGeocaches(@NotNull final ResultQuality resultQuality, final int startIndex, final int maxPerPage, final int geocacheLogCount, final int trackableLogCount, @Nullable Set<GeocacheField> fields, @NotNull GeocacheSink sink) throws GeocachingApiException {
+        final String session = requireSession();
 
-            while (r.hasNext()) {
-                String name = r.nextName();
-                if ("Geocaches".equals(name)) {
-                    list = GeocacheJsonParser.parseList(r);
-                } else if ("CacheLimits".equals(name)) {
-                    lastGeocacheLimits = CacheLimitsJsonParser.parse(r);
-                } else if ("TotalMatchingCaches".equals(name)) {
-                    lastSearchResultsFound = r.nextInt();
-                } else {
-                    r.skipValue();
+        JsonReader r = null;
+        try {
+            r = callPost("GetMoreGeocaches?format=json", new JsonSerializable() {
+                @Override
+                public void writeJson(@NotNull JsonWriter w) throws IOException {
+                    w.beginObject();
+                    w.name("AccessToken").value(session);
+                    w.name("IsLite").value(resultQuality == ResultQuality.LITE);
+                    w.name("IsSummaryOnly").value(resultQuality == ResultQuality.SUMMARY);
+                    w.name("StartIndex").value(startIndex);
+                    w.name("MaxPerPage").value(maxPerPage);
+
+                    if (geocacheLogCount >= 0)
+                        w.name("GeocacheLogCount").value(geocacheLogCount);
+
+                    if (trackableLogCount >= 0)
+                        w.name("TrackableLogCount").value(trackableLogCount);
+
+                    w.endObject();
                 }
-            }
-            r.endObject();
-            return list;
+            });
+            return parseSearchForGeocachesResponse(r, fields, sink);
         } catch (IOException e) {
             throw handleIOException(e);
         } finally {
@@ -259,8 +274,7 @@ public class LiveGeocachingApi extends AbstractGeocachingApi {
     public Trackable getTrackable(@NotNull String trackableCode, int trackableLogCount) throws GeocachingApiException {
         List<Trackable> list = null;
 
-        if (session == null)
-            throw new InvalidSessionException("Session is closed");
+        final String session = requireSession();
 
         JsonReader r = null;
         try {
@@ -307,8 +321,7 @@ public class LiveGeocachingApi extends AbstractGeocachingApi {
     public List<Trackable> getTrackablesByCacheCode(@NotNull String cacheCode, int startIndex, int maxPerPage, int trackableLogCount) throws GeocachingApiException {
         List<Trackable> list = new ArrayList<Trackable>();
 
-        if (session == null)
-            throw new InvalidSessionException("Session is closed");
+        final String session = requireSession();
 
         JsonReader r = null;
         try {
@@ -345,8 +358,7 @@ public class LiveGeocachingApi extends AbstractGeocachingApi {
     public List<TrackableTravel> getTrackableTravelList(@NotNull String trackableCode) throws GeocachingApiException {
         List<TrackableTravel> list = new ArrayList<TrackableTravel>();
 
-        if (session == null)
-            throw new InvalidSessionException("Session is closed");
+        final String session = requireSession();
 
         JsonReader r = null;
         try {
@@ -381,8 +393,7 @@ public class LiveGeocachingApi extends AbstractGeocachingApi {
     public List<GeocacheLog> getGeocacheLogsByCacheCode(@NotNull String cacheCode, int startIndex, int maxPerPage) throws GeocachingApiException {
         List<GeocacheLog> list = new ArrayList<GeocacheLog>();
 
-        if (session == null)
-            throw new InvalidSessionException("Session is closed");
+        final String session = requireSession();
 
         JsonReader r = null;
         try {
@@ -414,34 +425,33 @@ public class LiveGeocachingApi extends AbstractGeocachingApi {
     }
 
     @Override
-    public GeocacheLog createFieldNoteAndPublish(@NotNull String cacheCode, @NotNull GeocacheLogType geocacheLogType, @NotNull Date dateLogged, @NotNull String note, boolean publish, ImageData imageData,
-                                                 boolean favoriteThisCache) throws GeocachingApiException {
+    public GeocacheLog createFieldNoteAndPublish(@NotNull final String cacheCode, @NotNull final GeocacheLogType geocacheLogType, @NotNull final Date dateLogged, @NotNull final String note, final boolean publish, final ImageData imageData,
+                                                 final boolean favoriteThisCache) throws GeocachingApiException {
         GeocacheLog geocacheLog = null;
 
-        if (session == null)
-            throw new InvalidSessionException("Session is closed");
+        final String session = requireSession();
 
         JsonReader r = null;
         try {
-            StringWriter sw = new StringWriter();
-            JsonWriter w = new JsonWriter(sw);
-            w.beginObject();
-            w.name("AccessToken").value(session);
-            w.name("CacheCode").value(cacheCode);
-            w.name("WptLogTypeId").value(geocacheLogType.id);
-            w.name("UTCDateLogged").value(JsonBuilder.dateToJsonString(dateLogged));
-            w.name("Note").value(note);
-            w.name("PromoteToLog").value(publish);
-            if (imageData != null) {
-                w.name("ImageData");
-                imageData.writeJson(w);
-            }
-            w.name("FavoriteThisCache").value(favoriteThisCache);
-
-            w.endObject();
-            w.close();
+            r = callPost("CreateFieldNoteAndPublish?format=json", new JsonSerializable() {
+                @Override
+                public void writeJson(@NotNull JsonWriter w) throws IOException {
+                    w.beginObject();
+                    w.name("AccessToken").value(session);
+                    w.name("CacheCode").value(cacheCode);
+                    w.name("WptLogTypeId").value(geocacheLogType.id);
+                    w.name("UTCDateLogged").value(JsonBuilder.dateToJsonString(dateLogged));
+                    w.name("Note").value(note);
+                    w.name("PromoteToLog").value(publish);
+                    if (imageData != null) {
+                        w.name("ImageData");
+                        imageData.writeJson(w);
+                    }
+                    w.name("FavoriteThisCache").value(favoriteThisCache);
 
-            r = callPost("CreateFieldNoteAndPublish?format=json", sw.toString());
+                    w.endObject();
+                }
+            });
             r.beginObject();
             checkError(r);
 
@@ -463,35 +473,34 @@ public class LiveGeocachingApi extends AbstractGeocachingApi {
     }
 
     @Override
-    public UserProfile getYourUserProfile(boolean challengesData, boolean favoritePointData, boolean geocacheData, boolean publicProfileData, boolean souvenirData,
-                                          boolean trackableData, @NotNull DeviceInfo deviceInfo) throws GeocachingApiException {
+    public UserProfile getYourUserProfile(final boolean challengesData, final boolean favoritePointData, final boolean geocacheData, final boolean publicProfileData, final boolean souvenirData,
+                                          final boolean trackableData, @NotNull final DeviceInfo deviceInfo) throws GeocachingApiException {
         UserProfile userProfile = null;
 
-        if (session == null)
-            throw new InvalidSessionException("Session is closed");
+        final String session = requireSession();
 
         JsonReader r = null;
         try {
-            StringWriter sw = new StringWriter();
-            JsonWriter w = new JsonWriter(sw);
-            w.beginObject();
-            w.name("AccessToken").value(session);
-            w.name("ProfileOptions").beginObject()
-                    .name("ChallengesData").value(challengesData)
-                    .name("FavoritePointData").value(favoritePointData)
-                    .name("GeocacheData").value(geocacheData)
-                    .name("PublicProfileData").value(publicProfileData)
-                    .name("SouvenirData").value(souvenirData)
-                    .name("TrackableData").value(trackableData);
-            w.endObject();
-
-            w.name("DeviceInfo");
-            deviceInfo.writeJson(w);
-
-            w.endObject();
-            w.close();
-
-            r = callPost("GetYourUserProfile?format=json", sw.toString());
+            r = callPost("GetYourUserProfile?format=json", new JsonSerializable() {
+                @Override
+                public void writeJson(@NotNull JsonWriter w) throws IOException {
+                    w.beginObject();
+                    w.name("AccessToken").value(session);
+                    w.name("ProfileOptions").beginObject()
+                            .name("ChallengesData").value(challengesData)
+                            .name("FavoritePointData").value(favoritePointData)
+                            .name("GeocacheData").value(geocacheData)
+                            .name("PublicProfileData").value(publicProfileData)
+                            .name("SouvenirData").value(souvenirData)
+                            .name("TrackableData").value(trackableData);
+                    w.endObject();
+
+                    w.name("DeviceInfo");
+                    deviceInfo.writeJson(w);
+
+                    w.endObject();
+                }
+            });
             r.beginObject();
             checkError(r);
 
@@ -514,26 +523,25 @@ public class LiveGeocachingApi extends AbstractGeocachingApi {
 
     @NotNull
     @Override
-    public List<Trackable> getUsersTrackables(int startIndex, int maxPerPage, int trackableLogCount, boolean collectionOnly) throws GeocachingApiException {
+    public List<Trackable> getUsersTrackables(final int startIndex, final int maxPerPage, final int trackableLogCount, final boolean collectionOnly) throws GeocachingApiException {
         List<Trackable> list = new ArrayList<Trackable>();
 
-        if (session == null)
-            throw new InvalidSessionException("Session is closed");
+        final String session = requireSession();
 
         JsonReader r = null;
         try {
-            StringWriter sw = new StringWriter();
-            JsonWriter w = new JsonWriter(sw);
-            w.beginObject();
-            w.name("AccessToken").value(session);
-            w.name("StartIndex").value(startIndex);
-            w.name("MaxPerPage").value(maxPerPage);
-            w.name("TrackableLogsCount").value(trackableLogCount);
-            w.name("CollectionOnly").value(collectionOnly);
-            w.endObject();
-            w.close();
-
-            r = callPost("GetUsersTrackables?format=json", sw.toString());
+            r = callPost("GetUsersTrackables?format=json", new JsonSerializable() {
+                @Override
+                public void writeJson(@NotNull JsonWriter w) throws IOException {
+                    w.beginObject();
+                    w.name("AccessToken").value(session);
+                    w.name("StartIndex").value(startIndex);
+                    w.name("MaxPerPage").value(maxPerPage);
+                    w.name("TrackableLogsCount").value(trackableLogCount);
+                    w.name("CollectionOnly").value(collectionOnly);
+                    w.endObject();
+                }
+            });
 
             r.beginObject();
             checkError(r);
@@ -560,8 +568,7 @@ public class LiveGeocachingApi extends AbstractGeocachingApi {
     public List<BookmarkList> getBookmarkListsForUser() throws GeocachingApiException {
         List<BookmarkList> list = new ArrayList<BookmarkList>();
 
-        if (session == null)
-            throw new InvalidSessionException("Session is closed");
+        final String session = requireSession();
 
         JsonReader r = null;
         try {
@@ -594,8 +601,7 @@ public class LiveGeocachingApi extends AbstractGeocachingApi {
     public List<BookmarkList> getBookmarkListsByUserId(int userId) throws GeocachingApiException {
         List<BookmarkList> list = new ArrayList<BookmarkList>();
 
-        if (session == null)
-            throw new InvalidSessionException("Session is closed");
+        final String session = requireSession();
 
         JsonReader r = null;
         try {
@@ -626,23 +632,22 @@ public class LiveGeocachingApi extends AbstractGeocachingApi {
 
     @NotNull
     @Override
-    public List<Bookmark> getBookmarkListByGuid(@NotNull String guid) throws GeocachingApiException {
+    public List<Bookmark> getBookmarkListByGuid(@NotNull final String guid) throws GeocachingApiException {
         List<Bookmark> list = new ArrayList<Bookmark>();
 
-        if (session == null)
-            throw new InvalidSessionException("Session is closed");
+        final String session = requireSession();
 
         JsonReader r = null;
         try {
-            StringWriter sw = new StringWriter();
-            JsonWriter w = new JsonWriter(sw);
-            w.beginObject();
-            w.name("AccessToken").value(session);
-            w.name("BookmarkListGuid").value(guid);
-            w.endObject();
-            w.close();
-
-            r = callPost("GetBookmarkListByGuid?format=json", sw.toString());
+            r = callPost("GetBookmarkListByGuid?format=json", new JsonSerializable() {
+                @Override
+                public void writeJson(@NotNull JsonWriter w) throws IOException {
+                    w.beginObject();
+                    w.name("AccessToken").value(session);
+                    w.name("BookmarkListGuid").value(guid);
+                    w.endObject();
+                }
+            });
 
             r.beginObject();
             checkError(r);
@@ -666,27 +671,26 @@ public class LiveGeocachingApi extends AbstractGeocachingApi {
 
     @NotNull
     @Override
-    public List<GeocacheStatus> getGeocacheStatus(@NotNull Collection<String> cacheCodes) throws GeocachingApiException {
+    public List<GeocacheStatus> getGeocacheStatus(@NotNull final Collection<String> cacheCodes) throws GeocachingApiException {
         List<GeocacheStatus> list = new ArrayList<GeocacheStatus>();
 
-        if (session == null)
-            throw new InvalidSessionException("Session is closed");
+        final String session = requireSession();
 
         JsonReader r = null;
         try {
-            StringWriter sw = new StringWriter();
-            JsonWriter w = new JsonWriter(sw);
-            w.beginObject();
-            w.name("AccessToken").value(session);
-            JsonWriter arrayWriter = w.name("CacheCodes").beginArray();
-            for (String cacheCode : cacheCodes) {
-                arrayWriter.value(cacheCode);
-            }
-            arrayWriter.endArray();
-            w.endObject();
-            w.close();
-
-            r = callPost("GetGeocacheStatus?format=json", sw.toString());
+            r = callPost("GetGeocacheStatus?format=json", new JsonSerializable() {
+                @Override
+                public void writeJson(@NotNull JsonWriter w) throws IOException {
+                    w.beginObject();
+                    w.name("AccessToken").value(session);
+                    JsonWriter arrayWriter = w.name("CacheCodes").beginArray();
+                    for (String cacheCode : cacheCodes) {
+                        arrayWriter.value(cacheCode);
+                    }
+                    arrayWriter.endArray();
+                    w.endObject();
+                }
+            });
 
             r.beginObject();
             checkError(r);
@@ -709,26 +713,25 @@ public class LiveGeocachingApi extends AbstractGeocachingApi {
     }
 
     @Override
-    public void addGeocachesToBookmarkList(@NotNull String guid, @NotNull Collection<String> cacheCodes) throws GeocachingApiException {
-        if (session == null)
-            throw new InvalidSessionException("Session is closed");
+    public void addGeocachesToBookmarkList(@NotNull final String guid, @NotNull final Collection<String> cacheCodes) throws GeocachingApiException {
+        final String session = requireSession();
 
         JsonReader r = null;
         try {
-            StringWriter sw = new StringWriter();
-            JsonWriter w = new JsonWriter(sw);
-            w.beginObject();
-            w.name("AccessToken").value(session);
-            w.name("BookmarkListGuid").value(guid);
-            JsonWriter arrayWriter = w.name("CacheCodes").beginArray();
-            for (String cacheCode : cacheCodes) {
-                arrayWriter.value(cacheCode);
-            }
-            arrayWriter.endArray();
-            w.endObject();
-            w.close();
-
-            r = callPost("AddGeocachesToBookmarkList?format=json", sw.toString());
+            r = callPost("AddGeocachesToBookmarkList?format=json", new JsonSerializable() {
+                @Override
+                public void writeJson(@NotNull JsonWriter w) throws IOException {
+                    w.beginObject();
+                    w.name("AccessToken").value(session);
+                    w.name("BookmarkListGuid").value(guid);
+                    JsonWriter arrayWriter = w.name("CacheCodes").beginArray();
+                    for (String cacheCode : cacheCodes) {
+                        arrayWriter.value(cacheCode);
+                    }
+                    arrayWriter.endArray();
+                    w.endObject();
+                }
+            });
             checkError(r);
         } catch (IOException e) {
             throw handleIOException(e);
@@ -741,8 +744,7 @@ public class LiveGeocachingApi extends AbstractGeocachingApi {
     @NotNull
     @Override
     public FavoritePointResult addFavoritePointToGeocache(@NotNull String cacheCode) throws GeocachingApiException {
-        if (session == null)
-            throw new InvalidSessionException("Session is closed");
+        final String session = requireSession();
 
         JsonReader r = null;
         try {
@@ -778,8 +780,7 @@ public class LiveGeocachingApi extends AbstractGeocachingApi {
     @NotNull
     @Override
     public FavoritePointResult removeFavoritePointFromGeocache(@NotNull String cacheCode) throws GeocachingApiException {
-        if (session == null)
-            throw new InvalidSessionException("Session is closed");
+        final String session = requireSession();
 
         JsonReader r = null;
         try {
@@ -814,8 +815,7 @@ public class LiveGeocachingApi extends AbstractGeocachingApi {
 
     @Override
     public int getUsersFavoritePoints() throws GeocachingApiException {
-        if (session == null)
-            throw new InvalidSessionException("Session is closed");
+        final String session = requireSession();
 
         JsonReader r = null;
         try {
@@ -850,8 +850,7 @@ public class LiveGeocachingApi extends AbstractGeocachingApi {
     public List<User> getUsersWhoFavoritedGeocache(@NotNull String cacheCode) throws GeocachingApiException {
         List<User> list = new ArrayList<User>();
 
-        if (session == null)
-            throw new InvalidSessionException("Session is closed");
+        final String session = requireSession();
 
         JsonReader r = null;
         try {
@@ -886,8 +885,7 @@ public class LiveGeocachingApi extends AbstractGeocachingApi {
     public List<String> getGeocacheCodesFavoritedByUser() throws GeocachingApiException {
         List<String> list = new ArrayList<String>();
 
-        if (session == null)
-            throw new InvalidSessionException("Session is closed");
+        final String session = requireSession();
 
         JsonReader r = null;
         try {
@@ -925,8 +923,7 @@ public class LiveGeocachingApi extends AbstractGeocachingApi {
     public List<FavoritedGeocache> getGeocachesFavoritedByUser() throws GeocachingApiException {
         List<FavoritedGeocache> list = new ArrayList<FavoritedGeocache>();
 
-        if (session == null)
-            throw new InvalidSessionException("Session is closed");
+        final String session = requireSession();
 
         JsonReader r = null;
         try {
@@ -960,8 +957,7 @@ public class LiveGeocachingApi extends AbstractGeocachingApi {
     public List<ImageData> getImagesForGeocache(@NotNull String cacheCode) throws GeocachingApiException {
         List<ImageData> list = new ArrayList<ImageData>();
 
-        if (session == null)
-            throw new InvalidSessionException("Session is closed");
+        final String session = requireSession();
 
         JsonReader r = null;
         try {
@@ -992,9 +988,8 @@ public class LiveGeocachingApi extends AbstractGeocachingApi {
     }
 
     @Override
-    public void setGeocachePersonalNote(@NotNull String cacheCode, String note) throws GeocachingApiException {
-        if (session == null)
-            throw new InvalidSessionException("Session is closed");
+    public void setGeocachePersonalNote(@NotNull final String cacheCode, final String note) throws GeocachingApiException {
+        final String session = requireSession();
 
         if (note == null || note.isEmpty()) {
             deleteCachePersonalNote(cacheCode);
@@ -1003,16 +998,16 @@ public class LiveGeocachingApi extends AbstractGeocachingApi {
 
         JsonReader r = null;
         try {
-            StringWriter sw = new StringWriter();
-            JsonWriter w = new JsonWriter(sw);
-            w.beginObject();
-            w.name("AccessToken").value(session);
-            w.name("CacheCode").value(cacheCode);
-            w.name("Note").value(note);
-            w.endObject();
-            w.close();
-
-            r = callPost("UpdateCacheNote?format=json", sw.toString());
+            r = callPost("UpdateCacheNote?format=json", new JsonSerializable() {
+                @Override
+                public void writeJson(@NotNull JsonWriter w) throws IOException {
+                    w.beginObject();
+                    w.name("AccessToken").value(session);
+                    w.name("CacheCode").value(cacheCode);
+                    w.name("Note").value(note);
+                    w.endObject();
+                }
+            });
             checkError(r);
         } catch (IOException e) {
             throw handleIOException(e);
@@ -1023,8 +1018,7 @@ public class LiveGeocachingApi extends AbstractGeocachingApi {
 
     @Override
     public void deleteCachePersonalNote(@NotNull String cacheCode) throws GeocachingApiException {
-        if (session == null)
-            throw new InvalidSessionException("Session is closed");
+        final String session = requireSession();
 
         JsonReader r = null;
         try {
@@ -1045,8 +1039,7 @@ public class LiveGeocachingApi extends AbstractGeocachingApi {
     public List<TrackableLog> getTrackableLogs(@NotNull String trackableCode, int startIndex, int maxPerPage) throws GeocachingApiException {
         List<TrackableLog> list = new ArrayList<TrackableLog>();
 
-        if (session == null)
-            throw new InvalidSessionException("Session is closed");
+        final String session = requireSession();
 
         JsonReader r = null;
         try {
@@ -1083,8 +1076,7 @@ public class LiveGeocachingApi extends AbstractGeocachingApi {
         ApiLimits apiLimits = null;
         MaxPerPage maxPerPage = null;
 
-        if (session == null)
-            throw new InvalidSessionException("Session is closed");
+        final String session = requireSession();
 
         JsonReader r = null;
         try {
@@ -1117,21 +1109,20 @@ public class LiveGeocachingApi extends AbstractGeocachingApi {
     @Override
     @Nullable
     public GeocacheLimits getLastGeocacheLimits() {
-        return lastGeocacheLimits;
+        return lastResponse.get().geocacheLimits;
     }
 
     @Override
     public int getLastSearchResultsFound() {
-        return lastSearchResultsFound;
+        return lastResponse.get().searchResultsFound;
     }
 
     @NotNull
     @Override
-    public List<GeocacheLog> getUsersGeocacheLogs(@NotNull String userName, Date startDate, Date endDate, @NotNull GeocacheLogType[] logTypes, boolean excludeArchived, int startIndex, int maxPerPage) throws GeocachingApiException {
+    public List<GeocacheLog> getUsersGeocacheLogs(@NotNull final String userName, final Date startDate, final Date endDate, @NotNull final GeocacheLogType[] logTypes, final boolean excludeArchived, final int startIndex, final int maxPerPage) throws GeocachingApiException {
         List<GeocacheLog> list = new ArrayList<GeocacheLog>();
 
-        if (session == null)
-            throw new InvalidSessionException("Session is closed");
+        final String session = requireSession();
 
         if (userName.isEmpty())
             throw new IllegalArgumentException("You must specify user name.");
@@ -1141,44 +1132,43 @@ public class LiveGeocachingApi extends AbstractGeocachingApi {
 
         JsonReader r = null;
         try {
-            StringWriter sw = new StringWriter();
-            JsonWriter w = new JsonWriter(sw);
-            w.beginObject();
-            w.name("AccessToken").value(session);
-            w.name("Username").value(userName);
-
-            // Date filters
-            if (startDate != null || endDate != null) {
-                JsonWriter range = w.name("Range").beginObject();
-
-                if (startDate != null) {
-                    range.name("StartDate").value(JsonBuilder.dateToJsonString(startDate));
-                }
-
-                if (endDate != null) {
-                    range.name("EndDate").value(JsonBuilder.dateToJsonString(endDate));
-                }
-
-                range.endObject();
-            }
-
-            // Cache log type filter
-            JsonWriter logs = w.name("LogTypes").beginArray();
-
-            for (GeocacheLogType geocacheLogType : logTypes) {
-                logs.value(geocacheLogType.id);
-            }
+            r = callPost("GetUsersGeocacheLogs?format=json", new JsonSerializable() {
+                @Override
+                public void writeJson(@NotNull JsonWriter w) throws IOException {
+                    w.beginObject();
+                    w.name("AccessToken").value(session);
+                    w.name("Username").value(userName);
+
+                    // Date filters
+                    if (startDate != null || endDate != null) {
+                        JsonWriter range = w.name("Range").beginObject();
+
+                        if (startDate != null) {
+                            range.name("StartDate").value(JsonBuilder.dateToJsonString(startDate));
+                        }
+
+                        if (endDate != null) {
+                            range.name("EndDate").value(JsonBuilder.dateToJsonString(endDate));
+                        }
+
+                        range.endObject();
+                    }
 
-            logs.endArray();
+                    // Cache log type filter
+                    JsonWriter logs = w.name("LogTypes").beginArray();
 
-            w.name("ExcludeArchived").value(excludeArchived);
-            w.name("StartIndex").value(startIndex);
-            w.name("MaxPerPage").value(maxPerPage);
-            w.endObject();
-            w.close();
+                    for (GeocacheLogType geocacheLogType : logTypes) {
+                        logs.value(geocacheLogType.id);
+                    }
 
+                    logs.endArray();
 
-            r = callPost("GetUsersGeocacheLogs?format=json", sw.toString());
+                    w.name("ExcludeArchived").value(excludeArchived);
+                    w.name("StartIndex").value(startIndex);
+                    w.name("MaxPerPage").value(maxPerPage);
+                    w.endObject();
+                }
+            });
             r.beginObject();
             checkError(r);
 
@@ -1203,9 +1193,53 @@ public class LiveGeocachingApi extends AbstractGeocachingApi {
     }
 
     // -------------------- Helper methods ----------------------------------------
+    @NotNull
+    private String requireSession() throws InvalidSessionException {
+        // read the field only once, closeSession() may be called from another thread
+        String session = this.session;
+        if (session == null)
+            throw new InvalidSessionException("Session is closed");
+
+        return session;
+    }
+
     private void prepareRequest() {
-        lastGeocacheLimits = null;
-        lastSearchResultsFound = 0;
+        LastResponse last = lastResponse.get();
+        last.geocacheLimits = null;
+        last.searchResultsFound = 0;
+    }
+
+    @NotNull
+    private SearchForGeocachesResponse storeLastResponse(@NotNull SearchForGeocachesResponse response) {
+        LastResponse last = lastResponse.get();
+        last.geocacheLimits = response.geocacheLimits();
+        last.searchResultsFound = response.totalMatchingCaches();
+        return response;
+    }
+
+    @NotNull
+    private SearchForGeocachesResponse parseSearchForGeocachesResponse(@NotNull JsonReader r, @Nullable Set<GeocacheField> fields, @NotNull GeocacheSink sink) throws GeocachingApiException, IOException {
+        GeocacheLimits geocacheLimits = null;
+        int totalMatchingCaches = 0;
+
+        r.beginObject();
+        checkError(r);
+
+        while (r.hasNext()) {
+            String name = r.nextName();
+            if ("Geocaches".equals(name)) {
+                GeocacheJsonParser.parseList(r, sink, fields);
+            } else if ("CacheLimits".equals(name)) {
+                geocacheLimits = CacheLimitsJsonParser.parse(r);
+            } else if ("TotalMatchingCaches".equals(name)) {
+                totalMatchingCaches = r.nextInt();
+            } else {
+                r.skipValue();
+            }
+        }
+        r.endObject();
+
+        return SearchForGeocachesResponse.create(Collections.<Geocache>emptyList(), totalMatchingCaches, geocacheLimits);
     }
 
     private void checkError(JsonReader r) throws GeocachingApiException, IOException {
@@ -1263,27 +1297,42 @@ public class LiveGeocachingApi extends AbstractGeocachingApi {
         }
     }
 
-    private JsonReader callPost(String function, String postBody) throws NetworkException, InvalidResponseException {
+    private JsonReader callPost(String function, JsonSerializable postBody) throws NetworkException, InvalidResponseException {
         prepareRequest();
 
         logger.debug("Posting " + maskParameterValues(function));
-        logger.debug("Body: " + maskJsonParameterValues(postBody));
-
 
         try {
-            byte[] postData = postBody.getBytes("UTF-8");
             URL url = new URL(configuration.getApiServiceEntryPointUrl() + "/" + function);
 
-            return downloader.post(url, postData);
+            // serialize the body to String only if it is really needed
+            if (logger.isDebugEnabled() || !(downloader instanceof StreamingJsonDownloader)) {
+                String body = writeJsonToString(postBody);
+                logger.debug("Body: " + maskJsonParameterValues(body));
+
+                if (!(downloader instanceof StreamingJsonDownloader))
+                    return downloader.post(url, body.getBytes("UTF-8"));
+            }
+
+            return ((StreamingJsonDownloader) downloader).post(url, postBody);
         } catch (MalformedURLException e) {
             logger.error(e.toString(), e);
             throw new NetworkException("Error while downloading data (" + e.getClass().getSimpleName() + ")", e);
-        } catch (UnsupportedEncodingException e) {
+        } catch (IOException e) {
             logger.error(e.toString(), e);
             throw new NetworkException("Error while downloading data (" + e.getClass().getSimpleName() + "): " + e.getMessage(), e);
         }
     }
 
+    private static String writeJsonToString(JsonSerializable postBody) throws IOException {
+        StringWriter sw = new StringWriter();
+        JsonWriter w = new JsonWriter(sw);
+        postBody.writeJson(w);
+        w.close();
+
+        return sw.toString();
+    }
+
     private static String maskParameterValues(String function) {
         return function.replaceAll("([Aa]ccess[Tt]oken=)([^&]+)", "$1******");
     }
@@ -1365,4 +1414,22 @@ public class LiveGeocachingApi extends AbstractGeocachingApi {
             return new LiveGeocachingApi(this);
         }
     }
+
+    private static class GeocacheListSink implements GeocacheSink {
+        final List<Geocache> geocaches = new ArrayList<Geocache>();
+
+        @Override
+        public void accept(@NotNull Geocache geocache) {
+            geocaches.add(geocache);
+        }
+
+        SearchForGeocachesResponse toResponse(SearchForGeocachesResponse response) {
+            return SearchForGeocachesResponse.create(geocaches, response.totalMatchingCaches(), response.geocacheLimits());
+        }
+    }
+
+    private static class LastResponse {
+        @Nullable GeocacheLimits geocacheLimits = null;
+        int searchResultsFound = 0;
+    }
 }
@@ -0,0 +1,668 @@
+package com.arcao.geocaching.api.async;
+
+import com.arcao.geocaching.api.GeocacheSink;
+import com.arcao.geocaching.api.GeocachingApi;
+import com.arcao.geocaching.api.GeocachingApi.ResultQuality;
+import com.arcao.geocaching.api.async.GeocachingApiFuture.ApiCall;
+import com.arcao.geocaching.api.data.DeviceInfo;
+import com.arcao.geocaching.api.data.FavoritePointResult;
+import com.arcao.geocaching.api.data.FavoritedGeocache;
+import com.arcao.geocaching.api.data.FieldNote;
+import com.arcao.geocaching.api.data.Geocache;
+import com.arcao.geocaching.api.data.GeocacheLog;
+import com.arcao.geocaching.api.data.GeocacheStatus;
+import com.arcao.geocaching.api.data.ImageData;
+import com.arcao.geocaching.api.data.SearchForGeocachesRequest;
+import com.arcao.geocaching.api.data.SearchForGeocachesResponse;
+import com.arcao.geocaching.api.data.Trackable;
+import com.arcao.geocaching.api.data.TrackableLog;
+import com.arcao.geocaching.api.data.TrackableTravel;
+import com.arcao.geocaching.api.data.User;
+import com.arcao.geocaching.api.data.UserProfile;
+import com.arcao.geocaching.api.data.apilimits.ApiLimitsResponse;
+import com.arcao.geocaching.api.data.bookmarks.Bookmark;
+import com.arcao.geocaching.api.data.bookmarks.BookmarkList;
+import com.arcao.geocaching.api.data.type.GeocacheLogType;
+import com.arcao.geocaching.api.exception.GeocachingApiException;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.Executor;
+
+/**
+ * Asynchronous facade of {@link GeocachingApi}. Every call is executed by the given
+ * {@link Executor} and returns a {@link GeocachingApiFuture} immediately, so several
+ * calls can be in flight at the same time.
+ * <p>
+ * The executor is supplied by the caller, any implementation can be used, e.g. a fixed
+ * thread pool or on Java 21+ <code>Executors.newVirtualThreadPerTaskExecutor()</code>.
+ * The wrapped {@link GeocachingApi} instance is shared by all calls, so it has to be
+ * safe to use from several threads at once as {@link com.arcao.geocaching.api.LiveGeocachingApi} is.
+ *
+ * @author arcao
+ * @since 2.1
+ */
+public class AsyncGeocachingApi {
+    @NotNull private final GeocachingApi api;
+    @NotNull private final Executor executor;
+
+    /**
+     * Create a new asynchronous facade.
+     *
+     * @param api      Geocaching API performing the calls, shared by all calls
+     * @param executor executor running each API call and the page prefetch of search cursors;
+     *                 the facade never shuts it down, the caller does once no calls are pending
+     */
+    public AsyncGeocachingApi(@NotNull GeocachingApi api, @NotNull Executor executor) {
+        this.api = api;
+        this.executor = executor;
+    }
+
+    /**
+     * Return the wrapped synchronous Geocaching API.
+     *
+     * @return wrapped Geocaching API
+     */
+    @NotNull
+    public GeocachingApi getApi() {
+        return api;
+    }
+
+    /**
+     * Get a session id of currently logged-in user.
+     *
+     * @return session id or null
+     * @see GeocachingApi#getSession()
+     */
+    @Nullable
+    public String getSession() {
+        return api.getSession();
+    }
+
+    /**
+     * Close session. Calls which are already in progress aren't affected.
+     *
+     * @see GeocachingApi#closeSession()
+     */
+    public void closeSession() {
+        api.closeSession();
+    }
+
+    /**
+     * Check if the session is valid.
+     *
+     * @return true if session is valid otherwise false
+     * @see GeocachingApi#isSessionValid()
+     */
+    public boolean isSessionValid() {
+        return api.isSessionValid();
+    }
+
+    /**
+     * Open a session with giving session id of already logged-in user.
+     *
+     * @return pending result
+     * @see GeocachingApi#openSession(String)
+     */
+    @NotNull
+    public GeocachingApiFuture<Void> openSession(@NotNull final String session) {
+        return submit(new ApiCall<Void>() {
+            @Override
+            public Void call(@NotNull GeocachingApi api) throws GeocachingApiException {
+                api.openSession(session);
+                return null;
+            }
+        });
+    }
+
+    /**
+     * Get a trackable object for given trackable code.
+     *
+     * @return pending result
+     * @see GeocachingApi#getTrackable(String, int)
+     */
+    @NotNull
+    public GeocachingApiFuture<Trackable> getTrackable(@NotNull final String trackableCode, final int trackableLogCount) {
+        return submit(new ApiCall<Trackable>() {
+            @Override
+            public Trackable call(@NotNull GeocachingApi api) throws GeocachingApiException {
+                return api.getTrackable(trackableCode, trackableLogCount);
+            }
+        });
+    }
+
+    /**
+     * Get a list of trackables which is currently placed in a cache.
+     *
+     * @return pending result
+     * @see GeocachingApi#getTrackablesByCacheCode(String, int, int, int)
+     */
+    @NotNull
+    public GeocachingApiFuture<List<Trackable>> getTrackablesByCacheCode(@NotNull final String cacheCode, final int startIndex, final int maxPerPage, final int trackableLogCount) {
+        return submit(new ApiCall<List<Trackable>>() {
+            @Override
+            public List<Trackable> call(@NotNull GeocachingApi api) throws GeocachingApiException {
+                return api.getTrackablesByCacheCode(cacheCode, startIndex, maxPerPage, trackableLogCount);
+            }
+        });
+    }
+
+    /**
+     * Get a list of complete travel track of specified trackable.
+     *
+     * @return pending result
+     * @see GeocachingApi#getTrackableTravelList(String)
+     */
+    @NotNull
+    public GeocachingApiFuture<List<TrackableTravel>> getTrackableTravelList(@NotNull final String trackableCode) {
+        return submit(new ApiCall<List<TrackableTravel>>() {
+            @Override
+            public List<TrackableTravel> call(@NotNull GeocachingApi api) throws GeocachingApiException {
+                return api.getTrackableTravelList(trackableCode);
+            }
+        });
+    }
+
+    /**
+     * Get a list of geocache logs in given cache.
+     *
+     * @return pending result
+     * @see GeocachingApi#getGeocacheLogsByCacheCode(String, int, int)
+     */
+    @NotNull
+    public GeocachingApiFuture<List<GeocacheLog>> getGeocacheLogsByCacheCode(@NotNull final String cacheCode, final int startIndex, final int maxPerPage) {
+        return submit(new ApiCall<List<GeocacheLog>>() {
+            @Override
+            public List<GeocacheLog> call(@NotNull GeocachingApi api) throws GeocachingApiException {
+                return api.getGeocacheLogsByCacheCode(cacheCode, startIndex, maxPerPage);
+            }
+        });
+    }
+
+    /**
+     * Get an information about geocache.
+     *
+     * @return pending result
+     * @see GeocachingApi#getGeocache(ResultQuality, String, int, int)
+     */
+    @NotNull
+    public GeocachingApiFuture<Geocache> getGeocache(@NotNull final ResultQuality resultQuality, @NotNull final String cacheCode, final int cacheLogCount, final int trackableLogCount) {
+        return submit(new ApiCall<Geocache>() {
+            @Override
+            public Geocache call(@NotNull GeocachingApi api) throws GeocachingApiException {
+                return api.getGeocache(resultQuality, cacheCode, cacheLogCount, trackableLogCount);
+            }
+        });
+    }
+
+    /**
+     * Search for geocaches.
+     *
+     * @return pending result
+     * @see GeocachingApi#searchForGeocaches(SearchForGeocachesRequest)
+     */
+    @NotNull
+    public GeocachingApiFuture<List<Geocache>> searchForGeocaches(@NotNull final SearchForGeocachesRequest request) {
+        return submit(new ApiCall<List<Geocache>>() {
+            @Override
+            public List<Geocache> call(@NotNull GeocachingApi api) throws GeocachingApiException {
+                return api.searchForGeocaches(request);
+            }
+        });
+    }
+
+    /**
+     * Retrieve next geocaches searched by searchForGeocaches method.
+     *
+     * @return pending result
+     * @see GeocachingApi#getMoreGeocaches(ResultQuality, int, int, int, int)
+     */
+    @NotNull
+    public GeocachingApiFuture<List<Geocache>> getMoreGeocaches(@NotNull final ResultQuality resultQuality, final int startIndex, final int maxPerPage, final int geocacheLogCount, final int trackableLogCount) {
+        return submit(new ApiCall<List<Geocache>>() {
+            @Override
+            public List<Geocache> call(@NotNull GeocachingApi api) throws GeocachingApiException {
+                return api.getMoreGeocaches(resultQuality, startIndex, maxPerPage, geocacheLogCount, trackableLogCount);
+            }
+        });
+    }
+
+    /**
+     * Search for geocaches and return the whole response.
+     *
+     * @return pending result
+     * @see GeocachingApi#searchForGeocachesResponse(SearchForGeocachesRequest)
+     */
+    @NotNull
+    public GeocachingApiFuture<SearchForGeocachesResponse> searchForGeocachesResponse(@NotNull final SearchForGeocachesRequest request) {
+        return submit(new ApiCall<SearchForGeocachesResponse>() {
+            @Override
+            public SearchForGeocachesResponse call(@NotNull GeocachingApi api) throws GeocachingApiException {
+                return api.searchForGeocachesResponse(request);
+            }
+        });
+    }
+
+    /**
+     * Retrieve next geocaches searched by searchForGeocaches method and return the whole response.
+     *
+     * @return pending result
+     * @see GeocachingApi#getMoreGeocachesResponse(ResultQuality, int, int, int, int)
+     */
+    @NotNull
+    public GeocachingApiFuture<SearchForGeocachesResponse> getMoreGeocachesResponse(@NotNull final ResultQuality resultQuality, final int startIndex, final int maxPerPage, final int geocacheLogCount, final int trackableLogCount) {
+        return submit(new ApiCall<SearchForGeocachesResponse>() {
+            @Override
+            public SearchForGeocachesResponse call(@NotNull GeocachingApi api) throws GeocachingApiException {
+                return api.getMoreGeocachesResponse(resultQuality, startIndex, maxPerPage, geocacheLogCount, trackableLogCount);
+            }
+        });
+    }
+
+    /**
+     * Search for geocaches and pass every found geocache to the sink as soon as it is parsed. The
+     * sink is called from the executor thread.
+     *
+     * @return pending result
+     * @see GeocachingApi#searchForGeocaches(SearchForGeocachesRequest, GeocacheSink)
+     */
+    @NotNull
+    public GeocachingApiFuture<SearchForGeocachesResponse> searchForGeocaches(@NotNull final SearchForGeocachesRequest request, @NotNull final GeocacheSink sink) {
+        return submit(new ApiCall<SearchForGeocachesResponse>() {
+            @Override
+            public SearchForGeocachesResponse call(@NotNull GeocachingApi api) throws GeocachingApiException {
+                return api.searchForGeocaches(request, sink);
+            }
+        });
+    }
+
+    /**
+     * Retrieve next geocaches searched by searchForGeocaches method and return the whole response.
+     *
+     * @return pending result
+     * @see GeocachingApi#getMoreGeocachesResponse(SearchForGeocachesRequest, int)
+     */
+    @NotNull
+    public GeocachingApiFuture<SearchForGeocachesResponse> getMoreGeocachesResponse(@NotNull final SearchForGeocachesRequest request, final int startIndex) {
+        return submit(new ApiCall<SearchForGeocachesResponse>() {
+            @Override
+            public SearchForGeocachesResponse call(@NotNull GeocachingApi api) throws GeocachingApiException {
+                return api.getMoreGeocachesResponse(request, startIndex);
+            }
+        });
+    }
+
+    /**
+     * Retrieve next geocaches searched by searchForGeocaches method and pass every geocache to the
+     * sink as soon as it is parsed. The sink is called from the executor thread.
+     *
+     * @return pending result
+     * @see GeocachingApi#getMoreGeocaches(SearchForGeocachesRequest, int, GeocacheSink)
+     */
+    @NotNull
+    public GeocachingApiFuture<SearchForGeocachesResponse> getMoreGeocaches(@NotNull final SearchForGeocachesRequest request, final int startIndex, @NotNull final GeocacheSink sink) {
+        return submit(new ApiCall<SearchForGeocachesResponse>() {
+            @Override
+            public SearchForGeocachesResponse call(@NotNull GeocachingApi api) throws GeocachingApiException {
+                return api.getMoreGeocaches(request, startIndex, sink);
+            }
+        });
+    }
+
+    /**
+     * Search for geocaches and return a cursor going through all found geocaches page by page.
+     * The next page is downloaded by the executor while the current page is consumed.
+     *
+     * @param request search request, maxPerPage is used as page size
+     * @return cursor over found geocaches
+     */
+    @NotNull
+    public GeocacheSearchCursor searchForGeocachesCursor(@NotNull SearchForGeocachesRequest request) {
+        return new GeocacheSearchCursor(api, request, executor);
+    }
+
+    /**
+     * Get an information about user.
+     *
+     * @return pending result
+     * @see GeocachingApi#getYourUserProfile(boolean, boolean, boolean, boolean, boolean, boolean, DeviceInfo)
+     */
+    @NotNull
+    public GeocachingApiFuture<UserProfile> getYourUserProfile(final boolean challengesData, final boolean favoritePointData, final boolean geocacheData, final boolean publicProfileData, final boolean souvenirData, final boolean trackableData, @NotNull final DeviceInfo deviceInfo) {
+        return submit(new ApiCall<UserProfile>() {
+            @Override
+            public UserProfile call(@NotNull GeocachingApi api) throws GeocachingApiException {
+                return api.getYourUserProfile(challengesData, favoritePointData, geocacheData, publicProfileData, souvenirData, trackableData, deviceInfo);
+            }
+        });
+    }
+
+    /**
+     * Create field note and publish them or store them to list of Field notes.
+     *
+     * @return pending result
+     * @see GeocachingApi#createFieldNoteAndPublish(String, GeocacheLogType, Date, String, boolean, ImageData, boolean)
+     */
+    @NotNull
+    public GeocachingApiFuture<GeocacheLog> createFieldNoteAndPublish(@NotNull final String cacheCode, @NotNull final GeocacheLogType geocacheLogType, @NotNull final Date dateLogged, @NotNull final String note, final boolean publish, @Nullable final ImageData imageData, final boolean favoriteThisCache) {
+        return submit(new ApiCall<GeocacheLog>() {
+            @Override
+            public GeocacheLog call(@NotNull GeocachingApi api) throws GeocachingApiException {
+                return api.createFieldNoteAndPublish(cacheCode, geocacheLogType, dateLogged, note, publish, imageData, favoriteThisCache);
+            }
+        });
+    }
+
+    /**
+     * Create field note and publish them or store them to list of Field notes.
+     *
+     * @return pending result
+     * @see GeocachingApi#createFieldNoteAndPublish(FieldNote, boolean, ImageData, boolean)
+     */
+    @NotNull
+    public GeocachingApiFuture<GeocacheLog> createFieldNoteAndPublish(@NotNull final FieldNote fieldNote, final boolean publish, @Nullable final ImageData imageData, final boolean favoriteThisCache) {
+        return submit(new ApiCall<GeocacheLog>() {
+            @Override
+            public GeocacheLog call(@NotNull GeocachingApi api) throws GeocachingApiException {
+                return api.createFieldNoteAndPublish(fieldNote, publish, imageData, favoriteThisCache);
+            }
+        });
+    }
+
+    /**
+     * Store a personal note for specified geocache.
+     *
+     * @return pending result
+     * @see GeocachingApi#setGeocachePersonalNote(String, String)
+     */
+    @NotNull
+    public GeocachingApiFuture<Void> setGeocachePersonalNote(@NotNull final String cacheCode, @Nullable final String note) {
+        return submit(new ApiCall<Void>() {
+            @Override
+            public Void call(@NotNull GeocachingApi api) throws GeocachingApiException {
+                api.setGeocachePersonalNote(cacheCode, note);
+                return null;
+            }
+        });
+    }
+
+    /**
+     * Remove existing personal note from a specified geocache.
+     *
+     * @return pending result
+     * @see GeocachingApi#deleteCachePersonalNote(String)
+     */
+    @NotNull
+    public GeocachingApiFuture<Void> deleteCachePersonalNote(@NotNull final String cacheCode) {
+        return submit(new ApiCall<Void>() {
+            @Override
+            public Void call(@NotNull GeocachingApi api) throws GeocachingApiException {
+                api.deleteCachePersonalNote(cacheCode);
+                return null;
+            }
+        });
+    }
+
+    /**
+     * Get a list of trackable logs for given public trackable code.
+     *
+     * @return pending result
+     * @see GeocachingApi#getTrackableLogs(String, int, int)
+     */
+    @NotNull
+    public GeocachingApiFuture<List<TrackableLog>> getTrackableLogs(@NotNull final String trackableCode, final int startIndex, final int maxPerPage) {
+        return submit(new ApiCall<List<TrackableLog>>() {
+            @Override
+            public List<TrackableLog> call(@NotNull GeocachingApi api) throws GeocachingApiException {
+                return api.getTrackableLogs(trackableCode, startIndex, maxPerPage);
+            }
+        });
+    }
+
+    /**
+     * Get the API limits applied on currently logged user.
+     *
+     * @return pending result
+     */
+    @NotNull
+    public GeocachingApiFuture<ApiLimitsResponse> getApiLimits() {
+        return submit(new ApiCall<ApiLimitsResponse>() {
+            @Override
+            public ApiLimitsResponse call(@NotNull GeocachingApi api) throws GeocachingApiException {
+                return api.getApiLimits();
+            }
+        });
+    }
+
+    /**
+     * Get a list of users geocache logs.
+     *
+     * @return pending result
+     * @see GeocachingApi#getUsersGeocacheLogs(String, Date, Date, GeocacheLogType[], boolean, int, int)
+     */
+    @NotNull
+    public GeocachingApiFuture<List<GeocacheLog>> getUsersGeocacheLogs(@NotNull final String userName, @Nullable final Date startDate, @Nullable final Date endDate, @NotNull final GeocacheLogType[] logTypes, final boolean excludeArchived, final int startIndex, final int maxPerPage) {
+        return submit(new ApiCall<List<GeocacheLog>>() {
+            @Override
+            public List<GeocacheLog> call(@NotNull GeocachingApi api) throws GeocachingApiException {
+                return api.getUsersGeocacheLogs(userName, startDate, endDate, logTypes, excludeArchived, startIndex, maxPerPage);
+            }
+        });
+    }
+
+    /**
+     * Get a user's owned trackables.
+     *
+     * @return pending result
+     * @see GeocachingApi#getUsersTrackables(int, int, int, boolean)
+     */
+    @NotNull
+    public GeocachingApiFuture<List<Trackable>> getUsersTrackables(final int startIndex, final int maxPerPage, final int trackableLogCount, final boolean collectionOnly) {
+        return submit(new ApiCall<List<Trackable>>() {
+            @Override
+            public List<Trackable> call(@NotNull GeocachingApi api) throws GeocachingApiException {
+                return api.getUsersTrackables(startIndex, maxPerPage, trackableLogCount, collectionOnly);
+            }
+        });
+    }
+
+    /**
+     * Get a list of Bookmark lists for current user.
+     *
+     * @return pending result
+     */
+    @NotNull
+    public GeocachingApiFuture<List<BookmarkList>> getBookmarkListsForUser() {
+        return submit(new ApiCall<List<BookmarkList>>() {
+            @Override
+            public List<BookmarkList> call(@NotNull GeocachingApi api) throws GeocachingApiException {
+                return api.getBookmarkListsForUser();
+            }
+        });
+    }
+
+    /**
+     * Get a list of Bookmark lists for specified user id.
+     *
+     * @return pending result
+     * @see GeocachingApi#getBookmarkListsByUserId(int)
+     */
+    @NotNull
+    public GeocachingApiFuture<List<BookmarkList>> getBookmarkListsByUserId(final int userId) {
+        return submit(new ApiCall<List<BookmarkList>>() {
+            @Override
+            public List<BookmarkList> call(@NotNull GeocachingApi api) throws GeocachingApiException {
+                return api.getBookmarkListsByUserId(userId);
+            }
+        });
+    }
+
+    /**
+     * Retrieve a list of Bookmarked caches by a guid.
+     *
+     * @return pending result
+     * @see GeocachingApi#getBookmarkListByGuid(String)
+     */
+    @NotNull
+    public GeocachingApiFuture<List<Bookmark>> getBookmarkListByGuid(@NotNull final String guid) {
+        return submit(new ApiCall<List<Bookmark>>() {
+            @Override
+            public List<Bookmark> call(@NotNull GeocachingApi api) throws GeocachingApiException {
+                return api.getBookmarkListByGuid(guid);
+            }
+        });
+    }
+
+    /**
+     * Retrieve a list of Geocache Status.
+     *
+     * @return pending result
+     * @see GeocachingApi#getGeocacheStatus(Collection)
+     */
+    @NotNull
+    public GeocachingApiFuture<List<GeocacheStatus>> getGeocacheStatus(@NotNull final Collection<String> cacheCodes) {
+        return submit(new ApiCall<List<GeocacheStatus>>() {
+            @Override
+            public List<GeocacheStatus> call(@NotNull GeocachingApi api) throws GeocachingApiException {
+                return api.getGeocacheStatus(cacheCodes);
+            }
+        });
+    }
+
+    /**
+     * Add the geocaches to list of Bookmarked caches.
+     *
+     * @return pending result
+     * @see GeocachingApi#addGeocachesToBookmarkList(String, Collection)
+     */
+    @NotNull
+    public GeocachingApiFuture<Void> addGeocachesToBookmarkList(@NotNull final String guid, @NotNull final Collection<String> cacheCodes) {
+        return submit(new ApiCall<Void>() {
+            @Override
+            public Void call(@NotNull GeocachingApi api) throws GeocachingApiException {
+                api.addGeocachesToBookmarkList(guid, cacheCodes);
+                return null;
+            }
+        });
+    }
+
+    /**
+     * Add a favorite point to Geocache.
+     *
+     * @return pending result
+     * @see GeocachingApi#addFavoritePointToGeocache(String)
+     */
+    @NotNull
+    public GeocachingApiFuture<FavoritePointResult> addFavoritePointToGeocache(@NotNull final String cacheCode) {
+        return submit(new ApiCall<FavoritePointResult>() {
+            @Override
+            public FavoritePointResult call(@NotNull GeocachingApi api) throws GeocachingApiException {
+                return api.addFavoritePointToGeocache(cacheCode);
+            }
+        });
+    }
+
+    /**
+     * Remove a favorite point from Geocache.
+     *
+     * @return pending result
+     * @see GeocachingApi#removeFavoritePointFromGeocache(String)
+     */
+    @NotNull
+    public GeocachingApiFuture<FavoritePointResult> removeFavoritePointFromGeocache(@NotNull final String cacheCode) {
+        return submit(new ApiCall<FavoritePointResult>() {
+            @Override
+            public FavoritePointResult call(@NotNull GeocachingApi api) throws GeocachingApiException {
+                return api.removeFavoritePointFromGeocache(cacheCode);
+            }
+        });
+    }
+
+    /**
+     * Get a count of favorite points which user have.
+     *
+     * @return pending result
+     */
+    @NotNull
+    public GeocachingApiFuture<Integer> getUsersFavoritePoints() {
+        return submit(new ApiCall<Integer>() {
+            @Override
+            public Integer call(@NotNull GeocachingApi api) throws GeocachingApiException {
+                return api.getUsersFavoritePoints();
+            }
+        });
+    }
+
+    /**
+     * Get a list of users who favorited the Geocache.
+     *
+     * @return pending result
+     * @see GeocachingApi#getUsersWhoFavoritedGeocache(String)
+     */
+    @NotNull
+    public GeocachingApiFuture<List<User>> getUsersWhoFavoritedGeocache(@NotNull final String cacheCode) {
+        return submit(new ApiCall<List<User>>() {
+            @Override
+            public List<User> call(@NotNull GeocachingApi api) throws GeocachingApiException {
+                return api.getUsersWhoFavoritedGeocache(cacheCode);
+            }
+        });
+    }
+
+    /**
+     * Get a list of Geocache codes favorited by you.
+     *
+     * @return pending result
+     */
+    @NotNull
+    public GeocachingApiFuture<List<String>> getGeocacheCodesFavoritedByUser() {
+        return submit(new ApiCall<List<String>>() {
+            @Override
+            public List<String> call(@NotNull GeocachingApi api) throws GeocachingApiException {
+                return api.getGeocacheCodesFavoritedByUser();
+            }
+        });
+    }
+
+    /**
+     * Get a list of Geocaches favorited by you.
+     *
+     * @return pending result
+     */
+    @NotNull
+    public GeocachingApiFuture<List<FavoritedGeocache>> getGeocachesFavoritedByUser() {
+        return submit(new ApiCall<List<FavoritedGeocache>>() {
+            @Override
+            public List<FavoritedGeocache> call(@NotNull GeocachingApi api) throws GeocachingApiException {
+                return api.getGeocachesFavoritedByUser();
+            }
+        });
+    }
+
+    /**
+     * Get a list of images for Geocache.
+     *
+     * @return pending result
+     * @see GeocachingApi#getImagesForGeocache(String)
+     */
+    @NotNull
+    public GeocachingApiFuture<List<ImageData>> getImagesForGeocache(@NotNull final String cacheCode) {
+        return submit(new ApiCall<List<ImageData>>() {
+            @Override
+            public List<ImageData> call(@NotNull GeocachingApi api) throws GeocachingApiException {
+                return api.getImagesForGeocache(cacheCode);
+            }
+        });
+    }
+
+    @NotNull
+    private <V> GeocachingApiFuture<V> submit(@NotNull ApiCall<V> call) {
+        GeocachingApiFuture<V> future = new GeocachingApiFuture<V>(api, call);
+        executor.execute(future.task());
+        return future;
+    }
+}
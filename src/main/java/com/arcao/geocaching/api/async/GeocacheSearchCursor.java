@@ -0,0 +1,202 @@
+package com.arcao.geocaching.api.async;
+
+import com.arcao.geocaching.api.GeocachingApi;
+import com.arcao.geocaching.api.async.GeocachingApiFuture.ApiCall;
+import com.arcao.geocaching.api.data.Geocache;
+import com.arcao.geocaching.api.data.GeocacheLimits;
+import com.arcao.geocaching.api.data.SearchForGeocachesRequest;
+import com.arcao.geocaching.api.data.SearchForGeocachesResponse;
+import com.arcao.geocaching.api.exception.GeocachingApiException;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.Closeable;
+import java.util.Collections;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.Executor;
+
+/**
+ * Cursor returning Geocaches found by a search one by one. The first page is retrieved by
+ * SearchForGeocaches call, next pages by GetMoreGeocaches calls.
+ * <p>
+ * When an executor is given, the next page is downloaded in the background while the current
+ * page is consumed, so at most two pages are held in memory. The cursor stops when
+ * TotalMatchingCaches are retrieved, an empty page is returned or the Geocache limit
+ * ({@link GeocacheLimits#geocacheLeft()}) is exhausted.
+ * <p>
+ * The cursor isn't thread-safe, it should be consumed by a single thread. The used
+ * {@link GeocachingApi} instance must not be used for an other search at the same time,
+ * GetMoreGeocaches continues the last search made with the session.
+ *
+ * @author arcao
+ * @since 2.1
+ */
+public class GeocacheSearchCursor implements Closeable {
+    @NotNull private final GeocachingApi api;
+    @NotNull private final SearchForGeocachesRequest request;
+    @Nullable private final Executor executor;
+
+    @NotNull private List<Geocache> page = Collections.emptyList();
+    private int pageIndex = 0;
+    private int retrieved = 0;
+
+    private int totalMatchingCaches = 0;
+    @Nullable private GeocacheLimits geocacheLimits = null;
+
+    @Nullable private GeocachingApiFuture<SearchForGeocachesResponse> nextPage;
+
+    /**
+     * Create a new cursor and start the search. Pages are downloaded in the calling thread when
+     * {@link #hasNext()} needs them.
+     *
+     * @param api     Geocaching API used to search
+     * @param request search request, maxPerPage is used as page size
+     */
+    public GeocacheSearchCursor(@NotNull GeocachingApi api, @NotNull SearchForGeocachesRequest request) {
+        this(api, request, null);
+    }
+
+    /**
+     * Create a new cursor and start the search. Pages are downloaded in advance using the executor.
+     *
+     * @param api      Geocaching API used to search
+     * @param request  search request, maxPerPage is used as page size
+     * @param executor executor used to download pages, if null pages are downloaded in the calling
+     *                 thread when {@link #hasNext()} needs them
+     */
+    public GeocacheSearchCursor(@NotNull GeocachingApi api, @NotNull final SearchForGeocachesRequest request, @Nullable Executor executor) {
+        this.api = api;
+        this.request = request;
+        this.executor = executor;
+
+        nextPage = schedule(new ApiCall<SearchForGeocachesResponse>() {
+            @Override
+            public SearchForGeocachesResponse call(@NotNull GeocachingApi api) throws GeocachingApiException {
+                return api.searchForGeocachesResponse(request);
+            }
+        });
+    }
+
+    /**
+     * Check if there is a next Geocache. Waits for the next page if required.
+     *
+     * @return true if there is a next Geocache
+     * @throws GeocachingApiException If error occurs during retrieving the next page
+     */
+    public boolean hasNext() throws GeocachingApiException {
+        while (pageIndex >= page.size()) {
+            if (!fetchNextPage())
+                return false;
+        }
+        return true;
+    }
+
+    /**
+     * Return a next Geocache. Waits for the next page if required.
+     *
+     * @return next Geocache
+     * @throws GeocachingApiException If error occurs during retrieving the next page
+     * @throws NoSuchElementException If there isn't any other Geocache
+     */
+    @NotNull
+    public Geocache next() throws GeocachingApiException {
+        if (!hasNext())
+            throw new NoSuchElementException();
+
+        return page.get(pageIndex++);
+    }
+
+    /**
+     * Returns the count of all geocaches matching the search criteria. The value is known after
+     * the first page is retrieved, until then it returns <tt>0</tt>.
+     *
+     * @return count of geocaches found
+     */
+    public int totalMatchingCaches() {
+        return totalMatchingCaches;
+    }
+
+    /**
+     * Returns the cache limits received with the last retrieved page.
+     *
+     * @return cache limits or null
+     */
+    @Nullable
+    public GeocacheLimits geocacheLimits() {
+        return geocacheLimits;
+    }
+
+    /**
+     * Stop the cursor. A page download in progress is cancelled.
+     */
+    @Override
+    public void close() {
+        if (nextPage != null) {
+            nextPage.cancel(true);
+            nextPage = null;
+        }
+
+        page = Collections.emptyList();
+        pageIndex = 0;
+    }
+
+    private boolean fetchNextPage() throws GeocachingApiException {
+        GeocachingApiFuture<SearchForGeocachesResponse> future = nextPage;
+        if (future == null)
+            return false;
+
+        nextPage = null;
+
+        // release the consumed page before waiting for the next one
+        page = Collections.emptyList();
+        pageIndex = 0;
+
+        SearchForGeocachesResponse response;
+        try {
+            if (executor == null)
+                future.task().run();
+
+            response = future.getResult();
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new GeocachingApiException("Interrupted while waiting for a next page.", e);
+        }
+
+        page = response.geocaches();
+        retrieved += page.size();
+        totalMatchingCaches = response.totalMatchingCaches();
+        if (response.geocacheLimits() != null)
+            geocacheLimits = response.geocacheLimits();
+
+        if (hasMorePages()) {
+            final int startIndex = retrieved;
+            nextPage = schedule(new ApiCall<SearchForGeocachesResponse>() {
+                @Override
+                public SearchForGeocachesResponse call(@NotNull GeocachingApi api) throws GeocachingApiException {
+                    return api.getMoreGeocachesResponse(request, startIndex);
+                }
+            });
+        }
+
+        return true;
+    }
+
+    private boolean hasMorePages() {
+        if (page.isEmpty() || retrieved >= totalMatchingCaches)
+            return false;
+
+        return geocacheLimits == null || geocacheLimits.geocacheLeft() > 0;
+    }
+
+    @NotNull
+    private GeocachingApiFuture<SearchForGeocachesResponse> schedule(@NotNull ApiCall<SearchForGeocachesResponse> call) {
+        GeocachingApiFuture<SearchForGeocachesResponse> future = new GeocachingApiFuture<SearchForGeocachesResponse>(api, call);
+        if (executor != null)
+            executor.execute(future.task());
+
+        return future;
+    }
+}
@@ -0,0 +1,27 @@
+package com.arcao.geocaching.api.async;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Callback notified when an asynchronous Geocaching API call completes.
+ *
+ * @param <V> type of result
+ * @author arcao
+ * @since 2.1
+ */
+public interface GeocachingApiCallback<V> {
+    /**
+     * Called when the call finished successfully.
+     *
+     * @param result result of the call, can be null when the method returns nothing
+     */
+    void onSuccess(V result);
+
+    /**
+     * Called when the call failed or was cancelled.
+     *
+     * @param t cause of failure, usually instance of
+     *          {@link com.arcao.geocaching.api.exception.GeocachingApiException}
+     */
+    void onFailure(@NotNull Throwable t);
+}
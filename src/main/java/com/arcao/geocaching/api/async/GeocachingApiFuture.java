@@ -0,0 +1,204 @@
+package com.arcao.geocaching.api.async;
+
+import com.arcao.geocaching.api.GeocachingApi;
+import com.arcao.geocaching.api.data.GeocacheLimits;
+import com.arcao.geocaching.api.exception.GeocachingApiException;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Pending result of an asynchronous Geocaching API call. Besides the result it carries
+ * the Geocache limits and the count of found Geocaches received with the same response,
+ * so the values can't be mixed up with other calls running at the same time.
+ *
+ * @param <V> type of result
+ * @author arcao
+ * @since 2.1
+ */
+public class GeocachingApiFuture<V> implements Future<V> {
+    private static final Logger logger = LoggerFactory.getLogger(GeocachingApiFuture.class);
+
+    private final FutureTask<V> task;
+    private final List<GeocachingApiCallback<? super V>> callbacks = new ArrayList<GeocachingApiCallback<? super V>>();
+
+    @Nullable private volatile GeocacheLimits geocacheLimits = null;
+    private volatile int searchResultsFound = 0;
+
+    GeocachingApiFuture(@NotNull final GeocachingApi api, @NotNull final ApiCall<V> call) {
+        task = new FutureTask<V>(new Callable<V>() {
+            @Override
+            public V call() throws Exception {
+                V result = call.call(api);
+
+                geocacheLimits = api.getLastGeocacheLimits();
+                searchResultsFound = api.getLastSearchResultsFound();
+
+                return result;
+            }
+        }) {
+            @Override
+            protected void done() {
+                fireCallbacks();
+            }
+        };
+    }
+
+    /**
+     * Register a callback called when this call completes. If the call is already
+     * completed, the callback is called immediately in the current thread, otherwise
+     * it is called in the thread which executed the call.
+     *
+     * @param callback callback to register
+     * @return this future
+     */
+    public GeocachingApiFuture<V> addCallback(@NotNull GeocachingApiCallback<? super V> callback) {
+        synchronized (callbacks) {
+            if (!task.isDone()) {
+                callbacks.add(callback);
+                return this;
+            }
+        }
+
+        fireCallback(callback);
+        return this;
+    }
+
+    /**
+     * Wait for the call and return its result. Unlike {@link #get()} the Geocaching API
+     * exception thrown by the call is not wrapped.
+     *
+     * @return result of the call
+     * @throws GeocachingApiException If the call failed with Geocaching API error
+     * @throws InterruptedException   If the current thread was interrupted while waiting
+     */
+    public V getResult() throws GeocachingApiException, InterruptedException {
+        try {
+            return task.get();
+        } catch (ExecutionException e) {
+            throw unwrap(e);
+        }
+    }
+
+    /**
+     * Return the cache limits received with this call. The value is available when
+     * the call is done, for calls which aren't Geocache request it returns null.
+     *
+     * @return cache limits or null
+     */
+    @Nullable
+    public GeocacheLimits geocacheLimits() {
+        return geocacheLimits;
+    }
+
+    /**
+     * Return count of Geocaches found by this call. The value is available when the
+     * call is done, for calls which aren't Geocache request it returns <tt>0</tt>.
+     *
+     * @return count of Geocaches found
+     */
+    public int searchResultsFound() {
+        return searchResultsFound;
+    }
+
+    @Override
+    public boolean cancel(boolean mayInterruptIfRunning) {
+        return task.cancel(mayInterruptIfRunning);
+    }
+
+    @Override
+    public boolean isCancelled() {
+        return task.isCancelled();
+    }
+
+    @Override
+    public boolean isDone() {
+        return task.isDone();
+    }
+
+    @Override
+    public V get() throws InterruptedException, ExecutionException {
+        return task.get();
+    }
+
+    @Override
+    public V get(long timeout, @NotNull TimeUnit unit) throws InterruptedException, ExecutionException, TimeoutException {
+        return task.get(timeout, unit);
+    }
+
+    Runnable task() {
+        return task;
+    }
+
+    private void fireCallbacks() {
+        List<GeocachingApiCallback<? super V>> pending;
+        synchronized (callbacks) {
+            pending = new ArrayList<GeocachingApiCallback<? super V>>(callbacks);
+            callbacks.clear();
+        }
+
+        for (GeocachingApiCallback<? super V> callback : pending) {
+            fireCallback(callback);
+        }
+    }
+
+    private void fireCallback(GeocachingApiCallback<? super V> callback) {
+        try {
+            V result;
+            try {
+                result = task.get();
+            } catch (ExecutionException e) {
+                callback.onFailure(e.getCause() != null ? e.getCause() : e);
+                return;
+            } catch (CancellationException e) {
+                callback.onFailure(e);
+                return;
+            } catch (InterruptedException e) {
+                // can't happen, the task is already done
+                Thread.currentThread().interrupt();
+                callback.onFailure(e);
+                return;
+            }
+
+            callback.onSuccess(result);
+        } catch (RuntimeException e) {
+            logger.error("Callback failed: " + e.toString(), e);
+        }
+    }
+
+    private static GeocachingApiException unwrap(ExecutionException e) {
+        Throwable cause = e.getCause();
+
+        if (cause instanceof GeocachingApiException)
+            return (GeocachingApiException) cause;
+
+        if (cause instanceof RuntimeException)
+            throw (RuntimeException) cause;
+
+        if (cause instanceof Error)
+            throw (Error) cause;
+
+        return new GeocachingApiException(String.valueOf(cause), cause);
+    }
+
+    /**
+     * A single blocking call executed on the wrapped {@link GeocachingApi}.
+     *
+     * @param <V> type of result
+     */
+    interface ApiCall<V> {
+        V call(@NotNull GeocachingApi api) throws GeocachingApiException;
+    }
+}
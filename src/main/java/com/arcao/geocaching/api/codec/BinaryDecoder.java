@@ -0,0 +1,794 @@
+package com.arcao.geocaching.api.codec;
+
+import com.arcao.geocaching.api.data.Geocache;
+import com.arcao.geocaching.api.data.GeocacheLog;
+import com.arcao.geocaching.api.data.ImageData;
+import com.arcao.geocaching.api.data.Trackable;
+import com.arcao.geocaching.api.data.TrackableLog;
+import com.arcao.geocaching.api.data.User;
+import com.arcao.geocaching.api.data.UserWaypoint;
+import com.arcao.geocaching.api.data.Waypoint;
+import com.arcao.geocaching.api.data.coordinates.Coordinates;
+import com.arcao.geocaching.api.data.type.AttributeType;
+import com.arcao.geocaching.api.data.type.ContainerType;
+import com.arcao.geocaching.api.data.type.GeocacheLogType;
+import com.arcao.geocaching.api.data.type.GeocacheType;
+import com.arcao.geocaching.api.data.type.MemberType;
+import com.arcao.geocaching.api.data.type.TrackableLogType;
+import com.arcao.geocaching.api.data.type.WaypointType;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.EnumSet;
+import java.util.List;
+
+import static com.arcao.geocaching.api.codec.BinaryFormat.DATE_ABSOLUTE;
+import static com.arcao.geocaching.api.codec.BinaryFormat.DATE_BASE;
+import static com.arcao.geocaching.api.codec.BinaryFormat.DATE_DELTA;
+import static com.arcao.geocaching.api.codec.BinaryFormat.DATE_NULL;
+import static com.arcao.geocaching.api.codec.BinaryFormat.MAX_SYMBOLS;
+import static com.arcao.geocaching.api.codec.BinaryFormat.MAX_SYMBOL_LENGTH;
+import static com.arcao.geocaching.api.codec.BinaryFormat.RATING_FLOAT;
+import static com.arcao.geocaching.api.codec.BinaryFormat.STRING_INLINE;
+import static com.arcao.geocaching.api.codec.BinaryFormat.STRING_NULL;
+import static com.arcao.geocaching.api.codec.BinaryFormat.STRING_SYMBOL;
+import static com.arcao.geocaching.api.codec.BinaryFormat.UTF8;
+
+/**
+ * Reads data objects written by {@link BinaryEncoder}. Objects are read in the order of writing,
+ * the type of the next object can be checked by {@link #nextType()}:
+ * <pre>
+ * BinaryDecoder decoder = new BinaryDecoder(is);
+ * while (decoder.hasNext()) {
+ *     Geocache geocache = decoder.readGeocache();
+ * }
+ * </pre>
+ * The decoder reads the stream in blocks, it must not be read by anything else. The decoder is
+ * not thread safe.
+ *
+ * @author arcao
+ * @see BinaryFormat
+ * @since 2.1
+ */
+public final class BinaryDecoder implements Closeable {
+    private static final int NO_TYPE = -1;
+    private static final int NO_OBJECT = -1;
+
+    private final InputStream in;
+    private final List<String> symbols = new ArrayList<String>();
+    // enum constants resolved from symbols, indexed as symbols
+    private Enum<?>[] enumConstants = new Enum<?>[64];
+    private boolean headerRead;
+    private int nextType = NO_TYPE;
+
+    // body of the current record
+    private byte[] data = new byte[4096];
+    private int pos;
+    private int limit;
+    private long dateBase;
+
+    public BinaryDecoder(@NotNull InputStream in) {
+        this.in = new BufferedInputStream(in);
+    }
+
+    /**
+     * Returns true if the stream contains another object.
+     *
+     * @return true if another object follows, otherwise false
+     * @throws IOException If I/O error occurs or the stream is not in the binary format
+     */
+    public boolean hasNext() throws IOException {
+        return peekType() != NO_TYPE;
+    }
+
+    /**
+     * Get a type of the next object.
+     *
+     * @return class of the next object, e.g. <tt>Geocache.class</tt>, or null at the end of the
+     * stream or if the object type is unknown
+     * @throws IOException If I/O error occurs or the stream is not in the binary format
+     */
+    @Nullable
+    public Class<?> nextType() throws IOException {
+        int type = peekType();
+
+        switch (type) {
+            case BinaryFormat.TYPE_GEOCACHE:
+                return Geocache.class;
+            case BinaryFormat.TYPE_GEOCACHE_LOG:
+                return GeocacheLog.class;
+            case BinaryFormat.TYPE_TRACKABLE:
+                return Trackable.class;
+            case BinaryFormat.TYPE_TRACKABLE_LOG:
+                return TrackableLog.class;
+            case BinaryFormat.TYPE_USER:
+                return User.class;
+            case BinaryFormat.TYPE_IMAGE_DATA:
+                return ImageData.class;
+            case BinaryFormat.TYPE_WAYPOINT:
+                return Waypoint.class;
+            case BinaryFormat.TYPE_USER_WAYPOINT:
+                return UserWaypoint.class;
+            default:
+                return null;
+        }
+    }
+
+    @NotNull
+    public Geocache readGeocache() throws IOException {
+        beginRecord(BinaryFormat.TYPE_GEOCACHE);
+        return geocacheFields();
+    }
+
+    @NotNull
+    public GeocacheLog readGeocacheLog() throws IOException {
+        beginRecord(BinaryFormat.TYPE_GEOCACHE_LOG);
+        return geocacheLogFields();
+    }
+
+    @NotNull
+    public Trackable readTrackable() throws IOException {
+        beginRecord(BinaryFormat.TYPE_TRACKABLE);
+        return trackableFields();
+    }
+
+    @NotNull
+    public TrackableLog readTrackableLog() throws IOException {
+        beginRecord(BinaryFormat.TYPE_TRACKABLE_LOG);
+        return trackableLogFields();
+    }
+
+    @NotNull
+    public User readUser() throws IOException {
+        beginRecord(BinaryFormat.TYPE_USER);
+        return userFields();
+    }
+
+    @NotNull
+    public ImageData readImageData() throws IOException {
+        beginRecord(BinaryFormat.TYPE_IMAGE_DATA);
+        return imageDataFields();
+    }
+
+    @NotNull
+    public Waypoint readWaypoint() throws IOException {
+        beginRecord(BinaryFormat.TYPE_WAYPOINT);
+        return waypointFields();
+    }
+
+    @NotNull
+    public UserWaypoint readUserWaypoint() throws IOException {
+        beginRecord(BinaryFormat.TYPE_USER_WAYPOINT);
+        return userWaypointFields();
+    }
+
+    /**
+     * Skip the next object of any type.
+     *
+     * @throws IOException If I/O error occurs or the stream is not in the binary format
+     */
+    public void skip() throws IOException {
+        beginRecord(peekType());
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+
+    private int peekType() throws IOException {
+        if (nextType != NO_TYPE)
+            return nextType;
+
+        if (!headerRead) {
+            int first = in.read();
+            if (first == -1)
+                return NO_TYPE;
+
+            if (first != BinaryFormat.MAGIC[0] || in.read() != BinaryFormat.MAGIC[1] || in.read() != BinaryFormat.MAGIC[2])
+                throw new IOException("Not a binary geocaching data stream.");
+
+            int version = (int) streamVarint();
+            if (version != BinaryFormat.VERSION)
+                throw new IOException("Unsupported binary format version: " + version);
+            headerRead = true;
+        }
+
+        int first = in.read();
+        if (first == -1)
+            return NO_TYPE;
+
+        // type is a varint, so far always a single byte
+        nextType = first < 0x80 ? first : (int) ((first & 0x7F) | (streamVarint() << 7));
+        return nextType;
+    }
+
+    // reads symbols and the object of the next record, leaves its fields to read
+    private void beginRecord(int type) throws IOException {
+        int nextType = peekType();
+        if (nextType == NO_TYPE)
+            throw new EOFException("No more objects in the stream.");
+        if (nextType != type)
+            throw new IOException("Expected object type " + type + " but was " + nextType);
+        this.nextType = NO_TYPE;
+
+        int count = checkLength(streamVarint());
+        if (count > MAX_SYMBOLS - symbols.size())
+            throw new IOException("Too many symbols in the stream.");
+
+        for (int i = 0; i < count; i++) {
+            long length = streamVarint();
+            // a symbol is at most MAX_SYMBOL_LENGTH chars, each takes at most 3 bytes in UTF-8
+            if (length > MAX_SYMBOL_LENGTH * 3)
+                throw new IOException("Invalid symbol length: " + length);
+
+            byte[] bytes = new byte[(int) length];
+            readFully(bytes, bytes.length);
+            symbols.add(new String(bytes, UTF8));
+        }
+
+        long length = streamVarint();
+        if (length == 0)
+            throw new IOException("Null object in the stream.");
+
+        int size = checkLength(length - 1);
+        readBody(size);
+        pos = 0;
+        limit = size;
+        dateBase = DATE_BASE;
+    }
+
+    private Geocache geocacheFields() throws IOException {
+        Geocache.Builder builder = Geocache.builder()
+                .id(zigzag())
+                .code(string())
+                .name(string())
+                .coordinates(coordinates())
+                .geocacheType(enumConstant(GeocacheType.class, null))
+                .containerType(enumConstant(ContainerType.class, ContainerType.Other))
+                .difficulty(rating())
+                .terrain(rating())
+                .favoritePoints((int) zigzag())
+                .imageCount((int) zigzag())
+                .trackableCount((int) zigzag());
+
+        long flags = varint();
+        builder.archived(flag(flags, 0))
+                .available(flag(flags, 1))
+                .favoritable(flag(flags, 2))
+                .favoritedByUser(flag(flags, 3))
+                .foundByUser(flag(flags, 4))
+                .premium(flag(flags, 5))
+                .recommended(flag(flags, 6))
+                .longDescriptionHtml(flag(flags, 7))
+                .shortDescriptionHtml(flag(flags, 8));
+
+        builder.placedBy(string())
+                .countryName(string())
+                .stateName(string())
+                .url(string())
+                .guid(string())
+                .personalNote(string())
+                .createDate(date())
+                .placeDate(date())
+                .publishDate(date())
+                .lastUpdateDate(date())
+                .lastVisitDate(date())
+                .foundDate(date())
+                .owner(user())
+                .hint(string())
+                .shortDescription(string())
+                .longDescription(string())
+                .attributes(attributes());
+
+        int count = size();
+        if (count != NO_OBJECT) {
+            List<Waypoint> waypoints = new ArrayList<Waypoint>(count);
+            for (int i = 0; i < count; i++) {
+                waypoints.add(waypoint());
+            }
+            builder.waypoints(waypoints);
+        }
+
+        count = size();
+        if (count != NO_OBJECT) {
+            List<UserWaypoint> userWaypoints = new ArrayList<UserWaypoint>(count);
+            for (int i = 0; i < count; i++) {
+                userWaypoints.add(userWaypoint());
+            }
+            builder.userWaypoints(userWaypoints);
+        }
+
+        count = size();
+        if (count != NO_OBJECT) {
+            List<Trackable> trackables = new ArrayList<Trackable>(count);
+            for (int i = 0; i < count; i++) {
+                trackables.add(trackable());
+            }
+            builder.trackables(trackables);
+        }
+
+        builder.images(images());
+
+        count = size();
+        if (count != NO_OBJECT) {
+            List<GeocacheLog> geocacheLogs = new ArrayList<GeocacheLog>(count);
+            for (int i = 0; i < count; i++) {
+                geocacheLogs.add(geocacheLog());
+            }
+            builder.geocacheLogs(geocacheLogs);
+        }
+
+        return builder.build();
+    }
+
+    @Nullable
+    private GeocacheLog geocacheLog() throws IOException {
+        int parentLimit = beginObject();
+        if (parentLimit == NO_OBJECT)
+            return null;
+
+        GeocacheLog log = geocacheLogFields();
+        endObject(parentLimit);
+        return log;
+    }
+
+    private GeocacheLog geocacheLogFields() throws IOException {
+        GeocacheLog.Builder builder = GeocacheLog.builder()
+                .id(zigzag())
+                .cacheCode(string())
+                .created(date())
+                .visited(date())
+                .logType(enumConstant(GeocacheLogType.class, GeocacheLogType.Unknown))
+                .author(user())
+                .text(string())
+                .images(images())
+                .updatedCoordinates(coordinates());
+
+        long flags = varint();
+        return builder.approved(flag(flags, 0))
+                .archived(flag(flags, 1))
+                .undeletable(flag(flags, 2))
+                .build();
+    }
+
+    @Nullable
+    private Trackable trackable() throws IOException {
+        int parentLimit = beginObject();
+        if (parentLimit == NO_OBJECT)
+            return null;
+
+        Trackable trackable = trackableFields();
+        endObject(parentLimit);
+        return trackable;
+    }
+
+    private Trackable trackableFields() throws IOException {
+        Trackable.Builder builder = Trackable.builder()
+                .id(zigzag())
+                .name(string())
+                .goal(string())
+                .description(string())
+                .trackableTypeName(string())
+                .trackableTypeImage(string())
+                .currentCacheCode(string())
+                .trackingNumber(string())
+                .created(date())
+                .owner(user())
+                .currentOwner(user());
+
+        long flags = varint();
+        builder.allowedToBeCollected(flag(flags, 0))
+                .inCollection(flag(flags, 1))
+                .archived(flag(flags, 2));
+
+        int count = size();
+        if (count != NO_OBJECT) {
+            List<TrackableLog> trackableLogs = new ArrayList<TrackableLog>(count);
+            for (int i = 0; i < count; i++) {
+                trackableLogs.add(trackableLog());
+            }
+            builder.trackableLogs(trackableLogs);
+        }
+
+        return builder.images(images()).build();
+    }
+
+    @Nullable
+    private TrackableLog trackableLog() throws IOException {
+        int parentLimit = beginObject();
+        if (parentLimit == NO_OBJECT)
+            return null;
+
+        TrackableLog log = trackableLogFields();
+        endObject(parentLimit);
+        return log;
+    }
+
+    private TrackableLog trackableLogFields() throws IOException {
+        TrackableLog.Builder builder = TrackableLog.builder()
+                .id((int) zigzag())
+                .cacheId((int) zigzag())
+                .code(string())
+                .guid(string())
+                .type(enumConstant(TrackableLogType.class, TrackableLogType.WriteNote))
+                .created(date())
+                .visited(date())
+                .loggedBy(user())
+                .text(string())
+                .url(string())
+                .images(images())
+                .updatedCoordinates(coordinates());
+
+        long flags = varint();
+        return builder.archived(flag(flags, 0)).build();
+    }
+
+    @Nullable
+    private User user() throws IOException {
+        int parentLimit = beginObject();
+        if (parentLimit == NO_OBJECT)
+            return null;
+
+        User user = userFields();
+        endObject(parentLimit);
+        return user;
+    }
+
+    private User userFields() throws IOException {
+        User.Builder builder = User.builder()
+                .id(zigzag())
+                .userName(string())
+                .publicGuid(string())
+                .avatarUrl(string())
+                .homeCoordinates(coordinates());
+
+        long flags = varint();
+        return builder.admin(flag(flags, 0))
+                .memberType(enumConstant(MemberType.class, null))
+                .findCount((int) zigzag())
+                .hideCount((int) zigzag())
+                .galleryImageCount((int) zigzag())
+                .build();
+    }
+
+    @Nullable
+    private List<ImageData> images() throws IOException {
+        int count = size();
+        if (count == NO_OBJECT)
+            return null;
+
+        List<ImageData> images = new ArrayList<ImageData>(count);
+        for (int i = 0; i < count; i++) {
+            images.add(imageData());
+        }
+        return images;
+    }
+
+    @Nullable
+    private ImageData imageData() throws IOException {
+        int parentLimit = beginObject();
+        if (parentLimit == NO_OBJECT)
+            return null;
+
+        ImageData imageData = imageDataFields();
+        endObject(parentLimit);
+        return imageData;
+    }
+
+    private ImageData imageDataFields() throws IOException {
+        ImageData.Builder builder = ImageData.builder()
+                .name(string())
+                .description(string())
+                .url(string())
+                .mobileUrl(string())
+                .thumbUrl(string())
+                .fileName(string())
+                .created(date());
+
+        long length = varint();
+        if (length != 0) {
+            int size = checkLength(length - 1);
+            checkAvailable(size);
+            builder.imageData(Arrays.copyOfRange(data, pos, pos + size));
+            pos += size;
+        }
+
+        return builder.build();
+    }
+
+    @Nullable
+    private Waypoint waypoint() throws IOException {
+        int parentLimit = beginObject();
+        if (parentLimit == NO_OBJECT)
+            return null;
+
+        Waypoint waypoint = waypointFields();
+        endObject(parentLimit);
+        return waypoint;
+    }
+
+    private Waypoint waypointFields() throws IOException {
+        return Waypoint.builder()
+                .waypointCode(string())
+                .name(string())
+                .note(string())
+                .coordinates(coordinates())
+                .waypointType(enumConstant(WaypointType.class, WaypointType.ReferencePoint))
+                .time(date())
+                .build();
+    }
+
+    @Nullable
+    private UserWaypoint userWaypoint() throws IOException {
+        int parentLimit = beginObject();
+        if (parentLimit == NO_OBJECT)
+            return null;
+
+        UserWaypoint userWaypoint = userWaypointFields();
+        endObject(parentLimit);
+        return userWaypoint;
+    }
+
+    private UserWaypoint userWaypointFields() throws IOException {
+        UserWaypoint.Builder builder = UserWaypoint.builder()
+                .id(zigzag())
+                .userId((int) zigzag())
+                .cacheCode(string())
+                .description(string())
+                .coordinates(coordinates())
+                .date(date());
+
+        long flags = varint();
+        return builder.correctedCoordinate(flag(flags, 0)).build();
+    }
+
+    // returns the limit of the parent object or NO_OBJECT for null
+    private int beginObject() throws IOException {
+        long length = varint();
+        if (length == 0)
+            return NO_OBJECT;
+
+        int size = checkLength(length - 1);
+        checkAvailable(size);
+
+        int parentLimit = limit;
+        limit = pos + size;
+        dateBase = DATE_BASE;
+        return parentLimit;
+    }
+
+    private void endObject(int parentLimit) {
+        // skip fields of newer versions
+        pos = limit;
+        limit = parentLimit;
+        dateBase = DATE_BASE;
+    }
+
+    // returns a count of elements or NO_OBJECT for null
+    private int size() throws IOException {
+        long size = varint();
+        if (size == 0)
+            return NO_OBJECT;
+
+        // each element takes at least one byte
+        if (size - 1 > limit - pos)
+            throw new IOException("Truncated object.");
+        return (int) (size - 1);
+    }
+
+    @Nullable
+    private EnumSet<AttributeType> attributes() throws IOException {
+        int count = size();
+        if (count == NO_OBJECT)
+            return null;
+
+        EnumSet<AttributeType> attributes = EnumSet.noneOf(AttributeType.class);
+        for (int i = 0; i < count; i++) {
+            AttributeType attribute = enumConstant(AttributeType.class, null);
+            if (attribute != null)
+                attributes.add(attribute);
+        }
+        return attributes;
+    }
+
+    @Nullable
+    private Coordinates coordinates() throws IOException {
+        if (varint() == 0)
+            return null;
+
+        double latitude = Double.longBitsToDouble(fixed64());
+        double longitude = Double.longBitsToDouble(fixed64());
+        return Coordinates.create(latitude, longitude);
+    }
+
+    private float rating() throws IOException {
+        if (pos >= limit)
+            return 0;
+
+        int value = data[pos++] & 0xFF;
+        if (value != RATING_FLOAT)
+            return value / 2f;
+
+        return Float.intBitsToFloat((int) (fixed64Part(4)));
+    }
+
+    @Nullable
+    private Date date() throws IOException {
+        long value = varint();
+        if (value == DATE_NULL)
+            return null;
+
+        long time;
+        if (value == DATE_ABSOLUTE) {
+            time = fixed64();
+        } else {
+            value -= DATE_DELTA;
+            long delta = unzigzag(value >>> 1);
+            time = dateBase + ((value & 1) != 0 ? delta * 1000 : delta);
+        }
+
+        dateBase = time;
+        return new Date(time);
+    }
+
+    @Nullable
+    private String string() throws IOException {
+        long value = varint();
+        if (value == STRING_NULL)
+            return null;
+
+        if (value == STRING_INLINE)
+            return inlineString();
+
+        return symbols.get(checkSymbol(value - STRING_SYMBOL));
+    }
+
+    private String inlineString() throws IOException {
+        int length = checkLength(varint());
+        checkAvailable(length);
+        String result = new String(data, pos, length, UTF8);
+        pos += length;
+        return result;
+    }
+
+    @SuppressWarnings("unchecked")
+    private <E extends Enum<E>> E enumConstant(Class<E> type, @Nullable E unknown) throws IOException {
+        long value = varint();
+        if (value == STRING_NULL)
+            return null;
+
+        if (value == STRING_INLINE)
+            return valueOf(type, inlineString(), unknown);
+
+        int index = checkSymbol(value - STRING_SYMBOL);
+        if (index >= enumConstants.length)
+            enumConstants = Arrays.copyOf(enumConstants, Math.max(enumConstants.length * 2, index + 1));
+
+        Enum<?> cached = enumConstants[index];
+        if (cached != null && cached.getDeclaringClass() == type)
+            return (E) cached;
+
+        E result = valueOf(type, symbols.get(index), null);
+        if (result == null)
+            return unknown;
+
+        enumConstants[index] = result;
+        return result;
+    }
+
+    private static <E extends Enum<E>> E valueOf(Class<E> type, String name, @Nullable E unknown) {
+        try {
+            return Enum.valueOf(type, name);
+        } catch (IllegalArgumentException e) {
+            // a constant added in a newer version
+            return unknown;
+        }
+    }
+
+    private int checkSymbol(long index) throws IOException {
+        if (index < 0 || index >= symbols.size())
+            throw new IOException("Unknown symbol: " + index);
+        return (int) index;
+    }
+
+    private static boolean flag(long flags, int index) {
+        return (flags & (1L << index)) != 0;
+    }
+
+    // missing fields at the end of an object are read as zero
+    private long varint() throws IOException {
+        long result = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            if (pos >= limit)
+                return result;
+
+            byte b = data[pos++];
+            result |= (long) (b & 0x7F) << shift;
+            if (b >= 0)
+                return result;
+        }
+        throw new IOException("Malformed varint.");
+    }
+
+    private long zigzag() throws IOException {
+        return unzigzag(varint());
+    }
+
+    private long fixed64() throws IOException {
+        return fixed64Part(8);
+    }
+
+    private long fixed64Part(int count) throws IOException {
+        checkAvailable(count);
+
+        long result = 0;
+        for (int i = 0; i < count; i++) {
+            result = (result << 8) | (data[pos++] & 0xFF);
+        }
+        return result;
+    }
+
+    private void checkAvailable(int count) throws IOException {
+        if (count > limit - pos)
+            throw new IOException("Truncated object.");
+    }
+
+    private long streamVarint() throws IOException {
+        long result = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            int b = in.read();
+            if (b == -1)
+                throw new EOFException("Unexpected end of the stream.");
+
+            result |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0)
+                return result;
+        }
+        throw new IOException("Malformed varint.");
+    }
+
+    // the buffer grows with bytes really read, so a corrupt length fails with EOF instead of
+    // allocating it up front
+    private void readBody(int size) throws IOException {
+        int offset = 0;
+        while (offset < size) {
+            if (offset == data.length)
+                data = Arrays.copyOf(data, (int) Math.min(size, data.length * 2L));
+
+            int count = in.read(data, offset, Math.min(size, data.length) - offset);
+            if (count == -1)
+                throw new EOFException("Unexpected end of the stream.");
+            offset += count;
+        }
+    }
+
+    private void readFully(byte[] buffer, int length) throws IOException {
+        int offset = 0;
+        while (offset < length) {
+            int count = in.read(buffer, offset, length - offset);
+            if (count == -1)
+                throw new EOFException("Unexpected end of the stream.");
+            offset += count;
+        }
+    }
+
+    private static int checkLength(long length) throws IOException {
+        if (length < 0 || length > Integer.MAX_VALUE)
+            throw new IOException("Invalid length: " + length);
+        return (int) length;
+    }
+
+    private static long unzigzag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+}
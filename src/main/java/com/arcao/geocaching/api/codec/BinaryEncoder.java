@@ -0,0 +1,568 @@
+package com.arcao.geocaching.api.codec;
+
+import com.arcao.geocaching.api.data.Geocache;
+import com.arcao.geocaching.api.data.GeocacheLog;
+import com.arcao.geocaching.api.data.ImageData;
+import com.arcao.geocaching.api.data.Trackable;
+import com.arcao.geocaching.api.data.TrackableLog;
+import com.arcao.geocaching.api.data.User;
+import com.arcao.geocaching.api.data.UserWaypoint;
+import com.arcao.geocaching.api.data.Waypoint;
+import com.arcao.geocaching.api.data.coordinates.Coordinates;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static com.arcao.geocaching.api.codec.BinaryFormat.DATE_ABSOLUTE;
+import static com.arcao.geocaching.api.codec.BinaryFormat.DATE_BASE;
+import static com.arcao.geocaching.api.codec.BinaryFormat.DATE_DELTA;
+import static com.arcao.geocaching.api.codec.BinaryFormat.DATE_NULL;
+import static com.arcao.geocaching.api.codec.BinaryFormat.MAX_DATE_DELTA;
+import static com.arcao.geocaching.api.codec.BinaryFormat.MAX_SYMBOLS;
+import static com.arcao.geocaching.api.codec.BinaryFormat.MAX_SYMBOL_LENGTH;
+import static com.arcao.geocaching.api.codec.BinaryFormat.RATING_FLOAT;
+import static com.arcao.geocaching.api.codec.BinaryFormat.STRING_INLINE;
+import static com.arcao.geocaching.api.codec.BinaryFormat.STRING_NULL;
+import static com.arcao.geocaching.api.codec.BinaryFormat.STRING_SYMBOL;
+import static com.arcao.geocaching.api.codec.BinaryFormat.UTF8;
+
+/**
+ * Writes Geocaches, logs, Trackables and other data objects to a stream in a compact binary
+ * format readable by {@link BinaryDecoder}. Objects are written one by one, so a stream can hold
+ * any count of objects without keeping them in memory. Repeated short strings like user names,
+ * countries and enum constants are written once per stream, unique values like GUIDs, URLs and
+ * cache codes are always written inline.<br>
+ * <br>
+ * The encoder is not thread safe.
+ *
+ * @author arcao
+ * @see BinaryFormat
+ * @since 2.1
+ */
+public final class BinaryEncoder implements Flushable, Closeable {
+    private final OutputStream out;
+    private final Map<String, Integer> symbols = new HashMap<String, Integer>();
+    private final List<String> newSymbols = new ArrayList<String>();
+    private final Buffer head = new Buffer(256);
+    private final Buffer body = new Buffer(4096);
+    private boolean headerWritten;
+    // base of the next date delta, kept per object
+    private long dateBase;
+
+    public BinaryEncoder(@NotNull OutputStream out) {
+        this.out = out;
+    }
+
+    public void write(@NotNull Geocache geocache) throws IOException {
+        beginRecord();
+        geocache(geocache);
+        endRecord(BinaryFormat.TYPE_GEOCACHE);
+    }
+
+    public void write(@NotNull GeocacheLog log) throws IOException {
+        beginRecord();
+        geocacheLog(log);
+        endRecord(BinaryFormat.TYPE_GEOCACHE_LOG);
+    }
+
+    public void write(@NotNull Trackable trackable) throws IOException {
+        beginRecord();
+        trackable(trackable);
+        endRecord(BinaryFormat.TYPE_TRACKABLE);
+    }
+
+    public void write(@NotNull TrackableLog log) throws IOException {
+        beginRecord();
+        trackableLog(log);
+        endRecord(BinaryFormat.TYPE_TRACKABLE_LOG);
+    }
+
+    public void write(@NotNull User user) throws IOException {
+        beginRecord();
+        user(user);
+        endRecord(BinaryFormat.TYPE_USER);
+    }
+
+    public void write(@NotNull ImageData imageData) throws IOException {
+        beginRecord();
+        imageData(imageData);
+        endRecord(BinaryFormat.TYPE_IMAGE_DATA);
+    }
+
+    public void write(@NotNull Waypoint waypoint) throws IOException {
+        beginRecord();
+        waypoint(waypoint);
+        endRecord(BinaryFormat.TYPE_WAYPOINT);
+    }
+
+    public void write(@NotNull UserWaypoint userWaypoint) throws IOException {
+        beginRecord();
+        userWaypoint(userWaypoint);
+        endRecord(BinaryFormat.TYPE_USER_WAYPOINT);
+    }
+
+    @Override
+    public void flush() throws IOException {
+        out.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        out.close();
+    }
+
+    private void beginRecord() {
+        body.length = 0;
+        newSymbols.clear();
+    }
+
+    private void endRecord(int type) throws IOException {
+        head.length = 0;
+        if (!headerWritten) {
+            head.bytes(BinaryFormat.MAGIC, 0, BinaryFormat.MAGIC.length);
+            head.varint(BinaryFormat.VERSION);
+            headerWritten = true;
+        }
+
+        head.varint(type);
+        head.varint(newSymbols.size());
+        for (String symbol : newSymbols) {
+            byte[] bytes = symbol.getBytes(UTF8);
+            head.varint(bytes.length);
+            head.bytes(bytes, 0, bytes.length);
+        }
+
+        out.write(head.data, 0, head.length);
+        out.write(body.data, 0, body.length);
+    }
+
+    private void geocache(Geocache geocache) {
+        int start = beginObject();
+        body.zigzag(geocache.id());
+        string(geocache.code());
+        string(geocache.name());
+        coordinates(geocache.coordinates());
+        enumConstant(geocache.geocacheType());
+        enumConstant(geocache.containerType());
+        rating(geocache.difficulty());
+        rating(geocache.terrain());
+        body.zigzag(geocache.favoritePoints());
+        body.zigzag(geocache.imageCount());
+        body.zigzag(geocache.trackableCount());
+        flags(geocache.archived(), geocache.available(), geocache.favoritable(), geocache.favoritedByUser(),
+                geocache.foundByUser(), geocache.premium(), geocache.recommended(),
+                geocache.longDescriptionHtml(), geocache.shortDescriptionHtml());
+        symbol(geocache.placedBy());
+        symbol(geocache.countryName());
+        symbol(geocache.stateName());
+        string(geocache.url());
+        string(geocache.guid());
+        string(geocache.personalNote());
+        date(geocache.createDate());
+        date(geocache.placeDate());
+        date(geocache.publishDate());
+        date(geocache.lastUpdateDate());
+        date(geocache.lastVisitDate());
+        date(geocache.foundDate());
+        user(geocache.owner());
+        string(geocache.hint());
+        string(geocache.shortDescription());
+        string(geocache.longDescription());
+        enumConstants(geocache.attributes());
+
+        List<Waypoint> waypoints = geocache.waypoints();
+        if (size(waypoints)) {
+            for (Waypoint waypoint : waypoints) {
+                waypoint(waypoint);
+            }
+        }
+
+        List<UserWaypoint> userWaypoints = geocache.userWaypoints();
+        if (size(userWaypoints)) {
+            for (UserWaypoint userWaypoint : userWaypoints) {
+                userWaypoint(userWaypoint);
+            }
+        }
+
+        List<Trackable> trackables = geocache.trackables();
+        if (size(trackables)) {
+            for (Trackable trackable : trackables) {
+                trackable(trackable);
+            }
+        }
+
+        images(geocache.images());
+
+        List<GeocacheLog> geocacheLogs = geocache.geocacheLogs();
+        if (size(geocacheLogs)) {
+            for (GeocacheLog log : geocacheLogs) {
+                geocacheLog(log);
+            }
+        }
+        endObject(start);
+    }
+
+    private void geocacheLog(@Nullable GeocacheLog log) {
+        if (log == null) {
+            body.varint(0);
+            return;
+        }
+
+        int start = beginObject();
+        body.zigzag(log.id());
+        string(log.cacheCode());
+        date(log.created());
+        date(log.visited());
+        enumConstant(log.logType());
+        user(log.author());
+        string(log.text());
+        images(log.images());
+        coordinates(log.updatedCoordinates());
+        flags(log.approved(), log.archived(), log.undeletable());
+        endObject(start);
+    }
+
+    private void trackable(@Nullable Trackable trackable) {
+        if (trackable == null) {
+            body.varint(0);
+            return;
+        }
+
+        int start = beginObject();
+        body.zigzag(trackable.id());
+        string(trackable.name());
+        string(trackable.goal());
+        string(trackable.description());
+        symbol(trackable.trackableTypeName());
+        symbol(trackable.trackableTypeImage());
+        string(trackable.currentCacheCode());
+        string(trackable.trackingNumber());
+        date(trackable.created());
+        user(trackable.owner());
+        user(trackable.currentOwner());
+        flags(trackable.allowedToBeCollected(), trackable.inCollection(), trackable.archived());
+
+        List<TrackableLog> trackableLogs = trackable.trackableLogs();
+        if (size(trackableLogs)) {
+            for (TrackableLog log : trackableLogs) {
+                trackableLog(log);
+            }
+        }
+
+        images(trackable.images());
+        endObject(start);
+    }
+
+    private void trackableLog(@Nullable TrackableLog log) {
+        if (log == null) {
+            body.varint(0);
+            return;
+        }
+
+        int start = beginObject();
+        body.zigzag(log.id());
+        body.zigzag(log.cacheId());
+        string(log.code());
+        string(log.guid());
+        enumConstant(log.type());
+        date(log.created());
+        date(log.visited());
+        user(log.loggedBy());
+        string(log.text());
+        string(log.url());
+        images(log.images());
+        coordinates(log.updatedCoordinates());
+        flags(log.archived());
+        endObject(start);
+    }
+
+    private void user(@Nullable User user) {
+        if (user == null) {
+            body.varint(0);
+            return;
+        }
+
+        int start = beginObject();
+        body.zigzag(user.id());
+        symbol(user.userName());
+        string(user.publicGuid());
+        string(user.avatarUrl());
+        coordinates(user.homeCoordinates());
+        flags(user.admin());
+        enumConstant(user.memberType());
+        body.zigzag(user.findCount());
+        body.zigzag(user.hideCount());
+        body.zigzag(user.galleryImageCount());
+        endObject(start);
+    }
+
+    private void images(@Nullable List<ImageData> images) {
+        if (size(images)) {
+            for (ImageData imageData : images) {
+                imageData(imageData);
+            }
+        }
+    }
+
+    private void imageData(@Nullable ImageData imageData) {
+        if (imageData == null) {
+            body.varint(0);
+            return;
+        }
+
+        int start = beginObject();
+        string(imageData.name());
+        string(imageData.description());
+        string(imageData.url());
+        string(imageData.mobileUrl());
+        string(imageData.thumbUrl());
+        string(imageData.fileName());
+        date(imageData.created());
+
+        byte[] data = imageData.imageData();
+        if (data == null) {
+            body.varint(0);
+        } else {
+            body.varint(data.length + 1L);
+            body.bytes(data, 0, data.length);
+        }
+        endObject(start);
+    }
+
+    private void waypoint(@Nullable Waypoint waypoint) {
+        if (waypoint == null) {
+            body.varint(0);
+            return;
+        }
+
+        int start = beginObject();
+        string(waypoint.waypointCode());
+        string(waypoint.name());
+        string(waypoint.note());
+        coordinates(waypoint.coordinates());
+        enumConstant(waypoint.waypointType());
+        date(waypoint.time());
+        endObject(start);
+    }
+
+    private void userWaypoint(@Nullable UserWaypoint userWaypoint) {
+        if (userWaypoint == null) {
+            body.varint(0);
+            return;
+        }
+
+        int start = beginObject();
+        body.zigzag(userWaypoint.id());
+        body.zigzag(userWaypoint.userId());
+        string(userWaypoint.cacheCode());
+        string(userWaypoint.description());
+        coordinates(userWaypoint.coordinates());
+        date(userWaypoint.date());
+        flags(userWaypoint.correctedCoordinate());
+        endObject(start);
+    }
+
+    // returns a start of the object, the length is inserted by endObject
+    private int beginObject() {
+        dateBase = DATE_BASE;
+        return body.length;
+    }
+
+    private void endObject(int start) {
+        body.insertVarint(start, body.length - start + 1L);
+        // dates following a nested object start from the base again
+        dateBase = DATE_BASE;
+    }
+
+    // writes count + 1 or 0 for null, returns true if elements follow
+    private boolean size(@Nullable Collection<?> collection) {
+        if (collection == null) {
+            body.varint(0);
+            return false;
+        }
+
+        body.varint(collection.size() + 1L);
+        return !collection.isEmpty();
+    }
+
+    private void flags(boolean... flags) {
+        long value = 0;
+        for (int i = 0; i < flags.length; i++) {
+            if (flags[i])
+                value |= 1L << i;
+        }
+        body.varint(value);
+    }
+
+    private void coordinates(@Nullable Coordinates coordinates) {
+        if (coordinates == null) {
+            body.varint(0);
+            return;
+        }
+
+        body.varint(1);
+        body.fixed64(Double.doubleToLongBits(coordinates.latitude()));
+        body.fixed64(Double.doubleToLongBits(coordinates.longitude()));
+    }
+
+    private void rating(float value) {
+        float doubled = value * 2;
+        if (doubled >= 0 && doubled < RATING_FLOAT && doubled == (int) doubled && Float.floatToIntBits(value) != Float.floatToIntBits(-0f)) {
+            body.writeByte((int) doubled);
+        } else {
+            body.writeByte(RATING_FLOAT);
+            body.fixed32(Float.floatToIntBits(value));
+        }
+    }
+
+    private void date(@Nullable Date date) {
+        if (date == null) {
+            body.varint(DATE_NULL);
+            return;
+        }
+
+        long time = date.getTime();
+        long delta = time - dateBase;
+        if ((time > dateBase && delta < 0) || (time < dateBase && delta > 0) || delta >= MAX_DATE_DELTA || delta <= -MAX_DATE_DELTA) {
+            body.varint(DATE_ABSOLUTE);
+            body.fixed64(time);
+        } else if (delta % 1000 == 0) {
+            body.varint(DATE_DELTA + ((zigzag(delta / 1000) << 1) | 1));
+        } else {
+            body.varint(DATE_DELTA + (zigzag(delta) << 1));
+        }
+        dateBase = time;
+    }
+
+    private void string(@Nullable String value) {
+        if (value == null) {
+            body.varint(STRING_NULL);
+            return;
+        }
+
+        body.varint(STRING_INLINE);
+        byte[] bytes = value.getBytes(UTF8);
+        body.varint(bytes.length);
+        body.bytes(bytes, 0, bytes.length);
+    }
+
+    private void symbol(@Nullable String value) {
+        if (value == null || value.length() > MAX_SYMBOL_LENGTH) {
+            string(value);
+            return;
+        }
+
+        Integer index = symbols.get(value);
+        if (index == null) {
+            // the table is full, keep the memory of long streams bounded
+            if (symbols.size() == MAX_SYMBOLS) {
+                string(value);
+                return;
+            }
+
+            index = symbols.size();
+            symbols.put(value, index);
+            newSymbols.add(value);
+        }
+        body.varint(STRING_SYMBOL + (long) index);
+    }
+
+    private void enumConstant(@Nullable Enum<?> value) {
+        symbol(value != null ? value.name() : null);
+    }
+
+    private void enumConstants(@Nullable Collection<? extends Enum<?>> values) {
+        if (size(values)) {
+            for (Enum<?> value : values) {
+                enumConstant(value);
+            }
+        }
+    }
+
+    private static long zigzag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    private static final class Buffer {
+        byte[] data;
+        int length;
+
+        Buffer(int capacity) {
+            data = new byte[capacity];
+        }
+
+        void writeByte(int value) {
+            ensureCapacity(1);
+            data[length++] = (byte) value;
+        }
+
+        void bytes(byte[] bytes, int offset, int count) {
+            ensureCapacity(count);
+            System.arraycopy(bytes, offset, data, length, count);
+            length += count;
+        }
+
+        void varint(long value) {
+            ensureCapacity(10);
+            while ((value & ~0x7FL) != 0) {
+                data[length++] = (byte) ((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            data[length++] = (byte) value;
+        }
+
+        void zigzag(long value) {
+            varint(BinaryEncoder.zigzag(value));
+        }
+
+        void fixed32(int value) {
+            ensureCapacity(4);
+            data[length++] = (byte) (value >>> 24);
+            data[length++] = (byte) (value >>> 16);
+            data[length++] = (byte) (value >>> 8);
+            data[length++] = (byte) value;
+        }
+
+        void fixed64(long value) {
+            fixed32((int) (value >>> 32));
+            fixed32((int) value);
+        }
+
+        // inserts a varint at the position, moving the following bytes
+        void insertVarint(int position, long value) {
+            int size = 1;
+            for (long v = value >>> 7; v != 0; v >>>= 7) {
+                size++;
+            }
+
+            ensureCapacity(size);
+            System.arraycopy(data, position, data, position + size, length - position);
+            length += size;
+
+            while ((value & ~0x7FL) != 0) {
+                data[position++] = (byte) ((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            data[position] = (byte) value;
+        }
+
+        private void ensureCapacity(int count) {
+            if (length + count > data.length) {
+                byte[] newData = new byte[Math.max(data.length * 2, length + count)];
+                System.arraycopy(data, 0, newData, 0, length);
+                data = newData;
+            }
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package com.arcao.geocaching.api.codec;
+
+import java.nio.charset.Charset;
+
+/**
+ * Constants of the binary format shared by {@link BinaryEncoder} and {@link BinaryDecoder}.<br>
+ * <br>
+ * A stream starts with the magic bytes <tt>GCB</tt> and the format version followed by records.
+ * Each record consists of:
+ * <ul>
+ * <li>a record type byte
+ * <li>a count of new symbols and the symbols, each as a length and UTF-8 bytes
+ * <li>an object
+ * </ul>
+ * An object is its length + 1 (<tt>0</tt> = null) followed by its fields in a fixed order. Newer
+ * versions may only append fields, readers skip unread bytes of an object and use zero for fields
+ * missing at the end of an object. Values are encoded as:
+ * <ul>
+ * <li>integers as unsigned or zigzag varints
+ * <li>booleans as bits of a varint per object
+ * <li>doubles as 8 bytes
+ * <li>difficulty and terrain as a byte of the value * 2, or {@link #RATING_FLOAT} and 4 bytes
+ * <li>dates as a varint of a delta to the previous date of the object, in seconds if possible; the
+ * first date of an object and a date following a nested object are relative to
+ * {@link #DATE_BASE}
+ * <li>strings as <tt>0</tt> = null, <tt>1</tt> = length and UTF-8 bytes follow, or a symbol
+ * index + 2
+ * <li>enum constants as a symbol of the constant name, so new constants don't change the format
+ * <li>lists and sets as a count + 1 (<tt>0</tt> = null) followed by elements
+ * </ul>
+ * Symbols are short repeated strings (user names, countries, enum names). They are numbered in
+ * the order of definition and shared by all following records of the stream. A stream defines at
+ * most {@link #MAX_SYMBOLS} symbols, further strings are written inline.
+ *
+ * @author arcao
+ * @since 2.1
+ */
+final class BinaryFormat {
+    static final byte[] MAGIC = {'G', 'C', 'B'};
+    static final int VERSION = 1;
+
+    static final int TYPE_GEOCACHE = 1;
+    static final int TYPE_GEOCACHE_LOG = 2;
+    static final int TYPE_TRACKABLE = 3;
+    static final int TYPE_TRACKABLE_LOG = 4;
+    static final int TYPE_USER = 5;
+    static final int TYPE_IMAGE_DATA = 6;
+    static final int TYPE_WAYPOINT = 7;
+    static final int TYPE_USER_WAYPOINT = 8;
+
+    static final int STRING_NULL = 0;
+    static final int STRING_INLINE = 1;
+    static final int STRING_SYMBOL = 2;
+
+    static final int DATE_NULL = 0;
+    static final int DATE_ABSOLUTE = 1;
+    static final int DATE_DELTA = 2;
+    // deltas which can be zigzag encoded and shifted without overflow
+    static final long MAX_DATE_DELTA = 1L << 60;
+    // base of the first date in an object, 2000-01-01T00:00:00Z
+    static final long DATE_BASE = 946684800000L;
+
+    static final int RATING_FLOAT = 0xFF;
+
+    // longer strings are written inline only
+    static final int MAX_SYMBOL_LENGTH = 128;
+    // size limit of the symbol table of a stream
+    static final int MAX_SYMBOLS = 4096;
+
+    static final Charset UTF8 = Charset.forName("UTF-8");
+
+    private BinaryFormat() {
+    }
+}
@@ -1,11 +1,13 @@
 package com.arcao.geocaching.api.data;
 
 import com.arcao.geocaching.api.data.coordinates.Coordinates;
+import com.arcao.geocaching.api.data.type.AttributeMask;
 import com.arcao.geocaching.api.data.type.AttributeType;
 import com.arcao.geocaching.api.data.type.ContainerType;
 import com.arcao.geocaching.api.data.type.GeocacheType;
 import com.google.auto.value.AutoValue;
 
+import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 import java.io.Serializable;
@@ -17,12 +19,14 @@ import java.util.List;
 public abstract class Geocache implements Serializable {
     private static final long serialVersionUID = 7938069911500506011L;
 
+    private transient AttributeMask attributeMask;
+
     // ResultQuality.LITE
     public abstract boolean archived();
 
     public abstract boolean available();
 
-    public abstract GeocacheType geocacheType();
+    @Nullable public abstract GeocacheType geocacheType();
 
     public abstract boolean favoritable();
 
@@ -58,7 +62,7 @@ public abstract class Geocache implements Serializable {
 
     public abstract String name();
 
-    public abstract User owner();
+    @Nullable public abstract User owner();
 
     public abstract String placedBy();
 
@@ -68,7 +72,7 @@ public abstract class Geocache implements Serializable {
 
     public abstract int trackableCount(); // only LITE and FULL
 
-    public abstract Date placeDate();
+    @Nullable public abstract Date placeDate();
 
     public abstract String url();
 
@@ -105,12 +109,30 @@ public abstract class Geocache implements Serializable {
 
     @Nullable public abstract String stateName();
 
+    /**
+     * Get attributes as a bitmask. The mask is created on the first call.
+     *
+     * @return attributes mask, {@link AttributeMask#EMPTY} if attributes are not available
+     */
+    @NotNull
+    public AttributeMask attributeMask() {
+        AttributeMask mask = attributeMask;
+        if (mask == null) {
+            mask = AttributeMask.of(attributes());
+            attributeMask = mask;
+        }
+        return mask;
+    }
+
     public static Builder builder() {
         return new AutoValue_Geocache.Builder().longDescriptionHtml(false).shortDescriptionHtml(false);
     }
 
     @AutoValue.Builder
     public abstract static class Builder {
+        private AttributeMask attributeMask;
+        private EnumSet<AttributeType> attributeMaskSet;
+
         public abstract Builder archived(boolean archived);
 
         public abstract Builder available(boolean available);
@@ -187,6 +209,21 @@ public abstract class Geocache implements Serializable {
 
         public abstract Builder attributes(EnumSet<AttributeType> attributes);
 
+        /**
+         * Set attributes from a mask. The built Geocache returns the same mask from
+         * {@link Geocache#attributeMask()}, unless attributes are replaced later.
+         *
+         * @param attributeMask attributes mask
+         * @return this builder
+         * @since 2.1
+         */
+        public Builder attributeMask(@NotNull AttributeMask attributeMask) {
+            EnumSet<AttributeType> attributes = attributeMask.toEnumSet();
+            this.attributeMask = attributeMask;
+            attributeMaskSet = attributes;
+            return attributes(attributes);
+        }
+
         public abstract Builder countryName(String countryName);
 
         public abstract Builder createDate(Date createDate);
@@ -195,7 +232,17 @@ public abstract class Geocache implements Serializable {
 
         public abstract Builder stateName(String stateName);
 
-        public abstract Geocache build();
+        abstract Geocache autoBuild();
+
+        public Geocache build() {
+            Geocache geocache = autoBuild();
+
+            // attributes were not replaced after attributeMask()
+            if (attributeMask != null && geocache.attributes() == attributeMaskSet)
+                geocache.attributeMask = attributeMask;
+
+            return geocache;
+        }
     }
 }
 
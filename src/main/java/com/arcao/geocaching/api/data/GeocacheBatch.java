@@ -0,0 +1,890 @@
+package com.arcao.geocaching.api.data;
+
+import com.arcao.geocaching.api.GeocacheSink;
+import com.arcao.geocaching.api.data.coordinates.Coordinates;
+import com.arcao.geocaching.api.data.coordinates.DistanceMode;
+import com.arcao.geocaching.api.data.type.AttributeMask;
+import com.arcao.geocaching.api.data.type.AttributeType;
+import com.arcao.geocaching.api.data.type.ContainerType;
+import com.arcao.geocaching.api.data.type.GeocacheType;
+import com.arcao.geocaching.api.util.GeocachingUtils;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Column oriented storage of the basic Geocache properties. Every property is kept in a primitive
+ * array indexed by a row, repeated strings are stored once in a dictionary. Compared to a list of
+ * {@link Geocache} objects, a batch uses a small fraction of memory and a scan over a column
+ * doesn't touch other objects.<br>
+ * <br>
+ * A batch is filled by a {@link Builder}, which is also a {@link GeocacheSink}, so it can be passed
+ * directly to the search methods of the API. Requesting only {@link #fields()} skips decoding of
+ * the other properties:
+ * <pre>
+ * GeocacheBatch.Builder builder = GeocacheBatch.builder();
+ * api.searchForGeocaches(SearchForGeocachesRequest.builder()
+ *         .fields(GeocacheBatch.fields())
+ *         ...
+ *         .build(), builder);
+ * GeocacheBatch batch = builder.build();
+ * </pre>
+ * A batch is immutable and safe to share between threads.
+ *
+ * @author arcao
+ * @since 2.1
+ */
+public final class GeocacheBatch implements Serializable {
+    private static final long serialVersionUID = -3184729106671554082L;
+
+    /** Status bit of {@link Geocache#archived()} */
+    public static final int ARCHIVED = 1;
+    /** Status bit of {@link Geocache#available()} */
+    public static final int AVAILABLE = 1 << 1;
+    /** Status bit of {@link Geocache#premium()} */
+    public static final int PREMIUM = 1 << 2;
+    /** Status bit of {@link Geocache#foundByUser()} */
+    public static final int FOUND_BY_USER = 1 << 3;
+    /** Status bit of {@link Geocache#favoritedByUser()} */
+    public static final int FAVORITED_BY_USER = 1 << 4;
+    /** Status bit of {@link Geocache#favoritable()} */
+    public static final int FAVORITABLE = 1 << 5;
+    /** Status bit of {@link Geocache#recommended()} */
+    public static final int RECOMMENDED = 1 << 6;
+
+    /** Value of {@link #placeDate(int)} if the place date is unknown */
+    public static final long NO_DATE = Long.MIN_VALUE;
+
+    /** Orders rows by {@link #id(int)} */
+    public static final RowComparator BY_ID = new RowComparator() {
+        @Override
+        public int compare(GeocacheBatch batch, int row1, int row2) {
+            return compareLongs(batch.ids[row1], batch.ids[row2]);
+        }
+    };
+
+    /** Orders rows by {@link #difficulty(int)} */
+    public static final RowComparator BY_DIFFICULTY = new RowComparator() {
+        @Override
+        public int compare(GeocacheBatch batch, int row1, int row2) {
+            return Float.compare(batch.difficulties[row1], batch.difficulties[row2]);
+        }
+    };
+
+    /** Orders rows by {@link #terrain(int)} */
+    public static final RowComparator BY_TERRAIN = new RowComparator() {
+        @Override
+        public int compare(GeocacheBatch batch, int row1, int row2) {
+            return Float.compare(batch.terrains[row1], batch.terrains[row2]);
+        }
+    };
+
+    /** Orders rows by {@link #favoritePoints(int)} */
+    public static final RowComparator BY_FAVORITE_POINTS = new RowComparator() {
+        @Override
+        public int compare(GeocacheBatch batch, int row1, int row2) {
+            return compareLongs(batch.favoritePoints[row1], batch.favoritePoints[row2]);
+        }
+    };
+
+    /** Orders rows by {@link #placeDate(int)}, rows without the place date first */
+    public static final RowComparator BY_PLACE_DATE = new RowComparator() {
+        @Override
+        public int compare(GeocacheBatch batch, int row1, int row2) {
+            return compareLongs(batch.placeDates[row1], batch.placeDates[row2]);
+        }
+    };
+
+    private static final EnumSet<GeocacheField> FIELDS = EnumSet.of(
+            GeocacheField.ID,
+            GeocacheField.CODE,
+            GeocacheField.NAME,
+            GeocacheField.COORDINATES,
+            GeocacheField.GEOCACHE_TYPE,
+            GeocacheField.CONTAINER_TYPE,
+            GeocacheField.DIFFICULTY,
+            GeocacheField.TERRAIN,
+            GeocacheField.FAVORITE_POINTS,
+            GeocacheField.ARCHIVED,
+            GeocacheField.AVAILABLE,
+            GeocacheField.PREMIUM,
+            GeocacheField.FOUND_BY_USER,
+            GeocacheField.FAVORITED_BY_USER,
+            GeocacheField.FAVORITABLE,
+            GeocacheField.RECOMMENDED,
+            GeocacheField.ATTRIBUTES,
+            GeocacheField.PLACED_BY,
+            GeocacheField.COUNTRY_NAME,
+            GeocacheField.STATE_NAME,
+            GeocacheField.PLACE_DATE
+    );
+
+    private static final GeocacheType[] GEOCACHE_TYPES = GeocacheType.values();
+    private static final ContainerType[] CONTAINER_TYPES = ContainerType.values();
+    private static final int ATTRIBUTE_WORDS = AttributeMask.WORDS;
+    private static final int NO_STRING = -1;
+
+    private final int size;
+    private final long[] ids;
+    private final double[] latitudes;
+    private final double[] longitudes;
+    private final float[] difficulties;
+    private final float[] terrains;
+    private final int[] favoritePoints;
+    // geocache type ordinal + 1 (0 = unknown) in the low byte, container type ordinal in the high byte
+    private final short[] types;
+    private final byte[] statuses;
+    // AttributeMask words per row
+    private final long[] attributes;
+    private final long[] placeDates;
+    private final String[] names;
+    // indexes to the dictionary, NO_STRING for null
+    private final int[] placedBy;
+    private final int[] countryNames;
+    private final int[] stateNames;
+    private final String[] dictionary;
+
+    private GeocacheBatch(Builder builder) {
+        size = builder.size;
+        ids = Arrays.copyOf(builder.ids, size);
+        latitudes = Arrays.copyOf(builder.latitudes, size);
+        longitudes = Arrays.copyOf(builder.longitudes, size);
+        difficulties = Arrays.copyOf(builder.difficulties, size);
+        terrains = Arrays.copyOf(builder.terrains, size);
+        favoritePoints = Arrays.copyOf(builder.favoritePoints, size);
+        types = Arrays.copyOf(builder.types, size);
+        statuses = Arrays.copyOf(builder.statuses, size);
+        attributes = Arrays.copyOf(builder.attributes, size * ATTRIBUTE_WORDS);
+        placeDates = Arrays.copyOf(builder.placeDates, size);
+        names = Arrays.copyOf(builder.names, size);
+        placedBy = Arrays.copyOf(builder.placedBy, size);
+        countryNames = Arrays.copyOf(builder.countryNames, size);
+        stateNames = Arrays.copyOf(builder.stateNames, size);
+        dictionary = builder.dictionary.toArray(new String[builder.dictionary.size()]);
+    }
+
+    private GeocacheBatch(GeocacheBatch source, int[] rows) {
+        size = rows.length;
+        ids = new long[size];
+        latitudes = new double[size];
+        longitudes = new double[size];
+        difficulties = new float[size];
+        terrains = new float[size];
+        favoritePoints = new int[size];
+        types = new short[size];
+        statuses = new byte[size];
+        attributes = new long[size * ATTRIBUTE_WORDS];
+        placeDates = new long[size];
+        names = new String[size];
+        placedBy = new int[size];
+        countryNames = new int[size];
+        stateNames = new int[size];
+        // rows share the dictionary, unused strings are kept
+        dictionary = source.dictionary;
+
+        for (int i = 0; i < size; i++) {
+            int row = source.checkRow(rows[i]);
+            ids[i] = source.ids[row];
+            latitudes[i] = source.latitudes[row];
+            longitudes[i] = source.longitudes[row];
+            difficulties[i] = source.difficulties[row];
+            terrains[i] = source.terrains[row];
+            favoritePoints[i] = source.favoritePoints[row];
+            types[i] = source.types[row];
+            statuses[i] = source.statuses[row];
+            System.arraycopy(source.attributes, row * ATTRIBUTE_WORDS, attributes, i * ATTRIBUTE_WORDS, ATTRIBUTE_WORDS);
+            placeDates[i] = source.placeDates[row];
+            names[i] = source.names[row];
+            placedBy[i] = source.placedBy[row];
+            countryNames[i] = source.countryNames[row];
+            stateNames[i] = source.stateNames[row];
+        }
+    }
+
+    /**
+     * Get a set of Geocache properties stored in a batch. Other properties don't have to be
+     * parsed.
+     *
+     * @return new set of properties
+     * @see SearchForGeocachesRequest#fields()
+     */
+    public static EnumSet<GeocacheField> fields() {
+        return EnumSet.copyOf(FIELDS);
+    }
+
+    /**
+     * Create a new empty Builder.
+     *
+     * @return builder
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Get a count of rows.
+     *
+     * @return count of rows
+     */
+    public int size() {
+        return size;
+    }
+
+    public long id(int row) {
+        return ids[checkRow(row)];
+    }
+
+    /**
+     * Get a cache code computed from the cache id.
+     *
+     * @param row row index
+     * @return cache code
+     * @see GeocachingUtils#cacheIdToCacheCode(long)
+     */
+    @NotNull
+    public String code(int row) {
+        return GeocachingUtils.cacheIdToCacheCode(ids[checkRow(row)]);
+    }
+
+    @Nullable
+    public String name(int row) {
+        return names[checkRow(row)];
+    }
+
+    public double latitude(int row) {
+        return latitudes[checkRow(row)];
+    }
+
+    public double longitude(int row) {
+        return longitudes[checkRow(row)];
+    }
+
+    @Nullable
+    public GeocacheType geocacheType(int row) {
+        int ordinal = types[checkRow(row)] & 0xFF;
+        return ordinal != 0 ? GEOCACHE_TYPES[ordinal - 1] : null;
+    }
+
+    @NotNull
+    public ContainerType containerType(int row) {
+        return CONTAINER_TYPES[(types[checkRow(row)] >>> 8) & 0xFF];
+    }
+
+    public float difficulty(int row) {
+        return difficulties[checkRow(row)];
+    }
+
+    public float terrain(int row) {
+        return terrains[checkRow(row)];
+    }
+
+    public int favoritePoints(int row) {
+        return favoritePoints[checkRow(row)];
+    }
+
+    /**
+     * Get status bits of the row, a combination of {@link #ARCHIVED}, {@link #AVAILABLE},
+     * {@link #PREMIUM}, {@link #FOUND_BY_USER}, {@link #FAVORITED_BY_USER}, {@link #FAVORITABLE}
+     * and {@link #RECOMMENDED}.
+     *
+     * @param row row index
+     * @return status bits
+     */
+    public int status(int row) {
+        return statuses[checkRow(row)] & 0xFF;
+    }
+
+    /**
+     * Get status bits of a Geocache, the same as {@link #status(int)} of a row added from it.
+     *
+     * @param geocache Geocache
+     * @return status bits
+     */
+    public static int statusOf(@NotNull Geocache geocache) {
+        int status = 0;
+        if (geocache.archived())
+            status |= ARCHIVED;
+        if (geocache.available())
+            status |= AVAILABLE;
+        if (geocache.premium())
+            status |= PREMIUM;
+        if (geocache.foundByUser())
+            status |= FOUND_BY_USER;
+        if (geocache.favoritedByUser())
+            status |= FAVORITED_BY_USER;
+        if (geocache.favoritable())
+            status |= FAVORITABLE;
+        if (geocache.recommended())
+            status |= RECOMMENDED;
+        return status;
+    }
+
+    /**
+     * Returns true if the row has all status bits from the mask set.
+     *
+     * @param row  row index
+     * @param mask status bits
+     * @return true if all bits are set, otherwise false
+     */
+    public boolean hasStatus(int row, int mask) {
+        return (statuses[checkRow(row)] & mask) == mask;
+    }
+
+    public boolean hasAttribute(int row, @NotNull AttributeType attribute) {
+        int ordinal = attribute.ordinal();
+        return (attributes[checkRow(row) * ATTRIBUTE_WORDS + (ordinal >>> 6)] & (1L << ordinal)) != 0;
+    }
+
+    @NotNull
+    public EnumSet<AttributeType> attributes(int row) {
+        return attributeMask(row).toEnumSet();
+    }
+
+    @NotNull
+    public AttributeMask attributeMask(int row) {
+        return AttributeMask.valueOf(attributes, checkRow(row));
+    }
+
+    /**
+     * Get attribute masks of all rows for bulk tests by {@link AttributeMask#containsAll(long[], AttributeMask)}
+     * and {@link AttributeMask#containsAny(long[], AttributeMask)}. Returned indexes are rows.
+     *
+     * @return copy of masks, {@link AttributeMask#WORDS} items per row
+     */
+    @NotNull
+    public long[] attributeMasks() {
+        return Arrays.copyOf(attributes, size * ATTRIBUTE_WORDS);
+    }
+
+    /**
+     * Get a place date in milliseconds since epoch.
+     *
+     * @param row row index
+     * @return place date or {@link #NO_DATE}
+     */
+    public long placeDate(int row) {
+        return placeDates[checkRow(row)];
+    }
+
+    @Nullable
+    public String placedBy(int row) {
+        return string(placedBy[checkRow(row)]);
+    }
+
+    @Nullable
+    public String countryName(int row) {
+        return string(countryNames[checkRow(row)]);
+    }
+
+    @Nullable
+    public String stateName(int row) {
+        return string(stateNames[checkRow(row)]);
+    }
+
+    /**
+     * Get a view of the row.
+     *
+     * @param row row index
+     * @return row view
+     */
+    @NotNull
+    public Row row(int row) {
+        return new Row(this, checkRow(row));
+    }
+
+    /**
+     * Get indexes of all rows accepted by the predicate in ascending order.
+     *
+     * @param predicate row predicate
+     * @return row indexes
+     */
+    @NotNull
+    public int[] filter(@NotNull RowPredicate predicate) {
+        int[] result = new int[size];
+        int count = 0;
+        for (int row = 0; row < size; row++) {
+            if (predicate.test(this, row))
+                result[count++] = row;
+        }
+        return count == size ? result : Arrays.copyOf(result, count);
+    }
+
+    /**
+     * Get indexes of rows from the given rows accepted by the predicate. The order of rows is
+     * kept.
+     *
+     * @param rows      row indexes
+     * @param predicate row predicate
+     * @return row indexes
+     */
+    @NotNull
+    public int[] filter(@NotNull int[] rows, @NotNull RowPredicate predicate) {
+        int[] result = new int[rows.length];
+        int count = 0;
+        for (int row : rows) {
+            if (predicate.test(this, checkRow(row)))
+                result[count++] = row;
+        }
+        return count == rows.length ? result : Arrays.copyOf(result, count);
+    }
+
+    /**
+     * Get a count of rows accepted by the predicate.
+     *
+     * @param predicate row predicate
+     * @return count of rows
+     */
+    public int count(@NotNull RowPredicate predicate) {
+        int count = 0;
+        for (int row = 0; row < size; row++) {
+            if (predicate.test(this, row))
+                count++;
+        }
+        return count;
+    }
+
+    /**
+     * Get indexes of all rows sorted by the comparator. The sort is stable.
+     *
+     * @param comparator row comparator
+     * @return sorted row indexes
+     */
+    @NotNull
+    public int[] sort(@NotNull RowComparator comparator) {
+        int[] rows = new int[size];
+        for (int row = 0; row < size; row++) {
+            rows[row] = row;
+        }
+        return sort(rows, comparator);
+    }
+
+    /**
+     * Sort the given row indexes by the comparator in place. The sort is stable.
+     *
+     * @param rows       row indexes
+     * @param comparator row comparator
+     * @return sorted row indexes, the same array as rows
+     */
+    @NotNull
+    public int[] sort(@NotNull int[] rows, @NotNull RowComparator comparator) {
+        for (int row : rows) {
+            checkRow(row);
+        }
+        mergeSort(rows.clone(), rows, 0, rows.length, comparator);
+        return rows;
+    }
+
+    /**
+     * Compute distances in meters of all rows from the coordinates.
+     *
+     * @param coordinates coordinates
+     * @return distances indexed by a row
+     * @see Coordinates#distances(double, double, double[], double[], double[])
+     */
+    @NotNull
+    public double[] distances(@NotNull Coordinates coordinates) {
+        return distances(coordinates, DistanceMode.HAVERSINE);
+    }
+
+    /**
+     * Compute distances in meters of all rows from the coordinates by the distance mode.
+     *
+     * @param coordinates coordinates
+     * @param mode        distance mode
+     * @return distances indexed by a row
+     */
+    @NotNull
+    public double[] distances(@NotNull Coordinates coordinates, @NotNull DistanceMode mode) {
+        double[] result = new double[size];
+        mode.distances(coordinates.latitude(), coordinates.longitude(), latitudes, longitudes, result);
+        return result;
+    }
+
+    /**
+     * Get indexes of all rows sorted by a distance from the coordinates, the nearest first.
+     *
+     * @param coordinates coordinates
+     * @return sorted row indexes
+     */
+    @NotNull
+    public int[] sortByDistance(@NotNull Coordinates coordinates) {
+        return sortByDistance(coordinates, DistanceMode.SQUARED_CHORD);
+    }
+
+    /**
+     * Get indexes of all rows sorted by a distance from the coordinates computed by the distance
+     * mode, the nearest first.
+     *
+     * @param coordinates coordinates
+     * @param mode        distance mode
+     * @return sorted row indexes
+     */
+    @NotNull
+    public int[] sortByDistance(@NotNull Coordinates coordinates, @NotNull DistanceMode mode) {
+        final double[] distances = comparables(coordinates, mode);
+        return sort(new RowComparator() {
+            @Override
+            public int compare(@NotNull GeocacheBatch batch, int row1, int row2) {
+                return Double.compare(distances[row1], distances[row2]);
+            }
+        });
+    }
+
+    /**
+     * Get indexes of rows within the radius from the coordinates in ascending order.
+     *
+     * @param coordinates coordinates
+     * @param radius      radius in meters
+     * @param mode        distance mode
+     * @return row indexes
+     */
+    @NotNull
+    public int[] filterByDistance(@NotNull Coordinates coordinates, double radius, @NotNull DistanceMode mode) {
+        double[] distances = comparables(coordinates, mode);
+        double threshold = mode.fromMeters(radius);
+
+        int[] result = new int[size];
+        int count = 0;
+        for (int row = 0; row < size; row++) {
+            if (distances[row] <= threshold)
+                result[count++] = row;
+        }
+        return count == size ? result : Arrays.copyOf(result, count);
+    }
+
+    private double[] comparables(Coordinates coordinates, DistanceMode mode) {
+        double[] result = new double[size];
+        mode.comparables(coordinates.latitude(), coordinates.longitude(), latitudes, longitudes, result);
+        return result;
+    }
+
+    /**
+     * Create a new batch containing only the given rows in the given order.
+     *
+     * @param rows row indexes
+     * @return new batch
+     */
+    @NotNull
+    public GeocacheBatch select(@NotNull int[] rows) {
+        return new GeocacheBatch(this, rows);
+    }
+
+    private void mergeSort(int[] src, int[] dest, int low, int high, RowComparator comparator) {
+        int length = high - low;
+
+        // insertion sort on small ranges
+        if (length < 7) {
+            for (int i = low + 1; i < high; i++) {
+                for (int j = i; j > low && comparator.compare(this, dest[j - 1], dest[j]) > 0; j--) {
+                    int tmp = dest[j];
+                    dest[j] = dest[j - 1];
+                    dest[j - 1] = tmp;
+                }
+            }
+            return;
+        }
+
+        int mid = (low + high) >>> 1;
+        mergeSort(dest, src, low, mid, comparator);
+        mergeSort(dest, src, mid, high, comparator);
+
+        // already sorted
+        if (comparator.compare(this, src[mid - 1], src[mid]) <= 0) {
+            System.arraycopy(src, low, dest, low, length);
+            return;
+        }
+
+        for (int i = low, p = low, q = mid; i < high; i++) {
+            if (q >= high || (p < mid && comparator.compare(this, src[p], src[q]) <= 0)) {
+                dest[i] = src[p++];
+            } else {
+                dest[i] = src[q++];
+            }
+        }
+    }
+
+    private int checkRow(int row) {
+        if (row < 0 || row >= size)
+            throw new IndexOutOfBoundsException("Row: " + row + ", size: " + size);
+        return row;
+    }
+
+    private String string(int index) {
+        return index != NO_STRING ? dictionary[index] : null;
+    }
+
+    private static int compareLongs(long x, long y) {
+        return (x < y) ? -1 : ((x == y) ? 0 : 1);
+    }
+
+    /**
+     * Predicate evaluated for rows of a batch.
+     */
+    public interface RowPredicate {
+        boolean test(@NotNull GeocacheBatch batch, int row);
+    }
+
+    /**
+     * Comparator of rows of a batch.
+     */
+    public interface RowComparator {
+        int compare(@NotNull GeocacheBatch batch, int row1, int row2);
+    }
+
+    /**
+     * View of a single row of a batch.
+     */
+    public static final class Row {
+        private final GeocacheBatch batch;
+        private final int row;
+
+        Row(GeocacheBatch batch, int row) {
+            this.batch = batch;
+            this.row = row;
+        }
+
+        public int index() {
+            return row;
+        }
+
+        public long id() {
+            return batch.id(row);
+        }
+
+        @NotNull
+        public String code() {
+            return batch.code(row);
+        }
+
+        @Nullable
+        public String name() {
+            return batch.name(row);
+        }
+
+        public double latitude() {
+            return batch.latitude(row);
+        }
+
+        public double longitude() {
+            return batch.longitude(row);
+        }
+
+        @Nullable
+        public GeocacheType geocacheType() {
+            return batch.geocacheType(row);
+        }
+
+        @NotNull
+        public ContainerType containerType() {
+            return batch.containerType(row);
+        }
+
+        public float difficulty() {
+            return batch.difficulty(row);
+        }
+
+        public float terrain() {
+            return batch.terrain(row);
+        }
+
+        public int favoritePoints() {
+            return batch.favoritePoints(row);
+        }
+
+        public int status() {
+            return batch.status(row);
+        }
+
+        public boolean hasStatus(int mask) {
+            return batch.hasStatus(row, mask);
+        }
+
+        public boolean hasAttribute(@NotNull AttributeType attribute) {
+            return batch.hasAttribute(row, attribute);
+        }
+
+        @NotNull
+        public EnumSet<AttributeType> attributes() {
+            return batch.attributes(row);
+        }
+
+        @NotNull
+        public AttributeMask attributeMask() {
+            return batch.attributeMask(row);
+        }
+
+        public long placeDate() {
+            return batch.placeDate(row);
+        }
+
+        @Nullable
+        public String placedBy() {
+            return batch.placedBy(row);
+        }
+
+        @Nullable
+        public String countryName() {
+            return batch.countryName(row);
+        }
+
+        @Nullable
+        public String stateName() {
+            return batch.stateName(row);
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (obj == this)
+                return true;
+            if (!(obj instanceof Row))
+                return false;
+
+            Row other = (Row) obj;
+            return batch == other.batch && row == other.row;
+        }
+
+        @Override
+        public int hashCode() {
+            return System.identityHashCode(batch) * 31 + row;
+        }
+
+        @Override
+        public String toString() {
+            return "Row{index=" + row + ", code=" + code() + ", name=" + name() + "}";
+        }
+    }
+
+    /**
+     * Builder of a batch. Geocaches passed to the builder are not referenced by the builder or the
+     * built batch.
+     */
+    public static final class Builder implements GeocacheSink {
+        private static final int INITIAL_CAPACITY = 64;
+
+        private int size;
+        private long[] ids;
+        private double[] latitudes;
+        private double[] longitudes;
+        private float[] difficulties;
+        private float[] terrains;
+        private int[] favoritePoints;
+        private short[] types;
+        private byte[] statuses;
+        private long[] attributes;
+        private long[] placeDates;
+        private String[] names;
+        private int[] placedBy;
+        private int[] countryNames;
+        private int[] stateNames;
+
+        private final List<String> dictionary = new ArrayList<String>();
+        private final Map<String, Integer> dictionaryIndexes = new HashMap<String, Integer>();
+
+        Builder() {
+            ensureCapacity(INITIAL_CAPACITY);
+        }
+
+        /**
+         * Append a row with properties of the Geocache. Properties not stored in the batch are
+         * ignored.
+         *
+         * @param geocache Geocache
+         * @return this builder
+         */
+        public Builder add(@NotNull Geocache geocache) {
+            ensureCapacity(size + 1);
+
+            int row = size;
+            ids[row] = geocache.id() != 0 ? geocache.id() : GeocachingUtils.cacheCodeToCacheId(geocache.code());
+            latitudes[row] = geocache.coordinates().latitude();
+            longitudes[row] = geocache.coordinates().longitude();
+            difficulties[row] = geocache.difficulty();
+            terrains[row] = geocache.terrain();
+            favoritePoints[row] = geocache.favoritePoints();
+
+            GeocacheType geocacheType = geocache.geocacheType();
+            types[row] = (short) ((geocacheType != null ? geocacheType.ordinal() + 1 : 0) | (geocache.containerType().ordinal() << 8));
+
+            statuses[row] = (byte) statusOf(geocache);
+
+            geocache.attributeMask().copyTo(attributes, row);
+
+            Date placeDate = geocache.placeDate();
+            placeDates[row] = placeDate != null ? placeDate.getTime() : NO_DATE;
+
+            names[row] = geocache.name();
+            placedBy[row] = stringIndex(geocache.placedBy());
+            countryNames[row] = stringIndex(geocache.countryName());
+            stateNames[row] = stringIndex(geocache.stateName());
+
+            size++;
+            return this;
+        }
+
+        @Override
+        public void accept(@NotNull Geocache geocache) {
+            add(geocache);
+        }
+
+        /**
+         * Get a count of added rows.
+         *
+         * @return count of rows
+         */
+        public int size() {
+            return size;
+        }
+
+        /**
+         * Build a batch from added rows. The builder can be used for adding more rows later.
+         *
+         * @return new batch
+         */
+        public GeocacheBatch build() {
+            return new GeocacheBatch(this);
+        }
+
+        private int stringIndex(String value) {
+            if (value == null)
+                return NO_STRING;
+
+            Integer index = dictionaryIndexes.get(value);
+            if (index == null) {
+                index = dictionary.size();
+                dictionary.add(value);
+                dictionaryIndexes.put(value, index);
+            }
+            return index;
+        }
+
+        private void ensureCapacity(int capacity) {
+            if (ids != null && capacity <= ids.length)
+                return;
+
+            int newCapacity = ids != null ? Math.max(capacity, ids.length + (ids.length >> 1)) : capacity;
+            ids = ids != null ? Arrays.copyOf(ids, newCapacity) : new long[newCapacity];
+            latitudes = latitudes != null ? Arrays.copyOf(latitudes, newCapacity) : new double[newCapacity];
+            longitudes = longitudes != null ? Arrays.copyOf(longitudes, newCapacity) : new double[newCapacity];
+            difficulties = difficulties != null ? Arrays.copyOf(difficulties, newCapacity) : new float[newCapacity];
+            terrains = terrains != null ? Arrays.copyOf(terrains, newCapacity) : new float[newCapacity];
+            favoritePoints = favoritePoints != null ? Arrays.copyOf(favoritePoints, newCapacity) : new int[newCapacity];
+            types = types != null ? Arrays.copyOf(types, newCapacity) : new short[newCapacity];
+            statuses = statuses != null ? Arrays.copyOf(statuses, newCapacity) : new byte[newCapacity];
+            attributes = attributes != null ? Arrays.copyOf(attributes, newCapacity * ATTRIBUTE_WORDS) : new long[newCapacity * ATTRIBUTE_WORDS];
+            placeDates = placeDates != null ? Arrays.copyOf(placeDates, newCapacity) : new long[newCapacity];
+            names = names != null ? Arrays.copyOf(names, newCapacity) : new String[newCapacity];
+            placedBy = placedBy != null ? Arrays.copyOf(placedBy, newCapacity) : new int[newCapacity];
+            countryNames = countryNames != null ? Arrays.copyOf(countryNames, newCapacity) : new int[newCapacity];
+            stateNames = stateNames != null ? Arrays.copyOf(stateNames, newCapacity) : new int[newCapacity];
+        }
+    }
+}
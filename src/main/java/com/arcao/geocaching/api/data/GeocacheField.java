@@ -0,0 +1,104 @@
+package com.arcao.geocaching.api.data;
+
+import java.util.EnumSet;
+
+/**
+ * Properties of {@link Geocache} which can be requested when parsing Geocaches. Properties which
+ * aren't requested are skipped in the response without decoding and get a default value
+ * (<tt>0</tt>, <tt>false</tt>, an empty string, NaN coordinates or null).
+ *
+ * @author arcao
+ * @see SearchForGeocachesRequest#fields()
+ * @since 2.1
+ */
+public enum GeocacheField {
+    /** {@link Geocache#id()} */
+    ID,
+    /** {@link Geocache#code()}, it is parsed always */
+    CODE,
+    /** {@link Geocache#name()} */
+    NAME,
+    /** {@link Geocache#coordinates()} */
+    COORDINATES,
+    /** {@link Geocache#geocacheType()} */
+    GEOCACHE_TYPE,
+    /** {@link Geocache#difficulty()} */
+    DIFFICULTY,
+    /** {@link Geocache#terrain()} */
+    TERRAIN,
+    /** {@link Geocache#owner()} */
+    OWNER,
+    /** {@link Geocache#available()} */
+    AVAILABLE,
+    /** {@link Geocache#archived()} */
+    ARCHIVED,
+    /** {@link Geocache#premium()} */
+    PREMIUM,
+    /** {@link Geocache#countryName()} */
+    COUNTRY_NAME,
+    /** {@link Geocache#stateName()} */
+    STATE_NAME,
+    /** {@link Geocache#createDate()} */
+    CREATE_DATE,
+    /** {@link Geocache#publishDate()} */
+    PUBLISH_DATE,
+    /** {@link Geocache#placeDate()} */
+    PLACE_DATE,
+    /** {@link Geocache#lastUpdateDate()} */
+    LAST_UPDATE_DATE,
+    /** {@link Geocache#lastVisitDate()} */
+    LAST_VISIT_DATE,
+    /** {@link Geocache#placedBy()} */
+    PLACED_BY,
+    /** {@link Geocache#containerType()} */
+    CONTAINER_TYPE,
+    /** {@link Geocache#trackableCount()} */
+    TRACKABLE_COUNT,
+    /** {@link Geocache#foundByUser()} */
+    FOUND_BY_USER,
+    /** {@link Geocache#shortDescription()} and {@link Geocache#shortDescriptionHtml()} */
+    SHORT_DESCRIPTION,
+    /** {@link Geocache#longDescription()} and {@link Geocache#longDescriptionHtml()} */
+    LONG_DESCRIPTION,
+    /** {@link Geocache#hint()} */
+    HINT,
+    /** {@link Geocache#geocacheLogs()} */
+    GEOCACHE_LOGS,
+    /** {@link Geocache#trackables()} */
+    TRACKABLES,
+    /** {@link Geocache#waypoints()} */
+    WAYPOINTS,
+    /** {@link Geocache#attributes()} */
+    ATTRIBUTES,
+    /** {@link Geocache#userWaypoints()} */
+    USER_WAYPOINTS,
+    /** {@link Geocache#personalNote()} */
+    PERSONAL_NOTE,
+    /** {@link Geocache#images()} */
+    IMAGES,
+    /** {@link Geocache#favoritePoints()} */
+    FAVORITE_POINTS,
+    /** {@link Geocache#favoritable()} */
+    FAVORITABLE,
+    /** {@link Geocache#foundDate()} */
+    FOUND_DATE,
+    /** {@link Geocache#favoritedByUser()} */
+    FAVORITED_BY_USER,
+    /** {@link Geocache#imageCount()} */
+    IMAGE_COUNT,
+    /** {@link Geocache#recommended()} */
+    RECOMMENDED,
+    /** {@link Geocache#url()} */
+    URL,
+    /** {@link Geocache#guid()} */
+    GUID;
+
+    /**
+     * Returns a set of all properties
+     *
+     * @return set of all properties
+     */
+    public static EnumSet<GeocacheField> all() {
+        return EnumSet.allOf(GeocacheField.class);
+    }
+}
@@ -11,6 +11,7 @@ import org.jetbrains.annotations.Nullable;
 import java.io.Serializable;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.EnumSet;
 import java.util.HashSet;
 
 @AutoValue
@@ -52,8 +53,13 @@ public abstract class SearchForGeocachesRequest implements Serializable {
      */
     @Nullable public abstract Coordinates sortPoint();
 
+    /**
+     * Get a set of Geocache properties to be parsed from the response, by default all
+     */
+    public abstract EnumSet<GeocacheField> fields();
+
     public static Builder builder() {
-        return new AutoValue_SearchForGeocachesRequest.Builder();
+        return new AutoValue_SearchForGeocachesRequest.Builder().fields(GeocacheField.all());
     }
 
     @AutoValue.Builder
@@ -90,6 +96,12 @@ public abstract class SearchForGeocachesRequest implements Serializable {
          */
         @Nullable public abstract Builder sortPoint(Coordinates sortPoint);
 
+        /**
+         * Set a set of Geocache properties to be parsed from the response, other properties are
+         * skipped and get a default value
+         */
+        public abstract Builder fields(EnumSet<GeocacheField> fields);
+
         protected abstract SearchForGeocachesRequest realBuild();
 
         /**
@@ -0,0 +1,49 @@
+package com.arcao.geocaching.api.data;
+
+import com.google.auto.value.AutoValue;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.io.Serializable;
+import java.util.List;
+
+/**
+ * Container class for a SearchForGeocaches / GetMoreGeocaches method response. Unlike
+ * {@link com.arcao.geocaching.api.GeocachingApi#getLastGeocacheLimits()} and
+ * {@link com.arcao.geocaching.api.GeocachingApi#getLastSearchResultsFound()} all values
+ * belong to the single response, so it can be safely used when one API instance is
+ * shared between threads.
+ *
+ * @author arcao
+ * @since 2.1
+ */
+@AutoValue
+public abstract class SearchForGeocachesResponse implements Serializable {
+    private static final long serialVersionUID = -3061823745632941571L;
+
+    /**
+     * Returns found geocaches
+     *
+     * @return list of geocaches
+     */
+    public abstract List<Geocache> geocaches();
+
+    /**
+     * Returns the count of all geocaches matching the search criteria
+     *
+     * @return count of geocaches found
+     */
+    public abstract int totalMatchingCaches();
+
+    /**
+     * Returns the cache limits received with the response
+     *
+     * @return cache limits or null if not present in the response
+     */
+    @Nullable
+    public abstract GeocacheLimits geocacheLimits();
+
+    public static SearchForGeocachesResponse create(List<Geocache> geocaches, int totalMatchingCaches, @Nullable GeocacheLimits geocacheLimits) {
+        return new AutoValue_SearchForGeocachesResponse(geocaches, totalMatchingCaches, geocacheLimits);
+    }
+}
@@ -20,7 +20,7 @@ public abstract class Coordinates implements Serializable {
     private static final long serialVersionUID = 1044000671539652241L;
     private static final double PRECISION = 1e-8;
 
-    private static final double AVERAGE_RADIUS_OF_EARTH = 6372797.560856;
+    static final double AVERAGE_RADIUS_OF_EARTH = 6372797.560856;
     private static final CoordinatesFormatter LAT_LON_DECMINUTE_FORMAT = new CoordinatesFormatter(CoordinatesFormatter.LAT_LON_DECMINUTE);
 
     /**
@@ -139,11 +139,90 @@ public abstract class Coordinates implements Serializable {
      * @since 1.20
      */
     public double distanceTo(Coordinates to) {
-        double[] results = new double[1];
+        double lat1 = Math.toRadians(latitude());
+        double lat2 = Math.toRadians(to.latitude());
 
-        computeDistanceAndBearing(this, to, results);
+        return haversine(lat1, Math.toRadians(longitude()), Math.cos(lat1), lat2, Math.toRadians(to.longitude()), Math.cos(lat2));
+    }
+
+    /**
+     * Get a distance in meters between this coordinates and specified coordinates computed by the
+     * distance mode.
+     *
+     * @param to   Coordinates object
+     * @param mode distance mode
+     * @return distance in meters
+     * @since 2.1
+     */
+    public double distanceTo(Coordinates to, DistanceMode mode) {
+        return mode.distance(latitude(), longitude(), to.latitude(), to.longitude());
+    }
+
+    /**
+     * Compute distances in meters from the source coordinates to many destination coordinates. The
+     * result is the same as {@link #distanceTo(Coordinates)} returns, but the terms of the source
+     * are computed only once and no objects are created.
+     *
+     * @param latitude   source latitude
+     * @param longitude  source longitude
+     * @param latitudes  destination latitudes
+     * @param longitudes destination longitudes
+     * @param results    array for distances in meters, its length is a count of destinations
+     * @throws IllegalArgumentException If latitudes or longitudes are shorter than results
+     * @since 2.1
+     */
+    public static void distances(double latitude, double longitude, double[] latitudes, double[] longitudes, double[] results) {
+        DistanceMode.HAVERSINE.distances(latitude, longitude, latitudes, longitudes, results);
+    }
+
+    /**
+     * Compute initial bearings in degrees from the source coordinates to many destination
+     * coordinates. The result is the same as the initial bearing computed by
+     * {@link #computeDistanceAndBearing(Coordinates, Coordinates, double[])}.
+     *
+     * @param latitude   source latitude
+     * @param longitude  source longitude
+     * @param latitudes  destination latitudes
+     * @param longitudes destination longitudes
+     * @param results    array for bearings in degrees, its length is a count of destinations
+     * @throws IllegalArgumentException If latitudes or longitudes are shorter than results
+     * @since 2.1
+     */
+    public static void bearings(double latitude, double longitude, double[] latitudes, double[] longitudes, double[] results) {
+        final int count = checkBatch(latitudes, longitudes, results);
+
+        final double lat1 = Math.toRadians(latitude);
+        final double lon1 = Math.toRadians(longitude);
+        final double cosLat1 = Math.cos(lat1);
+        final double sinLat1 = Math.sin(lat1);
+
+        for (int i = 0; i < count; i++) {
+            double lat2 = Math.toRadians(latitudes[i]);
+            double dLon = Math.toRadians(longitudes[i]) - lon1;
+            double cosLat2 = Math.cos(lat2);
+
+            double y = Math.sin(dLon) * cosLat2;
+            double x = cosLat1 * Math.sin(lat2) - sinLat1 * cosLat2 * Math.cos(dLon);
+            results[i] = Math.toDegrees(Math.atan2(y, x));
+        }
+    }
+
+    static int checkBatch(double[] latitudes, double[] longitudes, double[] results) {
+        if (latitudes.length < results.length || longitudes.length < results.length)
+            throw new IllegalArgumentException("Latitudes and longitudes have to contain at least " + results.length + " items.");
+
+        return results.length;
+    }
+
+    // angles in radians, distance in meters
+    static double haversine(double lat1, double lon1, double cosLat1, double lat2, double lon2, double cosLat2) {
+        double sinDLat2 = Math.sin((lat2 - lat1) / 2.0);
+        double sinDLon2 = Math.sin((lon2 - lon1) / 2.0);
 
-        return results[0];
+        double a = sinDLat2 * sinDLat2 + cosLat1 * cosLat2 * sinDLon2 * sinDLon2;
+        double d = 2.0 * Math.atan2(Math.sqrt(a), Math.sqrt(1.0 - a));
+
+        return d * AVERAGE_RADIUS_OF_EARTH;
     }
 
     /**
@@ -179,15 +258,9 @@ public abstract class Coordinates implements Serializable {
         // prepare variables
         double cosLat1 = Math.cos(lat1);
         double cosLat2 = Math.cos(lat2);
-        double sinDLat2 = Math.sin((lat2 - lat1) / 2.0);
-        double sinDLon2 = Math.sin((lon2 - lon1) / 2.0);
-
-        // compute values
-        double a = sinDLat2 * sinDLat2 + cosLat1 * cosLat2 * sinDLon2 * sinDLon2;
-        double d = 2.0 * Math.atan2(Math.sqrt(a), Math.sqrt(1.0 - a));
 
-        // convert to metres
-        results[0] = d * AVERAGE_RADIUS_OF_EARTH;
+        // distance in metres
+        results[0] = haversine(lat1, lon1, cosLat1, lat2, lon2, cosLat2);
 
         // compute initial bearing
         if (results.length > 1) {
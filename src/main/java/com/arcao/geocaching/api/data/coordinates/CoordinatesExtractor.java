@@ -0,0 +1,127 @@
+package com.arcao.geocaching.api.data.coordinates;
+
+import com.arcao.geocaching.api.data.coordinates.CoordinatesParser.CoordinateType;
+import com.arcao.geocaching.api.data.coordinates.CoordinatesParser.ParseResult;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Extractor of all coordinates written in a text, e.g. a log text, a long description or a personal
+ * note. The text is scanned once from the start to the end.<br>
+ * <br>
+ * Coordinates are accepted in the same format as {@link CoordinatesParser#parse(String)} accepts
+ * with cardinal points, e.g. "N 49° 56.031 E 8° 38.564" or "N 49 56 1.86, E 8 38 33.84". A latitude
+ * has to be followed by a longitude at most {@value #MAX_DISTANCE} chars after the latitude end.
+ * Decimal degrees without cardinal points are not extracted, they can't be recognized from other
+ * numbers in the text. HTML text should be converted to plain text first.
+ *
+ * @author arcao
+ * @since 2.1
+ */
+public final class CoordinatesExtractor {
+    /**
+     * The longest text between a latitude and a longitude
+     */
+    public static final int MAX_DISTANCE = 9;
+
+    private CoordinatesExtractor() {
+    }
+
+    /**
+     * Callback receiving coordinates found in a text.
+     */
+    public interface Callback {
+        /**
+         * Called for each coordinates found in the text in the order of appearance.
+         *
+         * @param match found coordinates
+         * @return true to continue extracting, false to stop
+         */
+        boolean onMatch(@NotNull CoordinatesMatch match);
+    }
+
+    /**
+     * Find all coordinates in the text.
+     *
+     * @param text text or null
+     * @return found coordinates in the order of appearance
+     */
+    @NotNull
+    public static List<CoordinatesMatch> extractAll(@Nullable CharSequence text) {
+        if (text == null)
+            return Collections.emptyList();
+
+        final List<CoordinatesMatch> result = new ArrayList<CoordinatesMatch>();
+        extract(text, new Callback() {
+            @Override
+            public boolean onMatch(@NotNull CoordinatesMatch match) {
+                result.add(match);
+                return true;
+            }
+        });
+        return result;
+    }
+
+    /**
+     * Pass all coordinates found in the text to the callback.
+     *
+     * @param text     text or null
+     * @param callback callback
+     * @return count of coordinates passed to the callback
+     */
+    public static int extract(@Nullable CharSequence text, @NotNull Callback callback) {
+        if (text == null)
+            return 0;
+
+        int count = 0;
+        int from = 0;
+        CoordinatesMatch match;
+        while ((match = find(text, from)) != null) {
+            count++;
+            if (!callback.onMatch(match))
+                break;
+            from = match.end();
+        }
+        return count;
+    }
+
+    /**
+     * Find the first coordinates in the text starting at the from index.
+     *
+     * @param text text
+     * @param from index to start with
+     * @return found coordinates or null
+     */
+    @Nullable
+    public static CoordinatesMatch find(@NotNull CharSequence text, int from) {
+        final int length = text.length();
+
+        while (from < length) {
+            ParseResult latitude = CoordinatesParser.scan(text, 0, from, length, CoordinateType.LAT);
+            if (latitude == null)
+                return null;
+
+            // the longitude is searched in the text after the latitude as CoordinatesParser does
+            int latitudeEnd = latitude.matcherPos + latitude.matcherLen;
+            ParseResult longitude = CoordinatesParser.scan(text, latitudeEnd, latitudeEnd, Math.min(latitudeEnd + MAX_DISTANCE + 1, length), CoordinateType.LON);
+            if (longitude != null) {
+                return CoordinatesMatch.create(
+                        Coordinates.create(latitude.result, longitude.result),
+                        latitude.matcherPos,
+                        latitudeEnd + longitude.matcherPos + longitude.matcherLen,
+                        latitude.format,
+                        longitude.format
+                );
+            }
+
+            // not a coordinates, a latitude match never contains a start of another latitude
+            from = latitudeEnd;
+        }
+        return null;
+    }
+}
@@ -8,8 +8,10 @@ import org.apache.commons.lang3.StringUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.IOException;
 import java.math.BigDecimal;
 import java.math.RoundingMode;
+import java.text.DecimalFormatSymbols;
 import java.util.Locale;
 
 /**
@@ -77,8 +79,25 @@ public class CoordinatesFormatter {
      */
     public static final int LON_DECMINUTE_RAW = 10;
 
+    private static final String DEGREE = "° ";
+    private static final String SEPARATOR = " · ";
+
+    // multipliers of fixed-point values
+    private static final double DEGREE_UNITS = 1000000;
+    private static final double MINUTE_UNITS = 60 * 1000;
+    private static final double SECOND_UNITS = 60 * 60 * 1000;
+    private static final int DEGREE_DECIMALS = 6;
+    private static final int MINUTE_DECIMALS = 3;
+    private static final int MINUTE_WIDTH = 6;
+    // larger values are formatted by String.format
+    private static final double MAX_FAST_VALUE = 1e9;
+    private static final long UNDECIDED = -1;
+
     private final int format;
     private final Locale locale;
+    // digits and separator used by String.format for the locale
+    private final char zeroDigit;
+    private final char decimalSeparator;
 
     /**
      * Create a new instance of formatter with predefined format and system
@@ -100,6 +119,15 @@ public class CoordinatesFormatter {
     public CoordinatesFormatter(int format, Locale locale) {
         this.format = format;
         this.locale = locale;
+
+        if (locale == null) {
+            zeroDigit = '0';
+            decimalSeparator = '.';
+        } else {
+            DecimalFormatSymbols symbols = DecimalFormatSymbols.getInstance(locale);
+            zeroDigit = symbols.getZeroDigit();
+            decimalSeparator = locale.equals(Locale.US) ? '.' : symbols.getDecimalSeparator();
+        }
     }
 
     /**
@@ -109,12 +137,241 @@ public class CoordinatesFormatter {
      * @return the formatted coordinates
      */
     public String format(final Coordinates coords) {
+        if (format < LAT_LON_DECDEGREE || format > LON_DECMINUTE_RAW)
+            return null;
+
+        return formatTo(new StringBuilder(32), coords).toString();
+    }
+
+    /**
+     * Formats the Coordinates and appends the result to the StringBuilder. The result is the same as
+     * the result of {@link #format(Coordinates)}.
+     *
+     * @param sb     the StringBuilder
+     * @param coords the Coordinates to format
+     * @return the StringBuilder
+     * @since 2.1
+     */
+    public StringBuilder formatTo(final StringBuilder sb, final Coordinates coords) {
+        try {
+            formatTo((Appendable) sb, coords);
+        } catch (IOException e) {
+            // never happens for StringBuilder
+            throw new IllegalStateException(e);
+        }
+        return sb;
+    }
+
+    /**
+     * Formats the Coordinates and appends the result to the Appendable. The result is the same as
+     * the result of {@link #format(Coordinates)}.
+     *
+     * @param out    the Appendable, e.g. Writer
+     * @param coords the Coordinates to format
+     * @return the Appendable
+     * @throws IOException If an I/O error occurs
+     * @since 2.1
+     */
+    public Appendable formatTo(final Appendable out, final Coordinates coords) throws IOException {
         final double latSigned = coords.latitude();
         final double lonSigned = coords.longitude();
+        final double lat = Math.abs(latSigned);
+        final double lon = Math.abs(lonSigned);
+
+        // NaN, infinite and huge values keep behavior of String.format
+        if (!(lat < MAX_FAST_VALUE && lon < MAX_FAST_VALUE)) {
+            return appendFormatted(out, latSigned, lonSigned);
+        }
+
+        final char latDir = latSigned < 0 ? 'S' : 'N';
+        final char lonDir = lonSigned < 0 ? 'W' : 'E';
+        final int latDeg = (int) lat;
+        final int lonDeg = (int) lon;
+
+        switch (format) {
+            case LAT_LON_DECDEGREE:
+            case LAT_LON_DECDEGREE_COMMA: {
+                long latUnits = roundUnits(lat, lat, DEGREE_UNITS);
+                long lonUnits = roundUnits(lon, lon, DEGREE_UNITS);
+                if (latUnits == UNDECIDED || lonUnits == UNDECIDED)
+                    return appendFormatted(out, latSigned, lonSigned);
+
+                boolean localized = format == LAT_LON_DECDEGREE;
+                appendDegrees(out, latSigned, latUnits, localized);
+                out.append(localized ? ' ' : ',');
+                appendDegrees(out, lonSigned, lonUnits, localized);
+                return out;
+            }
+
+            case LAT_DECDEGREE_RAW:
+            case LON_DECDEGREE_RAW: {
+                double value = format == LAT_DECDEGREE_RAW ? latSigned : lonSigned;
+                long units = roundUnits(Math.abs(value), Math.abs(value), DEGREE_UNITS);
+                if (units == UNDECIDED)
+                    return appendFormatted(out, latSigned, lonSigned);
+
+                appendDegrees(out, value, units, false);
+                return out;
+            }
+
+            case LAT_LON_DECMINUTE:
+            case LAT_LON_DECMINUTE_RAW: {
+                long latUnits = roundUnits(lat - latDeg, lat, MINUTE_UNITS);
+                long lonUnits = roundUnits(lon - lonDeg, lon, MINUTE_UNITS);
+                if (latUnits == UNDECIDED || lonUnits == UNDECIDED)
+                    return appendFormatted(out, latSigned, lonSigned);
+
+                boolean localized = format == LAT_LON_DECMINUTE;
+                appendMinutes(out, latDir, latDeg, latUnits, DEGREE, localized);
+                out.append(localized ? SEPARATOR : " ");
+                appendMinutes(out, lonDir, lonDeg, lonUnits, DEGREE, localized);
+                return out;
+            }
+
+            case LAT_DECMINUTE:
+            case LAT_DECMINUTE_RAW: {
+                long units = roundUnits(lat - latDeg, lat, MINUTE_UNITS);
+                if (units == UNDECIDED)
+                    return appendFormatted(out, latSigned, lonSigned);
+
+                appendMinutes(out, latDir, latDeg, units, format == LAT_DECMINUTE ? DEGREE : " ", true);
+                return out;
+            }
+
+            case LON_DECMINUTE:
+            case LON_DECMINUTE_RAW: {
+                long units = roundUnits(lon - lonDeg, lon, MINUTE_UNITS);
+                if (units == UNDECIDED)
+                    return appendFormatted(out, latSigned, lonSigned);
+
+                appendMinutes(out, lonDir, lonDeg, units, format == LON_DECMINUTE ? DEGREE : " ", true);
+                return out;
+            }
 
+            case LAT_LON_DECSECOND: {
+                long latMin = floorUnits(lat - latDeg, lat, D60);
+                long lonMin = floorUnits(lon - lonDeg, lon, D60);
+                long latUnits = roundUnits(lat - latDeg, lat, SECOND_UNITS);
+                long lonUnits = roundUnits(lon - lonDeg, lon, SECOND_UNITS);
+                if (latMin == UNDECIDED || lonMin == UNDECIDED || latUnits == UNDECIDED || lonUnits == UNDECIDED)
+                    return appendFormatted(out, latSigned, lonSigned);
+
+                appendSeconds(out, latDir, latDeg, (int) latMin, latUnits - latMin * (long) MINUTE_UNITS);
+                out.append(SEPARATOR);
+                appendSeconds(out, lonDir, lonDeg, (int) lonMin, lonUnits - lonMin * (long) MINUTE_UNITS);
+                return out;
+            }
+        }
+
+        return out;
+    }
+
+    private void appendDegrees(Appendable out, double value, long units, boolean localized) throws IOException {
+        // String.format prints the minus sign for -0.0 too
+        if (Double.doubleToRawLongBits(value) < 0)
+            out.append('-');
+
+        appendFixed(out, units, DEGREE_DECIMALS, 0, localized);
+    }
+
+    private void appendMinutes(Appendable out, char dir, int deg, long units, String degree, boolean localized) throws IOException {
+        out.append(dir).append(' ');
+        appendInteger(out, deg, 1, localized);
+        out.append(degree);
+        appendFixed(out, units, MINUTE_DECIMALS, MINUTE_WIDTH, localized);
+    }
+
+    private void appendSeconds(Appendable out, char dir, int deg, int min, long units) throws IOException {
+        out.append(dir).append(' ');
+        appendInteger(out, deg, 1, true);
+        out.append(DEGREE);
+        appendInteger(out, min, 1, true);
+        out.append("' ");
+        appendFixed(out, units, MINUTE_DECIMALS, MINUTE_WIDTH, true);
+        out.append('"');
+    }
+
+    // appends a fixed-point number like %0{width}.{decimals}f
+    private void appendFixed(Appendable out, long units, int decimals, int width, boolean localized) throws IOException {
+        long scale = 1;
+        for (int i = 0; i < decimals; i++) {
+            scale *= 10;
+        }
+
+        appendInteger(out, units / scale, width - decimals - 1, localized);
+        out.append(localized ? decimalSeparator : '.');
+
+        long fraction = units % scale;
+        for (scale /= 10; scale > 0; scale /= 10) {
+            out.append(digit(fraction / scale % 10, localized));
+        }
+    }
+
+    // appends a non-negative integer with at least minDigits digits
+    private void appendInteger(Appendable out, long value, int minDigits, boolean localized) throws IOException {
+        long scale = 1;
+        int digits = 1;
+        while (value / scale >= 10 || digits < minDigits) {
+            scale *= 10;
+            digits++;
+        }
+
+        for (; scale > 0; scale /= 10) {
+            out.append(digit(value / scale % 10, localized));
+        }
+    }
+
+    private char digit(long value, boolean localized) {
+        return (char) ((localized ? zeroDigit : '0') + value);
+    }
+
+    /**
+     * Returns value * multiplier rounded half up as BigDecimal rounds the shortest decimal
+     * representation of the value, which String.format and the DMM and DMS helpers do. Both
+     * roundings differ only if the exact value is very close to a half, such values are
+     * {@link #UNDECIDED}.
+     *
+     * @param value      non-negative value or a fractional part of the original value
+     * @param original   original non-negative value for the error of the decimal representation
+     * @param multiplier multiplier
+     * @return rounded value or UNDECIDED
+     */
+    private static long roundUnits(double value, double original, double multiplier) {
+        double scaled = value * multiplier;
+        long floor = (long) scaled;
+        double fraction = scaled - floor;
+
+        // decimal representation error and the multiplication error
+        double error = multiplier * Math.ulp(original) + Math.ulp(scaled);
+        if (Math.abs(fraction - 0.5) <= error)
+            return UNDECIDED;
+
+        return fraction > 0.5 ? floor + 1 : floor;
+    }
+
+    // value * multiplier truncated like BigDecimal.intValue, see roundUnits
+    private static long floorUnits(double value, double original, double multiplier) {
+        double scaled = value * multiplier;
+        long floor = (long) scaled;
+        double fraction = scaled - floor;
+
+        double error = multiplier * Math.ulp(original) + Math.ulp(scaled);
+        if (fraction <= error || 1 - fraction <= error) {
+            // quarters are exact in binary and decimal
+            if (fraction != 0 || value * 4 != Math.rint(value * 4))
+                return UNDECIDED;
+        }
+        return floor;
+    }
+
+    private Appendable appendFormatted(Appendable out, double latSigned, double lonSigned) throws IOException {
+        String formatted = formatWithStringFormat(latSigned, lonSigned);
+        return formatted != null ? out.append(formatted) : out;
+    }
+
+    private String formatWithStringFormat(final double latSigned, final double lonSigned) {
         DMM dmm = new DMM(latSigned, lonSigned);
         DMS dms = new DMS(latSigned, lonSigned);
-
         switch (format) {
             case LAT_LON_DECDEGREE:
                 return String.format(locale, "%.6f %.6f", latSigned, lonSigned);
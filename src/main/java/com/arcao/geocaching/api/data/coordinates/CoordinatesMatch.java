@@ -0,0 +1,60 @@
+package com.arcao.geocaching.api.data.coordinates;
+
+import com.google.auto.value.AutoValue;
+
+import java.io.Serializable;
+
+/**
+ * Coordinates found in a text by {@link CoordinatesExtractor}.
+ *
+ * @author arcao
+ * @since 2.1
+ */
+@AutoValue
+public abstract class CoordinatesMatch implements Serializable {
+    private static final long serialVersionUID = -2361475804165283470L;
+
+    /**
+     * The smallest unit written in a coordinate text.
+     */
+    public enum Format {
+        /**
+         * Example: "N 49°"
+         */
+        DEGREES,
+
+        /**
+         * Example: "N 49° 56.031"
+         */
+        MINUTES,
+
+        /**
+         * Example: "N 49° 56' 1.86""
+         */
+        SECONDS
+    }
+
+    public static CoordinatesMatch create(Coordinates coordinates, int start, int end, Format latitudeFormat, Format longitudeFormat) {
+        return new AutoValue_CoordinatesMatch(coordinates, start, end, latitudeFormat, longitudeFormat);
+    }
+
+    public abstract Coordinates coordinates();
+
+    /**
+     * Get an index of the first char of the latitude in the text
+     *
+     * @return start index
+     */
+    public abstract int start();
+
+    /**
+     * Get an index after the last char of the longitude in the text
+     *
+     * @return end index
+     */
+    public abstract int end();
+
+    public abstract Format latitudeFormat();
+
+    public abstract Format longitudeFormat();
+}
@@ -9,10 +9,21 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.text.ParseException;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
 /**
+ * Parser of coordinates entered by a user, e.g. "N 49° 56.031 E 8° 38.564", "N 49 56 1.86 E 8 38 33.84",
+ * "49.93385 8.642733".<br>
+ * <br>
+ * A coordinate is found by a single pass scanner accepting the same text as the regular expression
+ * (case insensitive):
+ * <pre>
+ * \b([NS])\s*(\d+)°?(?:\s*(\d+)(?:[.,](\d+)|'?\s*(\d+(?:[.,]\d+)?)(?:''|")?)?)?
+ * </pre>
+ * with groups: direction, degrees, minutes, decimal minutes or seconds. Longitude uses
+ * <tt>[WE]</tt> direction. The unsafe mode makes the direction optional, allows a negative degree
+ * value and starts a match at any position not surrounded by chars other than <tt>[\-\w]</tt>.
+ * Word boundaries consider letters and digits by {@link Character#isLetterOrDigit(int)}.
+ *
  * @author arcao
  * @since 1.5
  */
@@ -21,18 +32,16 @@ public final class CoordinatesParser {
     private static final double MINUTES_PER_DEGREE = 60.0;
     private static final double SECONDS_PER_DEGREE = 3600.0;
 
-    //                                                                   ( 1 )     ( 2 )          ( 3 )        ( 4 )        ( 5 )
-    private static final Pattern LATITUDE_PATTERN = Pattern.compile("\\b([NS])\\s*(\\d+)°?(?:\\s*(\\d+)(?:[.,](\\d+)|'?\\s*(\\d+(?:[.,]\\d+)?)(?:''|\")?)?)?", Pattern.CASE_INSENSITIVE);
-    private static final Pattern LONGITUDE_PATTERN = Pattern.compile("\\b([WE])\\s*(\\d+)°?(?:\\s*(\\d+)(?:[.,](\\d+)|'?\\s*(\\d+(?:[.,]\\d+)?)(?:''|\")?)?)?", Pattern.CASE_INSENSITIVE);
-
-    //                                                                                                                   ( 1 )      ( 2 )            ( 3 )        ( 4 )        ( 5 )
-    private static final Pattern LATITUDE_PATTERN_UNSAFE = Pattern.compile("(?:(?=[\\-\\w])(?<![\\-\\w])|(?<![^\\-\\w]))([NS]|)\\s*(-?\\d+)°?(?:\\s*(\\d+)(?:[.,](\\d+)|'?\\s*(\\d+(?:[.,]\\d+)?)(?:''|\")?)?)?", Pattern.CASE_INSENSITIVE);
-    private static final Pattern LONGITUDE_PATTERN_UNSAFE = Pattern.compile("(?:(?=[\\-\\w])(?<![\\-\\w])|(?<![^\\-\\w]))([WE]|)\\s*(-?\\d+)°?(?:\\s*(\\d+)(?:[.,](\\d+)|'?\\s*(\\d+(?:[.,]\\d+)?)(?:''|\")?)?)?", Pattern.CASE_INSENSITIVE);
+    // the longest digit sequence parsed exactly without Double.parseDouble
+    private static final int MAX_FAST_DIGITS = 15;
+    private static final double[] POWERS_OF_TEN = {
+            1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11, 1e12, 1e13, 1e14, 1e15
+    };
 
     private CoordinatesParser() {
     }
 
-    private enum CoordinateType {
+    enum CoordinateType {
         LAT,
         LON,
         LAT_UNSAFE,
@@ -67,13 +76,14 @@ public final class CoordinatesParser {
     }
 
     public static Coordinates parse(String coordinates) throws ParseException {
-        final ParseResult latitudeWrapper = parse(coordinates, CoordinateType.LAT);
+        final ParseResult latitudeWrapper = parse(coordinates, 0, CoordinateType.LAT);
         final double lat = latitudeWrapper.result;
-        // cut away the latitude part when parsing the longitude
-        final ParseResult longitudeWrapper = parse(coordinates.substring(latitudeWrapper.matcherPos + latitudeWrapper.matcherLen), CoordinateType.LON);
+        // skip the latitude part when parsing the longitude
+        final int latitudeEnd = latitudeWrapper.matcherPos + latitudeWrapper.matcherLen;
+        final ParseResult longitudeWrapper = parse(coordinates, latitudeEnd, CoordinateType.LON);
 
-        if (longitudeWrapper.matcherPos - (latitudeWrapper.matcherPos + latitudeWrapper.matcherLen) >= 10) {
-            throw new ParseException("Distance between latitude and longitude text is to large.", latitudeWrapper.matcherPos + latitudeWrapper.matcherLen + longitudeWrapper.matcherPos);
+        if (longitudeWrapper.matcherPos - latitudeEnd >= 10) {
+            throw new ParseException("Distance between latitude and longitude text is to large.", latitudeEnd + longitudeWrapper.matcherPos);
         }
 
         final double lon = longitudeWrapper.result;
@@ -81,79 +91,240 @@ public final class CoordinatesParser {
     }
 
     protected static ParseResult parse(String coordinate, CoordinateType coordinateType) throws ParseException {
-        Pattern pattern;
-
-        switch (coordinateType) {
-            case LAT_UNSAFE:
-                pattern = LATITUDE_PATTERN_UNSAFE;
-                break;
-            case LON_UNSAFE:
-                pattern = LONGITUDE_PATTERN_UNSAFE;
-                break;
-            case LON:
-                pattern = LONGITUDE_PATTERN;
-                break;
-            case LAT:
-            default:
-                pattern = LATITUDE_PATTERN;
-                break;
+        return parse(coordinate, 0, coordinateType);
+    }
+
+    /**
+     * Parse a coordinate in the text after the start index. The text before the start index is
+     * ignored as if it was cut away.
+     *
+     * @return result with a position relative to the start index
+     */
+    private static ParseResult parse(String coordinate, int start, CoordinateType coordinateType) throws ParseException {
+        ParseResult result = scan(coordinate, start, start, coordinate.length(), coordinateType);
+        if (result != null)
+            return result;
+
+        // Nothing found with "N 52...", try to match string as decimaldegree
+        String text = coordinate.substring(start);
+        try {
+            final String[] items = StringUtils.split(text.trim());
+            if (items.length > 0) {
+                final int index = (coordinateType == CoordinateType.LON ? items.length - 1 : 0);
+                final int pos = (coordinateType == CoordinateType.LON ? text.lastIndexOf(items[index]) : text.indexOf(items[index]));
+                return new ParseResult(Double.parseDouble(items[index]), pos, items[index].length(), null);
+            }
+        } catch (NumberFormatException e) {
+            logger.error(e.getMessage(), e);
         }
+        throw new ParseException("Could not parse coordinate: \"" + text + "\"", 0);
+    }
 
-        final Matcher matcher = pattern.matcher(coordinate);
+    /**
+     * Find the first coordinate starting at the from index and before the limit index. The text
+     * before the start index is ignored as if it was cut away.
+     *
+     * @return result with a position relative to the start index or null if not found
+     */
+    static ParseResult scan(CharSequence text, int start, int from, int limit, CoordinateType coordinateType) {
+        final boolean latitude = coordinateType == CoordinateType.LAT || coordinateType == CoordinateType.LAT_UNSAFE;
+        final boolean safe = coordinateType == CoordinateType.LAT || coordinateType == CoordinateType.LON;
+        final char positive = latitude ? 'N' : 'E';
+        final char negative = latitude ? 'S' : 'W';
+        final int length = text.length();
+
+        for (int matchStart = from; matchStart < limit; matchStart++) {
+            int i = matchStart;
+            double sign = 1.0;
+
+            // direction
+            char dir = toUpperCase(text.charAt(i));
+            if (dir == positive || dir == negative) {
+                sign = dir == negative ? -1.0 : 1.0;
+                i++;
+            }
 
-        if (matcher.find()) {
-            double sign = "S".equalsIgnoreCase(matcher.group(1)) || "W".equalsIgnoreCase(matcher.group(1)) ? -1.0 : 1.0;
-            double degree = Double.parseDouble(matcher.group(2));
+            if (safe) {
+                if (i == matchStart || isWordBefore(text, start, matchStart))
+                    continue;
+            } else if (matchStart > start && !isUnsafeWordChar(text.charAt(matchStart - 1)) && !isUnsafeWordChar(text.charAt(matchStart))) {
+                continue;
+            }
 
+            i = skipSpaces(text, i);
+
+            // degrees
+            boolean negativeDegree = false;
+            if (!safe && i + 1 < length && text.charAt(i) == '-' && isDigit(text.charAt(i + 1))) {
+                negativeDegree = true;
+                i++;
+            }
+            int degreeStart = i;
+            i = skipDigits(text, i);
+            if (i == degreeStart)
+                continue;
+
+            double degree = parseNumber(text, degreeStart, i, -1, i);
+            if (negativeDegree)
+                degree = -degree;
             if (degree < 0) {
                 sign = -1;
                 degree = Math.abs(degree);
             }
 
+            if (i < length && text.charAt(i) == '°')
+                i++;
+
             double minutes = 0.0;
             double seconds = 0.0;
-
-            if (matcher.group(3) != null) {
-                minutes = Double.parseDouble(matcher.group(3));
-
-                if (matcher.group(4) != null) {
-                    seconds = Double.parseDouble("0." + matcher.group(4)) * MINUTES_PER_DEGREE;
-                } else if (matcher.group(5) != null) {
-                    seconds = Double.parseDouble(matcher.group(5).replace(",", "."));
+            CoordinatesMatch.Format format = CoordinatesMatch.Format.DEGREES;
+
+            // minutes
+            int minuteStart = skipSpaces(text, i);
+            int minuteEnd = skipDigits(text, minuteStart);
+            if (minuteEnd > minuteStart) {
+                i = minuteEnd;
+                minutes = parseNumber(text, minuteStart, minuteEnd, -1, minuteEnd);
+                format = CoordinatesMatch.Format.MINUTES;
+
+                if (i + 1 < length && isDecimalSeparator(text.charAt(i)) && isDigit(text.charAt(i + 1))) {
+                    // decimal minutes
+                    int fractionEnd = skipDigits(text, i + 1);
+                    seconds = parseNumber(text, i + 1, i + 1, i + 1, fractionEnd) * MINUTES_PER_DEGREE;
+                    i = fractionEnd;
+                } else {
+                    // seconds
+                    int secondStart = i < length && text.charAt(i) == '\'' ? i + 1 : i;
+                    secondStart = skipSpaces(text, secondStart);
+                    int secondEnd = skipDigits(text, secondStart);
+
+                    if (secondEnd > secondStart) {
+                        int integerEnd = secondEnd;
+                        int fractionStart = -1;
+                        if (secondEnd + 1 < length && isDecimalSeparator(text.charAt(secondEnd)) && isDigit(text.charAt(secondEnd + 1))) {
+                            fractionStart = secondEnd + 1;
+                            secondEnd = skipDigits(text, fractionStart);
+                        }
+                        seconds = parseNumber(text, secondStart, integerEnd, fractionStart, secondEnd);
+                        format = CoordinatesMatch.Format.SECONDS;
+                        i = secondEnd;
+
+                        if (i + 1 < length && text.charAt(i) == '\'' && text.charAt(i + 1) == '\'') {
+                            i += 2;
+                        } else if (i < length && text.charAt(i) == '"') {
+                            i++;
+                        }
+                    }
                 }
             }
 
             double result = sign * (degree + minutes / MINUTES_PER_DEGREE + seconds / SECONDS_PER_DEGREE);
 
             // normalize result
-            switch (coordinateType) {
-                case LON_UNSAFE:
-                case LON:
-                    result = normalize(result, -180, 180);
-                    break;
-                case LAT_UNSAFE:
-                case LAT:
-                default:
-                    result = normalize(result, -90, 90);
-                    break;
+            if (latitude) {
+                result = normalize(result, -90, 90);
+            } else {
+                result = normalize(result, -180, 180);
             }
 
-            return new ParseResult(result, matcher.start(), matcher.group().length());
-        } else {
+            return new ParseResult(result, matchStart - start, i - matchStart, format);
+        }
+
+        return null;
+    }
 
-            // Nothing found with "N 52...", try to match string as decimaldegree
-            try {
-                final String[] items = StringUtils.split(coordinate.trim());
-                if (items.length > 0) {
-                    final int index = (coordinateType == CoordinateType.LON ? items.length - 1 : 0);
-                    final int pos = (coordinateType == CoordinateType.LON ? coordinate.lastIndexOf(items[index]) : coordinate.indexOf(items[index]));
-                    return new ParseResult(Double.parseDouble(items[index]), pos, items[index].length());
-                }
-            } catch (NumberFormatException e) {
-                logger.error(e.getMessage(), e);
+    /**
+     * Parse a decimal number with an integer part and an optional fraction part the same way as
+     * Double.parseDouble does.
+     *
+     * @param text          text
+     * @param integerStart  start of integer digits
+     * @param integerEnd    end of integer digits
+     * @param fractionStart start of fraction digits or -1
+     * @param end           end of fraction digits
+     * @return parsed number
+     */
+    private static double parseNumber(CharSequence text, int integerStart, int integerEnd, int fractionStart, int end) {
+        int fractionLength = fractionStart != -1 ? end - fractionStart : 0;
+
+        if ((integerEnd - integerStart) + fractionLength <= MAX_FAST_DIGITS) {
+            // digits fit into 2^53 and the power of ten is exact, so the division is rounded correctly
+            long value = 0;
+            for (int i = integerStart; i < integerEnd; i++) {
+                value = value * 10 + (text.charAt(i) - '0');
             }
+            for (int i = end - fractionLength; i < end; i++) {
+                value = value * 10 + (text.charAt(i) - '0');
+            }
+            return fractionLength == 0 ? value : value / POWERS_OF_TEN[fractionLength];
         }
-        throw new ParseException("Could not parse coordinate: \"" + coordinate + "\"", 0);
+
+        String number = text.subSequence(integerStart, integerEnd).toString();
+        if (fractionStart != -1)
+            number += "." + text.subSequence(fractionStart, end);
+        return Double.parseDouble(number);
+    }
+
+    // \b before a word char at the index, Pattern considers non spacing marks after a letter as word chars too
+    private static boolean isWordBefore(CharSequence text, int start, int index) {
+        if (index <= start)
+            return false;
+
+        // the text before the start index is not available
+        int ch = text.charAt(index - 1);
+        if (Character.isLowSurrogate((char) ch) && index - 2 >= start && Character.isHighSurrogate(text.charAt(index - 2)))
+            ch = Character.toCodePoint(text.charAt(index - 2), (char) ch);
+
+        if (ch == '_' || Character.isLetterOrDigit(ch))
+            return true;
+
+        if (Character.getType(ch) != Character.NON_SPACING_MARK)
+            return false;
+
+        for (int i = index - 1; i >= start; i--) {
+            ch = Character.codePointAt(text, i);
+            if (Character.isLetterOrDigit(ch))
+                return true;
+            if (Character.getType(ch) != Character.NON_SPACING_MARK)
+                return false;
+        }
+        return false;
+    }
+
+    // [\-\w]
+    private static boolean isUnsafeWordChar(char ch) {
+        return ch == '-' || ch == '_' || isDigit(ch) || (ch >= 'a' && ch <= 'z') || (ch >= 'A' && ch <= 'Z');
+    }
+
+    private static boolean isDigit(char ch) {
+        return ch >= '0' && ch <= '9';
+    }
+
+    private static boolean isDecimalSeparator(char ch) {
+        return ch == '.' || ch == ',';
+    }
+
+    // \s
+    private static boolean isSpace(char ch) {
+        return ch == ' ' || (ch >= '\t' && ch <= '\r');
+    }
+
+    private static int skipSpaces(CharSequence text, int index) {
+        while (index < text.length() && isSpace(text.charAt(index))) {
+            index++;
+        }
+        return index;
+    }
+
+    private static int skipDigits(CharSequence text, int index) {
+        while (index < text.length() && isDigit(text.charAt(index))) {
+            index++;
+        }
+        return index;
+    }
+
+    private static char toUpperCase(char ch) {
+        return ch >= 'a' && ch <= 'z' ? (char) (ch - ('a' - 'A')) : ch;
     }
 
     /**
@@ -171,15 +342,18 @@ public final class CoordinatesParser {
         return (offsetValue - (Math.floor(offsetValue / width) * width)) + start; // + start to reset back to start of original range
     }
 
-    private static class ParseResult {
+    static class ParseResult {
         final double result;
         final int matcherPos;
         final int matcherLen;
+        // null for a plain decimal number
+        final CoordinatesMatch.Format format;
 
-        ParseResult(double result, int matcherPos, int matcherLen) {
+        ParseResult(double result, int matcherPos, int matcherLen, CoordinatesMatch.Format format) {
             this.result = result;
             this.matcherPos = matcherPos;
             this.matcherLen = matcherLen;
+            this.format = format;
         }
     }
 }
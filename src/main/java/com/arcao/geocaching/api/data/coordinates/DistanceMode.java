@@ -0,0 +1,228 @@
+package com.arcao.geocaching.api.data.coordinates;
+
+/**
+ * Method of a distance computation between two coordinates.<br>
+ * <br>
+ * Every mode computes a comparable value by {@link #comparable(double, double, double, double)}
+ * which grows with the distance and is cheaper to compute than the distance in meters. Comparable
+ * values are good for sorting and radius tests, a radius is converted by {@link #fromMeters(double)}
+ * once. A comparable value is converted to meters by {@link #toMeters(double)}.<br>
+ * <br>
+ * Errors are relative to {@link #HAVERSINE}, which itself differs from the distance on WGS-84
+ * ellipsoid by up to 0.5 %.
+ *
+ * @author arcao
+ * @since 2.1
+ */
+public enum DistanceMode {
+    /**
+     * Haversine formula on a sphere, the same as {@link Coordinates#distanceTo(Coordinates)}. The
+     * comparable value is a distance in meters.
+     */
+    HAVERSINE {
+        @Override
+        public double comparable(double latitude1, double longitude1, double latitude2, double longitude2) {
+            double lat1 = Math.toRadians(latitude1);
+            double lat2 = Math.toRadians(latitude2);
+            return Coordinates.haversine(lat1, Math.toRadians(longitude1), Math.cos(lat1), lat2, Math.toRadians(longitude2), Math.cos(lat2));
+        }
+
+        @Override
+        public double toMeters(double comparable) {
+            return comparable;
+        }
+
+        @Override
+        public double fromMeters(double meters) {
+            return meters;
+        }
+
+        @Override
+        void comparables(double latitude, double longitude, double[] latitudes, double[] longitudes, double[] results, int count) {
+            final double lat1 = Math.toRadians(latitude);
+            final double lon1 = Math.toRadians(longitude);
+            final double cosLat1 = Math.cos(lat1);
+
+            for (int i = 0; i < count; i++) {
+                double lat2 = Math.toRadians(latitudes[i]);
+                results[i] = Coordinates.haversine(lat1, lon1, cosLat1, lat2, Math.toRadians(longitudes[i]), Math.cos(lat2));
+            }
+        }
+
+        @Override
+        void toMeters(double[] results, int count) {
+            // already in meters
+        }
+    },
+
+    /**
+     * Equirectangular projection with a longitude scaled by a cosine of the mean latitude, a
+     * distance is computed on the plane. The comparable value is a squared distance in radians.
+     * The maximal relative error for both coordinates with latitude up to 70° (85°) is:
+     * <ul>
+     * <li>0.0001 % (0.002 %) up to 10 km</li>
+     * <li>0.01 % (0.15 %) up to 100 km</li>
+     * <li>0.8 % (20 %) up to 1000 km</li>
+     * <li>4 % (65 %) above 1000 km</li>
+     * </ul>
+     * Use it for radius filtering and nearest caches around a position, not for long distances.
+     */
+    EQUIRECTANGULAR {
+        @Override
+        public double comparable(double latitude1, double longitude1, double latitude2, double longitude2) {
+            double x = wrap(Math.toRadians(longitude2 - longitude1)) * Math.cos(Math.toRadians(latitude1 + latitude2) / 2.0);
+            double y = Math.toRadians(latitude2 - latitude1);
+            return x * x + y * y;
+        }
+
+        @Override
+        public double toMeters(double comparable) {
+            return Math.sqrt(comparable) * Coordinates.AVERAGE_RADIUS_OF_EARTH;
+        }
+
+        @Override
+        public double fromMeters(double meters) {
+            double angle = meters / Coordinates.AVERAGE_RADIUS_OF_EARTH;
+            return angle * angle;
+        }
+
+        @Override
+        void comparables(double latitude, double longitude, double[] latitudes, double[] longitudes, double[] results, int count) {
+            for (int i = 0; i < count; i++) {
+                double x = wrap(Math.toRadians(longitudes[i] - longitude)) * Math.cos(Math.toRadians(latitude + latitudes[i]) / 2.0);
+                double y = Math.toRadians(latitudes[i] - latitude);
+                results[i] = x * x + y * y;
+            }
+        }
+    },
+
+    /**
+     * Squared length of a chord between two points on a unit sphere. It gives the same order as
+     * {@link #HAVERSINE} without atan2 and sqrt, a distance converted by {@link #toMeters(double)}
+     * equals to the haversine distance up to rounding errors (1e-6 % for distances above 1 m).
+     */
+    SQUARED_CHORD {
+        @Override
+        public double comparable(double latitude1, double longitude1, double latitude2, double longitude2) {
+            double lat1 = Math.toRadians(latitude1);
+            double lat2 = Math.toRadians(latitude2);
+            double sinDLat2 = Math.sin((lat2 - lat1) / 2.0);
+            double sinDLon2 = Math.sin(Math.toRadians(longitude2 - longitude1) / 2.0);
+            return 4.0 * (sinDLat2 * sinDLat2 + Math.cos(lat1) * Math.cos(lat2) * sinDLon2 * sinDLon2);
+        }
+
+        @Override
+        public double toMeters(double comparable) {
+            return 2.0 * Math.asin(Math.min(Math.sqrt(comparable) / 2.0, 1.0)) * Coordinates.AVERAGE_RADIUS_OF_EARTH;
+        }
+
+        @Override
+        public double fromMeters(double meters) {
+            if (meters >= Math.PI * Coordinates.AVERAGE_RADIUS_OF_EARTH)
+                return 4.0;
+
+            double chord = 2.0 * Math.sin(meters / (2.0 * Coordinates.AVERAGE_RADIUS_OF_EARTH));
+            return chord * chord;
+        }
+
+        @Override
+        void comparables(double latitude, double longitude, double[] latitudes, double[] longitudes, double[] results, int count) {
+            final double lat1 = Math.toRadians(latitude);
+            final double cosLat1 = Math.cos(lat1);
+
+            for (int i = 0; i < count; i++) {
+                double lat2 = Math.toRadians(latitudes[i]);
+                double sinDLat2 = Math.sin((lat2 - lat1) / 2.0);
+                double sinDLon2 = Math.sin(Math.toRadians(longitudes[i] - longitude) / 2.0);
+                results[i] = 4.0 * (sinDLat2 * sinDLat2 + cosLat1 * Math.cos(lat2) * sinDLon2 * sinDLon2);
+            }
+        }
+    };
+
+    /**
+     * Compute a distance in meters between two coordinates.
+     *
+     * @param latitude1  latitude of the first coordinates
+     * @param longitude1 longitude of the first coordinates
+     * @param latitude2  latitude of the second coordinates
+     * @param longitude2 longitude of the second coordinates
+     * @return distance in meters
+     */
+    public double distance(double latitude1, double longitude1, double latitude2, double longitude2) {
+        return toMeters(comparable(latitude1, longitude1, latitude2, longitude2));
+    }
+
+    /**
+     * Compute a value growing with a distance between two coordinates.
+     *
+     * @param latitude1  latitude of the first coordinates
+     * @param longitude1 longitude of the first coordinates
+     * @param latitude2  latitude of the second coordinates
+     * @param longitude2 longitude of the second coordinates
+     * @return comparable value
+     */
+    public abstract double comparable(double latitude1, double longitude1, double latitude2, double longitude2);
+
+    /**
+     * Convert a comparable value to a distance in meters.
+     *
+     * @param comparable comparable value
+     * @return distance in meters
+     */
+    public abstract double toMeters(double comparable);
+
+    /**
+     * Convert a distance in meters to a comparable value, e.g. a radius to a threshold.
+     *
+     * @param meters distance in meters
+     * @return comparable value
+     */
+    public abstract double fromMeters(double meters);
+
+    /**
+     * Compute distances in meters from the source coordinates to many destination coordinates.
+     *
+     * @param latitude   source latitude
+     * @param longitude  source longitude
+     * @param latitudes  destination latitudes
+     * @param longitudes destination longitudes
+     * @param results    array for distances in meters, its length is a count of destinations
+     * @throws IllegalArgumentException If latitudes or longitudes are shorter than results
+     */
+    public void distances(double latitude, double longitude, double[] latitudes, double[] longitudes, double[] results) {
+        int count = Coordinates.checkBatch(latitudes, longitudes, results);
+        comparables(latitude, longitude, latitudes, longitudes, results, count);
+        toMeters(results, count);
+    }
+
+    /**
+     * Compute comparable values from the source coordinates to many destination coordinates.
+     *
+     * @param latitude   source latitude
+     * @param longitude  source longitude
+     * @param latitudes  destination latitudes
+     * @param longitudes destination longitudes
+     * @param results    array for comparable values, its length is a count of destinations
+     * @throws IllegalArgumentException If latitudes or longitudes are shorter than results
+     */
+    public void comparables(double latitude, double longitude, double[] latitudes, double[] longitudes, double[] results) {
+        comparables(latitude, longitude, latitudes, longitudes, results, Coordinates.checkBatch(latitudes, longitudes, results));
+    }
+
+    abstract void comparables(double latitude, double longitude, double[] latitudes, double[] longitudes, double[] results, int count);
+
+    void toMeters(double[] results, int count) {
+        for (int i = 0; i < count; i++) {
+            results[i] = toMeters(results[i]);
+        }
+    }
+
+    // longitude difference in radians to range -PI..PI
+    static double wrap(double angle) {
+        if (angle > Math.PI)
+            return angle - 2 * Math.PI;
+        if (angle < -Math.PI)
+            return angle + 2 * Math.PI;
+        return angle;
+    }
+}
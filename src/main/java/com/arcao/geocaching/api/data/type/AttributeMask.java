@@ -0,0 +1,286 @@
+package com.arcao.geocaching.api.data.type;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.Serializable;
+import java.util.Collection;
+import java.util.EnumSet;
+
+/**
+ * Immutable set of {@link AttributeType} stored as a bitmask, the bit index is an ordinal of the
+ * attribute type. On and off variants of the same attribute are different bits.<br>
+ * <br>
+ * Masks of many geocaches can be kept in a <tt>long[]</tt> array, {@link #WORDS} items per mask
+ * (see {@link #copyTo(long[], int)}), and tested in bulk by
+ * {@link #containsAll(long[], AttributeMask)} and {@link #containsAny(long[], AttributeMask)}
+ * without creating any objects.
+ *
+ * @author arcao
+ * @since 2.1
+ */
+public final class AttributeMask implements Serializable {
+    private static final long serialVersionUID = -6021562958467021749L;
+
+    /**
+     * Count of long words of a mask in an array
+     */
+    public static final int WORDS = 3;
+
+    public static final AttributeMask EMPTY = new AttributeMask(0, 0, 0);
+
+    private static final AttributeType[] ATTRIBUTE_TYPES = AttributeType.values();
+
+    static {
+        if (ATTRIBUTE_TYPES.length > WORDS * 64)
+            throw new IllegalStateException("AttributeMask can't hold " + ATTRIBUTE_TYPES.length + " attribute types.");
+    }
+
+    private final long word0;
+    private final long word1;
+    private final long word2;
+
+    private AttributeMask(long word0, long word1, long word2) {
+        this.word0 = word0;
+        this.word1 = word1;
+        this.word2 = word2;
+    }
+
+    @NotNull
+    public static AttributeMask of(@NotNull AttributeType... attributes) {
+        Builder builder = builder();
+        for (AttributeType attribute : attributes) {
+            builder.add(attribute);
+        }
+        return builder.build();
+    }
+
+    /**
+     * Create a mask of attribute types in the collection.
+     *
+     * @param attributes attribute types or null
+     * @return mask, {@link #EMPTY} for null
+     */
+    @NotNull
+    public static AttributeMask of(@Nullable Collection<AttributeType> attributes) {
+        if (attributes == null)
+            return EMPTY;
+
+        Builder builder = builder();
+        for (AttributeType attribute : attributes) {
+            builder.add(attribute);
+        }
+        return builder.build();
+    }
+
+    /**
+     * Read a mask stored by {@link #copyTo(long[], int)}.
+     *
+     * @param masks array of masks
+     * @param index index of the mask in the array
+     * @return mask
+     */
+    @NotNull
+    public static AttributeMask valueOf(@NotNull long[] masks, int index) {
+        int offset = index * WORDS;
+        return create(masks[offset], masks[offset + 1], masks[offset + 2]);
+    }
+
+    /**
+     * Store this mask to the array at index * {@link #WORDS} position.
+     *
+     * @param masks array of masks
+     * @param index index of the mask in the array
+     */
+    public void copyTo(@NotNull long[] masks, int index) {
+        int offset = index * WORDS;
+        masks[offset] = word0;
+        masks[offset + 1] = word1;
+        masks[offset + 2] = word2;
+    }
+
+    public boolean contains(@NotNull AttributeType attribute) {
+        int ordinal = attribute.ordinal();
+        return (word(ordinal >>> 6) & (1L << ordinal)) != 0;
+    }
+
+    public boolean containsAll(@NotNull AttributeMask mask) {
+        return (word0 & mask.word0) == mask.word0
+                && (word1 & mask.word1) == mask.word1
+                && (word2 & mask.word2) == mask.word2;
+    }
+
+    public boolean containsAny(@NotNull AttributeMask mask) {
+        return ((word0 & mask.word0) | (word1 & mask.word1) | (word2 & mask.word2)) != 0;
+    }
+
+    @NotNull
+    public AttributeMask with(@NotNull AttributeType attribute) {
+        if (contains(attribute))
+            return this;
+
+        return builder().addAll(this).add(attribute).build();
+    }
+
+    @NotNull
+    public AttributeMask union(@NotNull AttributeMask mask) {
+        return create(word0 | mask.word0, word1 | mask.word1, word2 | mask.word2);
+    }
+
+    @NotNull
+    public AttributeMask intersect(@NotNull AttributeMask mask) {
+        return create(word0 & mask.word0, word1 & mask.word1, word2 & mask.word2);
+    }
+
+    public boolean isEmpty() {
+        return (word0 | word1 | word2) == 0;
+    }
+
+    public int size() {
+        return Long.bitCount(word0) + Long.bitCount(word1) + Long.bitCount(word2);
+    }
+
+    @NotNull
+    public EnumSet<AttributeType> toEnumSet() {
+        EnumSet<AttributeType> result = EnumSet.noneOf(AttributeType.class);
+        for (int i = 0; i < WORDS; i++) {
+            long word = word(i);
+            while (word != 0) {
+                result.add(ATTRIBUTE_TYPES[(i << 6) + Long.numberOfTrailingZeros(word)]);
+                word &= word - 1;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Find masks in the array which contain all attributes of the required mask.
+     *
+     * @param masks    array of masks stored by {@link #copyTo(long[], int)}
+     * @param required required attributes
+     * @return ascending indexes of matching masks
+     */
+    @NotNull
+    public static int[] containsAll(@NotNull long[] masks, @NotNull AttributeMask required) {
+        long w0 = required.word0;
+        long w1 = required.word1;
+        long w2 = required.word2;
+
+        int count = masks.length / WORDS;
+        int[] result = new int[count];
+        int size = 0;
+        for (int i = 0, offset = 0; i < count; i++, offset += WORDS) {
+            if ((masks[offset] & w0) == w0 && (masks[offset + 1] & w1) == w1 && (masks[offset + 2] & w2) == w2)
+                result[size++] = i;
+        }
+        return trim(result, size);
+    }
+
+    /**
+     * Find masks in the array which contain at least one attribute of the mask.
+     *
+     * @param masks array of masks stored by {@link #copyTo(long[], int)}
+     * @param any   attributes
+     * @return ascending indexes of matching masks
+     */
+    @NotNull
+    public static int[] containsAny(@NotNull long[] masks, @NotNull AttributeMask any) {
+        long w0 = any.word0;
+        long w1 = any.word1;
+        long w2 = any.word2;
+
+        int count = masks.length / WORDS;
+        int[] result = new int[count];
+        int size = 0;
+        for (int i = 0, offset = 0; i < count; i++, offset += WORDS) {
+            if (((masks[offset] & w0) | (masks[offset + 1] & w1) | (masks[offset + 2] & w2)) != 0)
+                result[size++] = i;
+        }
+        return trim(result, size);
+    }
+
+    @NotNull
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (obj == this)
+            return true;
+        if (!(obj instanceof AttributeMask))
+            return false;
+
+        AttributeMask mask = (AttributeMask) obj;
+        return word0 == mask.word0 && word1 == mask.word1 && word2 == mask.word2;
+    }
+
+    @Override
+    public int hashCode() {
+        long hash = word0 * 31 * 31 + word1 * 31 + word2;
+        return (int) (hash ^ (hash >>> 32));
+    }
+
+    @Override
+    public String toString() {
+        return toEnumSet().toString();
+    }
+
+    private long word(int index) {
+        switch (index) {
+            case 0:
+                return word0;
+            case 1:
+                return word1;
+            default:
+                return word2;
+        }
+    }
+
+    private static AttributeMask create(long word0, long word1, long word2) {
+        if ((word0 | word1 | word2) == 0)
+            return EMPTY;
+
+        return new AttributeMask(word0, word1, word2);
+    }
+
+    private static int[] trim(int[] array, int size) {
+        if (size == array.length)
+            return array;
+
+        int[] result = new int[size];
+        System.arraycopy(array, 0, result, 0, size);
+        return result;
+    }
+
+    private Object readResolve() {
+        return create(word0, word1, word2);
+    }
+
+    public static final class Builder {
+        private final long[] words = new long[WORDS];
+
+        Builder() {
+        }
+
+        @NotNull
+        public Builder add(@NotNull AttributeType attribute) {
+            int ordinal = attribute.ordinal();
+            words[ordinal >>> 6] |= 1L << ordinal;
+            return this;
+        }
+
+        @NotNull
+        public Builder addAll(@NotNull AttributeMask mask) {
+            words[0] |= mask.word0;
+            words[1] |= mask.word1;
+            words[2] |= mask.word2;
+            return this;
+        }
+
+        @NotNull
+        public AttributeMask build() {
+            return create(words[0], words[1], words[2]);
+        }
+    }
+}
@@ -156,6 +156,21 @@ public enum AttributeType {
     @NotNull
     public final String imageUrl;
 
+    // indexed by id * 2 + (on ? 1 : 0)
+    private static final AttributeType[] BY_ID_AND_ON;
+
+    static {
+        int maxId = 0;
+        for (AttributeType type : values()) {
+            maxId = Math.max(maxId, type.id);
+        }
+
+        BY_ID_AND_ON = new AttributeType[(maxId + 1) * 2];
+        for (AttributeType type : values()) {
+            BY_ID_AND_ON[index(type.id, type.on)] = type;
+        }
+    }
+
     AttributeType(int id, @NotNull String name, boolean on, @NotNull String imageUrl) {
         this.id = id;
         this.name = name;
@@ -177,11 +192,13 @@ public enum AttributeType {
      */
     @Nullable
     public static AttributeType fromId(int id, boolean on) {
-        for (AttributeType type : values()) {
-            if (type.id == id && type.on == on)
-                return type;
-        }
+        if (id < 0 || id >= BY_ID_AND_ON.length / 2)
+            return null;
+
+        return BY_ID_AND_ON[index(id, on)];
+    }
 
-        return null;
+    private static int index(int id, boolean on) {
+        return id * 2 + (on ? 1 : 0);
     }
 }
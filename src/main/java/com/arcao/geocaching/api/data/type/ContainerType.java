@@ -3,6 +3,9 @@ package com.arcao.geocaching.api.data.type;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
+import java.util.HashMap;
+import java.util.Map;
+
 public enum ContainerType {
     NotChosen("Not chosen", 1),
     Micro("Micro", 2),
@@ -21,6 +24,25 @@ public enum ContainerType {
      */
     public final int id;
 
+    private static final ContainerType[] BY_ID;
+    private static final Map<String, ContainerType> BY_NAME = new HashMap<String, ContainerType>();
+
+    static {
+        int maxId = 0;
+        for (ContainerType type : values()) {
+            maxId = Math.max(maxId, type.id);
+        }
+
+        BY_ID = new ContainerType[maxId + 1];
+        for (ContainerType type : values()) {
+            BY_ID[type.id] = type;
+        }
+
+        for (ContainerType type : values()) {
+            BY_NAME.put(type.name, type);
+        }
+    }
+
     ContainerType(@NotNull String name, int id) {
         this.name = name;
         this.id = id;
@@ -39,12 +61,8 @@ public enum ContainerType {
      */
     @NotNull
     public static ContainerType fromName(@Nullable String name) {
-        for (ContainerType type : values()) {
-            if (type.name.equals(name))
-                return type;
-        }
-
-        return Other;
+        ContainerType type = BY_NAME.get(name);
+        return type != null ? type : Other;
     }
 
     /**
@@ -55,11 +73,9 @@ public enum ContainerType {
      */
     @NotNull
     public static ContainerType fromId(int id) {
-        for (ContainerType type : values()) {
-            if (type.id == id)
-                return type;
-        }
+        if (id < 0 || id >= BY_ID.length || BY_ID[id] == null)
+            return Other;
 
-        return Other;
+        return BY_ID[id];
     }
 }
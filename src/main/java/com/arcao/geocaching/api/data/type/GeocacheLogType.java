@@ -3,6 +3,9 @@ package com.arcao.geocaching.api.data.type;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
+import java.util.HashMap;
+import java.util.Map;
+
 public enum GeocacheLogType {
     Unknown("Unknown", 0),
     FoundIt("Found it", 2),
@@ -33,6 +36,14 @@ public enum GeocacheLogType {
      */
     public final int id;
 
+    private static final Map<String, GeocacheLogType> BY_NAME = new HashMap<String, GeocacheLogType>();
+
+    static {
+        for (GeocacheLogType type : values()) {
+            BY_NAME.put(type.name, type);
+        }
+    }
+
     GeocacheLogType(@NotNull String name, int id) {
         this.name = name;
         this.id = id;
@@ -51,11 +62,6 @@ public enum GeocacheLogType {
      */
     @Nullable
     public static GeocacheLogType fromName(@Nullable String name) {
-        for (final GeocacheLogType type : values()) {
-            if (type.name.equals(name))
-                return type;
-        }
-
-        return null;
+        return BY_NAME.get(name);
     }
 }
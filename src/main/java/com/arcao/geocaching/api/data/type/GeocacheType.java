@@ -3,6 +3,9 @@ package com.arcao.geocaching.api.data.type;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
+import java.util.HashMap;
+import java.util.Map;
+
 /**
  * Enumeration for all existing Cache types.
  *
@@ -95,6 +98,25 @@ public enum GeocacheType {
      */
     public final int id;
 
+    private static final GeocacheType[] BY_ID;
+    private static final Map<String, GeocacheType> BY_NAME = new HashMap<String, GeocacheType>();
+
+    static {
+        int maxId = 0;
+        for (GeocacheType type : values()) {
+            maxId = Math.max(maxId, type.id);
+        }
+
+        BY_ID = new GeocacheType[maxId + 1];
+        for (GeocacheType type : values()) {
+            BY_ID[type.id] = type;
+        }
+
+        for (GeocacheType type : values()) {
+            BY_NAME.put(type.name, type);
+        }
+    }
+
     GeocacheType(@NotNull String name, int id) {
         this.name = name;
         this.id = id;
@@ -113,12 +135,7 @@ public enum GeocacheType {
      */
     @Nullable
     public static GeocacheType fromName(@Nullable String name) {
-        for (GeocacheType type : values()) {
-            if (type.name.equals(name))
-                return type;
-        }
-
-        return null;
+        return BY_NAME.get(name);
     }
 
     /**
@@ -129,12 +146,10 @@ public enum GeocacheType {
      */
     @Nullable
     public static GeocacheType fromId(int id) {
-        for (GeocacheType type : values()) {
-            if (type.id == id)
-                return type;
-        }
+        if (id < 0 || id >= BY_ID.length)
+            return null;
 
-        return null;
+        return BY_ID[id];
     }
 
 }
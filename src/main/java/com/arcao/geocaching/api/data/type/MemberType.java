@@ -17,6 +17,20 @@ public enum MemberType {
      */
     public final int id;
 
+    private static final MemberType[] BY_ID;
+
+    static {
+        int maxId = 0;
+        for (MemberType memberType : values()) {
+            maxId = Math.max(maxId, memberType.id);
+        }
+
+        BY_ID = new MemberType[maxId + 1];
+        for (MemberType memberType : values()) {
+            BY_ID[memberType.id] = memberType;
+        }
+    }
+
     MemberType(@NotNull String name, int id) {
         this.name = name;
         this.id = id;
@@ -30,11 +44,9 @@ public enum MemberType {
      */
     @NotNull
     public static MemberType fromId(int id) {
-        for (MemberType memberType : values()) {
-            if (memberType.id == id)
-                return memberType;
-        }
+        if (id < 0 || id >= BY_ID.length || BY_ID[id] == null)
+            return Guest;
 
-        return Guest;
+        return BY_ID[id];
     }
 }
@@ -4,6 +4,8 @@ import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.Map;
 
 public enum TrackableLogType {
     WriteNote("Write note", 4, EnumSet.of(States.IN_CACHE, States.WITH_PERSON)),
@@ -26,6 +28,25 @@ public enum TrackableLogType {
     public final int id;
     @NotNull private final EnumSet<States> allowedState;
 
+    private static final TrackableLogType[] BY_ID;
+    private static final Map<String, TrackableLogType> BY_NAME = new HashMap<String, TrackableLogType>();
+
+    static {
+        int maxId = 0;
+        for (TrackableLogType type : values()) {
+            maxId = Math.max(maxId, type.id);
+        }
+
+        BY_ID = new TrackableLogType[maxId + 1];
+        for (TrackableLogType type : values()) {
+            BY_ID[type.id] = type;
+        }
+
+        for (TrackableLogType type : values()) {
+            BY_NAME.put(type.name, type);
+        }
+    }
+
     TrackableLogType(@NotNull String name, int id, @NotNull EnumSet<States> allowedState) {
         this.name = name;
         this.id = id;
@@ -61,12 +82,7 @@ public enum TrackableLogType {
      */
     @Nullable
     public static TrackableLogType fromName(@Nullable String name) {
-        for (TrackableLogType type : values()) {
-            if (type.name.equals(name))
-                return type;
-        }
-
-        return null;
+        return BY_NAME.get(name);
     }
 
     /**
@@ -77,12 +93,10 @@ public enum TrackableLogType {
      */
     @Nullable
     public static TrackableLogType fromId(int id) {
-        for (TrackableLogType type : values()) {
-            if (type.id == id)
-                return type;
-        }
+        if (id < 0 || id >= BY_ID.length)
+            return null;
 
-        return null;
+        return BY_ID[id];
     }
 
     private enum States {
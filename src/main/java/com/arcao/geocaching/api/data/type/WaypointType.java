@@ -3,6 +3,9 @@ package com.arcao.geocaching.api.data.type;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
+import java.util.HashMap;
+import java.util.Map;
+
 public enum WaypointType {
     FinalLocation("Final Location", "flag.jpg"),
     ParkingArea("Parking Area", "pkg.jpg"),
@@ -20,6 +23,14 @@ public enum WaypointType {
      */
     @NotNull public final String iconName;
 
+    private static final Map<String, WaypointType> BY_NAME = new HashMap<String, WaypointType>();
+
+    static {
+        for (WaypointType type : values()) {
+            BY_NAME.put(type.name, type);
+        }
+    }
+
     WaypointType(@NotNull String name, @NotNull String iconName) {
         this.name = name;
         this.iconName = iconName;
@@ -38,11 +49,7 @@ public enum WaypointType {
      */
     @NotNull
     public static WaypointType fromName(@Nullable String name) {
-        for (WaypointType type : values()) {
-            if (type.name.equals(name))
-                return type;
-        }
-
-        return ReferencePoint;
+        WaypointType type = BY_NAME.get(name);
+        return type != null ? type : ReferencePoint;
     }
 }
@@ -0,0 +1,59 @@
+package com.arcao.geocaching.api.downloader;
+
+import com.google.auto.value.AutoValue;
+
+import java.io.Serializable;
+
+/**
+ * Snapshot of {@link PooledJsonDownloader} statistics
+ *
+ * @author arcao
+ * @since 2.1
+ */
+@AutoValue
+public abstract class ConnectionPoolStats implements Serializable {
+    private static final long serialVersionUID = -2170839576391540687L;
+
+    /**
+     * Returns the count of connections currently used by a request
+     *
+     * @return count of leased connections
+     */
+    public abstract int leased();
+
+    /**
+     * Returns the count of requests waiting for a free connection
+     *
+     * @return count of waiting requests
+     */
+    public abstract int pending();
+
+    /**
+     * Returns the total count of requests served by the pool
+     *
+     * @return count of requests
+     */
+    public abstract long requests();
+
+    /**
+     * Returns the count of responses read to the end and closed, so their connection could be
+     * returned to the keep-alive cache
+     *
+     * @return count of reusable connections
+     */
+    public abstract long reusable();
+
+    public static Builder builder() {
+        return new AutoValue_ConnectionPoolStats.Builder();
+    }
+
+    @AutoValue.Builder
+    public abstract static class Builder {
+        public abstract Builder leased(int leased);
+        public abstract Builder pending(int pending);
+        public abstract Builder requests(long requests);
+        public abstract Builder reusable(long reusable);
+
+        public abstract ConnectionPoolStats build();
+    }
+}
@@ -1,38 +1,49 @@
 package com.arcao.geocaching.api.downloader;
 
+import com.arcao.geocaching.api.builder.JsonSerializable;
 import com.arcao.geocaching.api.configuration.GeocachingApiConfiguration;
 import com.arcao.geocaching.api.exception.InvalidResponseException;
 import com.arcao.geocaching.api.exception.NetworkException;
 import com.arcao.geocaching.api.parser.JsonReader;
+import com.arcao.geocaching.api.parser.Utf8JsonReader;
+import com.google.gson.stream.JsonWriter;
 
+import org.jetbrains.annotations.NotNull;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.BufferedWriter;
+import java.io.ByteArrayInputStream;
+import java.io.FilterInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.io.OutputStream;
+import java.io.OutputStreamWriter;
 import java.io.Reader;
 import java.io.StringReader;
 import java.net.HttpURLConnection;
 import java.net.URL;
 import java.util.Locale;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.zip.GZIPInputStream;
 import java.util.zip.Inflater;
 import java.util.zip.InflaterInputStream;
 
 /**
- * Default implementation of {@link JsonDownloader} using {@link HttpURLConnection}
+ * Default implementation of {@link StreamingJsonDownloader} using {@link HttpURLConnection}
  *
  * @author arcao
  */
-public class DefaultJsonDownloader implements JsonDownloader {
+public class DefaultJsonDownloader implements StreamingJsonDownloader {
     private static final Logger logger = LoggerFactory.getLogger(DefaultJsonDownloader.class);
     private static final int HTTP_ERROR_400 = 400;
     private static final int BUFFER_SIZE = 8192;
 
     private final GeocachingApiConfiguration configuration;
     private boolean debug = false;
+    private boolean utf8JsonReader = false;
+    private boolean lazyDecoding = false;
 
     /**
      * Create a new {@link DefaultJsonDownloader} using specified configuration
@@ -48,64 +59,44 @@ public class DefaultJsonDownloader implements JsonDownloader {
         return this;
     }
 
+    /**
+     * Tokenize responses directly from UTF-8 bytes by {@link Utf8JsonReader} instead of decoding
+     * them to chars first. Ignored in debug mode.
+     *
+     * @param utf8JsonReader true to use {@link Utf8JsonReader}
+     * @return this instance
+     * @since 2.1
+     */
+    public DefaultJsonDownloader utf8JsonReader(boolean utf8JsonReader) {
+        this.utf8JsonReader = utf8JsonReader;
+        return this;
+    }
+
+    /**
+     * Keep heavy Geocache properties (descriptions, hint, logs and images) as raw JSON and decode
+     * them on first access. Implies {@link Utf8JsonReader}, ignored in debug mode.
+     *
+     * @param lazyDecoding true to decode heavy Geocache properties on demand
+     * @return this instance
+     * @since 2.1
+     */
+    public DefaultJsonDownloader lazyDecoding(boolean lazyDecoding) {
+        this.lazyDecoding = lazyDecoding;
+        return this;
+    }
+
     @Override
     public JsonReader get(URL url) throws NetworkException, InvalidResponseException {
-        InputStream is;
-        InputStreamReader isr;
-
+        Lease lease = lease(url);
         try {
-            HttpURLConnection con = (HttpURLConnection) url.openConnection();
-
-            // important! sometimes GC API takes too long to return response
-            con.setConnectTimeout(configuration.getConnectTimeout());
-            con.setReadTimeout(configuration.getReadTimeout());
-
-            con.setRequestMethod("GET");
-            con.setRequestProperty("User-Agent", "Java Geocaching API");
-            con.setRequestProperty("Accept", "application/json");
-            con.setRequestProperty("Accept-Language", "en-US");
-            con.setRequestProperty("Accept-Encoding", "gzip, deflate");
-
-            is = con.getResponseCode() >= HTTP_ERROR_400 ? con.getErrorStream() : con.getInputStream();
-
-            final String encoding = con.getContentEncoding();
-
-            if (encoding != null && "gzip".equalsIgnoreCase(encoding)) {
-                logger.debug("get: GZIP OK");
-                is = new GZIPInputStream(is);
-            } else if (encoding != null && "deflate".equalsIgnoreCase(encoding)) {
-                logger.debug("get: DEFLATE OK");
-                is = new InflaterInputStream(is, new Inflater(true));
-            } else {
-                logger.debug("get: WITHOUT COMPRESSION");
-            }
+            HttpURLConnection con = openConnection(url, "GET");
 
-            if (con.getResponseCode() >= HTTP_ERROR_400 || notJsonResponse(con)) {
-                isr = new InputStreamReader(is, "UTF-8");
-
-                StringBuilder sb = new StringBuilder();
-                char[] buffer = new char[BUFFER_SIZE];
-                int len;
-
-                while ((len = isr.read(buffer)) != -1) {
-                    sb.append(buffer, 0, len);
-                }
-
-                isr.close();
-
-                // read error response
-                throw new InvalidResponseException(con.getResponseCode(), con.getResponseMessage(), sb.toString());
-            }
-
-            isr = new InputStreamReader(is, "UTF-8");
-
-            if (debug)
-                return new DebugJsonReader(isr);
-
-            return new JsonReader(isr);
+            return readResponse(con, lease, "get()");
         } catch (InvalidResponseException e) {
+            lease.release(false);
             throw e;
         } catch (Exception e) {
+            lease.release(false);
             logger.error(e.toString(), e);
             throw new NetworkException("Error occurs while downloading data (" + e.getClass().getSimpleName() + ")", e);
         }
@@ -113,25 +104,13 @@ public class DefaultJsonDownloader implements JsonDownloader {
 
     @Override
     public JsonReader post(URL url, byte[] postData) throws NetworkException, InvalidResponseException {
-        InputStream is;
-        InputStreamReader isr;
-
+        Lease lease = lease(url);
         try {
-            HttpURLConnection con = (HttpURLConnection) url.openConnection();
+            HttpURLConnection con = openConnection(url, "POST");
 
             con.setDoOutput(true);
-
-            // important! sometimes GC API takes too long to return response
-            con.setConnectTimeout(configuration.getConnectTimeout());
-            con.setReadTimeout(configuration.getReadTimeout());
-
-            con.setRequestMethod("POST");
+            con.setFixedLengthStreamingMode(postData.length);
             con.setRequestProperty("Content-Type", "application/json");
-            con.setRequestProperty("Content-Length", Integer.toString(postData.length));
-            con.setRequestProperty("User-Agent", "Java Geocaching API");
-            con.setRequestProperty("Accept", "application/json");
-            con.setRequestProperty("Accept-Language", "en-US");
-            con.setRequestProperty("Accept-Encoding", "gzip, deflate");
 
             OutputStream os = con.getOutputStream();
 
@@ -139,49 +118,139 @@ public class DefaultJsonDownloader implements JsonDownloader {
             os.flush();
             os.close();
 
-            is = con.getResponseCode() >= HTTP_ERROR_400 ? con.getErrorStream() : con.getInputStream();
+            return readResponse(con, lease, "post()");
+        } catch (InvalidResponseException e) {
+            lease.release(false);
+            throw e;
+        } catch (Exception e) {
+            lease.release(false);
+            logger.error(e.toString(), e);
+            throw new NetworkException("Error occurs while downloading data (" + e.getClass().getSimpleName() + "): " + e.getMessage(), e);
+        }
+    }
 
-            final String encoding = con.getContentEncoding();
+    @Override
+    public JsonReader post(URL url, @NotNull JsonSerializable postBody) throws NetworkException, InvalidResponseException {
+        Lease lease = lease(url);
+        try {
+            HttpURLConnection con = openConnection(url, "POST");
 
-            if (encoding != null && "gzip".equalsIgnoreCase(encoding)) {
-                logger.debug("callPost(): GZIP OK");
-                is = new GZIPInputStream(is);
-            } else if (encoding != null && "deflate".equalsIgnoreCase(encoding)) {
-                logger.debug("callPost(): DEFLATE OK");
-                is = new InflaterInputStream(is, new Inflater(true));
-            } else {
-                logger.debug("callPost(): WITHOUT COMPRESSION");
+            // body length is not known in advance, send it in chunks
+            con.setDoOutput(true);
+            con.setChunkedStreamingMode(BUFFER_SIZE);
+            con.setRequestProperty("Content-Type", "application/json");
+
+            JsonWriter w = new JsonWriter(new BufferedWriter(new OutputStreamWriter(con.getOutputStream(), "UTF-8"), BUFFER_SIZE));
+            try {
+                postBody.writeJson(w);
+            } finally {
+                w.close();
             }
 
-            if (con.getResponseCode() >= HTTP_ERROR_400 || notJsonResponse(con)) {
-                isr = new InputStreamReader(is, "UTF-8");
+            return readResponse(con, lease, "post()");
+        } catch (InvalidResponseException e) {
+            lease.release(false);
+            throw e;
+        } catch (Exception e) {
+            lease.release(false);
+            logger.error(e.toString(), e);
+            throw new NetworkException("Error occurs while downloading data (" + e.getClass().getSimpleName() + "): " + e.getMessage(), e);
+        }
+    }
 
-                StringBuilder sb = new StringBuilder();
-                char[] buffer = new char[BUFFER_SIZE];
-                int len;
+    /**
+     * Called before a connection to the url is opened. The default implementation does nothing,
+     * subclasses can block here to limit count of concurrent connections.
+     *
+     * @param url url to request
+     * @throws IOException If the thread is interrupted while waiting
+     * @since 2.1
+     */
+    protected void acquireConnection(URL url) throws IOException {
+    }
+
+    /**
+     * Called exactly once for every successful {@link #acquireConnection(URL)} when the response
+     * stream is closed or the request fails. The default implementation does nothing.
+     *
+     * @param url      requested url
+     * @param reusable true if the response was read to the end and the connection can be kept alive
+     * @since 2.1
+     */
+    protected void releaseConnection(URL url, boolean reusable) {
+    }
+
+    private HttpURLConnection openConnection(URL url, String method) throws IOException {
+        HttpURLConnection con = (HttpURLConnection) url.openConnection();
+
+        // important! sometimes GC API takes too long to return response
+        con.setConnectTimeout(configuration.getConnectTimeout());
+        con.setReadTimeout(configuration.getReadTimeout());
+
+        con.setRequestMethod(method);
+        con.setRequestProperty("User-Agent", "Java Geocaching API");
+        con.setRequestProperty("Accept", "application/json");
+        con.setRequestProperty("Accept-Language", "en-US");
+        con.setRequestProperty("Accept-Encoding", "gzip, deflate");
+
+        return con;
+    }
+
+    private Lease lease(URL url) throws NetworkException {
+        try {
+            acquireConnection(url);
+        } catch (IOException e) {
+            logger.error(e.toString(), e);
+            throw new NetworkException("Error occurs while downloading data (" + e.getClass().getSimpleName() + ")", e);
+        }
+
+        return new Lease(url);
+    }
 
+    private JsonReader readResponse(HttpURLConnection con, Lease lease, String method) throws IOException, InvalidResponseException {
+        InputStream is = con.getResponseCode() >= HTTP_ERROR_400 ? con.getErrorStream() : con.getInputStream();
+
+        // connection can be kept alive only if the response is read to the end and closed
+        is = new DrainingInputStream(is != null ? is : new ByteArrayInputStream(new byte[0]), lease);
+
+        final String encoding = con.getContentEncoding();
+
+        if (encoding != null && "gzip".equalsIgnoreCase(encoding)) {
+            logger.debug(method + ": GZIP OK");
+            is = new GZIPInputStream(is);
+        } else if (encoding != null && "deflate".equalsIgnoreCase(encoding)) {
+            logger.debug(method + ": DEFLATE OK");
+            is = new InflaterInputStream(is, new Inflater(true));
+        } else {
+            logger.debug(method + ": WITHOUT COMPRESSION");
+        }
+
+        InputStreamReader isr = new InputStreamReader(is, "UTF-8");
+
+        if (con.getResponseCode() >= HTTP_ERROR_400 || notJsonResponse(con)) {
+            StringBuilder sb = new StringBuilder();
+            char[] buffer = new char[BUFFER_SIZE];
+            int len;
+
+            try {
                 while ((len = isr.read(buffer)) != -1) {
                     sb.append(buffer, 0, len);
                 }
-
+            } finally {
                 isr.close();
-
-                // read error response
-                throw new InvalidResponseException(con.getResponseCode(), con.getResponseMessage(), sb.toString());
             }
 
-            isr = new InputStreamReader(is, "UTF-8");
+            // read error response
+            throw new InvalidResponseException(con.getResponseCode(), con.getResponseMessage(), sb.toString());
+        }
 
-            if (debug)
-                return new DebugJsonReader(isr);
+        if (debug)
+            return new DebugJsonReader(isr);
 
-            return new JsonReader(isr);
-        } catch (InvalidResponseException e) {
-            throw e;
-        } catch (Exception e) {
-            logger.error(e.toString(), e);
-            throw new NetworkException("Error occurs while downloading data (" + e.getClass().getSimpleName() + "): " + e.getMessage(), e);
-        }
+        if (utf8JsonReader || lazyDecoding)
+            return new Utf8JsonReader(is, lazyDecoding);
+
+        return new JsonReader(isr);
     }
 
     private static boolean notJsonResponse(HttpURLConnection con) {
@@ -190,6 +259,72 @@ public class DefaultJsonDownloader implements JsonDownloader {
         return contentType == null || !contentType.toLowerCase(Locale.US).contains("/json");
     }
 
+    private final class Lease {
+        private final URL url;
+        private final AtomicBoolean released = new AtomicBoolean(false);
+
+        Lease(URL url) {
+            this.url = url;
+        }
+
+        void release(boolean reusable) {
+            if (released.compareAndSet(false, true))
+                releaseConnection(url, reusable);
+        }
+    }
+
+    /**
+     * Reads the rest of the response on close, so the underlying connection can be returned to
+     * the keep-alive cache, and releases the connection lease.
+     */
+    private static class DrainingInputStream extends FilterInputStream {
+        private static final int MAX_DRAIN_SIZE = 64 * 1024;
+
+        private final Lease lease;
+        private boolean closed = false;
+
+        DrainingInputStream(InputStream in, Lease lease) {
+            super(in);
+            this.lease = lease;
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (closed)
+                return;
+
+            closed = true;
+            boolean drained = false;
+            try {
+                drained = drain();
+            } catch (IOException e) {
+                logger.debug("Unable to drain response: " + e.toString());
+            } finally {
+                try {
+                    super.close();
+                } finally {
+                    lease.release(drained);
+                }
+            }
+        }
+
+        private boolean drain() throws IOException {
+            byte[] buffer = new byte[BUFFER_SIZE];
+            int total = 0;
+
+            while (total <= MAX_DRAIN_SIZE) {
+                int len = in.read(buffer);
+                if (len < 0)
+                    return true;
+
+                total += len;
+            }
+
+            // too much data left, it's cheaper to open a new connection
+            return false;
+        }
+    }
+
     private static class DebugJsonReader extends JsonReader {
         private static final Logger logger = LoggerFactory.getLogger(DebugJsonReader.class);
 
@@ -0,0 +1,157 @@
+package com.arcao.geocaching.api.downloader;
+
+import com.arcao.geocaching.api.configuration.GeocachingApiConfiguration;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.URL;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Implementation of {@link StreamingJsonDownloader} reusing kept-alive connections.
+ * <p>
+ * The connections itself are kept alive by the keep-alive cache of {@link java.net.HttpURLConnection}.
+ * This downloader limits the count of concurrent connections in total and per route (scheme, host
+ * and port), so requests don't open more connections than the keep-alive cache is able to hold,
+ * and makes sure every response is read to the end and closed, so the connection is returned to the
+ * cache.
+ * <p>
+ * The JVM keeps at most <code>http.maxConnections</code> (default 5) idle connections per route,
+ * set the system property to at least the maxPerRoute value to reuse all connections.
+ *
+ * @author arcao
+ * @since 2.1
+ */
+public class PooledJsonDownloader extends DefaultJsonDownloader {
+    private static final int DEFAULT_MAX_TOTAL = 20;
+    private static final int DEFAULT_MAX_PER_ROUTE = 5;
+
+    private final int maxPerRoute;
+
+    private final Semaphore totalLeases;
+    private final ConcurrentMap<String, Semaphore> routes = new ConcurrentHashMap<String, Semaphore>();
+
+    private final AtomicInteger leased = new AtomicInteger();
+    private final AtomicInteger pending = new AtomicInteger();
+    private final AtomicLong requests = new AtomicLong();
+    private final AtomicLong reusable = new AtomicLong();
+
+    /**
+     * Create a new {@link PooledJsonDownloader} with default limits: 20 connections in total and
+     * 5 connections per route.
+     *
+     * @param configuration configuration
+     */
+    public PooledJsonDownloader(GeocachingApiConfiguration configuration) {
+        this(configuration, DEFAULT_MAX_TOTAL, DEFAULT_MAX_PER_ROUTE);
+    }
+
+    /**
+     * Create a new {@link PooledJsonDownloader} using specified configuration and limits
+     *
+     * @param configuration configuration
+     * @param maxTotal      max count of concurrent connections
+     * @param maxPerRoute   max count of concurrent connections to the same route
+     */
+    public PooledJsonDownloader(GeocachingApiConfiguration configuration, int maxTotal, int maxPerRoute) {
+        super(configuration);
+
+        if (maxTotal <= 0)
+            throw new IllegalArgumentException("maxTotal must be positive");
+
+        if (maxPerRoute <= 0)
+            throw new IllegalArgumentException("maxPerRoute must be positive");
+
+        this.maxPerRoute = maxPerRoute;
+        this.totalLeases = new Semaphore(maxTotal, true);
+    }
+
+    @Override
+    public PooledJsonDownloader debug(boolean debug) {
+        super.debug(debug);
+        return this;
+    }
+
+    @Override
+    public PooledJsonDownloader utf8JsonReader(boolean utf8JsonReader) {
+        super.utf8JsonReader(utf8JsonReader);
+        return this;
+    }
+
+    @Override
+    public PooledJsonDownloader lazyDecoding(boolean lazyDecoding) {
+        super.lazyDecoding(lazyDecoding);
+        return this;
+    }
+
+    /**
+     * Returns current statistics of the pool
+     *
+     * @return statistics snapshot
+     */
+    @NotNull
+    public ConnectionPoolStats stats() {
+        return ConnectionPoolStats.builder()
+                .leased(leased.get())
+                .pending(pending.get())
+                .requests(requests.get())
+                .reusable(reusable.get())
+                .build();
+    }
+
+    @Override
+    protected void acquireConnection(URL url) throws IOException {
+        Semaphore routeLeases = route(url);
+
+        pending.incrementAndGet();
+        try {
+            // the route first, a request waiting for a saturated route must not hold a total permit
+            routeLeases.acquire();
+            try {
+                totalLeases.acquire();
+            } catch (InterruptedException e) {
+                routeLeases.release();
+                throw e;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for a connection");
+        } finally {
+            pending.decrementAndGet();
+        }
+
+        leased.incrementAndGet();
+        requests.incrementAndGet();
+    }
+
+    @Override
+    protected void releaseConnection(URL url, boolean reusable) {
+        if (reusable)
+            this.reusable.incrementAndGet();
+
+        leased.decrementAndGet();
+        totalLeases.release();
+        route(url).release();
+    }
+
+    private Semaphore route(URL url) {
+        int port = url.getPort() != -1 ? url.getPort() : url.getDefaultPort();
+        String key = url.getProtocol() + "://" + url.getHost() + ":" + port;
+
+        Semaphore route = routes.get(key);
+        if (route == null) {
+            Semaphore newRoute = new Semaphore(maxPerRoute, true);
+            route = routes.putIfAbsent(key, newRoute);
+            if (route == null)
+                route = newRoute;
+        }
+
+        return route;
+    }
+}
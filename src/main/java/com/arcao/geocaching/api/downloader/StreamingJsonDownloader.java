@@ -0,0 +1,32 @@
+package com.arcao.geocaching.api.downloader;
+
+import com.arcao.geocaching.api.builder.JsonSerializable;
+import com.arcao.geocaching.api.exception.InvalidResponseException;
+import com.arcao.geocaching.api.exception.NetworkException;
+import com.arcao.geocaching.api.parser.JsonReader;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.net.URL;
+
+/**
+ * Extension of {@link JsonDownloader} which is able to write a POST body directly
+ * to the connection without building it in memory first.
+ *
+ * @author arcao
+ * @since 2.1
+ */
+public interface StreamingJsonDownloader extends JsonDownloader {
+    /**
+     * Send request to a specified url with POST method and returns instance of
+     * {@link JsonReader} with a response. The body is written as UTF-8 JSON by the
+     * postBody callback straight to the request output stream.
+     *
+     * @param url      url to request including query parameters
+     * @param postBody callback writing the JSON body
+     * @return instance of {@link JsonReader} object with a response
+     * @throws NetworkException         If Network I/O error occurs
+     * @throws InvalidResponseException If response contains invalid data or HTTP response code isn't 200 (OK)
+     */
+    JsonReader post(URL url, @NotNull JsonSerializable postBody) throws NetworkException, InvalidResponseException;
+}
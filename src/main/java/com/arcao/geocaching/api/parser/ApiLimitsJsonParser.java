@@ -7,11 +7,14 @@ import com.arcao.geocaching.api.data.apilimits.MethodLimit;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 
 import static com.arcao.geocaching.api.parser.JsonParserUtil.isNextNull;
 import static com.arcao.geocaching.api.parser.JsonParserUtil.parseMemberType;
 
 public final class ApiLimitsJsonParser {
+    private static final Map<String, Property> PROPERTIES = JsonParserUtil.createNameMap(Property.class);
+
     private ApiLimitsJsonParser() {
     }
 
@@ -20,31 +23,46 @@ public final class ApiLimitsJsonParser {
 
         r.beginObject();
         while (r.hasNext()) {
-            String name = r.nextName();
-            if ("CacheLimits".equals(name)) {
-                builder.cacheLimits(parseCacheLimits(r));
-            } else if ("EnforceCacheLimits".equals(name)) {
-                builder.enforceCacheLimits(r.nextBoolean());
-            } else if ("EnforceLiteCacheLimits".equals(name)) {
-                builder.enforceLiteCacheLimits(r.nextBoolean());
-            } else if ("EnforceMethodLimits".equals(name)) {
-                builder.enforceMethodLimits(r.nextBoolean());
-            } else if ("ForMembershipType".equals(name)) {
-                builder.forMembershipType(parseMemberType(r));
-            } else if ("LicenseKey".equals(name)) {
-                builder.licenseKey(r.nextString());
-            } else if ("LiteCacheLimits".equals(name)) {
-                builder.liteCacheLimits(parseCacheLimits(r));
-            } else if ("MaxCallsbyIPIn1Minute".equals(name)) {
-                builder.maxCallsbyIPIn1Minute(r.nextLong());
-            } else if ("MethodLimits".equals(name)) {
-                builder.methodLimits(parseMethodLimits(r));
-            } else if ("RestrictbyIP".equals(name)) {
-                builder.restrictByIp(r.nextBoolean());
-            } else if ("ValidateIPCounts".equals(name)) {
-                builder.validateIpCounts(r.nextBoolean());
-            } else {
+            Property property = PROPERTIES.get(r.nextName());
+            if (property == null) {
                 r.skipValue();
+                continue;
+            }
+
+            switch (property) {
+                case CacheLimits:
+                    builder.cacheLimits(parseCacheLimits(r));
+                    break;
+                case EnforceCacheLimits:
+                    builder.enforceCacheLimits(r.nextBoolean());
+                    break;
+                case EnforceLiteCacheLimits:
+                    builder.enforceLiteCacheLimits(r.nextBoolean());
+                    break;
+                case EnforceMethodLimits:
+                    builder.enforceMethodLimits(r.nextBoolean());
+                    break;
+                case ForMembershipType:
+                    builder.forMembershipType(parseMemberType(r));
+                    break;
+                case LicenseKey:
+                    builder.licenseKey(r.nextString());
+                    break;
+                case LiteCacheLimits:
+                    builder.liteCacheLimits(parseCacheLimits(r));
+                    break;
+                case MaxCallsbyIPIn1Minute:
+                    builder.maxCallsbyIPIn1Minute(r.nextLong());
+                    break;
+                case MethodLimits:
+                    builder.methodLimits(parseMethodLimits(r));
+                    break;
+                case RestrictbyIP:
+                    builder.restrictByIp(r.nextBoolean());
+                    break;
+                case ValidateIPCounts:
+                    builder.validateIpCounts(r.nextBoolean());
+                    break;
             }
         }
         r.endObject();
@@ -123,4 +141,18 @@ public final class ApiLimitsJsonParser {
         return builder.build();
     }
 
+    // JSON properties of ApiLimits
+    private enum Property {
+        CacheLimits,
+        EnforceCacheLimits,
+        EnforceLiteCacheLimits,
+        EnforceMethodLimits,
+        ForMembershipType,
+        LicenseKey,
+        LiteCacheLimits,
+        MaxCallsbyIPIn1Minute,
+        MethodLimits,
+        RestrictbyIP,
+        ValidateIPCounts
+    }
 }
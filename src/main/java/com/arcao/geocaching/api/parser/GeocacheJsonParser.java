@@ -1,139 +1,329 @@
 package com.arcao.geocaching.api.parser;
 
+import com.arcao.geocaching.api.GeocacheSink;
 import com.arcao.geocaching.api.data.Geocache;
+import com.arcao.geocaching.api.data.GeocacheField;
 import com.arcao.geocaching.api.data.coordinates.Coordinates;
+import com.arcao.geocaching.api.data.type.ContainerType;
 import com.google.gson.stream.JsonToken;
 
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
-import static com.arcao.geocaching.api.parser.JsonParserUtil.parseAttributeList;
+import static com.arcao.geocaching.api.parser.JsonParserUtil.parseAttributeMask;
 import static com.arcao.geocaching.api.parser.JsonParserUtil.parseContainerType;
 import static com.arcao.geocaching.api.parser.JsonParserUtil.parseGeocacheType;
 
 public final class GeocacheJsonParser {
+    private static final Map<String, Property> PROPERTIES = JsonParserUtil.createNameMap(Property.class);
+
     private GeocacheJsonParser() {
     }
 
     public static List<Geocache> parseList(JsonReader r) throws IOException {
+        final List<Geocache> list = new ArrayList<Geocache>();
+
+        parseList(r, new GeocacheSink() {
+            @Override
+            public void accept(@NotNull Geocache geocache) {
+                list.add(geocache);
+            }
+        });
+        return list;
+    }
+
+    public static int parseList(JsonReader r, GeocacheSink sink) throws IOException {
+        return parseList(r, sink, null);
+    }
+
+    /**
+     * Parse a list of Geocaches and pass them to the sink. Properties not contained in fields are
+     * skipped without decoding.
+     *
+     * @param r      reader
+     * @param sink   receiver of parsed Geocaches
+     * @param fields properties to parse, null for all
+     * @return count of parsed Geocaches
+     * @throws IOException If I/O error occurs or the sink fails
+     */
+    public static int parseList(JsonReader r, GeocacheSink sink, @Nullable Set<GeocacheField> fields) throws IOException {
+        if (fields != null && fields.size() == GeocacheField.values().length)
+            fields = null;
+
         if (r.peek() != JsonToken.BEGIN_ARRAY) {
             r.skipValue();
         }
 
-        List<Geocache> list = new ArrayList<Geocache>();
+        int count = 0;
         r.beginArray();
 
         while (r.hasNext()) {
-            list.add(parse(r));
+            sink.accept(parse(r, fields));
+            count++;
         }
         r.endArray();
-        return list;
+        return count;
     }
 
-    private static Geocache parse(JsonReader r) throws IOException {
-        Geocache.Builder builder = Geocache.builder();
+    private static Geocache parse(JsonReader r, @Nullable Set<GeocacheField> fields) throws IOException {
+        Geocache.Builder builder = createBuilder();
         Coordinates.Builder coordinatesBuilder = Coordinates.builder();
+        LazyGeocache.RawValues raw = r.isLazyDecoding() ? new LazyGeocache.RawValues() : null;
 
         r.beginObject();
         while (r.hasNext()) {
-            String name = r.nextName();
-            if ("ID".equals(name)) {
-                builder.id(r.nextLong());
-            } else if ("Code".equals(name)) {
-                builder.code(r.nextString());
-            } else if ("Name".equals(name)) {
-                builder.name(r.nextString());
-            } else if ("Longitude".equals(name)) {
-                coordinatesBuilder.longitude(r.nextDouble());
-            } else if ("Latitude".equals(name)) {
-                coordinatesBuilder.latitude(r.nextDouble());
-            } else if ("CacheType".equals(name)) {
-                builder.geocacheType(parseGeocacheType(r));
-            } else if ("Difficulty".equals(name)) {
-                builder.difficulty((float) r.nextDouble());
-            } else if ("Terrain".equals(name)) {
-                builder.terrain((float) r.nextDouble());
-            } else if ("Owner".equals(name)) {
-                builder.owner(UserJsonParser.parse(r));
-            } else if ("Available".equals(name)) {
-                builder.available(r.nextBoolean());
-            } else if ("Archived".equals(name)) {
-                builder.archived(r.nextBoolean());
-            } else if ("IsPremium".equals(name)) {
-                builder.premium(r.nextBoolean());
-            } else if ("Country".equals(name)) {
-                builder.countryName(r.nextString());
-            } else if ("State".equals(name)) {
-                builder.stateName(r.nextString());
-            } else if ("DateCreated".equals(name)) {
-                builder.createDate(JsonParserUtil.parseJsonDate(r.nextString()));
-            } else if ("PublishDateUtc".equals(name)) {
-                builder.publishDate(JsonParserUtil.parseJsonUTCDate(r.nextString()));
-            } else if ("UTCPlaceDate".equals(name)) {
-                builder.placeDate(JsonParserUtil.parseJsonUTCDate(r.nextString()));
-            } else if ("DateLastUpdate".equals(name)) {
-                builder.lastUpdateDate(JsonParserUtil.parseJsonDate(r.nextString()));
-            } else if ("DateLastVisited".equals(name)) {
-                builder.lastVisitDate(JsonParserUtil.parseJsonDate(r.nextString()));
-            } else if ("PlacedBy".equals(name)) {
-                builder.placedBy(r.nextString());
-            } else if ("ContainerType".equals(name)) {
-                builder.containerType(parseContainerType(r));
-            } else if ("TrackableCount".equals(name)) {
-                builder.trackableCount(r.nextInt());
-            } else if ("HasbeenFoundbyUser".equals(name)) {
-                builder.foundByUser(r.nextBoolean());
-            } else if ("ShortDescription".equals(name)) {
-                builder.shortDescription(r.nextString());
-            } else if ("ShortDescriptionIsHtml".equals(name)) {
-                builder.shortDescriptionHtml(r.nextBoolean());
-            } else if ("LongDescription".equals(name)) {
-                builder.longDescription(r.nextString());
-            } else if ("LongDescriptionIsHtml".equals(name)) {
-                builder.longDescriptionHtml(r.nextBoolean());
-            } else if ("EncodedHints".equals(name)) {
-                builder.hint(r.nextString());
-            } else if ("GeocacheLogs".equals(name)) {
-                builder.geocacheLogs(GeocacheLogJsonParser.parseList(r));
-            } else if ("Trackables".equals(name)) {
-                builder.trackables(TrackableJsonParser.parseList(r));
-            } else if ("AdditionalWaypoints".equals(name)) {
-                builder.waypoints(WaypointJsonParser.parseList(r));
-            } else if ("Attributes".equals(name)) {
-                builder.attributes(parseAttributeList(r));
-            } else if ("UserWaypoints".equals(name)) {
-                builder.userWaypoints(UserWaypointsJsonParser.parseList(r));
-            } else if ("GeocacheNote".equals(name)) {
-                builder.personalNote(r.nextString());
-            } else if ("Images".equals(name)) {
-                builder.images(ImageDataJsonParser.parseList(r));
-            } else if ("FavoritePoints".equals(name)) {
-                builder.favoritePoints(r.nextInt());
-            } else if ("CanCacheBeFavorited".equals(name)) {
-                builder.favoritable(r.nextBoolean());
-            } else if ("FoundDate".equals(name)) {
-                builder.foundDate(JsonParserUtil.parseJsonDate(r.nextString()));
-            } else if ("HasbeenFavoritedbyUser".equals(name)) {
-                builder.favoritedByUser(r.nextBoolean());
-            } else if ("ImageCount".equals(name)) {
-                builder.imageCount(r.nextInt());
-            } else if ("IsRecommended".equals(name)) {
-                builder.recommended(r.nextBoolean());
-            } else if ("TrackableCount".equals(name)) {
-                builder.trackableCount(r.nextInt());
-            } else if ("Url".equals(name)) {
-                builder.url(r.nextString());
-            } else if ("GUID".equals(name)) {
-                builder.guid(r.nextString());
-            } else {
+            Property property = PROPERTIES.get(r.nextName());
+            if (property == null || (fields != null && isSkipped(property, fields))) {
                 r.skipValue();
+                continue;
+            }
+
+            switch (property) {
+                case ID:
+                    builder.id(r.nextLong());
+                    break;
+                case Code:
+                    builder.code(r.nextString());
+                    break;
+                case Name:
+                    builder.name(r.nextString());
+                    break;
+                case Longitude:
+                    coordinatesBuilder.longitude(r.nextDouble());
+                    break;
+                case Latitude:
+                    coordinatesBuilder.latitude(r.nextDouble());
+                    break;
+                case CacheType:
+                    builder.geocacheType(parseGeocacheType(r));
+                    break;
+                case Difficulty:
+                    builder.difficulty((float) r.nextDouble());
+                    break;
+                case Terrain:
+                    builder.terrain((float) r.nextDouble());
+                    break;
+                case Owner:
+                    builder.owner(UserJsonParser.parse(r));
+                    break;
+                case Available:
+                    builder.available(r.nextBoolean());
+                    break;
+                case Archived:
+                    builder.archived(r.nextBoolean());
+                    break;
+                case IsPremium:
+                    builder.premium(r.nextBoolean());
+                    break;
+                case Country:
+                    builder.countryName(r.cache().string(r.nextString()));
+                    break;
+                case State:
+                    builder.stateName(r.cache().string(r.nextString()));
+                    break;
+                case DateCreated:
+                    builder.createDate(JsonParserUtil.parseJsonDate(r.nextString()));
+                    break;
+                case PublishDateUtc:
+                    builder.publishDate(JsonParserUtil.parseJsonUTCDate(r.nextString()));
+                    break;
+                case UTCPlaceDate:
+                    builder.placeDate(JsonParserUtil.parseJsonUTCDate(r.nextString()));
+                    break;
+                case DateLastUpdate:
+                    builder.lastUpdateDate(JsonParserUtil.parseJsonDate(r.nextString()));
+                    break;
+                case DateLastVisited:
+                    builder.lastVisitDate(JsonParserUtil.parseJsonDate(r.nextString()));
+                    break;
+                case PlacedBy:
+                    builder.placedBy(r.cache().string(r.nextString()));
+                    break;
+                case ContainerType:
+                    builder.containerType(parseContainerType(r));
+                    break;
+                case TrackableCount:
+                    builder.trackableCount(r.nextInt());
+                    break;
+                case HasbeenFoundbyUser:
+                    builder.foundByUser(r.nextBoolean());
+                    break;
+                case ShortDescription:
+                    if (raw != null && r.peek() == JsonToken.STRING) {
+                        raw.shortDescription = r.nextRawValue();
+                    } else {
+                        builder.shortDescription(r.nextString());
+                    }
+                    break;
+                case ShortDescriptionIsHtml:
+                    builder.shortDescriptionHtml(r.nextBoolean());
+                    break;
+                case LongDescription:
+                    if (raw != null && r.peek() == JsonToken.STRING) {
+                        raw.longDescription = r.nextRawValue();
+                    } else {
+                        builder.longDescription(r.nextString());
+                    }
+                    break;
+                case LongDescriptionIsHtml:
+                    builder.longDescriptionHtml(r.nextBoolean());
+                    break;
+                case EncodedHints:
+                    if (raw != null && r.peek() == JsonToken.STRING) {
+                        raw.hint = r.nextRawValue();
+                    } else {
+                        builder.hint(r.nextString());
+                    }
+                    break;
+                case GeocacheLogs:
+                    if (raw != null && r.peek() == JsonToken.BEGIN_ARRAY) {
+                        raw.geocacheLogs = r.nextRawValue();
+                    } else {
+                        builder.geocacheLogs(GeocacheLogJsonParser.parseList(r));
+                    }
+                    break;
+                case Trackables:
+                    builder.trackables(TrackableJsonParser.parseList(r));
+                    break;
+                case AdditionalWaypoints:
+                    builder.waypoints(WaypointJsonParser.parseList(r));
+                    break;
+                case Attributes:
+                    builder.attributeMask(parseAttributeMask(r));
+                    break;
+                case UserWaypoints:
+                    builder.userWaypoints(UserWaypointsJsonParser.parseList(r));
+                    break;
+                case GeocacheNote:
+                    builder.personalNote(r.nextString());
+                    break;
+                case Images:
+                    if (raw != null && r.peek() == JsonToken.BEGIN_ARRAY) {
+                        raw.images = r.nextRawValue();
+                    } else {
+                        builder.images(ImageDataJsonParser.parseList(r));
+                    }
+                    break;
+                case FavoritePoints:
+                    builder.favoritePoints(r.nextInt());
+                    break;
+                case CanCacheBeFavorited:
+                    builder.favoritable(r.nextBoolean());
+                    break;
+                case FoundDate:
+                    builder.foundDate(JsonParserUtil.parseJsonDate(r.nextString()));
+                    break;
+                case HasbeenFavoritedbyUser:
+                    builder.favoritedByUser(r.nextBoolean());
+                    break;
+                case ImageCount:
+                    builder.imageCount(r.nextInt());
+                    break;
+                case IsRecommended:
+                    builder.recommended(r.nextBoolean());
+                    break;
+                case Url:
+                    builder.url(r.nextString());
+                    break;
+                case GUID:
+                    builder.guid(r.nextString());
+                    break;
             }
         }
         r.endObject();
 
         builder.coordinates(coordinatesBuilder.build());
 
+        if (raw != null)
+            return LazyGeocache.create(builder.build(), raw);
+
         return builder.build();
     }
+
+    private static boolean isSkipped(Property property, Set<GeocacheField> fields) {
+        return property.field != null && !fields.contains(property.field);
+    }
+
+    private static Geocache.Builder createBuilder() {
+        // defaults of properties not present in the response
+        return Geocache.builder()
+                .id(0)
+                .name("")
+                .difficulty(0)
+                .terrain(0)
+                .available(false)
+                .archived(false)
+                .premium(false)
+                .placedBy("")
+                .containerType(ContainerType.NotChosen)
+                .trackableCount(0)
+                .foundByUser(false)
+                .favoritePoints(0)
+                .favoritable(false)
+                .favoritedByUser(false)
+                .imageCount(0)
+                .recommended(false)
+                .url("")
+                .guid("");
+    }
+
+    // JSON properties of Geocache
+    private enum Property {
+        ID(GeocacheField.ID),
+        Code(null),
+        Name(GeocacheField.NAME),
+        Longitude(GeocacheField.COORDINATES),
+        Latitude(GeocacheField.COORDINATES),
+        CacheType(GeocacheField.GEOCACHE_TYPE),
+        Difficulty(GeocacheField.DIFFICULTY),
+        Terrain(GeocacheField.TERRAIN),
+        Owner(GeocacheField.OWNER),
+        Available(GeocacheField.AVAILABLE),
+        Archived(GeocacheField.ARCHIVED),
+        IsPremium(GeocacheField.PREMIUM),
+        Country(GeocacheField.COUNTRY_NAME),
+        State(GeocacheField.STATE_NAME),
+        DateCreated(GeocacheField.CREATE_DATE),
+        PublishDateUtc(GeocacheField.PUBLISH_DATE),
+        UTCPlaceDate(GeocacheField.PLACE_DATE),
+        DateLastUpdate(GeocacheField.LAST_UPDATE_DATE),
+        DateLastVisited(GeocacheField.LAST_VISIT_DATE),
+        PlacedBy(GeocacheField.PLACED_BY),
+        ContainerType(GeocacheField.CONTAINER_TYPE),
+        TrackableCount(GeocacheField.TRACKABLE_COUNT),
+        HasbeenFoundbyUser(GeocacheField.FOUND_BY_USER),
+        ShortDescription(GeocacheField.SHORT_DESCRIPTION),
+        ShortDescriptionIsHtml(GeocacheField.SHORT_DESCRIPTION),
+        LongDescription(GeocacheField.LONG_DESCRIPTION),
+        LongDescriptionIsHtml(GeocacheField.LONG_DESCRIPTION),
+        EncodedHints(GeocacheField.HINT),
+        GeocacheLogs(GeocacheField.GEOCACHE_LOGS),
+        Trackables(GeocacheField.TRACKABLES),
+        AdditionalWaypoints(GeocacheField.WAYPOINTS),
+        Attributes(GeocacheField.ATTRIBUTES),
+        UserWaypoints(GeocacheField.USER_WAYPOINTS),
+        GeocacheNote(GeocacheField.PERSONAL_NOTE),
+        Images(GeocacheField.IMAGES),
+        FavoritePoints(GeocacheField.FAVORITE_POINTS),
+        CanCacheBeFavorited(GeocacheField.FAVORITABLE),
+        FoundDate(GeocacheField.FOUND_DATE),
+        HasbeenFavoritedbyUser(GeocacheField.FAVORITED_BY_USER),
+        ImageCount(GeocacheField.IMAGE_COUNT),
+        IsRecommended(GeocacheField.RECOMMENDED),
+        Url(GeocacheField.URL),
+        GUID(GeocacheField.GUID);
+
+        // field controlling if the property is parsed, null if always parsed
+        @Nullable final GeocacheField field;
+
+        Property(@Nullable GeocacheField field) {
+            this.field = field;
+        }
+    }
 }
@@ -8,12 +8,15 @@ import com.google.gson.stream.JsonToken;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 
 import static com.arcao.geocaching.api.parser.JsonParserUtil.isNextNull;
 import static com.arcao.geocaching.api.parser.JsonParserUtil.parseJsonDate;
 import static com.arcao.geocaching.api.parser.JsonParserUtil.parseJsonUTCDate;
 
 public final class GeocacheLogJsonParser {
+    private static final Map<String, Property> PROPERTIES = JsonParserUtil.createNameMap(Property.class);
+
     private GeocacheLogJsonParser() {
     }
 
@@ -37,35 +40,52 @@ public final class GeocacheLogJsonParser {
 
         r.beginObject();
         while (r.hasNext()) {
-            String name = r.nextName();
-            if ("ID".equals(name)) {
-                builder.id(r.nextLong());
-            } else if ("CacheCode".equals(name)) {
-                builder.cacheCode(r.nextString());
-            } else if ("UTCCreateDate".equals(name)) {
-                builder.created(parseJsonUTCDate(r.nextString()));
-            } else if ("VisitDate".equals(name)) {
-                builder.visited(parseJsonDate(r.nextString()));
-            } else if ("LogType".equals(name)) {
-                builder.logType(parseLogType(r));
-            } else if ("Finder".equals(name)) {
-                builder.author(UserJsonParser.parse(r));
-            } else if ("LogText".equals(name)) {
-                builder.text(r.nextString());
-            } else if ("Images".equals(name)) {
-                builder.images(ImageDataJsonParser.parseList(r));
-            } else if ("UpdatedLatitude".equals(name)) {
-                updatedCoordinatesBuilder.latitude(r.nextDouble());
-            } else if ("UpdatedLongitude".equals(name)) {
-                updatedCoordinatesBuilder.longitude(r.nextDouble());
-            } else if ("IsApproved".equals(name)) {
-                builder.approved(r.nextBoolean());
-            } else if ("IsArchived".equals(name)) {
-                builder.archived(r.nextBoolean());
-            } else if ("CannotDelete".equals(name)) {
-                builder.undeletable(r.nextBoolean());
-            } else {
+            Property property = PROPERTIES.get(r.nextName());
+            if (property == null) {
                 r.skipValue();
+                continue;
+            }
+
+            switch (property) {
+                case ID:
+                    builder.id(r.nextLong());
+                    break;
+                case CacheCode:
+                    builder.cacheCode(r.nextString());
+                    break;
+                case UTCCreateDate:
+                    builder.created(parseJsonUTCDate(r.nextString()));
+                    break;
+                case VisitDate:
+                    builder.visited(parseJsonDate(r.nextString()));
+                    break;
+                case LogType:
+                    builder.logType(parseLogType(r));
+                    break;
+                case Finder:
+                    builder.author(UserJsonParser.parse(r));
+                    break;
+                case LogText:
+                    builder.text(r.nextString());
+                    break;
+                case Images:
+                    builder.images(ImageDataJsonParser.parseList(r));
+                    break;
+                case UpdatedLatitude:
+                    updatedCoordinatesBuilder.latitude(r.nextDouble());
+                    break;
+                case UpdatedLongitude:
+                    updatedCoordinatesBuilder.longitude(r.nextDouble());
+                    break;
+                case IsApproved:
+                    builder.approved(r.nextBoolean());
+                    break;
+                case IsArchived:
+                    builder.archived(r.nextBoolean());
+                    break;
+                case CannotDelete:
+                    builder.undeletable(r.nextBoolean());
+                    break;
             }
         }
         r.endObject();
@@ -93,4 +113,21 @@ public final class GeocacheLogJsonParser {
         r.endObject();
         return geocacheLogType;
     }
+
+    // JSON properties of GeocacheLog
+    private enum Property {
+        ID,
+        CacheCode,
+        UTCCreateDate,
+        VisitDate,
+        LogType,
+        Finder,
+        LogText,
+        Images,
+        UpdatedLatitude,
+        UpdatedLongitude,
+        IsApproved,
+        IsArchived,
+        CannotDelete
+    }
 }
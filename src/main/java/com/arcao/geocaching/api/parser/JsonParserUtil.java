@@ -1,6 +1,7 @@
 package com.arcao.geocaching.api.parser;
 
 
+import com.arcao.geocaching.api.data.type.AttributeMask;
 import com.arcao.geocaching.api.data.type.AttributeType;
 import com.arcao.geocaching.api.data.type.ContainerType;
 import com.arcao.geocaching.api.data.type.GeocacheType;
@@ -14,51 +15,101 @@ import org.slf4j.LoggerFactory;
 import java.io.IOException;
 import java.util.Date;
 import java.util.EnumSet;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import java.util.HashMap;
+import java.util.Map;
 
 public final class JsonParserUtil {
     private static final Logger logger = LoggerFactory.getLogger(JsonParserUtil.class);
     private static final long HOUR_IN_MS = 1000 * 60 * 60;
 
+    private static final String DATE_PREFIX = "/Date(";
+    private static final String DATE_SUFFIX = ")/";
+    private static final int ZONE_LENGTH = 5;
+    // 18 digits always fit into long
+    private static final int MAX_SAFE_DIGITS = 18;
+
     private JsonParserUtil() {
     }
 
     static Date parseJsonDate(String date) {
-        Pattern DATE_PATTERN = Pattern.compile("/Date\\((-?\\d+)([-+]\\d{4})?\\)/");
-
         if (date == null)
             return null;
 
-        Matcher m = DATE_PATTERN.matcher(date);
-        if (m.matches()) {
-            long time = Long.parseLong(m.group(1));
-            long zone = 0;
-            if (m.group(2) != null && !m.group(2).isEmpty())
-                zone = Integer.parseInt(m.group(2)) / 100 * HOUR_IN_MS;
-            return new Date(time + zone);
-        }
+        Date result = parseDate(date, true);
+        if (result == null)
+            logger.error("parseJsonDate failed: " + date);
 
-        logger.error("parseJsonDate failed: " + date);
-        return null;
+        return result;
     }
 
     static Date parseJsonUTCDate(String date) {
-        Pattern DATE_PATTERN = Pattern.compile("/Date\\((-?\\d+)([-+]\\d{4})?\\)/");
-
         if (date == null)
             return null;
 
-        Matcher m = DATE_PATTERN.matcher(date);
-        if (m.matches()) {
-            long time = Long.parseLong(m.group(1));
-            // zone is always zero for UTC
-            long zone = 0;
-            return new Date(time + zone);
+        // zone is always zero for UTC
+        Date result = parseDate(date, false);
+        if (result == null)
+            logger.error("parseJsonDate failed: " + date);
+
+        return result;
+    }
+
+    /**
+     * Parse a date in format <code>/Date(millis[+-hhmm])/</code> without regular expressions.
+     * The hours of an optional zone offset are added to millis, minutes are ignored.
+     */
+    private static Date parseDate(String date, boolean useZone) {
+        int end = date.length() - DATE_SUFFIX.length();
+        if (end < DATE_PREFIX.length() || !date.startsWith(DATE_PREFIX) || !date.endsWith(DATE_SUFFIX))
+            return null;
+
+        int i = DATE_PREFIX.length();
+        int start = i;
+        if (date.charAt(i) == '-')
+            i++;
+
+        int digitsStart = i;
+        long time = 0;
+        while (i < end && isDigit(date.charAt(i))) {
+            // accumulate negatively as Long.parseLong does to cover Long.MIN_VALUE
+            time = time * 10 - (date.charAt(i) - '0');
+            i++;
+        }
+
+        int digits = i - digitsStart;
+        if (digits == 0)
+            return null;
+
+        if (digits > MAX_SAFE_DIGITS) {
+            time = Long.parseLong(date.substring(start, i));
+        } else if (start == digitsStart) {
+            time = -time;
         }
 
-        logger.error("parseJsonDate failed: " + date);
-        return null;
+        long zone = 0;
+        if (i < end) {
+            char sign = date.charAt(i);
+            if (end - i != ZONE_LENGTH || (sign != '+' && sign != '-'))
+                return null;
+
+            int offset = 0;
+            for (i++; i < end; i++) {
+                char c = date.charAt(i);
+                if (!isDigit(c))
+                    return null;
+
+                offset = offset * 10 + (c - '0');
+            }
+
+            if (useZone)
+                zone = (sign == '-' ? -offset : offset) / 100 * HOUR_IN_MS;
+        }
+
+        return new Date(time + zone);
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
     }
 
     static GeocacheType parseGeocacheType(JsonReader r) throws IOException {
@@ -144,20 +195,24 @@ public final class JsonParserUtil {
     }
 
     static EnumSet<AttributeType> parseAttributeList(JsonReader r) throws IOException {
+        return parseAttributeMask(r).toEnumSet();
+    }
+
+    static AttributeMask parseAttributeMask(JsonReader r) throws IOException {
         if (r.peek() != JsonToken.BEGIN_ARRAY) {
             r.skipValue();
         }
 
-        EnumSet<AttributeType> attributeSet = EnumSet.noneOf(AttributeType.class);
+        AttributeMask.Builder builder = AttributeMask.builder();
         r.beginArray();
         while (r.hasNext()) {
             AttributeType attribute = parseAttribute(r);
             if (attribute != null) {
-                attributeSet.add(attribute);
+                builder.add(attribute);
             }
         }
         r.endArray();
-        return attributeSet;
+        return builder.build();
     }
 
     static TrackableLogType parseTrackableLogType(JsonReader r) throws IOException {
@@ -187,4 +242,23 @@ public final class JsonParserUtil {
 
         return false;
     }
+
+    /**
+     * Create a map of enum constants by their names. Parsers name the constants after JSON
+     * properties and look them up by the property name, so the property can be dispatched by
+     * switch instead of comparing the name with every known property.
+     *
+     * @param enumClass enum class
+     * @param <E>       enum type
+     * @return map of enum constants by name
+     */
+    static <E extends Enum<E>> Map<String, E> createNameMap(Class<E> enumClass) {
+        E[] constants = enumClass.getEnumConstants();
+
+        Map<String, E> map = new HashMap<String, E>(constants.length * 2);
+        for (E constant : constants) {
+            map.put(constant.name(), constant);
+        }
+        return map;
+    }
 }
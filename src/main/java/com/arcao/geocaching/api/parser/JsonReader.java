@@ -7,11 +7,47 @@ import java.io.Reader;
 
 public class JsonReader {
     private final com.google.gson.stream.JsonReader r;
+    private ParseCache cache;
 
     public JsonReader(Reader in) {
         r = new com.google.gson.stream.JsonReader(in);
     }
 
+    /**
+     * Constructor of readers with an own tokenizer, they have to override all public methods.
+     */
+    JsonReader() {
+        r = null;
+    }
+
+    /**
+     * Returns values shared by objects parsed from this reader.
+     */
+    ParseCache cache() {
+        if (cache == null)
+            cache = new ParseCache();
+
+        return cache;
+    }
+
+    /**
+     * Returns true if heavy values should be kept as raw JSON returned by {@link #nextRawValue()}
+     * and decoded when they are accessed.
+     */
+    boolean isLazyDecoding() {
+        return false;
+    }
+
+    /**
+     * Consumes the next value and returns it as raw UTF-8 encoded JSON. Supported only by readers
+     * with lazy decoding.
+     *
+     * @throws IOException when I/O error occurs
+     */
+    byte[] nextRawValue() throws IOException {
+        throw new UnsupportedOperationException("Raw values are not supported");
+    }
+
     /**
      * <p>
      * Configure this parser to be liberal in what it accepts. By default,
@@ -0,0 +1,508 @@
+package com.arcao.geocaching.api.parser;
+
+import com.arcao.geocaching.api.data.Geocache;
+import com.arcao.geocaching.api.data.GeocacheLog;
+import com.arcao.geocaching.api.data.ImageData;
+import com.arcao.geocaching.api.data.Trackable;
+import com.arcao.geocaching.api.data.User;
+import com.arcao.geocaching.api.data.UserWaypoint;
+import com.arcao.geocaching.api.data.Waypoint;
+import com.arcao.geocaching.api.data.coordinates.Coordinates;
+import com.arcao.geocaching.api.data.type.AttributeMask;
+import com.arcao.geocaching.api.data.type.AttributeType;
+import com.arcao.geocaching.api.data.type.ContainerType;
+import com.arcao.geocaching.api.data.type.GeocacheType;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.ObjectStreamException;
+import java.util.Date;
+import java.util.EnumSet;
+import java.util.List;
+
+/**
+ * Geocache keeping heavy properties (descriptions, hint, logs and images) as raw JSON until they
+ * are accessed for the first time. Decoded values are memoized, the decoding is thread-safe.
+ * <p>
+ * Instances are equal to a fully decoded Geocache with the same values and are serialized as
+ * a fully decoded Geocache.
+ */
+final class LazyGeocache extends Geocache {
+    private static final long serialVersionUID = -5217146838458125044L;
+
+    private final Geocache geocache;
+    @Nullable private final LazyValue<String> shortDescription;
+    @Nullable private final LazyValue<String> longDescription;
+    @Nullable private final LazyValue<String> hint;
+    @Nullable private final LazyValue<List<GeocacheLog>> geocacheLogs;
+    @Nullable private final LazyValue<List<ImageData>> images;
+    // fully decoded copy for hashCode(), toString() and serialization, a race only builds it twice
+    private transient volatile Geocache decoded;
+
+    private LazyGeocache(Geocache geocache, RawValues raw) {
+        this.geocache = geocache;
+        shortDescription = LazyValue.create(raw.shortDescription, STRING);
+        longDescription = LazyValue.create(raw.longDescription, STRING);
+        hint = LazyValue.create(raw.hint, STRING);
+        geocacheLogs = LazyValue.create(raw.geocacheLogs, GEOCACHE_LOGS);
+        images = LazyValue.create(raw.images, IMAGES);
+    }
+
+    /**
+     * Create a Geocache decoding raw values on demand.
+     *
+     * @param geocache Geocache with all other values
+     * @param raw      raw JSON values of heavy properties
+     * @return lazy Geocache or the geocache if there isn't any raw value
+     */
+    @NotNull
+    static Geocache create(@NotNull Geocache geocache, @NotNull RawValues raw) {
+        if (raw.isEmpty())
+            return geocache;
+
+        return new LazyGeocache(geocache, raw);
+    }
+
+    @Override
+    public boolean archived() {
+        return geocache.archived();
+    }
+
+    @Override
+    public boolean available() {
+        return geocache.available();
+    }
+
+    @Nullable
+    @Override
+    public GeocacheType geocacheType() {
+        return geocache.geocacheType();
+    }
+
+    @Override
+    public boolean favoritable() {
+        return geocache.favoritable();
+    }
+
+    @Override
+    public String code() {
+        return geocache.code();
+    }
+
+    @Override
+    public ContainerType containerType() {
+        return geocache.containerType();
+    }
+
+    @Nullable
+    @Override
+    public Date lastUpdateDate() {
+        return geocache.lastUpdateDate();
+    }
+
+    @Nullable
+    @Override
+    public Date lastVisitDate() {
+        return geocache.lastVisitDate();
+    }
+
+    @Override
+    public float difficulty() {
+        return geocache.difficulty();
+    }
+
+    @Override
+    public int favoritePoints() {
+        return geocache.favoritePoints();
+    }
+
+    @Nullable
+    @Override
+    public Date foundDate() {
+        return geocache.foundDate();
+    }
+
+    @Nullable
+    @Override
+    public String personalNote() {
+        return geocache.personalNote();
+    }
+
+    @Override
+    public boolean favoritedByUser() {
+        return geocache.favoritedByUser();
+    }
+
+    @Override
+    public boolean foundByUser() {
+        return geocache.foundByUser();
+    }
+
+    @Override
+    public long id() {
+        return geocache.id();
+    }
+
+    @Override
+    public int imageCount() {
+        return geocache.imageCount();
+    }
+
+    @Override
+    public boolean premium() {
+        return geocache.premium();
+    }
+
+    @Override
+    public boolean recommended() {
+        return geocache.recommended();
+    }
+
+    @Override
+    public Coordinates coordinates() {
+        return geocache.coordinates();
+    }
+
+    @Override
+    public String name() {
+        return geocache.name();
+    }
+
+    @Nullable
+    @Override
+    public User owner() {
+        return geocache.owner();
+    }
+
+    @Override
+    public String placedBy() {
+        return geocache.placedBy();
+    }
+
+    @Nullable
+    @Override
+    public Date publishDate() {
+        return geocache.publishDate();
+    }
+
+    @Override
+    public float terrain() {
+        return geocache.terrain();
+    }
+
+    @Override
+    public int trackableCount() {
+        return geocache.trackableCount();
+    }
+
+    @Nullable
+    @Override
+    public Date placeDate() {
+        return geocache.placeDate();
+    }
+
+    @Override
+    public String url() {
+        return geocache.url();
+    }
+
+    @Override
+    public String guid() {
+        return geocache.guid();
+    }
+
+    @Nullable
+    @Override
+    public List<Waypoint> waypoints() {
+        return geocache.waypoints();
+    }
+
+    @Nullable
+    @Override
+    public String hint() {
+        return hint != null ? hint.get() : geocache.hint();
+    }
+
+    @Nullable
+    @Override
+    public String longDescription() {
+        return longDescription != null ? longDescription.get() : geocache.longDescription();
+    }
+
+    @Override
+    public boolean longDescriptionHtml() {
+        return geocache.longDescriptionHtml();
+    }
+
+    @Nullable
+    @Override
+    public String shortDescription() {
+        return shortDescription != null ? shortDescription.get() : geocache.shortDescription();
+    }
+
+    @Override
+    public boolean shortDescriptionHtml() {
+        return geocache.shortDescriptionHtml();
+    }
+
+    @Nullable
+    @Override
+    public List<Trackable> trackables() {
+        return geocache.trackables();
+    }
+
+    @Nullable
+    @Override
+    public List<UserWaypoint> userWaypoints() {
+        return geocache.userWaypoints();
+    }
+
+    @Nullable
+    @Override
+    public List<ImageData> images() {
+        return images != null ? images.get() : geocache.images();
+    }
+
+    @Nullable
+    @Override
+    public EnumSet<AttributeType> attributes() {
+        return geocache.attributes();
+    }
+
+    @NotNull
+    @Override
+    public AttributeMask attributeMask() {
+        return geocache.attributeMask();
+    }
+
+    @Nullable
+    @Override
+    public String countryName() {
+        return geocache.countryName();
+    }
+
+    @Nullable
+    @Override
+    public Date createDate() {
+        return geocache.createDate();
+    }
+
+    @Nullable
+    @Override
+    public List<GeocacheLog> geocacheLogs() {
+        return geocacheLogs != null ? geocacheLogs.get() : geocache.geocacheLogs();
+    }
+
+    @Nullable
+    @Override
+    public String stateName() {
+        return geocache.stateName();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (o == this)
+            return true;
+
+        if (!(o instanceof Geocache))
+            return false;
+
+        // heavy properties are compared last, they are decoded only if all others are equal
+        Geocache that = (Geocache) o;
+        return id() == that.id()
+                && equal(code(), that.code())
+                && archived() == that.archived()
+                && available() == that.available()
+                && favoritable() == that.favoritable()
+                && favoritedByUser() == that.favoritedByUser()
+                && foundByUser() == that.foundByUser()
+                && premium() == that.premium()
+                && recommended() == that.recommended()
+                && longDescriptionHtml() == that.longDescriptionHtml()
+                && shortDescriptionHtml() == that.shortDescriptionHtml()
+                && Float.floatToIntBits(difficulty()) == Float.floatToIntBits(that.difficulty())
+                && Float.floatToIntBits(terrain()) == Float.floatToIntBits(that.terrain())
+                && favoritePoints() == that.favoritePoints()
+                && imageCount() == that.imageCount()
+                && trackableCount() == that.trackableCount()
+                && equal(geocacheType(), that.geocacheType())
+                && equal(containerType(), that.containerType())
+                && equal(name(), that.name())
+                && equal(coordinates(), that.coordinates())
+                && equal(placedBy(), that.placedBy())
+                && equal(url(), that.url())
+                && equal(guid(), that.guid())
+                && equal(countryName(), that.countryName())
+                && equal(stateName(), that.stateName())
+                && equal(personalNote(), that.personalNote())
+                && equal(lastUpdateDate(), that.lastUpdateDate())
+                && equal(lastVisitDate(), that.lastVisitDate())
+                && equal(foundDate(), that.foundDate())
+                && equal(publishDate(), that.publishDate())
+                && equal(placeDate(), that.placeDate())
+                && equal(createDate(), that.createDate())
+                && equal(owner(), that.owner())
+                && equal(attributes(), that.attributes())
+                && equal(waypoints(), that.waypoints())
+                && equal(trackables(), that.trackables())
+                && equal(userWaypoints(), that.userWaypoints())
+                && equal(hint(), that.hint())
+                && equal(shortDescription(), that.shortDescription())
+                && equal(longDescription(), that.longDescription())
+                && equal(images(), that.images())
+                && equal(geocacheLogs(), that.geocacheLogs());
+    }
+
+    @Override
+    public int hashCode() {
+        return decoded().hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return decoded().toString();
+    }
+
+    private Object writeReplace() throws ObjectStreamException {
+        return decoded();
+    }
+
+    private static boolean equal(@Nullable Object a, @Nullable Object b) {
+        return a == null ? b == null : a.equals(b);
+    }
+
+    // built once, it shares the memoized values
+    private Geocache decoded() {
+        Geocache result = decoded;
+        if (result == null) {
+            result = decode();
+            decoded = result;
+        }
+        return result;
+    }
+
+    private Geocache decode() {
+        return Geocache.builder()
+                .archived(archived())
+                .available(available())
+                .geocacheType(geocacheType())
+                .favoritable(favoritable())
+                .code(code())
+                .containerType(containerType())
+                .lastUpdateDate(lastUpdateDate())
+                .lastVisitDate(lastVisitDate())
+                .difficulty(difficulty())
+                .favoritePoints(favoritePoints())
+                .foundDate(foundDate())
+                .personalNote(personalNote())
+                .favoritedByUser(favoritedByUser())
+                .foundByUser(foundByUser())
+                .id(id())
+                .imageCount(imageCount())
+                .premium(premium())
+                .recommended(recommended())
+                .coordinates(coordinates())
+                .name(name())
+                .owner(owner())
+                .placedBy(placedBy())
+                .publishDate(publishDate())
+                .terrain(terrain())
+                .trackableCount(trackableCount())
+                .placeDate(placeDate())
+                .url(url())
+                .guid(guid())
+                .waypoints(waypoints())
+                .hint(hint())
+                .longDescription(longDescription())
+                .longDescriptionHtml(longDescriptionHtml())
+                .shortDescription(shortDescription())
+                .shortDescriptionHtml(shortDescriptionHtml())
+                .trackables(trackables())
+                .userWaypoints(userWaypoints())
+                .images(images())
+                .attributes(attributes())
+                .countryName(countryName())
+                .createDate(createDate())
+                .geocacheLogs(geocacheLogs())
+                .stateName(stateName())
+                .build();
+    }
+
+    /**
+     * Raw JSON values of heavy Geocache properties collected by the parser.
+     */
+    static final class RawValues {
+        @Nullable byte[] shortDescription;
+        @Nullable byte[] longDescription;
+        @Nullable byte[] hint;
+        @Nullable byte[] geocacheLogs;
+        @Nullable byte[] images;
+
+        boolean isEmpty() {
+            return shortDescription == null && longDescription == null && hint == null && geocacheLogs == null && images == null;
+        }
+    }
+
+    private interface Decoder<T> {
+        T decode(JsonReader r) throws IOException;
+    }
+
+    private static final Decoder<String> STRING = new Decoder<String>() {
+        @Override
+        public String decode(JsonReader r) throws IOException {
+            return r.nextString();
+        }
+    };
+
+    private static final Decoder<List<GeocacheLog>> GEOCACHE_LOGS = new Decoder<List<GeocacheLog>>() {
+        @Override
+        public List<GeocacheLog> decode(JsonReader r) throws IOException {
+            return GeocacheLogJsonParser.parseList(r);
+        }
+    };
+
+    private static final Decoder<List<ImageData>> IMAGES = new Decoder<List<ImageData>>() {
+        @Override
+        public List<ImageData> decode(JsonReader r) throws IOException {
+            return ImageDataJsonParser.parseList(r);
+        }
+    };
+
+    private static final class LazyValue<T> {
+        private final Decoder<T> decoder;
+        // null when decoded, value is published by the volatile write
+        private volatile byte[] raw;
+        private T value;
+
+        private LazyValue(byte[] raw, Decoder<T> decoder) {
+            this.raw = raw;
+            this.decoder = decoder;
+        }
+
+        @Nullable
+        static <T> LazyValue<T> create(@Nullable byte[] raw, Decoder<T> decoder) {
+            return raw != null ? new LazyValue<T>(raw, decoder) : null;
+        }
+
+        T get() {
+            if (raw == null)
+                return value;
+
+            synchronized (this) {
+                byte[] bytes = raw;
+                if (bytes != null) {
+                    try {
+                        value = decoder.decode(new Utf8JsonReader(new ByteArrayInputStream(bytes)));
+                    } catch (IOException e) {
+                        throw new IllegalStateException("Unable to decode a lazy Geocache value", e);
+                    }
+                    raw = null;
+                }
+                return value;
+            }
+        }
+    }
+}
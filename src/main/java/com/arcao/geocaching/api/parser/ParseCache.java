@@ -0,0 +1,60 @@
+package com.arcao.geocaching.api.parser;
+
+import com.arcao.geocaching.api.data.User;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Values shared by objects parsed from one response. A page of Geocaches repeats the same owners,
+ * log authors and countries many times, returning the same instance for equal values lets the
+ * duplicates be garbage collected right after parsing.
+ */
+final class ParseCache {
+    private final Map<Long, User> users = new HashMap<Long, User>();
+    private final Map<String, String> strings = new HashMap<String, String>();
+
+    /**
+     * Returns the first parsed User equal to the user, or the user itself if it wasn't parsed yet.
+     *
+     * @param user parsed user
+     * @return shared user instance
+     */
+    @Nullable
+    User user(@Nullable User user) {
+        if (user == null)
+            return null;
+
+        User cached = users.get(user.id());
+        if (cached != null && cached.equals(user))
+            return cached;
+
+        // the same id with different values, e.g. a log author without home coordinates
+        if (cached == null)
+            users.put(user.id(), user);
+
+        return user;
+    }
+
+    /**
+     * Returns the first parsed String equal to the value, or the value itself if it wasn't parsed
+     * yet.
+     *
+     * @param value parsed value
+     * @return shared string instance
+     */
+    @Nullable
+    String string(@Nullable String value) {
+        if (value == null)
+            return null;
+
+        String cached = strings.get(value);
+        if (cached != null)
+            return cached;
+
+        strings.put(value, value);
+        return value;
+    }
+}
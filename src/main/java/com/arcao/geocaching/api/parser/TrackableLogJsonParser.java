@@ -7,12 +7,15 @@ import com.google.gson.stream.JsonToken;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 
 import static com.arcao.geocaching.api.parser.JsonParserUtil.parseJsonDate;
 import static com.arcao.geocaching.api.parser.JsonParserUtil.parseJsonUTCDate;
 import static com.arcao.geocaching.api.parser.JsonParserUtil.parseTrackableLogType;
 
 public final class TrackableLogJsonParser {
+    private static final Map<String, Property> PROPERTIES = JsonParserUtil.createNameMap(Property.class);
+
     private TrackableLogJsonParser() {
     }
 
@@ -37,37 +40,55 @@ public final class TrackableLogJsonParser {
 
         r.beginObject();
         while (r.hasNext()) {
-            String name = r.nextName();
-            if ("CacheID".equals(name)) {
-                builder.cacheId(r.nextInt());
-            } else if ("Code".equals(name)) {
-                builder.code(r.nextString());
-            } else if ("ID".equals(name)) {
-                builder.id(r.nextInt());
-            } else if ("Images".equals(name)) {
-                builder.images(ImageDataJsonParser.parseList(r));
-            } else if ("IsArchived".equals(name)) {
-                builder.archived(r.nextBoolean());
-            } else if ("LogGuid".equals(name)) {
-                builder.guid(r.nextString());
-            } else if ("LogText".equals(name)) {
-                builder.text(r.nextString());
-            } else if ("LogType".equals(name)) {
-                builder.type(parseTrackableLogType(r));
-            } else if ("LoggedBy".equals(name)) {
-                builder.loggedBy(UserJsonParser.parse(r));
-            } else if ("UTCCreateDate".equals(name)) {
-                builder.created(parseJsonUTCDate(r.nextString()));
-            } else if ("UpdatedLatitude".equals(name)) {
-                updatedCoordinatesBuilder.latitude(r.nextDouble());
-            } else if ("UpdatedLongitude".equals(name)) {
-                updatedCoordinatesBuilder.longitude(r.nextDouble());
-            } else if ("Url".equals(name)) {
-                builder.url(r.nextString());
-            } else if ("VisitDate".equals(name)) {
-                builder.visited(parseJsonDate(r.nextString()));
-            } else {
+            Property property = PROPERTIES.get(r.nextName());
+            if (property == null) {
                 r.skipValue();
+                continue;
+            }
+
+            switch (property) {
+                case CacheID:
+                    builder.cacheId(r.nextInt());
+                    break;
+                case Code:
+                    builder.code(r.nextString());
+                    break;
+                case ID:
+                    builder.id(r.nextInt());
+                    break;
+                case Images:
+                    builder.images(ImageDataJsonParser.parseList(r));
+                    break;
+                case IsArchived:
+                    builder.archived(r.nextBoolean());
+                    break;
+                case LogGuid:
+                    builder.guid(r.nextString());
+                    break;
+                case LogText:
+                    builder.text(r.nextString());
+                    break;
+                case LogType:
+                    builder.type(parseTrackableLogType(r));
+                    break;
+                case LoggedBy:
+                    builder.loggedBy(UserJsonParser.parse(r));
+                    break;
+                case UTCCreateDate:
+                    builder.created(parseJsonUTCDate(r.nextString()));
+                    break;
+                case UpdatedLatitude:
+                    updatedCoordinatesBuilder.latitude(r.nextDouble());
+                    break;
+                case UpdatedLongitude:
+                    updatedCoordinatesBuilder.longitude(r.nextDouble());
+                    break;
+                case Url:
+                    builder.url(r.nextString());
+                    break;
+                case VisitDate:
+                    builder.visited(parseJsonDate(r.nextString()));
+                    break;
             }
         }
         r.endObject();
@@ -76,4 +97,22 @@ public final class TrackableLogJsonParser {
 
         return builder.build();
     }
+
+    // JSON properties of TrackableLog
+    private enum Property {
+        CacheID,
+        Code,
+        ID,
+        Images,
+        IsArchived,
+        LogGuid,
+        LogText,
+        LogType,
+        LoggedBy,
+        UTCCreateDate,
+        UpdatedLatitude,
+        UpdatedLongitude,
+        Url,
+        VisitDate
+    }
 }
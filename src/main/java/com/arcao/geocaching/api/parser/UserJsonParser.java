@@ -10,8 +10,11 @@ import org.jetbrains.annotations.Nullable;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 
 public final class UserJsonParser {
+    private static final Map<String, Property> PROPERTIES = JsonParserUtil.createNameMap(Property.class);
+
     private UserJsonParser() {
     }
 
@@ -43,28 +46,41 @@ public final class UserJsonParser {
 
         r.beginObject();
         while (r.hasNext()) {
-            String name = r.nextName();
-            if ("AvatarUrl".equals(name)) {
-                user.avatarUrl(r.nextString());
-            } else if ("FindCount".equals(name)) {
-                user.findCount(r.nextInt());
-            } else if ("HideCount".equals(name)) {
-                user.hideCount(r.nextInt());
-            } else if ("HomeCoordinates".equals(name)) {
-                user.homeCoordinates(parseHomeCoordinates(r));
-            } else if ("Id".equals(name)) {
-                user.id(r.nextLong());
-            } else if ("IsAdmin".equals(name)) {
-                user.admin(r.nextBoolean());
-            } else if ("MemberType".equals(name)) {
-                user.memberType(JsonParserUtil.parseMemberType(r));
-            } else if ("PublicGuid".equals(name)) {
-                user.publicGuid(r.nextString());
-            } else if ("UserName".equals(name)) {
-                userName = r.nextString();
-                user.userName(userName);
-            } else {
+            Property property = PROPERTIES.get(r.nextName());
+            if (property == null) {
                 r.skipValue();
+                continue;
+            }
+
+            switch (property) {
+                case AvatarUrl:
+                    user.avatarUrl(r.nextString());
+                    break;
+                case FindCount:
+                    user.findCount(r.nextInt());
+                    break;
+                case HideCount:
+                    user.hideCount(r.nextInt());
+                    break;
+                case HomeCoordinates:
+                    user.homeCoordinates(parseHomeCoordinates(r));
+                    break;
+                case Id:
+                    user.id(r.nextLong());
+                    break;
+                case IsAdmin:
+                    user.admin(r.nextBoolean());
+                    break;
+                case MemberType:
+                    user.memberType(JsonParserUtil.parseMemberType(r));
+                    break;
+                case PublicGuid:
+                    user.publicGuid(r.nextString());
+                    break;
+                case UserName:
+                    userName = r.nextString();
+                    user.userName(userName);
+                    break;
             }
         }
         r.endObject();
@@ -72,7 +88,7 @@ public final class UserJsonParser {
         if (userName == null)
             return null;
 
-        return user.build();
+        return r.cache().user(user.build());
     }
 
     private static Coordinates parseHomeCoordinates(JsonReader r) throws IOException {
@@ -95,4 +111,17 @@ public final class UserJsonParser {
         r.endObject();
         return coordinates.build();
     }
+
+    // JSON properties of User
+    private enum Property {
+        AvatarUrl,
+        FindCount,
+        HideCount,
+        HomeCoordinates,
+        Id,
+        IsAdmin,
+        MemberType,
+        PublicGuid,
+        UserName
+    }
 }
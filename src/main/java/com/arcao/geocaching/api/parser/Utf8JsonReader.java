@@ -0,0 +1,947 @@
+package com.arcao.geocaching.api.parser;
+
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.MalformedJsonException;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * {@link JsonReader} tokenizing UTF-8 encoded JSON directly from bytes.
+ * <p>
+ * The default {@link JsonReader} needs a {@link java.io.Reader}, so every byte of the response is
+ * decoded to a char before it is tokenized. This reader works on the bytes: strings are decoded
+ * only when they are consumed, skipped values are never decoded, numbers are parsed from the
+ * bytes and property names are cached, so the same name is returned as the same String instance.
+ * <p>
+ * With lazy decoding enabled, heavy Geocache properties (descriptions, hint, logs and images)
+ * are kept as raw JSON and decoded when they are accessed for the first time.
+ * <p>
+ * Only strict JSON (RFC 4627) is supported, lenient mode can't be enabled.
+ *
+ * @author arcao
+ * @since 2.1
+ */
+public class Utf8JsonReader extends JsonReader {
+    private static final int BUFFER_SIZE = 8192;
+    private static final int NAME_CACHE_SIZE = 256;
+    private static final int MAX_NAME_CACHE_LENGTH = 64;
+    // 18 digits always fit into long
+    private static final int MAX_SAFE_DIGITS = 18;
+
+    private static final int PEEKED_NONE = 0;
+    private static final int PEEKED_BEGIN_OBJECT = 1;
+    private static final int PEEKED_END_OBJECT = 2;
+    private static final int PEEKED_BEGIN_ARRAY = 3;
+    private static final int PEEKED_END_ARRAY = 4;
+    private static final int PEEKED_TRUE = 5;
+    private static final int PEEKED_FALSE = 6;
+    private static final int PEEKED_NULL = 7;
+    // position is after the opening quote
+    private static final int PEEKED_STRING = 8;
+    private static final int PEEKED_NAME = 9;
+    // position is at the first char of the number
+    private static final int PEEKED_NUMBER = 10;
+    private static final int PEEKED_EOF = 11;
+    // a number or string already consumed, its text is in peekedString
+    private static final int PEEKED_BUFFERED = 12;
+
+    private static final int EMPTY_ARRAY = 1;
+    private static final int NONEMPTY_ARRAY = 2;
+    private static final int EMPTY_OBJECT = 3;
+    private static final int DANGLING_NAME = 4;
+    private static final int NONEMPTY_OBJECT = 5;
+    private static final int EMPTY_DOCUMENT = 6;
+    private static final int NONEMPTY_DOCUMENT = 7;
+    private static final int CLOSED = 8;
+
+    private static final byte[] TRUE = {'t', 'r', 'u', 'e'};
+    private static final byte[] FALSE = {'f', 'a', 'l', 's', 'e'};
+    private static final byte[] NULL = {'n', 'u', 'l', 'l'};
+
+    private final InputStream in;
+    private final boolean lazyDecoding;
+    private final byte[] buffer = new byte[BUFFER_SIZE];
+    private int pos = 0;
+    private int limit = 0;
+    // count of bytes discarded from the buffer, used in error messages
+    private long offset = 0;
+
+    private int[] stack = new int[32];
+    private int stackSize = 0;
+    private int peeked = PEEKED_NONE;
+    private String peekedString;
+
+    private char[] chars = new char[128];
+    private final String[] nameCache = new String[NAME_CACHE_SIZE];
+
+    // raw value capture, captureStart is -1 when not capturing
+    private byte[] capture = null;
+    private int captureLength = 0;
+    private int captureStart = -1;
+
+    /**
+     * Create a new reader reading UTF-8 encoded JSON from the stream. The stream should not be
+     * buffered, this reader uses its own buffer.
+     *
+     * @param in stream with UTF-8 encoded JSON
+     */
+    public Utf8JsonReader(@NotNull InputStream in) {
+        this(in, false);
+    }
+
+    /**
+     * Create a new reader reading UTF-8 encoded JSON from the stream. The stream should not be
+     * buffered, this reader uses its own buffer.
+     *
+     * @param in           stream with UTF-8 encoded JSON
+     * @param lazyDecoding true to decode heavy Geocache properties on first access
+     */
+    public Utf8JsonReader(@NotNull InputStream in, boolean lazyDecoding) {
+        this.in = in;
+        this.lazyDecoding = lazyDecoding;
+        stack[stackSize++] = EMPTY_DOCUMENT;
+    }
+
+    /**
+     * Lenient syntax isn't supported by this reader.
+     *
+     * @throws UnsupportedOperationException if lenient is true
+     */
+    @Override
+    public void setLenient(boolean lenient) {
+        if (lenient)
+            throw new UnsupportedOperationException("Lenient mode is not supported");
+    }
+
+    @Override
+    public boolean isLenient() {
+        return false;
+    }
+
+    @Override
+    public void beginArray() throws IOException {
+        if (peekInternal() != PEEKED_BEGIN_ARRAY)
+            throw unexpected(JsonToken.BEGIN_ARRAY);
+
+        push(EMPTY_ARRAY);
+        peeked = PEEKED_NONE;
+    }
+
+    @Override
+    public void endArray() throws IOException {
+        if (peekInternal() != PEEKED_END_ARRAY)
+            throw unexpected(JsonToken.END_ARRAY);
+
+        stackSize--;
+        peeked = PEEKED_NONE;
+    }
+
+    @Override
+    public void beginObject() throws IOException {
+        if (peekInternal() != PEEKED_BEGIN_OBJECT)
+            throw unexpected(JsonToken.BEGIN_OBJECT);
+
+        push(EMPTY_OBJECT);
+        peeked = PEEKED_NONE;
+    }
+
+    @Override
+    public void endObject() throws IOException {
+        if (peekInternal() != PEEKED_END_OBJECT)
+            throw unexpected(JsonToken.END_OBJECT);
+
+        stackSize--;
+        peeked = PEEKED_NONE;
+    }
+
+    @Override
+    public boolean hasNext() throws IOException {
+        int p = peekInternal();
+        return p != PEEKED_END_OBJECT && p != PEEKED_END_ARRAY && p != PEEKED_EOF;
+    }
+
+    @Override
+    public JsonToken peek() throws IOException {
+        switch (peekInternal()) {
+            case PEEKED_BEGIN_OBJECT:
+                return JsonToken.BEGIN_OBJECT;
+            case PEEKED_END_OBJECT:
+                return JsonToken.END_OBJECT;
+            case PEEKED_BEGIN_ARRAY:
+                return JsonToken.BEGIN_ARRAY;
+            case PEEKED_END_ARRAY:
+                return JsonToken.END_ARRAY;
+            case PEEKED_TRUE:
+            case PEEKED_FALSE:
+                return JsonToken.BOOLEAN;
+            case PEEKED_NULL:
+                return JsonToken.NULL;
+            case PEEKED_STRING:
+            case PEEKED_BUFFERED:
+                return JsonToken.STRING;
+            case PEEKED_NAME:
+                return JsonToken.NAME;
+            case PEEKED_NUMBER:
+                return JsonToken.NUMBER;
+            default:
+                return JsonToken.END_DOCUMENT;
+        }
+    }
+
+    @Override
+    public String nextName() throws IOException {
+        if (peekInternal() != PEEKED_NAME)
+            throw unexpected(JsonToken.NAME);
+
+        String name = readName();
+        peeked = PEEKED_NONE;
+        return name;
+    }
+
+    @Override
+    public String nextString(String defaultValue) throws IOException {
+        int p = peekInternal();
+
+        String result;
+        if (p == PEEKED_STRING) {
+            result = readString();
+        } else if (p == PEEKED_NUMBER) {
+            int length = readNumber();
+            result = new String(chars, 0, length);
+        } else if (p == PEEKED_BUFFERED) {
+            result = peekedString;
+        } else if (p == PEEKED_NULL) {
+            result = defaultValue;
+        } else {
+            throw unexpected(JsonToken.STRING);
+        }
+
+        peeked = PEEKED_NONE;
+        peekedString = null;
+        return result;
+    }
+
+    @Override
+    public boolean nextBoolean(boolean defaultValue) throws IOException {
+        int p = peekInternal();
+
+        boolean result;
+        if (p == PEEKED_TRUE) {
+            result = true;
+        } else if (p == PEEKED_FALSE) {
+            result = false;
+        } else if (p == PEEKED_NULL) {
+            result = defaultValue;
+        } else {
+            throw unexpected(JsonToken.BOOLEAN);
+        }
+
+        peeked = PEEKED_NONE;
+        return result;
+    }
+
+    @Override
+    public void nextNull() throws IOException {
+        if (peekInternal() != PEEKED_NULL)
+            throw unexpected(JsonToken.NULL);
+
+        peeked = PEEKED_NONE;
+    }
+
+    @Override
+    public double nextDouble(double defaultValue) throws IOException {
+        int p = peekInternal();
+        if (p == PEEKED_NULL) {
+            peeked = PEEKED_NONE;
+            return defaultValue;
+        }
+
+        String text = numberText(p, JsonToken.NUMBER);
+        buffer(text);
+
+        double result = Double.parseDouble(text);
+        if (Double.isNaN(result) || Double.isInfinite(result))
+            throw syntaxError("JSON forbids NaN and infinities: " + result);
+
+        peeked = PEEKED_NONE;
+        peekedString = null;
+        return result;
+    }
+
+    @Override
+    public long nextLong(long defaultValue) throws IOException {
+        int p = peekInternal();
+        if (p == PEEKED_NULL) {
+            peeked = PEEKED_NONE;
+            return defaultValue;
+        }
+
+        String text;
+        if (p == PEEKED_NUMBER) {
+            int length = readNumber();
+            if (isSafeInteger(length)) {
+                peeked = PEEKED_NONE;
+                return parseSafeInteger(length);
+            }
+            text = new String(chars, 0, length);
+        } else {
+            text = numberText(p, JsonToken.NUMBER);
+        }
+
+        buffer(text);
+        long result = parseLong(text);
+
+        peeked = PEEKED_NONE;
+        peekedString = null;
+        return result;
+    }
+
+    @Override
+    public int nextInt(int defaultValue) throws IOException {
+        int p = peekInternal();
+        if (p == PEEKED_NULL) {
+            peeked = PEEKED_NONE;
+            return defaultValue;
+        }
+
+        String text;
+        if (p == PEEKED_NUMBER) {
+            int length = readNumber();
+            if (isSafeInteger(length)) {
+                long result = parseSafeInteger(length);
+                if (result == (int) result) {
+                    peeked = PEEKED_NONE;
+                    return (int) result;
+                }
+            }
+            text = new String(chars, 0, length);
+        } else {
+            text = numberText(p, JsonToken.NUMBER);
+        }
+
+        buffer(text);
+        long result = parseLong(text);
+        if (result != (int) result)
+            throw new NumberFormatException("Expected an int but was " + text + location());
+
+        peeked = PEEKED_NONE;
+        peekedString = null;
+        return (int) result;
+    }
+
+    @Override
+    public void close() throws IOException {
+        peeked = PEEKED_NONE;
+        stack[0] = CLOSED;
+        stackSize = 1;
+        in.close();
+    }
+
+    @Override
+    public void skipValue() throws IOException {
+        int count = 0;
+        do {
+            int p = peekInternal();
+            switch (p) {
+                case PEEKED_BEGIN_ARRAY:
+                    push(EMPTY_ARRAY);
+                    count++;
+                    break;
+                case PEEKED_BEGIN_OBJECT:
+                    push(EMPTY_OBJECT);
+                    count++;
+                    break;
+                case PEEKED_END_ARRAY:
+                case PEEKED_END_OBJECT:
+                    stackSize--;
+                    count--;
+                    break;
+                case PEEKED_STRING:
+                case PEEKED_NAME:
+                    skipString();
+                    break;
+                case PEEKED_NUMBER:
+                    readNumber();
+                    break;
+                case PEEKED_BUFFERED:
+                    peekedString = null;
+                    break;
+                case PEEKED_EOF:
+                    throw new EOFException("End of input" + location());
+                default:
+                    // literals are consumed by peek
+                    break;
+            }
+            peeked = PEEKED_NONE;
+        } while (count > 0);
+    }
+
+    @Override
+    public String toString() {
+        return getClass().getSimpleName() + location();
+    }
+
+    @Override
+    boolean isLazyDecoding() {
+        return lazyDecoding;
+    }
+
+    @Override
+    byte[] nextRawValue() throws IOException {
+        int p = peekInternal();
+        switch (p) {
+            case PEEKED_TRUE:
+                peeked = PEEKED_NONE;
+                return TRUE.clone();
+            case PEEKED_FALSE:
+                peeked = PEEKED_NONE;
+                return FALSE.clone();
+            case PEEKED_NULL:
+                peeked = PEEKED_NONE;
+                return NULL.clone();
+            case PEEKED_NUMBER:
+                captureStart = pos;
+                break;
+            case PEEKED_STRING:
+            case PEEKED_BEGIN_ARRAY:
+            case PEEKED_BEGIN_OBJECT:
+                // the first char is already consumed
+                captureStart = pos - 1;
+                break;
+            default:
+                throw new IllegalStateException("Expected a value but was " + peek() + location());
+        }
+
+        captureLength = 0;
+        try {
+            skipValue();
+            appendCapture();
+        } finally {
+            captureStart = -1;
+        }
+
+        byte[] result = new byte[captureLength];
+        System.arraycopy(capture, 0, result, 0, captureLength);
+        return result;
+    }
+
+    private void appendCapture() {
+        int length = pos - captureStart;
+        if (capture == null || capture.length < captureLength + length) {
+            byte[] newCapture = new byte[Math.max(captureLength + length, capture == null ? BUFFER_SIZE : capture.length * 2)];
+            if (capture != null)
+                System.arraycopy(capture, 0, newCapture, 0, captureLength);
+
+            capture = newCapture;
+        }
+
+        System.arraycopy(buffer, captureStart, capture, captureLength, length);
+        captureLength += length;
+    }
+
+    private int peekInternal() throws IOException {
+        int p = peeked;
+        if (p == PEEKED_NONE)
+            p = doPeek();
+
+        return p;
+    }
+
+    private int doPeek() throws IOException {
+        int top = stack[stackSize - 1];
+
+        if (top == EMPTY_ARRAY) {
+            stack[stackSize - 1] = NONEMPTY_ARRAY;
+        } else if (top == NONEMPTY_ARRAY) {
+            int c = nextNonWhitespace(true);
+            if (c == ']')
+                return peeked = PEEKED_END_ARRAY;
+
+            if (c != ',')
+                throw syntaxError("Unterminated array");
+        } else if (top == EMPTY_OBJECT || top == NONEMPTY_OBJECT) {
+            stack[stackSize - 1] = DANGLING_NAME;
+
+            if (top == NONEMPTY_OBJECT) {
+                int c = nextNonWhitespace(true);
+                if (c == '}')
+                    return peeked = PEEKED_END_OBJECT;
+
+                if (c != ',')
+                    throw syntaxError("Unterminated object");
+            }
+
+            int c = nextNonWhitespace(true);
+            if (c == '"')
+                return peeked = PEEKED_NAME;
+
+            if (c == '}' && top == EMPTY_OBJECT)
+                return peeked = PEEKED_END_OBJECT;
+
+            throw syntaxError("Expected name");
+        } else if (top == DANGLING_NAME) {
+            stack[stackSize - 1] = NONEMPTY_OBJECT;
+
+            if (nextNonWhitespace(true) != ':')
+                throw syntaxError("Expected ':'");
+        } else if (top == EMPTY_DOCUMENT) {
+            stack[stackSize - 1] = NONEMPTY_DOCUMENT;
+            skipByteOrderMark();
+        } else if (top == NONEMPTY_DOCUMENT) {
+            if (nextNonWhitespace(false) == -1)
+                return peeked = PEEKED_EOF;
+
+            throw syntaxError("Expected end of document");
+        } else if (top == CLOSED) {
+            throw new IllegalStateException("JsonReader is closed");
+        }
+
+        int c = nextNonWhitespace(true);
+        switch (c) {
+            case ']':
+                if (top == EMPTY_ARRAY)
+                    return peeked = PEEKED_END_ARRAY;
+
+                throw syntaxError("Expected value");
+            case '"':
+                return peeked = PEEKED_STRING;
+            case '[':
+                return peeked = PEEKED_BEGIN_ARRAY;
+            case '{':
+                return peeked = PEEKED_BEGIN_OBJECT;
+            case 't':
+                return peeked = readKeyword(TRUE, PEEKED_TRUE);
+            case 'f':
+                return peeked = readKeyword(FALSE, PEEKED_FALSE);
+            case 'n':
+                return peeked = readKeyword(NULL, PEEKED_NULL);
+            default:
+                if (c == '-' || (c >= '0' && c <= '9')) {
+                    pos--;
+                    return peeked = PEEKED_NUMBER;
+                }
+
+                throw syntaxError("Expected value");
+        }
+    }
+
+    private void push(int scope) {
+        if (stackSize == stack.length) {
+            int[] newStack = new int[stackSize * 2];
+            System.arraycopy(stack, 0, newStack, 0, stackSize);
+            stack = newStack;
+        }
+        stack[stackSize++] = scope;
+    }
+
+    /**
+     * Make sure that at least minimum bytes are available in the buffer starting at pos.
+     */
+    private boolean fillBuffer(int minimum) throws IOException {
+        if (limit - pos >= minimum)
+            return true;
+
+        if (captureStart >= 0) {
+            // keep captured bytes which are going to be discarded
+            appendCapture();
+            captureStart = 0;
+        }
+
+        offset += pos;
+        if (pos != limit)
+            System.arraycopy(buffer, pos, buffer, 0, limit - pos);
+
+        limit -= pos;
+        pos = 0;
+
+        while (limit < minimum) {
+            int len = in.read(buffer, limit, buffer.length - limit);
+            if (len == -1)
+                return false;
+
+            limit += len;
+        }
+        return true;
+    }
+
+    private int nextNonWhitespace(boolean throwOnEof) throws IOException {
+        while (true) {
+            if (pos == limit && !fillBuffer(1)) {
+                if (throwOnEof)
+                    throw new EOFException("End of input" + location());
+
+                return -1;
+            }
+
+            int c = buffer[pos++];
+            if (c != ' ' && c != '\n' && c != '\r' && c != '\t')
+                return c & 0xFF;
+        }
+    }
+
+    private void skipByteOrderMark() throws IOException {
+        if (fillBuffer(3) && buffer[pos] == (byte) 0xEF && buffer[pos + 1] == (byte) 0xBB && buffer[pos + 2] == (byte) 0xBF)
+            pos += 3;
+    }
+
+    private int readKeyword(byte[] keyword, int result) throws IOException {
+        // the first char is already consumed
+        pos--;
+        if (!fillBuffer(keyword.length))
+            throw syntaxError("Expected value");
+
+        for (int i = 1; i < keyword.length; i++) {
+            if (buffer[pos + i] != keyword[i])
+                throw syntaxError("Expected value");
+        }
+
+        if (fillBuffer(keyword.length + 1) && isLiteral(buffer[pos + keyword.length]))
+            throw syntaxError("Expected value");
+
+        pos += keyword.length;
+        return result;
+    }
+
+    private static boolean isLiteral(int c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9') || c == '_' || c == '-' || c == '+' || c == '.';
+    }
+
+    private String readName() throws IOException {
+        // fast path: ASCII name without escapes already in the buffer
+        int hash = 0;
+        for (int i = pos; i < limit && i - pos <= MAX_NAME_CACHE_LENGTH; i++) {
+            int c = buffer[i];
+            if (c == '"') {
+                String name = cachedName(pos, i - pos, hash);
+                pos = i + 1;
+                return name;
+            }
+
+            if (c == '\\' || c < 0)
+                break;
+
+            hash = 31 * hash + c;
+        }
+
+        return readString();
+    }
+
+    private String cachedName(int start, int length, int hash) {
+        int index = (hash ^ (hash >>> 16)) & (NAME_CACHE_SIZE - 1);
+
+        String name = nameCache[index];
+        if (name != null && name.length() == length) {
+            boolean same = true;
+            for (int i = 0; i < length; i++) {
+                if (name.charAt(i) != buffer[start + i]) {
+                    same = false;
+                    break;
+                }
+            }
+
+            if (same)
+                return name;
+        }
+
+        char[] chars = ensureChars(length);
+        for (int i = 0; i < length; i++) {
+            chars[i] = (char) buffer[start + i];
+        }
+
+        name = new String(chars, 0, length);
+        nameCache[index] = name;
+        return name;
+    }
+
+    private String readString() throws IOException {
+        int length = 0;
+
+        while (true) {
+            if (pos == limit && !fillBuffer(1))
+                throw syntaxError("Unterminated string");
+
+            // copy ASCII chars up to a quote, an escape or a multi-byte sequence
+            char[] chars = ensureChars(length + limit - pos);
+            int p = pos;
+            int l = limit;
+            while (p < l) {
+                int c = buffer[p];
+                if (c == '"' || c == '\\' || c < 0)
+                    break;
+
+                chars[length++] = (char) c;
+                p++;
+            }
+            pos = p;
+
+            if (p == l)
+                continue;
+
+            int c = buffer[pos++];
+            if (c == '"')
+                return new String(chars, 0, length);
+
+            chars = ensureChars(length + 2);
+            if (c == '\\') {
+                chars[length++] = readEscapeCharacter();
+            } else {
+                length = decodeMultiByte(c & 0xFF, chars, length);
+            }
+        }
+    }
+
+    private char readEscapeCharacter() throws IOException {
+        if (pos == limit && !fillBuffer(1))
+            throw syntaxError("Unterminated escape sequence");
+
+        int c = buffer[pos++];
+        switch (c) {
+            case 'u':
+                if (!fillBuffer(4))
+                    throw syntaxError("Unterminated escape sequence");
+
+                int result = 0;
+                for (int i = 0; i < 4; i++) {
+                    int digit = Character.digit(buffer[pos + i], 16);
+                    if (digit < 0)
+                        throw syntaxError("Malformed Unicode escape sequence");
+
+                    result = (result << 4) + digit;
+                }
+                pos += 4;
+                return (char) result;
+            case 't':
+                return '\t';
+            case 'b':
+                return '\b';
+            case 'n':
+                return '\n';
+            case 'r':
+                return '\r';
+            case 'f':
+                return '\f';
+            case '"':
+            case '\\':
+            case '/':
+                return (char) c;
+            default:
+                throw syntaxError("Invalid escape sequence");
+        }
+    }
+
+    /**
+     * Decode a UTF-8 sequence starting with the lead byte, which is already consumed. Malformed
+     * sequences are replaced by U+FFFD like {@link java.io.InputStreamReader} does.
+     */
+    private int decodeMultiByte(int lead, char[] chars, int length) throws IOException {
+        int count;
+        int codePoint;
+        int min;
+        if ((lead & 0xE0) == 0xC0) {
+            count = 1;
+            codePoint = lead & 0x1F;
+            min = 0x80;
+        } else if ((lead & 0xF0) == 0xE0) {
+            count = 2;
+            codePoint = lead & 0x0F;
+            min = 0x800;
+        } else if ((lead & 0xF8) == 0xF0) {
+            count = 3;
+            codePoint = lead & 0x07;
+            min = 0x10000;
+        } else {
+            chars[length++] = '\uFFFD';
+            return length;
+        }
+
+        fillBuffer(count);
+        for (int i = 0; i < count; i++) {
+            if (pos == limit || (buffer[pos] & 0xC0) != 0x80) {
+                chars[length++] = '\uFFFD';
+                return length;
+            }
+            codePoint = (codePoint << 6) | (buffer[pos++] & 0x3F);
+        }
+
+        if (codePoint < min || codePoint > Character.MAX_CODE_POINT || (codePoint >= Character.MIN_SURROGATE && codePoint <= Character.MAX_SURROGATE)) {
+            chars[length++] = '\uFFFD';
+        } else {
+            length += Character.toChars(codePoint, chars, length);
+        }
+        return length;
+    }
+
+    private void skipString() throws IOException {
+        while (true) {
+            if (pos == limit && !fillBuffer(1))
+                throw syntaxError("Unterminated string");
+
+            int c = buffer[pos++];
+            if (c == '"')
+                return;
+
+            if (c == '\\') {
+                // escaped char is skipped, \\uXXXX digits can't contain a quote
+                if (pos == limit && !fillBuffer(1))
+                    throw syntaxError("Unterminated escape sequence");
+
+                pos++;
+            }
+        }
+    }
+
+    /**
+     * Read a number literal to the chars buffer.
+     *
+     * @return length of the literal
+     */
+    private int readNumber() throws IOException {
+        int length = 0;
+
+        while (true) {
+            if (pos == limit && !fillBuffer(1))
+                break;
+
+            int c = buffer[pos];
+            if (!((c >= '0' && c <= '9') || c == '-' || c == '+' || c == '.' || c == 'e' || c == 'E'))
+                break;
+
+            ensureChars(length + 1)[length++] = (char) c;
+            pos++;
+        }
+
+        if (!isValidNumber(length))
+            throw syntaxError("Malformed number " + new String(chars, 0, length));
+
+        return length;
+    }
+
+    // -?(0|[1-9][0-9]*)(\.[0-9]+)?([eE][-+]?[0-9]+)?
+    private boolean isValidNumber(int length) {
+        int i = 0;
+        if (i < length && chars[i] == '-')
+            i++;
+
+        if (i < length && chars[i] == '0') {
+            i++;
+        } else {
+            int start = i;
+            while (i < length && isDigit(chars[i]))
+                i++;
+
+            if (i == start)
+                return false;
+        }
+
+        if (i < length && chars[i] == '.') {
+            int start = ++i;
+            while (i < length && isDigit(chars[i]))
+                i++;
+
+            if (i == start)
+                return false;
+        }
+
+        if (i < length && (chars[i] == 'e' || chars[i] == 'E')) {
+            i++;
+            if (i < length && (chars[i] == '-' || chars[i] == '+'))
+                i++;
+
+            int start = i;
+            while (i < length && isDigit(chars[i]))
+                i++;
+
+            if (i == start)
+                return false;
+        }
+
+        return i == length;
+    }
+
+    private boolean isSafeInteger(int length) {
+        int start = chars[0] == '-' ? 1 : 0;
+        if (length - start > MAX_SAFE_DIGITS)
+            return false;
+
+        for (int i = start; i < length; i++) {
+            if (!isDigit(chars[i]))
+                return false;
+        }
+        return true;
+    }
+
+    private long parseSafeInteger(int length) {
+        boolean negative = chars[0] == '-';
+
+        long value = 0;
+        for (int i = negative ? 1 : 0; i < length; i++) {
+            value = value * 10 + (chars[i] - '0');
+        }
+        return negative ? -value : value;
+    }
+
+    private long parseLong(String text) {
+        try {
+            return Long.parseLong(text);
+        } catch (NumberFormatException e) {
+            // fractional or exponent form, accepted if the value is integral
+            double value = Double.parseDouble(text);
+            long result = (long) value;
+            if (result != value)
+                throw new NumberFormatException("Expected a long but was " + text + location());
+
+            return result;
+        }
+    }
+
+    // the value is consumed before it is parsed, if parsing fails, it can be read again by
+    // nextString(), nextLong() or nextDouble() as Gson's JsonReader allows
+    private void buffer(String text) {
+        peeked = PEEKED_BUFFERED;
+        peekedString = text;
+    }
+
+    private String numberText(int p, JsonToken expected) throws IOException {
+        if (p == PEEKED_BUFFERED)
+            return peekedString;
+
+        if (p == PEEKED_NUMBER) {
+            int length = readNumber();
+            return new String(chars, 0, length);
+        }
+
+        if (p == PEEKED_STRING)
+            return readString();
+
+        throw unexpected(expected);
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    private char[] ensureChars(int capacity) {
+        if (chars.length < capacity) {
+            char[] newChars = new char[Math.max(capacity, chars.length * 2)];
+            System.arraycopy(chars, 0, newChars, 0, chars.length);
+            chars = newChars;
+        }
+        return chars;
+    }
+
+    private IllegalStateException unexpected(JsonToken expected) throws IOException {
+        return new IllegalStateException("Expected " + expected + " but was " + peek() + location());
+    }
+
+    private IOException syntaxError(String message) {
+        return new MalformedJsonException(message + location());
+    }
+
+    private String location() {
+        return " at byte " + (offset + pos);
+    }
+}
@@ -0,0 +1,569 @@
+package com.arcao.geocaching.api.spatial;
+
+import com.arcao.geocaching.api.data.Geocache;
+import com.arcao.geocaching.api.data.GeocacheBatch;
+import com.arcao.geocaching.api.data.coordinates.Coordinates;
+import com.arcao.geocaching.api.data.coordinates.DistanceMode;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * In-memory spatial index of values with coordinates, e.g. geocaches, based on an R-tree. A tree
+ * created by {@link #of(Collection)} or {@link #of(GeocacheBatch)} is bulk loaded by
+ * Sort-Tile-Recursive packing, values can be added and removed later.<br>
+ * <br>
+ * Queries visit only the nodes which can contain a result, usually a logarithmic count of them:
+ * <ul>
+ * <li>{@link #viewport(double, double, double, double)} - values in a viewport as
+ * {@link com.arcao.geocaching.api.filter.ViewportFilter} defines it</li>
+ * <li>{@link #radius(double, double, double)} - values in a radius around a point as
+ * {@link com.arcao.geocaching.api.filter.PointRadiusFilter} defines it</li>
+ * <li>{@link #nearest(double, double, int, double)} - the nearest values to a point</li>
+ * </ul>
+ * Distances are great circle distances computed as {@link Coordinates#distanceTo(Coordinates)}
+ * does, a tree node is skipped by a lower bound of a distance to its bounding box. Values are
+ * compared by {@link Object#equals(Object)} when removed.<br>
+ * <br>
+ * The index is not thread-safe for modifications, concurrent queries are safe.
+ *
+ * @param <T> value type
+ * @author arcao
+ * @since 2.1
+ */
+public final class SpatialIndex<T> {
+    private static final int MAX_CHILDREN = 16;
+
+    private static final Comparator<Box> BY_LATITUDE = new Comparator<Box>() {
+        @Override
+        public int compare(Box box1, Box box2) {
+            return Double.compare(box1.minLatitude + box1.maxLatitude, box2.minLatitude + box2.maxLatitude);
+        }
+    };
+
+    private static final Comparator<Box> BY_LONGITUDE = new Comparator<Box>() {
+        @Override
+        public int compare(Box box1, Box box2) {
+            return Double.compare(box1.minLongitude + box1.maxLongitude, box2.minLongitude + box2.maxLongitude);
+        }
+    };
+
+    private Node root;
+    private int size;
+
+    public SpatialIndex() {
+        root = new Node(true);
+    }
+
+    private SpatialIndex(List<Entry> entries) {
+        size = entries.size();
+        root = size > 0 ? pack(entries, true) : new Node(true);
+    }
+
+    /**
+     * Create an index of geocaches by their coordinates.
+     *
+     * @param geocaches geocaches
+     * @return index
+     */
+    @NotNull
+    public static SpatialIndex<Geocache> of(@NotNull Collection<? extends Geocache> geocaches) {
+        List<Entry> entries = new ArrayList<Entry>(geocaches.size());
+        for (Geocache geocache : geocaches) {
+            Coordinates coordinates = geocache.coordinates();
+            entries.add(new Entry(coordinates.latitude(), coordinates.longitude(), geocache));
+        }
+        return new SpatialIndex<Geocache>(entries);
+    }
+
+    /**
+     * Create an index of all rows of the batch.
+     *
+     * @param batch geocache batch
+     * @return index
+     */
+    @NotNull
+    public static SpatialIndex<GeocacheBatch.Row> of(@NotNull GeocacheBatch batch) {
+        List<Entry> entries = new ArrayList<Entry>(batch.size());
+        for (int row = 0; row < batch.size(); row++) {
+            entries.add(new Entry(batch.latitude(row), batch.longitude(row), batch.row(row)));
+        }
+        return new SpatialIndex<GeocacheBatch.Row>(entries);
+    }
+
+    /**
+     * Create an index of values with coordinates at the same position in the coordinates list.
+     *
+     * @param coordinates coordinates of values
+     * @param values      values
+     * @param <T>         value type
+     * @return index
+     */
+    @NotNull
+    public static <T> SpatialIndex<T> of(@NotNull List<Coordinates> coordinates, @NotNull List<? extends T> values) {
+        if (coordinates.size() != values.size())
+            throw new IllegalArgumentException("Coordinates and values have different sizes.");
+
+        List<Entry> entries = new ArrayList<Entry>(values.size());
+        for (int i = 0; i < values.size(); i++) {
+            T value = values.get(i);
+            if (value == null)
+                throw new NullPointerException("value");
+
+            entries.add(new Entry(coordinates.get(i).latitude(), coordinates.get(i).longitude(), value));
+        }
+        return new SpatialIndex<T>(entries);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public void clear() {
+        root = new Node(true);
+        size = 0;
+    }
+
+    public void add(@NotNull Coordinates coordinates, @NotNull T value) {
+        add(coordinates.latitude(), coordinates.longitude(), value);
+    }
+
+    public void add(double latitude, double longitude, @NotNull T value) {
+        if (value == null)
+            throw new NullPointerException("value");
+
+        Node sibling = insert(root, new Entry(latitude, longitude, value));
+        if (sibling != null) {
+            Node newRoot = new Node(false);
+            newRoot.add(root);
+            newRoot.add(sibling);
+            root = newRoot;
+        }
+        size++;
+    }
+
+    public boolean remove(@NotNull Coordinates coordinates, @NotNull T value) {
+        return remove(coordinates.latitude(), coordinates.longitude(), value);
+    }
+
+    /**
+     * Remove a value stored with the coordinates.
+     *
+     * @param latitude  latitude the value was added with
+     * @param longitude longitude the value was added with
+     * @param value     value
+     * @return true if the value was found
+     */
+    public boolean remove(double latitude, double longitude, @NotNull T value) {
+        if (!remove(root, latitude, longitude, value))
+            return false;
+
+        while (!root.leaf && root.count == 1) {
+            root = (Node) root.children[0];
+        }
+        if (root.count == 0)
+            root = new Node(true);
+
+        size--;
+        return true;
+    }
+
+    @NotNull
+    public List<T> viewport(@NotNull Coordinates topLeftCoordinates, @NotNull Coordinates bottomRightCoordinates) {
+        return viewport(topLeftCoordinates.latitude(), topLeftCoordinates.longitude(), bottomRightCoordinates.latitude(), bottomRightCoordinates.longitude());
+    }
+
+    /**
+     * Find values in the viewport including its borders. A viewport with the top left longitude
+     * greater than the bottom right longitude crosses the 180° meridian.
+     *
+     * @param topLeftLatitude      the north border
+     * @param topLeftLongitude     the west border
+     * @param bottomRightLatitude  the south border
+     * @param bottomRightLongitude the east border
+     * @return values in no particular order
+     */
+    @NotNull
+    public List<T> viewport(double topLeftLatitude, double topLeftLongitude, double bottomRightLatitude, double bottomRightLongitude) {
+        List<T> result = new ArrayList<T>();
+
+        if (topLeftLongitude <= bottomRightLongitude) {
+            search(root, bottomRightLatitude, topLeftLatitude, topLeftLongitude, bottomRightLongitude, result);
+        } else {
+            search(root, bottomRightLatitude, topLeftLatitude, topLeftLongitude, Double.POSITIVE_INFINITY, result);
+            search(root, bottomRightLatitude, topLeftLatitude, Double.NEGATIVE_INFINITY, bottomRightLongitude, result);
+        }
+        return result;
+    }
+
+    @NotNull
+    public List<T> radius(@NotNull Coordinates coordinates, double distanceInMeters) {
+        return radius(coordinates.latitude(), coordinates.longitude(), distanceInMeters);
+    }
+
+    /**
+     * Find values with a distance from the point less than or equal to the distance.
+     *
+     * @param latitude         latitude of the point
+     * @param longitude        longitude of the point
+     * @param distanceInMeters distance in meters
+     * @return values in no particular order
+     */
+    @NotNull
+    public List<T> radius(double latitude, double longitude, double distanceInMeters) {
+        List<T> result = new ArrayList<T>();
+        if (size > 0) {
+            Query query = new Query(latitude, longitude, distanceInMeters);
+            radius(root, query, result);
+        }
+        return result;
+    }
+
+    @NotNull
+    public List<T> nearest(@NotNull Coordinates coordinates, int count) {
+        return nearest(coordinates.latitude(), coordinates.longitude(), count, Double.POSITIVE_INFINITY);
+    }
+
+    /**
+     * Find the nearest values to the point.
+     *
+     * @param latitude            latitude of the point
+     * @param longitude           longitude of the point
+     * @param count               maximal count of values
+     * @param maxDistanceInMeters maximal distance of values in meters
+     * @return values ordered by the distance, the nearest first
+     */
+    @NotNull
+    public List<T> nearest(double latitude, double longitude, int count, double maxDistanceInMeters) {
+        if (size == 0 || count <= 0)
+            return Collections.emptyList();
+
+        Query query = new Query(latitude, longitude, maxDistanceInMeters);
+        boolean limited = maxDistanceInMeters < Double.POSITIVE_INFINITY;
+
+        List<T> result = new ArrayList<T>(Math.min(count, size));
+        PriorityQueue<Candidate> queue = new PriorityQueue<Candidate>();
+        queue.add(new Candidate(root, 0));
+
+        Candidate candidate;
+        while (result.size() < count && (candidate = queue.poll()) != null) {
+            if (candidate.box instanceof Entry) {
+                result.add(this.<T>value((Entry) candidate.box));
+                continue;
+            }
+
+            Node node = (Node) candidate.box;
+            for (int i = 0; i < node.count; i++) {
+                Box child = node.children[i];
+                if (node.leaf) {
+                    Entry entry = (Entry) child;
+                    if (!limited || query.contains(entry))
+                        queue.add(new Candidate(entry, query.chord(entry)));
+                } else {
+                    double distance = query.boxChord((Node) child);
+                    if (distance <= query.threshold)
+                        queue.add(new Candidate(child, distance));
+                }
+            }
+        }
+        return result;
+    }
+
+    private void search(Node node, double minLatitude, double maxLatitude, double minLongitude, double maxLongitude, List<T> result) {
+        for (int i = 0; i < node.count; i++) {
+            Box child = node.children[i];
+            if (child.minLatitude > maxLatitude || child.maxLatitude < minLatitude
+                    || child.minLongitude > maxLongitude || child.maxLongitude < minLongitude)
+                continue;
+
+            if (node.leaf) {
+                result.add(this.<T>value((Entry) child));
+            } else {
+                search((Node) child, minLatitude, maxLatitude, minLongitude, maxLongitude, result);
+            }
+        }
+    }
+
+    private void radius(Node node, Query query, List<T> result) {
+        for (int i = 0; i < node.count; i++) {
+            Box child = node.children[i];
+            if (node.leaf) {
+                if (query.contains((Entry) child))
+                    result.add(this.<T>value((Entry) child));
+            } else if (query.boxChord((Node) child) <= query.threshold) {
+                radius((Node) child, query, result);
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private <V> V value(Entry entry) {
+        return (V) entry.value;
+    }
+
+    // returns a new sibling if the node was split
+    private static Node insert(Node node, Entry entry) {
+        if (node.leaf) {
+            node.add(entry);
+        } else {
+            Node child = chooseSubtree(node, entry);
+            Node sibling = insert(child, entry);
+            node.extend(entry);
+            if (sibling != null)
+                node.add(sibling);
+        }
+
+        return node.count > MAX_CHILDREN ? split(node) : null;
+    }
+
+    // the child with the least area enlargement, then with the least area
+    private static Node chooseSubtree(Node node, Entry entry) {
+        Node best = null;
+        double bestEnlargement = Double.POSITIVE_INFINITY;
+        double bestArea = Double.POSITIVE_INFINITY;
+
+        for (int i = 0; i < node.count; i++) {
+            Node child = (Node) node.children[i];
+            double area = child.area();
+            double enlargement = (Math.max(child.maxLatitude, entry.minLatitude) - Math.min(child.minLatitude, entry.minLatitude))
+                    * (Math.max(child.maxLongitude, entry.minLongitude) - Math.min(child.minLongitude, entry.minLongitude)) - area;
+
+            if (enlargement < bestEnlargement || (enlargement == bestEnlargement && area < bestArea)) {
+                best = child;
+                bestEnlargement = enlargement;
+                bestArea = area;
+            }
+        }
+        return best;
+    }
+
+    // moves the upper half of children ordered along the longer side to a new node
+    private static Node split(Node node) {
+        Box[] children = node.children;
+        int count = node.count;
+
+        boolean byLatitude = node.maxLatitude - node.minLatitude > node.maxLongitude - node.minLongitude;
+        Arrays.sort(children, 0, count, byLatitude ? BY_LATITUDE : BY_LONGITUDE);
+
+        Node sibling = new Node(node.leaf);
+        int half = count / 2;
+        node.count = 0;
+        node.reset();
+        for (int i = 0; i < count; i++) {
+            if (i < half) {
+                node.add(children[i]);
+            } else {
+                sibling.add(children[i]);
+                children[i] = null;
+            }
+        }
+        return sibling;
+    }
+
+    private static boolean remove(Node node, double latitude, double longitude, Object value) {
+        for (int i = 0; i < node.count; i++) {
+            Box child = node.children[i];
+            if (latitude < child.minLatitude || latitude > child.maxLatitude || longitude < child.minLongitude || longitude > child.maxLongitude)
+                continue;
+
+            if (node.leaf) {
+                if (!((Entry) child).value.equals(value))
+                    continue;
+
+                node.removeAt(i);
+                node.recompute();
+                return true;
+            }
+
+            Node childNode = (Node) child;
+            if (remove(childNode, latitude, longitude, value)) {
+                if (childNode.count == 0)
+                    node.removeAt(i);
+                node.recompute();
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Sort-Tile-Recursive packing of the boxes to full nodes, level by level up to the root
+    private static Node pack(List<? extends Box> boxes, boolean leaf) {
+        int count = boxes.size();
+        int nodeCount = (count + MAX_CHILDREN - 1) / MAX_CHILDREN;
+        int sliceSize = (int) Math.ceil(Math.sqrt(nodeCount)) * MAX_CHILDREN;
+
+        Collections.sort(boxes, BY_LONGITUDE);
+
+        List<Node> nodes = new ArrayList<Node>(nodeCount);
+        for (int i = 0; i < count; i += sliceSize) {
+            List<? extends Box> slice = boxes.subList(i, Math.min(i + sliceSize, count));
+            Collections.sort(slice, BY_LATITUDE);
+
+            for (int j = 0; j < slice.size(); j += MAX_CHILDREN) {
+                Node node = new Node(leaf);
+                for (int k = j; k < Math.min(j + MAX_CHILDREN, slice.size()); k++) {
+                    node.add(slice.get(k));
+                }
+                nodes.add(node);
+            }
+        }
+
+        return nodes.size() == 1 ? nodes.get(0) : pack(nodes, false);
+    }
+
+    private static class Box {
+        double minLatitude;
+        double maxLatitude;
+        double minLongitude;
+        double maxLongitude;
+    }
+
+    private static final class Entry extends Box {
+        final Object value;
+
+        Entry(double latitude, double longitude, Object value) {
+            minLatitude = maxLatitude = latitude;
+            minLongitude = maxLongitude = longitude;
+            this.value = value;
+        }
+    }
+
+    private static final class Node extends Box {
+        final boolean leaf;
+        // one more for an overflow before a split
+        final Box[] children = new Box[MAX_CHILDREN + 1];
+        int count;
+
+        Node(boolean leaf) {
+            this.leaf = leaf;
+            reset();
+        }
+
+        void add(Box child) {
+            children[count++] = child;
+            extend(child);
+        }
+
+        void removeAt(int index) {
+            count--;
+            System.arraycopy(children, index + 1, children, index, count - index);
+            children[count] = null;
+        }
+
+        void extend(Box box) {
+            minLatitude = Math.min(minLatitude, box.minLatitude);
+            maxLatitude = Math.max(maxLatitude, box.maxLatitude);
+            minLongitude = Math.min(minLongitude, box.minLongitude);
+            maxLongitude = Math.max(maxLongitude, box.maxLongitude);
+        }
+
+        void reset() {
+            minLatitude = minLongitude = Double.POSITIVE_INFINITY;
+            maxLatitude = maxLongitude = Double.NEGATIVE_INFINITY;
+        }
+
+        void recompute() {
+            reset();
+            for (int i = 0; i < count; i++) {
+                extend(children[i]);
+            }
+        }
+
+        double area() {
+            return (maxLatitude - minLatitude) * (maxLongitude - minLongitude);
+        }
+    }
+
+    private static final class Candidate implements Comparable<Candidate> {
+        final Box box;
+        final double distance;
+
+        Candidate(Box box, double distance) {
+            this.box = box;
+            this.distance = distance;
+        }
+
+        @Override
+        public int compareTo(Candidate other) {
+            return Double.compare(distance, other.distance);
+        }
+    }
+
+    /**
+     * Distances of a query point in {@link DistanceMode#SQUARED_CHORD} values.
+     */
+    private static final class Query {
+        // tolerance of rounding errors of a lower bound
+        private static final double THRESHOLD_TOLERANCE = 1 + 1e-9;
+
+        final double latitude;
+        final double longitude;
+        final double cosLatitude;
+        final double distanceInMeters;
+        final double threshold;
+
+        Query(double latitude, double longitude, double distanceInMeters) {
+            this.latitude = latitude;
+            this.longitude = longitude;
+            this.distanceInMeters = distanceInMeters;
+            cosLatitude = Math.cos(Math.toRadians(latitude));
+            threshold = DistanceMode.SQUARED_CHORD.fromMeters(distanceInMeters) * THRESHOLD_TOLERANCE;
+        }
+
+        boolean contains(Entry entry) {
+            return DistanceMode.HAVERSINE.distance(latitude, longitude, entry.minLatitude, entry.minLongitude) <= distanceInMeters;
+        }
+
+        double chord(Entry entry) {
+            return DistanceMode.SQUARED_CHORD.comparable(latitude, longitude, entry.minLatitude, entry.minLongitude);
+        }
+
+        // lower bound of a squared chord to any point of the node
+        double boxChord(Node node) {
+            if (longitude >= node.minLongitude && longitude <= node.maxLongitude) {
+                if (latitude < node.minLatitude)
+                    return 4.0 * haversine(latitude - node.minLatitude);
+                if (latitude > node.maxLatitude)
+                    return 4.0 * haversine(latitude - node.maxLatitude);
+                return 0;
+            }
+
+            // the nearest point is on the closer meridian border, at the latitude where the great
+            // circle distance to the meridian is minimal or at a corner
+            double haversineLongitude = Math.min(haversine(node.minLongitude - longitude), haversine(node.maxLongitude - longitude));
+            double extremumLatitude = extremumLatitude(haversineLongitude);
+            if (extremumLatitude > node.minLatitude && extremumLatitude < node.maxLatitude)
+                return 4.0 * haversine(haversineLongitude, extremumLatitude);
+
+            return 4.0 * Math.min(haversine(haversineLongitude, node.minLatitude), haversine(haversineLongitude, node.maxLatitude));
+        }
+
+        private double extremumLatitude(double haversineLongitude) {
+            double cosLongitude = 1 - 2 * haversineLongitude;
+            if (cosLongitude <= 0)
+                return latitude > 0 ? 90 : -90;
+
+            return Math.toDegrees(Math.atan(Math.tan(Math.toRadians(latitude)) / cosLongitude));
+        }
+
+        private double haversine(double haversineLongitude, double latitude2) {
+            return cosLatitude * Math.cos(Math.toRadians(latitude2)) * haversineLongitude + haversine(latitude - latitude2);
+        }
+
+        private static double haversine(double angle) {
+            double sin = Math.sin(Math.toRadians(angle) / 2.0);
+            return sin * sin;
+        }
+    }
+}
@@ -0,0 +1,758 @@
+package com.arcao.geocaching.api.store;
+
+import com.arcao.geocaching.api.GeocacheSink;
+import com.arcao.geocaching.api.data.Geocache;
+import com.arcao.geocaching.api.data.GeocacheBatch;
+import com.arcao.geocaching.api.data.coordinates.Coordinates;
+import com.arcao.geocaching.api.data.type.AttributeType;
+import com.arcao.geocaching.api.data.type.ContainerType;
+import com.arcao.geocaching.api.data.type.GeocacheType;
+import com.arcao.geocaching.api.util.GeocachingUtils;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Read only store of Geocaches in a memory-mapped file. Each Geocache is kept in a fixed-width
+ * record sorted by the cache id, strings are kept in a separate heap region of the file. Opening a
+ * store only maps the file, the records are read by the operating system on the first access and
+ * they are not kept on the Java heap.<br>
+ * <br>
+ * The store keeps the same properties as {@link GeocacheBatch} plus the trackable and image count,
+ * publish, last update and last visit dates, URL and GUID. The store is created by a
+ * {@link Writer}:
+ * <pre>
+ * GeocacheStore.Writer writer = GeocacheStore.writer(file);
+ * try {
+ *     api.searchForGeocaches(request, writer);
+ * } finally {
+ *     writer.close();
+ * }
+ *
+ * GeocacheStore store = GeocacheStore.open(file);
+ * Geocache geocache = store.get("GC1PMW4");
+ * </pre>
+ * The file is mapped until the store is garbage collected. A store is safe to share between
+ * threads.
+ *
+ * @author arcao
+ * @since 2.1
+ */
+public final class GeocacheStore {
+    /** Value of date accessors if the date is unknown */
+    public static final long NO_DATE = GeocacheBatch.NO_DATE;
+
+    private static final Charset UTF8 = Charset.forName("UTF-8");
+
+    // header
+    private static final int MAGIC = 0x47435354; // GCST
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 32;
+
+    // record layout of the version 1, newer versions may only append fields
+    private static final int ID = 0;
+    private static final int LATITUDE = 8;
+    private static final int LONGITUDE = 16;
+    private static final int DIFFICULTY = 24;
+    private static final int TERRAIN = 28;
+    private static final int FAVORITE_POINTS = 32;
+    private static final int TRACKABLE_COUNT = 36;
+    private static final int IMAGE_COUNT = 40;
+    private static final int STATUS = 44;
+    private static final int GEOCACHE_TYPE = 48;
+    private static final int CONTAINER_TYPE = 50;
+    private static final int NAME = 52;
+    private static final int PLACED_BY = 56;
+    private static final int COUNTRY_NAME = 60;
+    private static final int STATE_NAME = 64;
+    private static final int URL = 68;
+    private static final int GUID = 72;
+    private static final int PLACE_DATE = 80;
+    private static final int PUBLISH_DATE = 88;
+    private static final int LAST_UPDATE_DATE = 96;
+    private static final int LAST_VISIT_DATE = 104;
+    private static final int ATTRIBUTES = 112;
+    private static final int RECORD_SIZE = 136;
+
+    /** Maximal count of Geocaches in a store, the records are mapped as a single buffer */
+    public static final int MAX_SIZE = Integer.MAX_VALUE / RECORD_SIZE;
+
+    // attribute bit index is id * 2 + (on ? 1 : 0)
+    private static final int ATTRIBUTE_WORDS = 3;
+    private static final int NO_STRING = -1;
+
+    private final int size;
+    private final int recordSize;
+    private final ByteBuffer records;
+    private final ByteBuffer heap;
+
+    private GeocacheStore(int size, int recordSize, ByteBuffer records, ByteBuffer heap) {
+        this.size = size;
+        this.recordSize = recordSize;
+        this.records = records;
+        this.heap = heap;
+    }
+
+    /**
+     * Open an existing store file.
+     *
+     * @param file store file
+     * @return opened store
+     * @throws IOException If the file can't be read or it isn't a valid store file
+     */
+    @NotNull
+    public static GeocacheStore open(@NotNull File file) throws IOException {
+        RandomAccessFile raf = new RandomAccessFile(file, "r");
+        try {
+            FileChannel channel = raf.getChannel();
+            long length = channel.size();
+            if (length < HEADER_SIZE)
+                throw new IOException("Not a geocache store file: " + file);
+
+            ByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, HEADER_SIZE);
+            if (header.getInt() != MAGIC)
+                throw new IOException("Not a geocache store file: " + file);
+
+            int version = header.getInt();
+            if (version != VERSION)
+                throw new IOException("Unsupported geocache store version: " + version);
+
+            int recordSize = header.getInt();
+            int size = header.getInt();
+            long heapOffset = header.getLong();
+            long heapLength = header.getLong();
+
+            long recordsLength = (long) size * recordSize;
+            if (recordSize < RECORD_SIZE || size < 0 || HEADER_SIZE + recordsLength > heapOffset || heapOffset + heapLength > length)
+                throw new IOException("Corrupted geocache store file: " + file);
+
+            if (recordsLength > Integer.MAX_VALUE || heapLength > Integer.MAX_VALUE)
+                throw new IOException("Geocache store file is too large: " + file);
+
+            MappedByteBuffer records = channel.map(FileChannel.MapMode.READ_ONLY, HEADER_SIZE, recordsLength);
+            MappedByteBuffer heap = channel.map(FileChannel.MapMode.READ_ONLY, heapOffset, heapLength);
+
+            // mapping stays valid after the file is closed
+            return new GeocacheStore(size, recordSize, records, heap);
+        } finally {
+            raf.close();
+        }
+    }
+
+    /**
+     * Create a new writer of a store file. An existing file is replaced when the writer is closed.
+     * The new content is written to a temporary file in the same directory and renamed over the
+     * existing file, so the switch is atomic where the file system supports atomic rename (POSIX).
+     * An already opened store keeps mapping the previous content.
+     *
+     * @param file store file
+     * @return writer
+     */
+    @NotNull
+    public static Writer writer(@NotNull File file) {
+        return new Writer(file);
+    }
+
+    /**
+     * Get a count of Geocaches in the store.
+     *
+     * @return count of Geocaches
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Get an index of the Geocache with the cache id.
+     *
+     * @param id cache id
+     * @return index or -1 if the store doesn't contain the Geocache
+     */
+    public int indexOf(long id) {
+        int low = 0;
+        int high = size - 1;
+
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            long midId = records.getLong(mid * recordSize + ID);
+
+            if (midId < id) {
+                low = mid + 1;
+            } else if (midId > id) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Get an index of the Geocache with the cache code.
+     *
+     * @param cacheCode cache code
+     * @return index or -1 if the store doesn't contain the Geocache
+     * @throws IllegalArgumentException If the cache code is not valid
+     * @see GeocachingUtils#cacheCodeToCacheId(String)
+     */
+    public int indexOf(@NotNull String cacheCode) {
+        return indexOf(GeocachingUtils.cacheCodeToCacheId(cacheCode));
+    }
+
+    /**
+     * Get a Geocache with the cache code. Properties which aren't kept in the store get a default
+     * value (<tt>0</tt>, <tt>false</tt>, an empty string or null).
+     *
+     * @param cacheCode cache code
+     * @return Geocache or null if the store doesn't contain the Geocache
+     * @throws IllegalArgumentException If the cache code is not valid
+     */
+    @Nullable
+    public Geocache get(@NotNull String cacheCode) {
+        int index = indexOf(cacheCode);
+        return index != -1 ? geocache(index) : null;
+    }
+
+    /**
+     * Get a Geocache stored at the index. Properties which aren't kept in the store get a default
+     * value (<tt>0</tt>, <tt>false</tt>, an empty string or null).
+     *
+     * @param index index
+     * @return Geocache
+     */
+    @NotNull
+    public Geocache geocache(int index) {
+        int status = status(index);
+
+        return Geocache.builder()
+                .id(id(index))
+                .code(code(index))
+                .name(nullToEmpty(name(index)))
+                .coordinates(Coordinates.create(latitude(index), longitude(index)))
+                .geocacheType(geocacheType(index))
+                .containerType(containerType(index))
+                .difficulty(difficulty(index))
+                .terrain(terrain(index))
+                .favoritePoints(favoritePoints(index))
+                .trackableCount(trackableCount(index))
+                .imageCount(imageCount(index))
+                .archived((status & GeocacheBatch.ARCHIVED) != 0)
+                .available((status & GeocacheBatch.AVAILABLE) != 0)
+                .premium((status & GeocacheBatch.PREMIUM) != 0)
+                .foundByUser((status & GeocacheBatch.FOUND_BY_USER) != 0)
+                .favoritedByUser((status & GeocacheBatch.FAVORITED_BY_USER) != 0)
+                .favoritable((status & GeocacheBatch.FAVORITABLE) != 0)
+                .recommended((status & GeocacheBatch.RECOMMENDED) != 0)
+                .attributes(attributes(index))
+                .placedBy(nullToEmpty(placedBy(index)))
+                .countryName(countryName(index))
+                .stateName(stateName(index))
+                .url(nullToEmpty(url(index)))
+                .guid(nullToEmpty(guid(index)))
+                .placeDate(date(placeDate(index)))
+                .publishDate(date(publishDate(index)))
+                .lastUpdateDate(date(lastUpdateDate(index)))
+                .lastVisitDate(date(lastVisitDate(index)))
+                .build();
+    }
+
+    public long id(int index) {
+        return records.getLong(offset(index) + ID);
+    }
+
+    @NotNull
+    public String code(int index) {
+        return GeocachingUtils.cacheIdToCacheCode(id(index));
+    }
+
+    public double latitude(int index) {
+        return records.getDouble(offset(index) + LATITUDE);
+    }
+
+    public double longitude(int index) {
+        return records.getDouble(offset(index) + LONGITUDE);
+    }
+
+    public float difficulty(int index) {
+        return records.getFloat(offset(index) + DIFFICULTY);
+    }
+
+    public float terrain(int index) {
+        return records.getFloat(offset(index) + TERRAIN);
+    }
+
+    public int favoritePoints(int index) {
+        return records.getInt(offset(index) + FAVORITE_POINTS);
+    }
+
+    public int trackableCount(int index) {
+        return records.getInt(offset(index) + TRACKABLE_COUNT);
+    }
+
+    public int imageCount(int index) {
+        return records.getInt(offset(index) + IMAGE_COUNT);
+    }
+
+    /**
+     * Get status bits of the Geocache, a combination of {@link GeocacheBatch#ARCHIVED},
+     * {@link GeocacheBatch#AVAILABLE}, {@link GeocacheBatch#PREMIUM} and other status bits of
+     * {@link GeocacheBatch}.
+     *
+     * @param index index
+     * @return status bits
+     */
+    public int status(int index) {
+        return records.getInt(offset(index) + STATUS);
+    }
+
+    @Nullable
+    public GeocacheType geocacheType(int index) {
+        int id = records.getShort(offset(index) + GEOCACHE_TYPE) & 0xFFFF;
+        return id != 0 ? GeocacheType.fromId(id) : null;
+    }
+
+    @NotNull
+    public ContainerType containerType(int index) {
+        return ContainerType.fromId(records.getShort(offset(index) + CONTAINER_TYPE) & 0xFFFF);
+    }
+
+    public boolean hasAttribute(int index, @NotNull AttributeType attribute) {
+        int bit = attributeBit(attribute);
+        return (records.getLong(offset(index) + ATTRIBUTES + ((bit >>> 6) << 3)) & (1L << bit)) != 0;
+    }
+
+    @NotNull
+    public EnumSet<AttributeType> attributes(int index) {
+        int offset = offset(index) + ATTRIBUTES;
+
+        EnumSet<AttributeType> result = EnumSet.noneOf(AttributeType.class);
+        for (int i = 0; i < ATTRIBUTE_WORDS; i++) {
+            long word = records.getLong(offset + (i << 3));
+            while (word != 0) {
+                int bit = (i << 6) + Long.numberOfTrailingZeros(word);
+                AttributeType attribute = AttributeType.fromId(bit >>> 1, (bit & 1) != 0);
+                if (attribute != null)
+                    result.add(attribute);
+                word &= word - 1;
+            }
+        }
+        return result;
+    }
+
+    public long placeDate(int index) {
+        return records.getLong(offset(index) + PLACE_DATE);
+    }
+
+    public long publishDate(int index) {
+        return records.getLong(offset(index) + PUBLISH_DATE);
+    }
+
+    public long lastUpdateDate(int index) {
+        return records.getLong(offset(index) + LAST_UPDATE_DATE);
+    }
+
+    public long lastVisitDate(int index) {
+        return records.getLong(offset(index) + LAST_VISIT_DATE);
+    }
+
+    @Nullable
+    public String name(int index) {
+        return string(records.getInt(offset(index) + NAME));
+    }
+
+    @Nullable
+    public String placedBy(int index) {
+        return string(records.getInt(offset(index) + PLACED_BY));
+    }
+
+    @Nullable
+    public String countryName(int index) {
+        return string(records.getInt(offset(index) + COUNTRY_NAME));
+    }
+
+    @Nullable
+    public String stateName(int index) {
+        return string(records.getInt(offset(index) + STATE_NAME));
+    }
+
+    @Nullable
+    public String url(int index) {
+        return string(records.getInt(offset(index) + URL));
+    }
+
+    @Nullable
+    public String guid(int index) {
+        return string(records.getInt(offset(index) + GUID));
+    }
+
+    private int offset(int index) {
+        if (index < 0 || index >= size)
+            throw new IndexOutOfBoundsException("Index: " + index + ", size: " + size);
+        return index * recordSize;
+    }
+
+    private String string(int offset) {
+        if (offset == NO_STRING)
+            return null;
+
+        // a duplicate to keep the position of the shared buffer untouched
+        ByteBuffer buffer = heap.duplicate();
+        buffer.position(offset);
+        byte[] bytes = new byte[buffer.getInt()];
+        buffer.get(bytes);
+        return new String(bytes, UTF8);
+    }
+
+    private static int attributeBit(AttributeType attribute) {
+        return attribute.id * 2 + (attribute.on ? 1 : 0);
+    }
+
+    private static Date date(long time) {
+        return time != NO_DATE ? new Date(time) : null;
+    }
+
+    private static String nullToEmpty(String value) {
+        return value != null ? value : "";
+    }
+
+    /**
+     * Writer of a store file. Records and strings are written to temporary files next to the store
+     * file as Geocaches are added, only cache ids and strings shared by many Geocaches (owner,
+     * country, state) are kept in memory. The store file is written when the writer is closed. If
+     * more Geocaches have the same cache id, the last one is stored.<br>
+     * <br>
+     * A store holds at most {@link GeocacheStore#MAX_SIZE} Geocaches and 2 GB of strings. The
+     * writer must be closed even if adding fails, otherwise its temporary files are left behind.
+     */
+    public static final class Writer implements GeocacheSink, Closeable {
+        private static final int INITIAL_CAPACITY = 1024;
+        private static final int BUFFER_SIZE = 64 * 1024;
+
+        private final File file;
+        private final Map<String, Integer> repeatedStrings = new HashMap<String, Integer>();
+        private final ByteBuffer record = ByteBuffer.allocate(RECORD_SIZE);
+        private File recordsFile;
+        private File heapFile;
+        private OutputStream recordsOut;
+        private DataOutputStream heapOut;
+        private long heapLength;
+        private long[] ids = new long[INITIAL_CAPACITY];
+        private int size;
+        private boolean closed;
+
+        Writer(File file) {
+            this.file = file;
+        }
+
+        /**
+         * Add a Geocache to the store.
+         *
+         * @param geocache Geocache
+         * @return this writer
+         * @throws IOException           If I/O error occurs or the store is full
+         * @throws IllegalStateException If the writer is already closed
+         */
+        public Writer add(@NotNull Geocache geocache) throws IOException {
+            if (closed)
+                throw new IllegalStateException("Writer is closed.");
+
+            if (size == MAX_SIZE)
+                throw new IOException("Geocache store is full, it holds at most " + MAX_SIZE + " Geocaches.");
+
+            if (recordsOut == null)
+                createTempFiles();
+
+            if (size == ids.length)
+                ids = Arrays.copyOf(ids, (int) Math.min(MAX_SIZE, size + (long) (size >> 1)));
+
+            long id = geocache.id() != 0 ? geocache.id() : GeocachingUtils.cacheCodeToCacheId(geocache.code());
+
+            record.putLong(ID, id);
+            record.putDouble(LATITUDE, geocache.coordinates().latitude());
+            record.putDouble(LONGITUDE, geocache.coordinates().longitude());
+            record.putFloat(DIFFICULTY, geocache.difficulty());
+            record.putFloat(TERRAIN, geocache.terrain());
+            record.putInt(FAVORITE_POINTS, geocache.favoritePoints());
+            record.putInt(TRACKABLE_COUNT, geocache.trackableCount());
+            record.putInt(IMAGE_COUNT, geocache.imageCount());
+            record.putInt(STATUS, GeocacheBatch.statusOf(geocache));
+
+            GeocacheType geocacheType = geocache.geocacheType();
+            record.putShort(GEOCACHE_TYPE, (short) (geocacheType != null ? geocacheType.id : 0));
+            record.putShort(CONTAINER_TYPE, (short) geocache.containerType().id);
+
+            record.putLong(PLACE_DATE, time(geocache.placeDate()));
+            record.putLong(PUBLISH_DATE, time(geocache.publishDate()));
+            record.putLong(LAST_UPDATE_DATE, time(geocache.lastUpdateDate()));
+            record.putLong(LAST_VISIT_DATE, time(geocache.lastVisitDate()));
+
+            long[] attributes = new long[ATTRIBUTE_WORDS];
+            Set<AttributeType> attributeSet = geocache.attributes();
+            if (attributeSet != null) {
+                for (AttributeType attribute : attributeSet) {
+                    int bit = attributeBit(attribute);
+                    if (bit >= ATTRIBUTE_WORDS * 64)
+                        throw new IllegalArgumentException("Attribute can't be stored: " + attribute);
+                    attributes[bit >>> 6] |= 1L << bit;
+                }
+            }
+            for (int i = 0; i < ATTRIBUTE_WORDS; i++) {
+                record.putLong(ATTRIBUTES + (i << 3), attributes[i]);
+            }
+
+            // strings last, nothing is written if the Geocache is rejected above
+            record.putInt(NAME, string(geocache.name()));
+            record.putInt(PLACED_BY, repeatedString(geocache.placedBy()));
+            record.putInt(COUNTRY_NAME, repeatedString(geocache.countryName()));
+            record.putInt(STATE_NAME, repeatedString(geocache.stateName()));
+            record.putInt(URL, string(geocache.url()));
+            record.putInt(GUID, string(geocache.guid()));
+
+            recordsOut.write(record.array());
+            ids[size++] = id;
+            return this;
+        }
+
+        @Override
+        public void accept(@NotNull Geocache geocache) throws IOException {
+            add(geocache);
+        }
+
+        /**
+         * Write the store file and delete temporary files. The file is replaced atomically by a
+         * fully written temporary file, readers never see a partially written store. Does nothing
+         * if the writer is already closed.
+         *
+         * @throws IOException If I/O error occurs
+         */
+        @Override
+        public void close() throws IOException {
+            if (closed)
+                return;
+            closed = true;
+
+            try {
+                if (recordsOut == null)
+                    createTempFiles();
+
+                try {
+                    recordsOut.close();
+                } finally {
+                    heapOut.close();
+                }
+
+                writeStore();
+            } finally {
+                delete(recordsFile);
+                delete(heapFile);
+                ids = null;
+            }
+        }
+
+        private void createTempFiles() throws IOException {
+            File target = file.getAbsoluteFile();
+            recordsFile = File.createTempFile(target.getName(), ".tmp", target.getParentFile());
+            heapFile = File.createTempFile(target.getName(), ".tmp", target.getParentFile());
+
+            recordsOut = new BufferedOutputStream(new FileOutputStream(recordsFile), BUFFER_SIZE);
+            try {
+                heapOut = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(heapFile), BUFFER_SIZE));
+            } catch (IOException e) {
+                recordsOut.close();
+                throw e;
+            }
+        }
+
+        private void writeStore() throws IOException {
+            int[] order = sortedOrder();
+
+            // keep the last record of the same id
+            int count = 0;
+            for (int i = 0; i < order.length; i++) {
+                if (isLastOfId(order, i))
+                    count++;
+            }
+
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+            header.putInt(MAGIC);
+            header.putInt(VERSION);
+            header.putInt(RECORD_SIZE);
+            header.putInt(count);
+            header.putLong(HEADER_SIZE + (long) count * RECORD_SIZE);
+            header.putLong(heapLength);
+            header.flip();
+
+            // write a new file next to the target and rename it over the target, so a store
+            // mapping the old file is not truncated under its hands
+            File target = file.getAbsoluteFile();
+            File temp = File.createTempFile(target.getName(), ".tmp", target.getParentFile());
+            boolean written = false;
+            try {
+                RandomAccessFile raf = new RandomAccessFile(temp, "rw");
+                try {
+                    FileChannel channel = raf.getChannel();
+                    writeFully(channel, header);
+                    copyRecords(channel, order);
+                    copyHeap(channel);
+                    channel.force(true);
+                } finally {
+                    raf.close();
+                }
+
+                written = replace(temp, target);
+                if (!written)
+                    throw new IOException("Unable to rename " + temp + " to " + target);
+            } finally {
+                if (!written)
+                    delete(temp);
+            }
+        }
+
+        private void copyRecords(FileChannel channel, int[] order) throws IOException {
+            RandomAccessFile raf = new RandomAccessFile(recordsFile, "r");
+            try {
+                // size * RECORD_SIZE fits to int, see MAX_SIZE
+                ByteBuffer records = raf.getChannel().map(FileChannel.MapMode.READ_ONLY, 0, (long) size * RECORD_SIZE);
+                ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+
+                for (int i = 0; i < order.length; i++) {
+                    if (!isLastOfId(order, i))
+                        continue;
+
+                    if (buffer.remaining() < RECORD_SIZE) {
+                        buffer.flip();
+                        writeFully(channel, buffer);
+                        buffer.clear();
+                    }
+
+                    ByteBuffer source = records.duplicate();
+                    source.limit(order[i] * RECORD_SIZE + RECORD_SIZE);
+                    source.position(order[i] * RECORD_SIZE);
+                    buffer.put(source);
+                }
+
+                buffer.flip();
+                writeFully(channel, buffer);
+            } finally {
+                raf.close();
+            }
+        }
+
+        private void copyHeap(FileChannel channel) throws IOException {
+            FileInputStream in = new FileInputStream(heapFile);
+            try {
+                FileChannel source = in.getChannel();
+                long position = 0;
+                while (position < heapLength) {
+                    position += source.transferTo(position, heapLength - position, channel);
+                }
+            } finally {
+                in.close();
+            }
+        }
+
+        private boolean isLastOfId(int[] order, int i) {
+            return i + 1 == order.length || ids[order[i]] != ids[order[i + 1]];
+        }
+
+        // indexes of added records sorted by id, equal ids keep the order of adding
+        private int[] sortedOrder() {
+            Integer[] order = new Integer[size];
+            for (int i = 0; i < size; i++) {
+                order[i] = i;
+            }
+
+            final long[] keys = ids;
+            Arrays.sort(order, new Comparator<Integer>() {
+                @Override
+                public int compare(Integer lhs, Integer rhs) {
+                    long x = keys[lhs];
+                    long y = keys[rhs];
+                    if (x != y)
+                        return x < y ? -1 : 1;
+                    return lhs - rhs;
+                }
+            });
+
+            int[] result = new int[size];
+            for (int i = 0; i < size; i++) {
+                result[i] = order[i];
+            }
+            return result;
+        }
+
+        // stores a string shared by many Geocaches (owner, country, state) only once
+        private int repeatedString(String value) throws IOException {
+            if (value == null)
+                return NO_STRING;
+
+            Integer offset = repeatedStrings.get(value);
+            if (offset == null) {
+                offset = string(value);
+                repeatedStrings.put(value, offset);
+            }
+            return offset;
+        }
+
+        // names, URLs and GUIDs are almost always unique, they are appended without a lookup
+        private int string(String value) throws IOException {
+            if (value == null)
+                return NO_STRING;
+
+            byte[] bytes = value.getBytes(UTF8);
+            if (heapLength + 4 + bytes.length > Integer.MAX_VALUE)
+                throw new IOException("Geocache store is full, strings take at most 2 GB.");
+
+            int offset = (int) heapLength;
+            heapOut.writeInt(bytes.length);
+            heapOut.write(bytes);
+            heapLength += 4 + bytes.length;
+            return offset;
+        }
+
+        private static void writeFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        }
+
+        private static long time(Date date) {
+            return date != null ? date.getTime() : NO_DATE;
+        }
+
+        private static boolean replace(File source, File target) {
+            if (source.renameTo(target))
+                return true;
+
+            // renameTo doesn't replace an existing file on Windows
+            return target.delete() && source.renameTo(target);
+        }
+
+        private static void delete(@Nullable File file) {
+            // a mapped file can't be deleted on Windows until the mapping is collected
+            if (file != null && !file.delete())
+                file.deleteOnExit();
+        }
+    }
+}
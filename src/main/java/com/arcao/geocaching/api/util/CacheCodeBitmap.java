@@ -0,0 +1,369 @@
+package com.arcao.geocaching.api.util;
+
+import java.io.Serializable;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Compressed bitmap set of cache codes stored as cache ids (see
+ * {@link GeocachingUtils#cacheCodeToCacheId(String)}). Cache ids are split to chunks of 65536 ids,
+ * a chunk keeps a sorted array of 16-bit values while it is sparse and a bitmap of 8 KiB when it
+ * becomes dense. Dense ranges take one bit per id, e.g. 10 million cache codes of ids from 0 to
+ * 12 million take about 1.5 MB. Sparse ranges take about 2 bytes per cache code.<br>
+ * <br>
+ * The set can be passed to API methods accepting a collection of cache codes. Cache codes are case
+ * insensitive, the iterator returns normalized upper case cache codes ordered by cache id. Adding an
+ * invalid cache code throws {@link IllegalArgumentException}.<br>
+ * <br>
+ * The set is not thread-safe.
+ *
+ * @author arcao
+ * @see CacheCodeSet
+ * @since 2.1
+ */
+public final class CacheCodeBitmap extends AbstractSet<String> implements Serializable {
+    private static final long serialVersionUID = -8120574938127369470L;
+
+    private static final int CHUNK_BITS = 16;
+    private static final int CHUNK_MASK = (1 << CHUNK_BITS) - 1;
+    private static final int BITMAP_WORDS = (1 << CHUNK_BITS) >>> 6;
+    // array of chars takes more space than a bitmap above this count
+    private static final int MAX_ARRAY_CARDINALITY = BITMAP_WORDS * 4;
+    private static final int MIN_ARRAY_CAPACITY = 4;
+
+    private static final long[] NO_CHUNK_KEYS = new long[0];
+    private static final Object[] NO_CHUNKS = new Object[0];
+    private static final int[] NO_CARDINALITIES = new int[0];
+
+    // sorted ids >>> CHUNK_BITS
+    private long[] chunkKeys = NO_CHUNK_KEYS;
+    // char[] sorted array or long[] bitmap of low CHUNK_BITS bits
+    private Object[] chunks = NO_CHUNKS;
+    private int[] cardinalities = NO_CARDINALITIES;
+    private int chunkCount;
+    private long size;
+    private transient int modCount;
+
+    public CacheCodeBitmap() {
+    }
+
+    public CacheCodeBitmap(Collection<? extends CharSequence> cacheCodes) {
+        for (CharSequence cacheCode : cacheCodes) {
+            add(GeocachingUtils.cacheCodeToCacheId(cacheCode, 0, cacheCode.length()));
+        }
+    }
+
+    /**
+     * Add a cache code to the set.
+     *
+     * @param cacheCode cache code
+     * @return true if the set didn't contain the cache code
+     * @throws IllegalArgumentException If the cache code is not valid
+     */
+    @Override
+    public boolean add(String cacheCode) {
+        return add(GeocachingUtils.cacheCodeToCacheId(cacheCode));
+    }
+
+    /**
+     * Add a cache id to the set.
+     *
+     * @param cacheId cache id
+     * @return true if the set didn't contain the cache id
+     * @throws IllegalArgumentException If the cache id is negative
+     */
+    public boolean add(long cacheId) {
+        if (cacheId < 0)
+            throw new IllegalArgumentException("Cache id is negative: " + cacheId);
+
+        int chunk = chunkIndex(cacheId >>> CHUNK_BITS);
+        if (chunk < 0) {
+            chunk = -chunk - 1;
+            insertChunk(chunk, cacheId >>> CHUNK_BITS);
+        }
+
+        char value = (char) (cacheId & CHUNK_MASK);
+        Object container = chunks[chunk];
+        int cardinality = cardinalities[chunk];
+
+        if (container instanceof long[]) {
+            long[] bitmap = (long[]) container;
+            long bit = 1L << value;
+            if ((bitmap[value >>> 6] & bit) != 0)
+                return false;
+
+            bitmap[value >>> 6] |= bit;
+        } else {
+            char[] array = (char[]) container;
+            int index = Arrays.binarySearch(array, 0, cardinality, value);
+            if (index >= 0)
+                return false;
+
+            index = -index - 1;
+            if (cardinality == MAX_ARRAY_CARDINALITY) {
+                long[] bitmap = toBitmap(array, cardinality);
+                bitmap[value >>> 6] |= 1L << value;
+                chunks[chunk] = bitmap;
+            } else {
+                if (cardinality == array.length) {
+                    array = Arrays.copyOf(array, Math.min(array.length * 2, MAX_ARRAY_CARDINALITY));
+                    chunks[chunk] = array;
+                }
+                System.arraycopy(array, index, array, index + 1, cardinality - index);
+                array[index] = value;
+            }
+        }
+
+        cardinalities[chunk]++;
+        size++;
+        modCount++;
+        return true;
+    }
+
+    public boolean contains(long cacheId) {
+        if (cacheId < 0)
+            return false;
+
+        int chunk = chunkIndex(cacheId >>> CHUNK_BITS);
+        if (chunk < 0)
+            return false;
+
+        char value = (char) (cacheId & CHUNK_MASK);
+        Object container = chunks[chunk];
+        if (container instanceof long[])
+            return (((long[]) container)[value >>> 6] & (1L << value)) != 0;
+
+        return Arrays.binarySearch((char[]) container, 0, cardinalities[chunk], value) >= 0;
+    }
+
+    @Override
+    public boolean contains(Object o) {
+        return contains(GeocachingUtils.cacheIdOf(o));
+    }
+
+    public boolean remove(long cacheId) {
+        if (cacheId < 0)
+            return false;
+
+        int chunk = chunkIndex(cacheId >>> CHUNK_BITS);
+        if (chunk < 0)
+            return false;
+
+        char value = (char) (cacheId & CHUNK_MASK);
+        Object container = chunks[chunk];
+        int cardinality = cardinalities[chunk];
+
+        if (container instanceof long[]) {
+            long[] bitmap = (long[]) container;
+            long bit = 1L << value;
+            if ((bitmap[value >>> 6] & bit) == 0)
+                return false;
+
+            bitmap[value >>> 6] &= ~bit;
+        } else {
+            char[] array = (char[]) container;
+            int index = Arrays.binarySearch(array, 0, cardinality, value);
+            if (index < 0)
+                return false;
+
+            System.arraycopy(array, index + 1, array, index, cardinality - index - 1);
+        }
+
+        if (--cardinalities[chunk] == 0)
+            removeChunk(chunk);
+        size--;
+        modCount++;
+        return true;
+    }
+
+    @Override
+    public boolean remove(Object o) {
+        return remove(GeocachingUtils.cacheIdOf(o));
+    }
+
+    /**
+     * Returns the count of cache codes in the set, or {@link Integer#MAX_VALUE} if the set contains
+     * more than {@link Integer#MAX_VALUE} cache codes.
+     *
+     * @return count of cache codes
+     * @see #longSize()
+     */
+    @Override
+    public int size() {
+        return (int) Math.min(size, Integer.MAX_VALUE);
+    }
+
+    public long longSize() {
+        return size;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    @Override
+    public void clear() {
+        chunkKeys = NO_CHUNK_KEYS;
+        chunks = NO_CHUNKS;
+        cardinalities = NO_CARDINALITIES;
+        chunkCount = 0;
+        size = 0;
+        modCount++;
+    }
+
+    /**
+     * Get cache ids of all cache codes in the set.
+     *
+     * @return ascending cache ids
+     */
+    public long[] toIdArray() {
+        if (size > Integer.MAX_VALUE)
+            throw new IllegalStateException("Too many cache codes: " + size);
+
+        long[] result = new long[(int) size];
+        int count = 0;
+        for (int chunk = 0; chunk < chunkCount; chunk++) {
+            long high = chunkKeys[chunk] << CHUNK_BITS;
+            Object container = chunks[chunk];
+
+            if (container instanceof long[]) {
+                long[] bitmap = (long[]) container;
+                for (int i = 0; i < bitmap.length; i++) {
+                    long word = bitmap[i];
+                    while (word != 0) {
+                        result[count++] = high | (i << 6) | Long.numberOfTrailingZeros(word);
+                        word &= word - 1;
+                    }
+                }
+            } else {
+                char[] array = (char[]) container;
+                for (int i = 0; i < cardinalities[chunk]; i++) {
+                    result[count++] = high | array[i];
+                }
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public Iterator<String> iterator() {
+        return new Iterator<String>() {
+            private int chunk = 0;
+            // next value in the chunk, index to an array or a bit index of a bitmap
+            private int position = 0;
+            private long next = advance();
+            private long last = -1;
+            private int expectedModCount = modCount;
+
+            @Override
+            public boolean hasNext() {
+                return next != -1;
+            }
+
+            @Override
+            public String next() {
+                if (modCount != expectedModCount)
+                    throw new ConcurrentModificationException();
+                if (next == -1)
+                    throw new NoSuchElementException();
+
+                last = next;
+                next = advance();
+                return GeocachingUtils.cacheIdToCacheCode(last);
+            }
+
+            @Override
+            public void remove() {
+                if (last == -1)
+                    throw new IllegalStateException();
+                if (modCount != expectedModCount)
+                    throw new ConcurrentModificationException();
+
+                CacheCodeBitmap.this.remove(last);
+                last = -1;
+                expectedModCount = modCount;
+
+                // continue after the last returned id, chunks and arrays may have shifted
+                if (next != -1) {
+                    chunk = chunkIndex(next >>> CHUNK_BITS);
+                    Object container = chunks[chunk];
+                    position = container instanceof long[] ? (int) (next & CHUNK_MASK)
+                            : Arrays.binarySearch((char[]) container, 0, cardinalities[chunk], (char) (next & CHUNK_MASK));
+                    next = advance();
+                }
+            }
+
+            private long advance() {
+                while (chunk < chunkCount) {
+                    long high = chunkKeys[chunk] << CHUNK_BITS;
+                    Object container = chunks[chunk];
+
+                    if (container instanceof long[]) {
+                        long[] bitmap = (long[]) container;
+                        int word = position >>> 6;
+                        if (word < bitmap.length) {
+                            long bits = bitmap[word] & (-1L << position);
+                            while (bits == 0 && ++word < bitmap.length) {
+                                bits = bitmap[word];
+                            }
+                            if (bits != 0) {
+                                int bit = (word << 6) + Long.numberOfTrailingZeros(bits);
+                                position = bit + 1;
+                                return high | bit;
+                            }
+                        }
+                    } else if (position < cardinalities[chunk]) {
+                        return high | ((char[]) container)[position++];
+                    }
+
+                    chunk++;
+                    position = 0;
+                }
+                return -1;
+            }
+        };
+    }
+
+    private int chunkIndex(long chunkKey) {
+        return Arrays.binarySearch(chunkKeys, 0, chunkCount, chunkKey);
+    }
+
+    private void insertChunk(int chunk, long chunkKey) {
+        if (chunkCount == chunkKeys.length) {
+            int capacity = Math.max(4, chunkCount * 2);
+            chunkKeys = Arrays.copyOf(chunkKeys, capacity);
+            chunks = Arrays.copyOf(chunks, capacity);
+            cardinalities = Arrays.copyOf(cardinalities, capacity);
+        }
+
+        System.arraycopy(chunkKeys, chunk, chunkKeys, chunk + 1, chunkCount - chunk);
+        System.arraycopy(chunks, chunk, chunks, chunk + 1, chunkCount - chunk);
+        System.arraycopy(cardinalities, chunk, cardinalities, chunk + 1, chunkCount - chunk);
+
+        chunkKeys[chunk] = chunkKey;
+        chunks[chunk] = new char[MIN_ARRAY_CAPACITY];
+        cardinalities[chunk] = 0;
+        chunkCount++;
+    }
+
+    private void removeChunk(int chunk) {
+        chunkCount--;
+        System.arraycopy(chunkKeys, chunk + 1, chunkKeys, chunk, chunkCount - chunk);
+        System.arraycopy(chunks, chunk + 1, chunks, chunk, chunkCount - chunk);
+        System.arraycopy(cardinalities, chunk + 1, cardinalities, chunk, chunkCount - chunk);
+        chunks[chunkCount] = null;
+    }
+
+    private static long[] toBitmap(char[] array, int cardinality) {
+        long[] bitmap = new long[BITMAP_WORDS];
+        for (int i = 0; i < cardinality; i++) {
+            bitmap[array[i] >>> 6] |= 1L << array[i];
+        }
+        return bitmap;
+    }
+}
@@ -0,0 +1,356 @@
+package com.arcao.geocaching.api.util;
+
+import java.io.Serializable;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * Map with cache code keys stored as cache ids (see
+ * {@link GeocachingUtils#cacheCodeToCacheId(String)}) in an open addressing hash table. Null values
+ * are not supported.<br>
+ * <br>
+ * Cache codes are case insensitive, {@link #keySet()} and {@link #entrySet()} return normalized upper
+ * case cache codes in no particular order. The key set can be passed to API methods accepting a
+ * collection of cache codes. Putting an invalid cache code throws {@link IllegalArgumentException}.<br>
+ * <br>
+ * The map is not thread-safe.
+ *
+ * @param <V> value type
+ * @author arcao
+ * @see CacheCodeSet
+ * @since 2.1
+ */
+public final class CacheCodeMap<V> extends AbstractMap<String, V> implements Serializable {
+    private static final long serialVersionUID = -4431880436307452113L;
+
+    private static final long FREE = -1;
+    private static final long REMOVED = -2;
+
+    // capacity is a power of two, FREE or REMOVED for empty slots
+    private long[] keys;
+    private Object[] values;
+    private int size;
+    private int removed;
+    private transient int modCount;
+    private transient Set<Entry<String, V>> entrySet;
+
+    public CacheCodeMap() {
+        this(0);
+    }
+
+    /**
+     * Create a map with enough space for expected count of cache codes.
+     *
+     * @param expectedSize expected count of cache codes
+     */
+    public CacheCodeMap(int expectedSize) {
+        int capacity = CacheCodeSet.capacityFor(expectedSize);
+        keys = newKeys(capacity);
+        values = new Object[capacity];
+    }
+
+    public CacheCodeMap(Map<? extends CharSequence, ? extends V> map) {
+        this(map.size());
+        for (Entry<? extends CharSequence, ? extends V> entry : map.entrySet()) {
+            CharSequence cacheCode = entry.getKey();
+            put(GeocachingUtils.cacheCodeToCacheId(cacheCode, 0, cacheCode.length()), entry.getValue());
+        }
+    }
+
+    public V get(long cacheId) {
+        int index = cacheId >= 0 ? indexOf(cacheId) : -1;
+        return index != -1 ? value(index) : null;
+    }
+
+    @Override
+    public V get(Object key) {
+        return get(GeocachingUtils.cacheIdOf(key));
+    }
+
+    public boolean containsKey(long cacheId) {
+        return cacheId >= 0 && indexOf(cacheId) != -1;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return containsKey(GeocachingUtils.cacheIdOf(key));
+    }
+
+    /**
+     * Put a value for a cache code.
+     *
+     * @param cacheCode cache code
+     * @param value     value
+     * @return previous value or null
+     * @throws IllegalArgumentException If the cache code is not valid
+     */
+    @Override
+    public V put(String cacheCode, V value) {
+        return put(GeocachingUtils.cacheCodeToCacheId(cacheCode), value);
+    }
+
+    /**
+     * Put a value for a cache id.
+     *
+     * @param cacheId cache id
+     * @param value   value
+     * @return previous value or null
+     * @throws IllegalArgumentException If the cache id is negative
+     */
+    public V put(long cacheId, V value) {
+        if (cacheId < 0)
+            throw new IllegalArgumentException("Cache id is negative: " + cacheId);
+        if (value == null)
+            throw new NullPointerException("value");
+
+        int mask = keys.length - 1;
+        int index = CacheCodeSet.hash(cacheId) & mask;
+        int removedIndex = -1;
+
+        long key;
+        while ((key = keys[index]) != FREE) {
+            if (key == cacheId) {
+                V previous = value(index);
+                values[index] = value;
+                return previous;
+            }
+            if (key == REMOVED && removedIndex == -1)
+                removedIndex = index;
+            index = (index + 1) & mask;
+        }
+
+        if (removedIndex != -1) {
+            index = removedIndex;
+            removed--;
+        }
+        keys[index] = cacheId;
+        values[index] = value;
+        size++;
+        modCount++;
+
+        if (size + removed > CacheCodeSet.maxFill(keys.length))
+            rehash(CacheCodeSet.capacityFor(size));
+        return null;
+    }
+
+    public V remove(long cacheId) {
+        int index = cacheId >= 0 ? indexOf(cacheId) : -1;
+        if (index == -1)
+            return null;
+
+        V previous = value(index);
+        removeAt(index);
+        return previous;
+    }
+
+    @Override
+    public V remove(Object key) {
+        return remove(GeocachingUtils.cacheIdOf(key));
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public void clear() {
+        Arrays.fill(keys, FREE);
+        Arrays.fill(values, null);
+        size = 0;
+        removed = 0;
+        modCount++;
+    }
+
+    /**
+     * Get cache ids of all keys in the map.
+     *
+     * @return cache ids in no particular order
+     */
+    public long[] toIdArray() {
+        long[] result = new long[size];
+        int count = 0;
+        for (long key : keys) {
+            if (key >= 0)
+                result[count++] = key;
+        }
+        return result;
+    }
+
+    @Override
+    public Set<Entry<String, V>> entrySet() {
+        if (entrySet == null) {
+            entrySet = new AbstractSet<Entry<String, V>>() {
+                @Override
+                public Iterator<Entry<String, V>> iterator() {
+                    return new EntryIterator();
+                }
+
+                @Override
+                public int size() {
+                    return size;
+                }
+
+                @Override
+                public void clear() {
+                    CacheCodeMap.this.clear();
+                }
+            };
+        }
+        return entrySet;
+    }
+
+    @SuppressWarnings("unchecked")
+    private V value(int index) {
+        return (V) values[index];
+    }
+
+    private int indexOf(long cacheId) {
+        int mask = keys.length - 1;
+        int index = CacheCodeSet.hash(cacheId) & mask;
+
+        long key;
+        while ((key = keys[index]) != FREE) {
+            if (key == cacheId)
+                return index;
+            index = (index + 1) & mask;
+        }
+        return -1;
+    }
+
+    private void removeAt(int index) {
+        // a free slot can be used directly if the next slot doesn't continue a probe sequence
+        if (keys[(index + 1) & (keys.length - 1)] == FREE) {
+            keys[index] = FREE;
+        } else {
+            keys[index] = REMOVED;
+            removed++;
+        }
+        values[index] = null;
+        size--;
+        modCount++;
+    }
+
+    private void rehash(int capacity) {
+        long[] oldKeys = keys;
+        Object[] oldValues = values;
+        keys = newKeys(capacity);
+        values = new Object[capacity];
+        removed = 0;
+
+        int mask = capacity - 1;
+        for (int i = 0; i < oldKeys.length; i++) {
+            long key = oldKeys[i];
+            if (key < 0)
+                continue;
+
+            int index = CacheCodeSet.hash(key) & mask;
+            while (keys[index] != FREE) {
+                index = (index + 1) & mask;
+            }
+            keys[index] = key;
+            values[index] = oldValues[i];
+        }
+    }
+
+    private static long[] newKeys(int capacity) {
+        long[] keys = new long[capacity];
+        Arrays.fill(keys, FREE);
+        return keys;
+    }
+
+    private int nextIndex(int index) {
+        while (index < keys.length && keys[index] < 0) {
+            index++;
+        }
+        return index;
+    }
+
+    private final class EntryIterator implements Iterator<Entry<String, V>> {
+        private int next = nextIndex(0);
+        private int last = -1;
+        private int expectedModCount = modCount;
+
+        @Override
+        public boolean hasNext() {
+            return next < keys.length;
+        }
+
+        @Override
+        public Entry<String, V> next() {
+            if (modCount != expectedModCount)
+                throw new ConcurrentModificationException();
+            if (next >= keys.length)
+                throw new NoSuchElementException();
+
+            last = next;
+            next = nextIndex(next + 1);
+            return new MapEntry(last);
+        }
+
+        @Override
+        public void remove() {
+            if (last == -1)
+                throw new IllegalStateException();
+            if (modCount != expectedModCount)
+                throw new ConcurrentModificationException();
+
+            removeAt(last);
+            last = -1;
+            expectedModCount = modCount;
+        }
+    }
+
+    private final class MapEntry implements Entry<String, V> {
+        private final long cacheId;
+        private V value;
+
+        MapEntry(int index) {
+            cacheId = keys[index];
+            value = value(index);
+        }
+
+        @Override
+        public String getKey() {
+            return GeocachingUtils.cacheIdToCacheCode(cacheId);
+        }
+
+        @Override
+        public V getValue() {
+            return value;
+        }
+
+        @Override
+        public V setValue(V value) {
+            V previous = this.value;
+            put(cacheId, value);
+            this.value = value;
+            return previous;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Entry))
+                return false;
+
+            Entry<?, ?> entry = (Entry<?, ?>) o;
+            return getKey().equals(entry.getKey()) && value.equals(entry.getValue());
+        }
+
+        @Override
+        public int hashCode() {
+            return getKey().hashCode() ^ value.hashCode();
+        }
+
+        @Override
+        public String toString() {
+            return getKey() + "=" + value;
+        }
+    }
+}
@@ -0,0 +1,273 @@
+package com.arcao.geocaching.api.util;
+
+import java.io.Serializable;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Set of cache codes stored as cache ids (see {@link GeocachingUtils#cacheCodeToCacheId(String)})
+ * in an open addressing hash table. An entry takes 8 - 16 bytes instead of about 60 bytes of a
+ * String in a HashSet.<br>
+ * <br>
+ * The set can be passed to API methods accepting a collection of cache codes. Cache codes are case
+ * insensitive, the iterator returns normalized upper case cache codes in no particular order.
+ * Adding an invalid cache code throws {@link IllegalArgumentException}.<br>
+ * <br>
+ * The set is not thread-safe.
+ *
+ * @author arcao
+ * @see CacheCodeBitmap
+ * @since 2.1
+ */
+public final class CacheCodeSet extends AbstractSet<String> implements Serializable {
+    private static final long serialVersionUID = 2817425396214981640L;
+
+    private static final long FREE = -1;
+    private static final long REMOVED = -2;
+    private static final int MIN_CAPACITY = 8;
+
+    // capacity is a power of two, FREE or REMOVED for empty slots
+    private long[] keys;
+    private int size;
+    private int removed;
+    private transient int modCount;
+
+    public CacheCodeSet() {
+        this(0);
+    }
+
+    /**
+     * Create a set with enough space for expected count of cache codes.
+     *
+     * @param expectedSize expected count of cache codes
+     */
+    public CacheCodeSet(int expectedSize) {
+        keys = newKeys(capacityFor(expectedSize));
+    }
+
+    public CacheCodeSet(Collection<? extends CharSequence> cacheCodes) {
+        this(cacheCodes.size());
+        for (CharSequence cacheCode : cacheCodes) {
+            add(GeocachingUtils.cacheCodeToCacheId(cacheCode, 0, cacheCode.length()));
+        }
+    }
+
+    /**
+     * Add a cache code to the set.
+     *
+     * @param cacheCode cache code
+     * @return true if the set didn't contain the cache code
+     * @throws IllegalArgumentException If the cache code is not valid
+     */
+    @Override
+    public boolean add(String cacheCode) {
+        return add(GeocachingUtils.cacheCodeToCacheId(cacheCode));
+    }
+
+    /**
+     * Add a cache id to the set.
+     *
+     * @param cacheId cache id
+     * @return true if the set didn't contain the cache id
+     * @throws IllegalArgumentException If the cache id is negative
+     */
+    public boolean add(long cacheId) {
+        if (cacheId < 0)
+            throw new IllegalArgumentException("Cache id is negative: " + cacheId);
+
+        int mask = keys.length - 1;
+        int index = hash(cacheId) & mask;
+        int removedIndex = -1;
+
+        long key;
+        while ((key = keys[index]) != FREE) {
+            if (key == cacheId)
+                return false;
+            if (key == REMOVED && removedIndex == -1)
+                removedIndex = index;
+            index = (index + 1) & mask;
+        }
+
+        if (removedIndex != -1) {
+            keys[removedIndex] = cacheId;
+            removed--;
+        } else {
+            keys[index] = cacheId;
+        }
+        size++;
+        modCount++;
+
+        if (size + removed > maxFill(keys.length))
+            rehash(capacityFor(size));
+        return true;
+    }
+
+    public boolean contains(long cacheId) {
+        return cacheId >= 0 && indexOf(cacheId) != -1;
+    }
+
+    @Override
+    public boolean contains(Object o) {
+        return contains(GeocachingUtils.cacheIdOf(o));
+    }
+
+    public boolean remove(long cacheId) {
+        int index = cacheId >= 0 ? indexOf(cacheId) : -1;
+        if (index == -1)
+            return false;
+
+        removeAt(index);
+        return true;
+    }
+
+    @Override
+    public boolean remove(Object o) {
+        return remove(GeocachingUtils.cacheIdOf(o));
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public void clear() {
+        Arrays.fill(keys, FREE);
+        size = 0;
+        removed = 0;
+        modCount++;
+    }
+
+    /**
+     * Get cache ids of all cache codes in the set.
+     *
+     * @return cache ids in no particular order
+     */
+    public long[] toIdArray() {
+        long[] result = new long[size];
+        int count = 0;
+        for (long key : keys) {
+            if (key >= 0)
+                result[count++] = key;
+        }
+        return result;
+    }
+
+    @Override
+    public Iterator<String> iterator() {
+        return new Iterator<String>() {
+            private int next = nextIndex(0);
+            private int last = -1;
+            private int expectedModCount = modCount;
+
+            @Override
+            public boolean hasNext() {
+                return next < keys.length;
+            }
+
+            @Override
+            public String next() {
+                if (modCount != expectedModCount)
+                    throw new ConcurrentModificationException();
+                if (next >= keys.length)
+                    throw new NoSuchElementException();
+
+                last = next;
+                next = nextIndex(next + 1);
+                return GeocachingUtils.cacheIdToCacheCode(keys[last]);
+            }
+
+            @Override
+            public void remove() {
+                if (last == -1)
+                    throw new IllegalStateException();
+                if (modCount != expectedModCount)
+                    throw new ConcurrentModificationException();
+
+                removeAt(last);
+                last = -1;
+                expectedModCount = modCount;
+            }
+        };
+    }
+
+    private int nextIndex(int index) {
+        while (index < keys.length && keys[index] < 0) {
+            index++;
+        }
+        return index;
+    }
+
+    private int indexOf(long cacheId) {
+        int mask = keys.length - 1;
+        int index = hash(cacheId) & mask;
+
+        long key;
+        while ((key = keys[index]) != FREE) {
+            if (key == cacheId)
+                return index;
+            index = (index + 1) & mask;
+        }
+        return -1;
+    }
+
+    private void removeAt(int index) {
+        // a free slot can be used directly if the next slot doesn't continue a probe sequence
+        if (keys[(index + 1) & (keys.length - 1)] == FREE) {
+            keys[index] = FREE;
+        } else {
+            keys[index] = REMOVED;
+            removed++;
+        }
+        size--;
+        modCount++;
+    }
+
+    private void rehash(int capacity) {
+        long[] oldKeys = keys;
+        keys = newKeys(capacity);
+        removed = 0;
+
+        int mask = capacity - 1;
+        for (long key : oldKeys) {
+            if (key < 0)
+                continue;
+
+            int index = hash(key) & mask;
+            while (keys[index] != FREE) {
+                index = (index + 1) & mask;
+            }
+            keys[index] = key;
+        }
+    }
+
+    private static long[] newKeys(int capacity) {
+        long[] keys = new long[capacity];
+        Arrays.fill(keys, FREE);
+        return keys;
+    }
+
+    // the smallest power of two keeping the load factor under 3/4
+    static int capacityFor(int size) {
+        int capacity = MIN_CAPACITY;
+        while (maxFill(capacity) < size) {
+            if (capacity >= 1 << 30)
+                throw new IllegalStateException("Too many cache codes: " + size);
+            capacity <<= 1;
+        }
+        return capacity;
+    }
+
+    static int maxFill(int capacity) {
+        return capacity - (capacity >>> 2);
+    }
+
+    static int hash(long cacheId) {
+        long hash = cacheId * 0x9E3779B97F4A7C15L;
+        return (int) (hash ^ (hash >>> 32));
+    }
+}
@@ -1,5 +1,8 @@
 package com.arcao.geocaching.api.util;
 
+import java.io.IOException;
+import java.util.Collection;
+
 /**
  * Set of Geocaching helper methods
  *
@@ -8,12 +11,29 @@ package com.arcao.geocaching.api.util;
  */
 public final class GeocachingUtils {
     private static final String BASE_31_CHARS = "0123456789ABCDEFGHJKMNPQRTVWXYZ";
+    private static final String BASE_16_CHARS = "0123456789ABCDEF";
+    private static final int BASE_31 = 31;
+    private static final int BASE_16 = 16;
+
+    // base 31 digit of an ASCII char, -1 for invalid chars
+    private static final byte[] BASE_31_VALUES = new byte[128];
 
     // = (16 * 31 * 31 * 31) - (16 * 16 * 16 * 16)
     private static final long CACHE_CODE_BASE31_MAGIC_NUMBER = 411120;
     private static final String CACHE_PREFIX = "GC";
     private static final long CACHE_CODE_BASE16_MAX = 0xFFFF;
-    private static final int BASE_16 = 16;
+    private static final int CACHE_CODE_BASE16_MAX_LENGTH = 4;
+    // GC prefix, minus sign and 16 hex digits of a negative id
+    private static final int CACHE_CODE_MAX_LENGTH = 19;
+
+    static {
+        for (int i = 0; i < BASE_31_VALUES.length; i++) {
+            BASE_31_VALUES[i] = -1;
+        }
+        for (int i = 0; i < BASE_31_CHARS.length(); i++) {
+            BASE_31_VALUES[BASE_31_CHARS.charAt(i)] = (byte) i;
+        }
+    }
 
     private GeocachingUtils() {
     }
@@ -27,17 +47,29 @@ public final class GeocachingUtils {
      * @throws IllegalArgumentException If input contains illegal chars
      */
     public static long base31Decode(final String input) {
-        final int base = BASE_31_CHARS.length();
-        long ret = 0;
+        return base31Decode(input, 0, input.length());
+    }
 
-        for (char ch : input.toCharArray()) {
-            ret *= base;
+    /**
+     * Convert a part of char sequence containing base 31 number with chars
+     * 0123456789ABCDEFGHJKMNPQRTVWXYZ to numeric value.
+     *
+     * @param input char sequence
+     * @param start start index of the number, inclusive
+     * @param end   end index of the number, exclusive
+     * @return numeric value
+     * @throws IllegalArgumentException If input contains illegal chars
+     * @since 2.1
+     */
+    public static long base31Decode(final CharSequence input, int start, int end) {
+        long ret = 0;
 
-            int index = BASE_31_CHARS.indexOf(ch);
-            if (index == -1)
+        for (int i = start; i < end; i++) {
+            int value = base31Value(input.charAt(i));
+            if (value == -1)
                 throw new IllegalArgumentException("Only chars " + BASE_31_CHARS + " are supported.");
 
-            ret += index;
+            ret = ret * BASE_31 + value;
         }
         return ret;
     }
@@ -48,17 +80,15 @@ public final class GeocachingUtils {
      *
      * @param input numeric value
      * @return base 31 number
+     * @throws IllegalArgumentException If input is negative
      */
     public static String base31Encode(long input) {
-        final int base = BASE_31_CHARS.length();
-        StringBuilder sb = new StringBuilder();
-
-        while (input != 0) {
-            sb.append(BASE_31_CHARS.charAt((int) (input % base)));
-            input /= base;
-        }
+        if (input < 0)
+            throw new IllegalArgumentException("Negative numbers are not supported.");
 
-        return sb.reverse().toString();
+        char[] buffer = new char[CACHE_CODE_MAX_LENGTH];
+        int start = encodeBase31(input, buffer, buffer.length);
+        return new String(buffer, start, buffer.length - start);
     }
 
     /**
@@ -77,24 +107,77 @@ public final class GeocachingUtils {
      * @see #base31Decode(String)
      */
     public static long cacheCodeToCacheId(final String cacheCode) {
-        String cacheCodeNorm = cacheCode.toUpperCase();
+        return cacheCodeToCacheId(cacheCode, 0, cacheCode.length());
+    }
 
-        if (cacheCodeNorm.length() < 3 || !cacheCodeNorm.startsWith(CACHE_PREFIX))
+    /**
+     * Convert cache code GCxxx in a part of char sequence to numeric cache id. The cache code is
+     * case insensitive.
+     *
+     * @param input char sequence
+     * @param start start index of the cache code, inclusive
+     * @param end   end index of the cache code, exclusive
+     * @return cache id
+     * @throws IllegalArgumentException Cache code does not contains GC prefix or contains invalid characters
+     * @see #cacheCodeToCacheId(String)
+     * @since 2.1
+     */
+    public static long cacheCodeToCacheId(final CharSequence input, int start, int end) {
+        if (end - start < 3 || toUpperCase(input.charAt(start)) != 'G' || toUpperCase(input.charAt(start + 1)) != 'C')
             throw new IllegalArgumentException("Cache code is too short or does not contains GC prefix.");
 
-        // remove GC prefix
-        String code = cacheCodeNorm.substring(2);
+        // skip GC prefix
+        start += CACHE_PREFIX.length();
 
         // 0 - FFFF = base16; G000 - ... = base 31
-        if (code.length() <= 4 && code.charAt(0) < 'G') {
-            try {
-                return Long.parseLong(code, BASE_16);
-            } catch (NumberFormatException e) {
+        if (end - start <= CACHE_CODE_BASE16_MAX_LENGTH && toUpperCase(input.charAt(start)) < 'G') {
+            return base16Decode(input, start, end);
+        }
+
+        long ret = 0;
+        for (int i = start; i < end; i++) {
+            int value = base31Value(toUpperCase(input.charAt(i)));
+            if (value == -1)
                 throw new IllegalArgumentException("Only chars " + BASE_31_CHARS + " are supported.");
-            }
-        } else {
-            return base31Decode(code) - CACHE_CODE_BASE31_MAGIC_NUMBER;
+
+            ret = ret * BASE_31 + value;
+        }
+        return ret - CACHE_CODE_BASE31_MAGIC_NUMBER;
+    }
+
+    /**
+     * Convert cache codes GCxxx to numeric cache ids.
+     *
+     * @param cacheCodes cache codes including GC prefix
+     * @return cache ids in the same order
+     * @throws IllegalArgumentException Cache code does not contains GC prefix or contains invalid characters
+     * @see #cacheCodeToCacheId(String)
+     * @since 2.1
+     */
+    public static long[] cacheCodesToCacheIds(CharSequence... cacheCodes) {
+        long[] result = new long[cacheCodes.length];
+        for (int i = 0; i < cacheCodes.length; i++) {
+            result[i] = cacheCodeToCacheId(cacheCodes[i], 0, cacheCodes[i].length());
+        }
+        return result;
+    }
+
+    /**
+     * Convert cache codes GCxxx to numeric cache ids.
+     *
+     * @param cacheCodes cache codes including GC prefix
+     * @return cache ids in the iteration order of the collection
+     * @throws IllegalArgumentException Cache code does not contains GC prefix or contains invalid characters
+     * @see #cacheCodeToCacheId(String)
+     * @since 2.1
+     */
+    public static long[] cacheCodesToCacheIds(Collection<? extends CharSequence> cacheCodes) {
+        long[] result = new long[cacheCodes.size()];
+        int i = 0;
+        for (CharSequence cacheCode : cacheCodes) {
+            result[i++] = cacheCodeToCacheId(cacheCode, 0, cacheCode.length());
         }
+        return result;
     }
 
     /**
@@ -107,18 +190,60 @@ public final class GeocachingUtils {
      * @see #base31Encode(long)
      */
     public static String cacheIdToCacheCode(long cacheId) {
-        StringBuilder sb = new StringBuilder();
-
-        // append GC prefix
-        sb.append(CACHE_PREFIX);
+        char[] buffer = new char[CACHE_CODE_MAX_LENGTH];
+        int start = encodeCacheCode(cacheId, buffer);
+        return new String(buffer, start, buffer.length - start);
+    }
 
-        if (cacheId <= CACHE_CODE_BASE16_MAX) { // 0 - FFFF
-            sb.append(Long.toString(cacheId, BASE_16).toUpperCase());
-        } else { // G000 - ...
-            sb.append(base31Encode(cacheId + CACHE_CODE_BASE31_MAGIC_NUMBER));
+    /**
+     * Convert numeric cache ids to cache codes GCxxx.
+     *
+     * @param cacheIds cache ids
+     * @return cache codes including GC prefix in the same order
+     * @see #cacheIdToCacheCode(long)
+     * @since 2.1
+     */
+    public static String[] cacheIdsToCacheCodes(long... cacheIds) {
+        String[] result = new String[cacheIds.length];
+        char[] buffer = new char[CACHE_CODE_MAX_LENGTH];
+        for (int i = 0; i < cacheIds.length; i++) {
+            int start = encodeCacheCode(cacheIds[i], buffer);
+            result[i] = new String(buffer, start, buffer.length - start);
         }
+        return result;
+    }
+
+    /**
+     * Append a cache code GCxxx of the numeric cache id to the StringBuilder.
+     *
+     * @param sb      StringBuilder
+     * @param cacheId cache id
+     * @return the StringBuilder
+     * @see #cacheIdToCacheCode(long)
+     * @since 2.1
+     */
+    public static StringBuilder appendCacheCode(StringBuilder sb, long cacheId) {
+        char[] buffer = new char[CACHE_CODE_MAX_LENGTH];
+        int start = encodeCacheCode(cacheId, buffer);
+        return sb.append(buffer, start, buffer.length - start);
+    }
 
-        return sb.toString();
+    /**
+     * Append a cache code GCxxx of the numeric cache id to the Appendable.
+     *
+     * @param out     Appendable, e.g. Writer
+     * @param cacheId cache id
+     * @return the Appendable
+     * @throws IOException If an I/O error occurs
+     * @see #cacheIdToCacheCode(long)
+     * @since 2.1
+     */
+    public static Appendable appendCacheCode(Appendable out, long cacheId) throws IOException {
+        char[] buffer = new char[CACHE_CODE_MAX_LENGTH];
+        for (int i = encodeCacheCode(cacheId, buffer); i < buffer.length; i++) {
+            out.append(buffer[i]);
+        }
+        return out;
     }
 
     /**
@@ -136,4 +261,86 @@ public final class GeocachingUtils {
             return false;
         }
     }
+
+    // cache id of a cache code, a negative number if the object isn't a valid cache code
+    static long cacheIdOf(Object cacheCode) {
+        if (!(cacheCode instanceof CharSequence))
+            return -1;
+
+        CharSequence code = (CharSequence) cacheCode;
+        try {
+            return cacheCodeToCacheId(code, 0, code.length());
+        } catch (IllegalArgumentException e) {
+            return -1;
+        }
+    }
+
+    // writes the cache code to the end of the buffer, returns the start index
+    private static int encodeCacheCode(long cacheId, char[] buffer) {
+        int start = buffer.length;
+
+        if (cacheId <= CACHE_CODE_BASE16_MAX) { // 0 - FFFF
+            // magnitude of a negative id as unsigned number
+            long value = cacheId < 0 ? -cacheId : cacheId;
+            do {
+                buffer[--start] = BASE_16_CHARS.charAt((int) value & 0xF);
+                value >>>= 4;
+            } while (value != 0);
+
+            if (cacheId < 0)
+                buffer[--start] = '-';
+        } else { // G000 - ...
+            long value = cacheId + CACHE_CODE_BASE31_MAGIC_NUMBER;
+            if (value < 0)
+                throw new IllegalArgumentException("Cache id is too big.");
+
+            start = encodeBase31(value, buffer, start);
+        }
+
+        // GC prefix
+        buffer[--start] = 'C';
+        buffer[--start] = 'G';
+        return start;
+    }
+
+    // writes a non-negative number in base 31 before the end index, returns the start index
+    private static int encodeBase31(long input, char[] buffer, int end) {
+        int start = end;
+
+        // 0 is an empty string
+        while (input != 0) {
+            buffer[--start] = BASE_31_CHARS.charAt((int) (input % BASE_31));
+            input /= BASE_31;
+        }
+        return start;
+    }
+
+    // same rules as Long.parseLong(String, 16)
+    private static long base16Decode(CharSequence input, int start, int end) {
+        boolean negative = false;
+        char first = input.charAt(start);
+        if ((first == '-' || first == '+') && end - start > 1) {
+            negative = first == '-';
+            start++;
+        }
+
+        long ret = 0;
+        for (int i = start; i < end; i++) {
+            char ch = input.charAt(i);
+            int value = ch < 128 ? Character.digit(ch, BASE_16) : -1;
+            if (value == -1)
+                throw new IllegalArgumentException("Only chars " + BASE_31_CHARS + " are supported.");
+
+            ret = (ret << 4) | value;
+        }
+        return negative ? -ret : ret;
+    }
+
+    private static int base31Value(char ch) {
+        return ch < BASE_31_VALUES.length ? BASE_31_VALUES[ch] : -1;
+    }
+
+    private static char toUpperCase(char ch) {
+        return ch >= 'a' && ch <= 'z' ? (char) (ch - ('a' - 'A')) : ch;
+    }
 }
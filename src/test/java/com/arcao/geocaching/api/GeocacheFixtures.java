@@ -0,0 +1,75 @@
+package com.arcao.geocaching.api;
+
+import com.arcao.geocaching.api.data.Geocache;
+import com.arcao.geocaching.api.data.coordinates.Coordinates;
+import com.arcao.geocaching.api.data.type.ContainerType;
+import com.arcao.geocaching.api.data.type.GeocacheType;
+import com.arcao.geocaching.api.parser.JsonReader;
+import com.arcao.geocaching.api.util.GeocachingUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.util.Date;
+import java.util.Scanner;
+
+/**
+ * Geocaches shared by tests.
+ */
+public final class GeocacheFixtures {
+    public static final String GEOCACHE_RESOURCE = "/com/arcao/geocaching/api/live_geocaching_api/mocked/result-lite-geocache-by-cache-code.json";
+
+    private GeocacheFixtures() {
+    }
+
+    /**
+     * Returns a reader positioned at the Geocaches array of the mocked search result.
+     */
+    public static JsonReader geocachesReader() throws IOException {
+        String json = readResource(GEOCACHE_RESOURCE);
+        String geocaches = json.substring(json.indexOf('[', json.indexOf("\"Geocaches\"")));
+        return new JsonReader(new InputStreamReader(new ByteArrayInputStream(geocaches.getBytes("UTF-8")), "UTF-8"));
+    }
+
+    /**
+     * Returns a reader of the whole test resource.
+     */
+    public static JsonReader resourceReader(String resource) throws IOException {
+        return new JsonReader(new InputStreamReader(new ByteArrayInputStream(readResource(resource).getBytes("UTF-8")), "UTF-8"));
+    }
+
+    private static String readResource(String resource) {
+        return new Scanner(GeocacheFixtures.class.getResourceAsStream(resource), "UTF-8").useDelimiter("\\A").next();
+    }
+
+    /**
+     * Returns a builder of an available Traditional cache with all required properties set, tests
+     * override the properties they check.
+     */
+    public static Geocache.Builder geocacheBuilder(long id) {
+        String code = GeocachingUtils.cacheIdToCacheCode(id);
+        return Geocache.builder()
+                .id(id)
+                .code(code)
+                .name("Name " + code)
+                .coordinates(Coordinates.create(50, 14))
+                .geocacheType(GeocacheType.Traditional)
+                .containerType(ContainerType.Small)
+                .difficulty(1)
+                .terrain(1)
+                .favoritePoints(0)
+                .trackableCount(0)
+                .imageCount(0)
+                .archived(false)
+                .available(true)
+                .premium(false)
+                .favoritable(false)
+                .favoritedByUser(false)
+                .foundByUser(false)
+                .recommended(false)
+                .placedBy("owner")
+                .placeDate(new Date(1300000000000L))
+                .url("")
+                .guid("");
+    }
+}
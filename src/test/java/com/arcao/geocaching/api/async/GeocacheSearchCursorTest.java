@@ -0,0 +1,113 @@
+package com.arcao.geocaching.api.async;
+
+import com.arcao.geocaching.api.GeocachingApi;
+import com.arcao.geocaching.api.data.Geocache;
+import com.arcao.geocaching.api.data.GeocacheLimits;
+import com.arcao.geocaching.api.data.SearchForGeocachesRequest;
+import com.arcao.geocaching.api.data.SearchForGeocachesResponse;
+import com.arcao.geocaching.api.exception.GeocachingApiException;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class GeocacheSearchCursorTest {
+    private static final int PAGE_SIZE = 10;
+
+    private GeocachingApi api = null;
+    private SearchForGeocachesRequest request = null;
+
+    @Before
+    public void setUp() {
+        api = mock(GeocachingApi.class);
+        request = SearchForGeocachesRequest.builder()
+                .resultQuality(GeocachingApi.ResultQuality.LITE)
+                .maxPerPage(PAGE_SIZE)
+                .geocacheLogCount(0)
+                .trackableLogCount(0)
+                .build();
+    }
+
+    @Test
+    public void allPagesTest() throws GeocachingApiException {
+        when(api.searchForGeocachesResponse(request)).thenReturn(createResponse(PAGE_SIZE, 25, 100));
+        when(api.getMoreGeocachesResponse(request, 10)).thenReturn(createResponse(PAGE_SIZE, 25, 90));
+        when(api.getMoreGeocachesResponse(request, 20)).thenReturn(createResponse(5, 25, 85));
+
+        GeocacheSearchCursor cursor = new GeocacheSearchCursor(api, request);
+
+        assertEquals(25, count(cursor));
+        assertEquals(25, cursor.totalMatchingCaches());
+        assertEquals(85, cursor.geocacheLimits().geocacheLeft());
+    }
+
+    @Test
+    public void prefetchTest() throws GeocachingApiException {
+        when(api.searchForGeocachesResponse(request)).thenReturn(createResponse(PAGE_SIZE, 20, 100));
+        when(api.getMoreGeocachesResponse(request, 10)).thenReturn(createResponse(PAGE_SIZE, 20, 90));
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            GeocacheSearchCursor cursor = new AsyncGeocachingApi(api, executor).searchForGeocachesCursor(request);
+            assertEquals(20, count(cursor));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void stopOnGeocacheLimitTest() throws GeocachingApiException {
+        when(api.searchForGeocachesResponse(request)).thenReturn(createResponse(PAGE_SIZE, 100, 0));
+
+        GeocacheSearchCursor cursor = new GeocacheSearchCursor(api, request);
+
+        assertEquals(PAGE_SIZE, count(cursor));
+        verify(api, never()).getMoreGeocachesResponse(any(SearchForGeocachesRequest.class), anyInt());
+    }
+
+    @Test
+    public void emptyResultTest() throws GeocachingApiException {
+        when(api.searchForGeocachesResponse(request)).thenReturn(createResponse(0, 0, 100));
+
+        GeocacheSearchCursor cursor = new GeocacheSearchCursor(api, request);
+
+        assertFalse(cursor.hasNext());
+        verify(api, never()).getMoreGeocachesResponse(any(SearchForGeocachesRequest.class), anyInt());
+    }
+
+    private static int count(GeocacheSearchCursor cursor) throws GeocachingApiException {
+        int count = 0;
+        while (cursor.hasNext()) {
+            cursor.next();
+            count++;
+        }
+        return count;
+    }
+
+    private static SearchForGeocachesResponse createResponse(int size, int totalMatchingCaches, int geocacheLeft) {
+        List<Geocache> geocaches = new ArrayList<Geocache>();
+        for (int i = 0; i < size; i++) {
+            geocaches.add(mock(Geocache.class));
+        }
+
+        GeocacheLimits limits = GeocacheLimits.builder()
+                .geocacheLeft(geocacheLeft)
+                .maxGeocacheCount(6000)
+                .build();
+
+        return SearchForGeocachesResponse.create(geocaches, totalMatchingCaches, limits);
+    }
+}
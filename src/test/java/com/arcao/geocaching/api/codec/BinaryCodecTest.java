@@ -0,0 +1,518 @@
+package com.arcao.geocaching.api.codec;
+
+import com.arcao.geocaching.api.data.Geocache;
+import com.arcao.geocaching.api.data.GeocacheLog;
+import com.arcao.geocaching.api.data.ImageData;
+import com.arcao.geocaching.api.data.Trackable;
+import com.arcao.geocaching.api.data.TrackableLog;
+import com.arcao.geocaching.api.data.User;
+import com.arcao.geocaching.api.data.UserWaypoint;
+import com.arcao.geocaching.api.data.Waypoint;
+import com.arcao.geocaching.api.data.coordinates.Coordinates;
+import com.arcao.geocaching.api.data.type.AttributeType;
+import com.arcao.geocaching.api.data.type.ContainerType;
+import com.arcao.geocaching.api.data.type.GeocacheLogType;
+import com.arcao.geocaching.api.data.type.GeocacheType;
+import com.arcao.geocaching.api.data.type.MemberType;
+import com.arcao.geocaching.api.data.type.TrackableLogType;
+import com.arcao.geocaching.api.data.type.WaypointType;
+import com.arcao.geocaching.api.parser.GeocacheJsonParser;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.EnumSet;
+import java.util.List;
+
+import static com.arcao.geocaching.api.GeocacheFixtures.geocacheBuilder;
+import static com.arcao.geocaching.api.GeocacheFixtures.geocachesReader;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class BinaryCodecTest {
+    @Test
+    public void roundTripTest() throws IOException {
+        Geocache geocache = fullGeocache(1, new Date(1300000000123L));
+        Geocache minimal = minimalGeocache();
+        User user = user(99, "other");
+        Trackable trackable = trackable();
+
+        ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        BinaryEncoder encoder = new BinaryEncoder(bos);
+        encoder.write(geocache);
+        encoder.write(minimal);
+        encoder.write(user);
+        encoder.write(trackable);
+        encoder.write(geocache.geocacheLogs().get(0));
+        encoder.write(trackable.trackableLogs().get(0));
+        encoder.write(geocache.images().get(0));
+        encoder.write(geocache.waypoints().get(0));
+        encoder.write(geocache.userWaypoints().get(0));
+        encoder.close();
+
+        BinaryDecoder decoder = new BinaryDecoder(new ByteArrayInputStream(bos.toByteArray()));
+        assertTrue(decoder.hasNext());
+        assertEquals(Geocache.class, decoder.nextType());
+        assertEquals(geocache, decoder.readGeocache());
+        assertEquals(minimal, decoder.readGeocache());
+        assertEquals(user, decoder.readUser());
+        assertEquals(trackable, decoder.readTrackable());
+        assertEquals(geocache.geocacheLogs().get(0), decoder.readGeocacheLog());
+        assertEquals(trackable.trackableLogs().get(0), decoder.readTrackableLog());
+
+        ImageData imageData = decoder.readImageData();
+        assertEquals(geocache.images().get(0).name(), imageData.name());
+        assertArrayEquals(geocache.images().get(0).imageData(), imageData.imageData());
+
+        assertEquals(geocache.waypoints().get(0), decoder.readWaypoint());
+        assertEquals(geocache.userWaypoints().get(0), decoder.readUserWaypoint());
+        assertFalse(decoder.hasNext());
+        assertNull(decoder.nextType());
+    }
+
+    @Test
+    public void parsedGeocachesTest() throws IOException {
+        List<Geocache> geocaches = GeocacheJsonParser.parseList(geocachesReader());
+
+        ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        BinaryEncoder encoder = new BinaryEncoder(bos);
+        for (Geocache geocache : geocaches) {
+            encoder.write(geocache);
+        }
+        encoder.close();
+
+        BinaryDecoder decoder = new BinaryDecoder(new ByteArrayInputStream(bos.toByteArray()));
+        List<Geocache> decoded = new ArrayList<Geocache>();
+        while (decoder.hasNext()) {
+            decoded.add(decoder.readGeocache());
+        }
+        assertEquals(geocaches, decoded);
+    }
+
+    @Test
+    public void symbolsSharedBetweenRecordsTest() throws IOException {
+        ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        BinaryEncoder encoder = new BinaryEncoder(bos);
+        encoder.write(fullGeocache(1, new Date(1300000000000L)));
+        int first = bos.size();
+        encoder.write(fullGeocache(2, new Date(1300000000000L)));
+        int second = bos.size() - first;
+        encoder.close();
+
+        assertTrue(second < first);
+
+        // the second record can't be read without symbols of the first one, skip the first
+        BinaryDecoder decoder = new BinaryDecoder(new ByteArrayInputStream(bos.toByteArray()));
+        decoder.skip();
+        assertEquals(fullGeocache(2, new Date(1300000000000L)), decoder.readGeocache());
+    }
+
+    @Test
+    public void datesTest() throws IOException {
+        long[] times = {0, 1, -1, 1300000000000L, 1300000000001L, Long.MAX_VALUE, Long.MIN_VALUE, 946684800000L, -62135596800000L};
+
+        for (long created : times) {
+            for (long visited : times) {
+                GeocacheLog log = geocacheLog(1, new Date(created), new Date(visited));
+
+                ByteArrayOutputStream bos = new ByteArrayOutputStream();
+                BinaryEncoder encoder = new BinaryEncoder(bos);
+                encoder.write(log);
+                encoder.close();
+
+                BinaryDecoder decoder = new BinaryDecoder(new ByteArrayInputStream(bos.toByteArray()));
+                assertEquals(created + " " + visited, log, decoder.readGeocacheLog());
+            }
+        }
+    }
+
+    @Test
+    public void wrongTypeTest() throws IOException {
+        ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        BinaryEncoder encoder = new BinaryEncoder(bos);
+        encoder.write(user(1, "user"));
+        encoder.close();
+
+        BinaryDecoder decoder = new BinaryDecoder(new ByteArrayInputStream(bos.toByteArray()));
+        try {
+            decoder.readGeocache();
+            fail("Read Geocache from User record.");
+        } catch (IOException e) {
+            // expected
+        }
+    }
+
+    @Test
+    public void unknownTrailingBytesSkippedTest() throws IOException {
+        User first = user(2, "first");
+        User second = user(3, "second");
+
+        ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        BinaryEncoder encoder = new BinaryEncoder(bos);
+        encoder.write(first);
+        encoder.write(second);
+        encoder.close();
+        byte[] stream = bos.toByteArray();
+
+        // a newer writer appended fields to the first object
+        ByteArrayInputStream in = new ByteArrayInputStream(stream);
+        ByteArrayOutputStream evolved = new ByteArrayOutputStream();
+        copyRecordHeader(in, evolved);
+        byte[] object = new byte[(int) readVarint(in) - 1];
+        assertEquals(object.length, in.read(object, 0, object.length));
+        byte[] appended = {0x05, 0x7F, (byte) 0xFF, 0x01, 0x00};
+        writeVarint(evolved, object.length + appended.length + 1);
+        evolved.write(object);
+        evolved.write(appended);
+        copyRest(in, evolved);
+
+        BinaryDecoder decoder = new BinaryDecoder(new ByteArrayInputStream(evolved.toByteArray()));
+        assertEquals(first, decoder.readUser());
+        assertEquals(second, decoder.readUser());
+        assertFalse(decoder.hasNext());
+    }
+
+    @Test
+    public void missingTrailingFieldsReadAsZeroTest() throws IOException {
+        // an older writer knew only id, user name, GUID and avatar URL
+        ByteArrayOutputStream object = new ByteArrayOutputStream();
+        writeVarint(object, 7 << 1);
+        writeInlineString(object, "owner");
+        writeInlineString(object, "guid-7");
+        writeInlineString(object, "");
+
+        ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        bos.write(new byte[]{'G', 'C', 'B', 1, 5, 0});
+        writeVarint(bos, object.size() + 1);
+        object.writeTo(bos);
+
+        // the next record follows the truncated object
+        ByteArrayOutputStream next = new ByteArrayOutputStream();
+        BinaryEncoder encoder = new BinaryEncoder(next);
+        encoder.write(user(3, "second"));
+        encoder.close();
+        bos.write(next.toByteArray(), 4, next.size() - 4);
+
+        BinaryDecoder decoder = new BinaryDecoder(new ByteArrayInputStream(bos.toByteArray()));
+        User user = decoder.readUser();
+        assertEquals(7, user.id());
+        assertEquals("owner", user.userName());
+        assertEquals("guid-7", user.publicGuid());
+        assertEquals("", user.avatarUrl());
+        assertNull(user.homeCoordinates());
+        assertFalse(user.admin());
+        assertNull(user.memberType());
+        assertEquals(0, user.findCount());
+        assertEquals(0, user.hideCount());
+        assertEquals(0, user.galleryImageCount());
+        assertEquals(user(3, "second"), decoder.readUser());
+    }
+
+    @Test
+    public void uniqueStringsNotSymbolsTest() throws IOException {
+        ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        BinaryEncoder encoder = new BinaryEncoder(bos);
+        encoder.write(user(1, "same"));
+        int first = bos.size();
+        encoder.write(user(2, "same"));
+        encoder.close();
+
+        // the second record defines no new symbol, GUID and avatar URL are inline
+        ByteArrayInputStream in = new ByteArrayInputStream(bos.toByteArray(), first, bos.size() - first);
+        assertEquals(5, in.read());
+        assertEquals(0, readVarint(in));
+    }
+
+    @Test
+    public void symbolTableLimitTest() throws IOException {
+        int count = 3 * BinaryFormat.MAX_SYMBOLS;
+
+        ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        BinaryEncoder encoder = new BinaryEncoder(bos);
+        for (int i = 0; i < count; i++) {
+            encoder.write(user(i, "user" + i));
+        }
+        encoder.close();
+
+        BinaryDecoder decoder = new BinaryDecoder(new ByteArrayInputStream(bos.toByteArray()));
+        for (int i = 0; i < count; i++) {
+            assertEquals(user(i, "user" + i), decoder.readUser());
+        }
+        assertFalse(decoder.hasNext());
+    }
+
+    @Test
+    public void corruptLengthTest() throws IOException {
+        byte[] maxLength = {(byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, 0x07};
+
+        // a symbol longer than any written symbol
+        ByteArrayOutputStream symbol = new ByteArrayOutputStream();
+        symbol.write(new byte[]{'G', 'C', 'B', 1, 1, 1});
+        symbol.write(maxLength);
+        assertCorrupt(symbol.toByteArray());
+
+        // an object of 2 GB in a stream of a few bytes
+        ByteArrayOutputStream object = new ByteArrayOutputStream();
+        object.write(new byte[]{'G', 'C', 'B', 1, 1, 0});
+        object.write(maxLength);
+        object.write(new byte[]{0x02, 0x04});
+        assertCorrupt(object.toByteArray());
+
+        // a list of 2^31 elements in an object of a few bytes
+        ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        BinaryEncoder encoder = new BinaryEncoder(bos);
+        encoder.write(minimalGeocache());
+        encoder.close();
+
+        ByteArrayInputStream in = new ByteArrayInputStream(bos.toByteArray());
+        ByteArrayOutputStream list = new ByteArrayOutputStream();
+        copyRecordHeader(in, list);
+        byte[] fields = new byte[(int) readVarint(in) - 1];
+        assertEquals(fields.length, in.read(fields, 0, fields.length));
+        // replace null waypoints, user waypoints, trackables, images and logs
+        int waypoints = fields.length - 5;
+        assertArrayEquals(new byte[5], Arrays.copyOfRange(fields, waypoints, fields.length));
+        writeVarint(list, waypoints + maxLength.length + 1);
+        list.write(fields, 0, waypoints);
+        list.write(maxLength);
+        assertCorrupt(list.toByteArray());
+    }
+
+    @Test(expected = IOException.class)
+    public void notBinaryStreamTest() throws IOException {
+        new BinaryDecoder(new ByteArrayInputStream("{\"Geocaches\": []}".getBytes("UTF-8"))).hasNext();
+    }
+
+    @Test
+    public void emptyStreamTest() throws IOException {
+        assertFalse(new BinaryDecoder(new ByteArrayInputStream(new byte[0])).hasNext());
+    }
+
+    private static Geocache fullGeocache(long id, Date date) {
+        Coordinates coordinates = Coordinates.create(50.0755381, 14.4378005);
+
+        return Geocache.builder()
+                .id(id)
+                .code("GC" + id)
+                .name("Keš 😀")
+                .coordinates(coordinates)
+                .geocacheType(GeocacheType.Mystery)
+                .containerType(ContainerType.Micro)
+                .difficulty(3.5f)
+                .terrain(1.3f)
+                .favoritePoints(123)
+                .imageCount(1)
+                .trackableCount(1)
+                .archived(true)
+                .available(false)
+                .favoritable(true)
+                .favoritedByUser(false)
+                .foundByUser(true)
+                .premium(true)
+                .recommended(false)
+                .longDescriptionHtml(true)
+                .shortDescriptionHtml(false)
+                .owner(user(7, "owner"))
+                .placedBy("owner")
+                .countryName("Czech Republic")
+                .stateName("Praha")
+                .url("http://coord.info/GC" + id)
+                .guid("e3a0c1d2-0000-4000-8000-00000000000" + id)
+                .personalNote("note")
+                .createDate(date)
+                .placeDate(new Date(date.getTime() - 86400000L))
+                .publishDate(new Date(date.getTime() + 1000))
+                .lastUpdateDate(new Date(date.getTime() + 3600000L))
+                .lastVisitDate(null)
+                .foundDate(new Date(date.getTime() + 7))
+                .hint("under the stone")
+                .shortDescription("short")
+                .longDescription("<p>long</p>")
+                .attributes(EnumSet.of(AttributeType.DogsYes, AttributeType.FeeNo, AttributeType.TeamworkYes))
+                .waypoints(Collections.singletonList(Waypoint.builder()
+                        .coordinates(coordinates)
+                        .time(date)
+                        .waypointCode("PK" + id)
+                        .name("Parking")
+                        .note("")
+                        .waypointType(WaypointType.ParkingArea)
+                        .build()))
+                .userWaypoints(Collections.singletonList(UserWaypoint.builder()
+                        .cacheCode("GC" + id)
+                        .description("final")
+                        .id(5)
+                        .coordinates(Coordinates.create(-33.5, -70.25))
+                        .date(date)
+                        .userId(7)
+                        .correctedCoordinate(true)
+                        .build()))
+                .trackables(Collections.singletonList(trackable()))
+                .images(Collections.singletonList(imageData()))
+                .geocacheLogs(Arrays.asList(geocacheLog(11, date, date), geocacheLog(12, new Date(date.getTime() - 5000), date)))
+                .build();
+    }
+
+    private static Geocache minimalGeocache() {
+        return geocacheBuilder(0)
+                .name("")
+                .coordinates(Coordinates.create(0, 0))
+                .geocacheType(null)
+                .containerType(ContainerType.NotChosen)
+                .difficulty(0)
+                .terrain(-0f)
+                .favoritePoints(-1)
+                .available(false)
+                .placedBy("")
+                .placeDate(null)
+                .build();
+    }
+
+    private static GeocacheLog geocacheLog(long id, Date created, Date visited) {
+        return GeocacheLog.builder()
+                .id(id)
+                .cacheCode("GC1")
+                .created(created)
+                .visited(visited)
+                .logType(GeocacheLogType.FoundIt)
+                .author(user(8, "finder"))
+                .text("TFTC")
+                .images(Collections.<ImageData>emptyList())
+                .updatedCoordinates(Coordinates.create(50, 14))
+                .approved(true)
+                .archived(false)
+                .undeletable(true)
+                .build();
+    }
+
+    private static Trackable trackable() {
+        Date date = new Date(1200000000000L);
+
+        return Trackable.builder()
+                .id(42)
+                .name("Travel bug")
+                .goal(null)
+                .description("description")
+                .trackableTypeName("Travel Bug Dog Tag")
+                .trackableTypeImage("21.gif")
+                .owner(user(9, "tb owner"))
+                .currentCacheCode("GC1")
+                .currentOwner(null)
+                .trackingNumber("ABC123")
+                .created(date)
+                .allowedToBeCollected(true)
+                .inCollection(false)
+                .archived(false)
+                .trackableLogs(Collections.singletonList(TrackableLog.builder()
+                        .cacheId(1)
+                        .code("TL1")
+                        .id(3)
+                        .images(Collections.singletonList(imageData()))
+                        .archived(false)
+                        .guid("guid")
+                        .text("dropped")
+                        .type(TrackableLogType.DropOff)
+                        .loggedBy(user(9, "tb owner"))
+                        .created(date)
+                        .updatedCoordinates(Coordinates.create(1, 2))
+                        .url("http://coord.info/TL1")
+                        .visited(new Date(date.getTime() + 60000))
+                        .build()))
+                .images(null)
+                .build();
+    }
+
+    private static ImageData imageData() {
+        return ImageData.builder()
+                .name("spoiler")
+                .description("a \"b\"")
+                .url("http://img.geocaching.com/a.jpg")
+                .mobileUrl(null)
+                .thumbUrl("http://img.geocaching.com/thumb/a.jpg")
+                .fileName("a.jpg")
+                .created(new Date(1300000000000L))
+                .imageData(new byte[]{1, 2, 3})
+                .build();
+    }
+
+    private static User user(long id, String name) {
+        return User.builder()
+                .id(id)
+                .publicGuid("guid-" + id)
+                .userName(name)
+                .avatarUrl("http://img.geocaching.com/avatar/" + id + ".jpg")
+                .homeCoordinates(id % 2 == 0 ? Coordinates.create(49.5, 17.25) : null)
+                .admin(false)
+                .memberType(MemberType.Premium)
+                .findCount(1000)
+                .hideCount(5)
+                .galleryImageCount(0)
+                .build();
+    }
+
+    // copies the magic, version, record type and symbols of the first record
+    private static void copyRecordHeader(ByteArrayInputStream in, ByteArrayOutputStream out) throws IOException {
+        byte[] prefix = new byte[5];
+        assertEquals(prefix.length, in.read(prefix, 0, prefix.length));
+        out.write(prefix);
+
+        long symbols = readVarint(in);
+        writeVarint(out, symbols);
+        for (int i = 0; i < symbols; i++) {
+            byte[] symbol = new byte[(int) readVarint(in)];
+            assertEquals(symbol.length, in.read(symbol, 0, symbol.length));
+            writeVarint(out, symbol.length);
+            out.write(symbol);
+        }
+    }
+
+    private static void assertCorrupt(byte[] stream) {
+        try {
+            new BinaryDecoder(new ByteArrayInputStream(stream)).readGeocache();
+            fail("Read a corrupt stream.");
+        } catch (IOException e) {
+            // expected
+        }
+    }
+
+    private static void copyRest(ByteArrayInputStream in, ByteArrayOutputStream out) {
+        int b;
+        while ((b = in.read()) != -1) {
+            out.write(b);
+        }
+    }
+
+    private static long readVarint(ByteArrayInputStream in) {
+        long value = 0;
+        for (int shift = 0; ; shift += 7) {
+            int b = in.read();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0)
+                return value;
+        }
+    }
+
+    private static void writeVarint(ByteArrayOutputStream out, long value) {
+        while ((value & ~0x7FL) != 0) {
+            out.write((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.write((int) value);
+    }
+
+    private static void writeInlineString(ByteArrayOutputStream out, String value) throws IOException {
+        byte[] bytes = value.getBytes("UTF-8");
+        writeVarint(out, 1);
+        writeVarint(out, bytes.length);
+        out.write(bytes);
+    }
+}
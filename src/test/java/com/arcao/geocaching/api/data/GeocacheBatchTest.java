@@ -0,0 +1,236 @@
+package com.arcao.geocaching.api.data;
+
+import com.arcao.geocaching.api.data.coordinates.Coordinates;
+import com.arcao.geocaching.api.data.coordinates.DistanceMode;
+import com.arcao.geocaching.api.data.type.AttributeMask;
+import com.arcao.geocaching.api.data.type.AttributeType;
+import com.arcao.geocaching.api.data.type.ContainerType;
+import com.arcao.geocaching.api.data.type.GeocacheType;
+import com.arcao.geocaching.api.parser.GeocacheJsonParser;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.EnumSet;
+import java.util.List;
+
+import static com.arcao.geocaching.api.GeocacheFixtures.geocacheBuilder;
+import static com.arcao.geocaching.api.GeocacheFixtures.geocachesReader;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class GeocacheBatchTest {
+    @Test
+    public void addTest() {
+        GeocacheBatch batch = GeocacheBatch.builder()
+                .add(geocache(1, "GC1", GeocacheType.Traditional, 1.5f, 10, "CZ", EnumSet.of(AttributeType.DogsYes, AttributeType.TeamworkNo)))
+                .add(geocache(0, "GCFFFF", null, 4.5f, 3, null, null))
+                .build();
+
+        assertEquals(2, batch.size());
+
+        assertEquals(1, batch.id(0));
+        assertEquals("GC1", batch.code(0));
+        assertEquals("Name GC1", batch.name(0));
+        assertEquals(50.1, batch.latitude(0), 0);
+        assertEquals(14.1, batch.longitude(0), 0);
+        assertEquals(GeocacheType.Traditional, batch.geocacheType(0));
+        assertEquals(ContainerType.Small, batch.containerType(0));
+        assertEquals(1.5f, batch.difficulty(0), 0);
+        assertEquals(2f, batch.terrain(0), 0);
+        assertEquals(10, batch.favoritePoints(0));
+        assertEquals(GeocacheBatch.AVAILABLE | GeocacheBatch.PREMIUM, batch.status(0));
+        assertTrue(batch.hasStatus(0, GeocacheBatch.PREMIUM));
+        assertFalse(batch.hasStatus(0, GeocacheBatch.PREMIUM | GeocacheBatch.ARCHIVED));
+        assertTrue(batch.hasAttribute(0, AttributeType.TeamworkNo));
+        assertFalse(batch.hasAttribute(0, AttributeType.TeamworkYes));
+        assertEquals(EnumSet.of(AttributeType.DogsYes, AttributeType.TeamworkNo), batch.attributes(0));
+        assertEquals(1300000000000L, batch.placeDate(0));
+        assertEquals("owner", batch.placedBy(0));
+        assertEquals("CZ", batch.countryName(0));
+        assertNull(batch.stateName(0));
+
+        // id computed from the code
+        assertEquals(65535, batch.id(1));
+        assertEquals("GCFFFF", batch.row(1).code());
+        assertNull(batch.geocacheType(1));
+        assertNull(batch.countryName(1));
+        assertTrue(batch.attributes(1).isEmpty());
+    }
+
+    @Test
+    public void sameAsParsedGeocachesTest() throws IOException {
+        List<Geocache> geocaches = GeocacheJsonParser.parseList(geocachesReader());
+
+        GeocacheBatch.Builder builder = GeocacheBatch.builder();
+        GeocacheJsonParser.parseList(geocachesReader(), builder, GeocacheBatch.fields());
+        GeocacheBatch batch = builder.build();
+
+        assertEquals(geocaches.size(), batch.size());
+        for (int row = 0; row < batch.size(); row++) {
+            Geocache geocache = geocaches.get(row);
+            GeocacheBatch.Row view = batch.row(row);
+
+            assertEquals(geocache.id(), view.id());
+            assertEquals(geocache.code(), view.code());
+            assertEquals(geocache.name(), view.name());
+            assertEquals(geocache.coordinates().latitude(), view.latitude(), 0);
+            assertEquals(geocache.coordinates().longitude(), view.longitude(), 0);
+            assertEquals(geocache.geocacheType(), view.geocacheType());
+            assertEquals(geocache.containerType(), view.containerType());
+            assertEquals(geocache.difficulty(), view.difficulty(), 0);
+            assertEquals(geocache.terrain(), view.terrain(), 0);
+            assertEquals(geocache.favoritePoints(), view.favoritePoints());
+            assertEquals(geocache.archived(), view.hasStatus(GeocacheBatch.ARCHIVED));
+            assertEquals(geocache.available(), view.hasStatus(GeocacheBatch.AVAILABLE));
+            assertEquals(geocache.premium(), view.hasStatus(GeocacheBatch.PREMIUM));
+            assertEquals(geocache.placedBy(), view.placedBy());
+            assertEquals(geocache.countryName(), view.countryName());
+            assertEquals(geocache.stateName(), view.stateName());
+        }
+    }
+
+    @Test
+    public void parsedAttributeMaskTest() throws IOException {
+        int withAttributes = 0;
+        for (Geocache geocache : GeocacheJsonParser.parseList(geocachesReader())) {
+            EnumSet<AttributeType> attributes = geocache.attributes();
+            if (attributes == null)
+                continue;
+
+            AttributeMask expected = AttributeMask.of(EnumSet.copyOf(attributes));
+
+            // the mask is kept from the parser, it is not created from attributes again
+            attributes.clear();
+            assertEquals(expected, geocache.attributeMask());
+
+            GeocacheBatch batch = GeocacheBatch.builder().add(geocache).build();
+            assertEquals(expected, batch.attributeMask(0));
+            withAttributes++;
+        }
+        assertTrue(withAttributes > 0);
+
+        AttributeMask mask = AttributeMask.of(AttributeType.DogsYes);
+        Geocache replaced = builder(1, null, GeocacheType.Traditional, 1, 0, null).attributeMask(mask).attributes(EnumSet.of(AttributeType.DogsNo)).build();
+        assertEquals(AttributeMask.of(AttributeType.DogsNo), replaced.attributeMask());
+        assertSame(mask, builder(1, null, GeocacheType.Traditional, 1, 0, null).attributeMask(mask).build().attributeMask());
+    }
+
+    @Test
+    public void filterAndSortTest() {
+        GeocacheBatch.Builder builder = GeocacheBatch.builder();
+        for (int i = 1; i <= 100; i++) {
+            builder.add(geocache(i, null, i % 2 == 0 ? GeocacheType.Multi : GeocacheType.Traditional, 1 + (i % 9) / 2f, i % 7, "C" + (i % 3), null));
+        }
+        GeocacheBatch batch = builder.build();
+
+        int[] multi = batch.filter(new GeocacheBatch.RowPredicate() {
+            @Override
+            public boolean test(GeocacheBatch batch, int row) {
+                return batch.geocacheType(row) == GeocacheType.Multi;
+            }
+        });
+        assertEquals(50, multi.length);
+        assertEquals(50, batch.count(new GeocacheBatch.RowPredicate() {
+            @Override
+            public boolean test(GeocacheBatch batch, int row) {
+                return batch.geocacheType(row) == GeocacheType.Traditional;
+            }
+        }));
+
+        int[] sorted = batch.sort(multi.clone(), GeocacheBatch.BY_FAVORITE_POINTS);
+        for (int i = 1; i < sorted.length; i++) {
+            int previous = batch.favoritePoints(sorted[i - 1]);
+            int current = batch.favoritePoints(sorted[i]);
+            assertTrue(previous <= current);
+            // stable
+            if (previous == current)
+                assertTrue(sorted[i - 1] < sorted[i]);
+        }
+
+        int[] byDifficulty = batch.sort(GeocacheBatch.BY_DIFFICULTY);
+        for (int i = 1; i < byDifficulty.length; i++) {
+            assertTrue(batch.difficulty(byDifficulty[i - 1]) <= batch.difficulty(byDifficulty[i]));
+        }
+
+        GeocacheBatch selected = batch.select(sorted);
+        assertEquals(sorted.length, selected.size());
+        for (int i = 0; i < sorted.length; i++) {
+            assertEquals(batch.id(sorted[i]), selected.id(i));
+            assertEquals(batch.countryName(sorted[i]), selected.countryName(i));
+        }
+        assertArrayEquals(sorted, batch.sort(sorted.clone(), GeocacheBatch.BY_FAVORITE_POINTS));
+    }
+
+    @Test
+    public void serializationTest() throws Exception {
+        GeocacheBatch batch = GeocacheBatch.builder()
+                .add(geocache(1, "GC1", GeocacheType.Traditional, 1.5f, 10, "CZ", EnumSet.of(AttributeType.DogsYes)))
+                .build();
+
+        ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        ObjectOutputStream oos = new ObjectOutputStream(bos);
+        oos.writeObject(batch);
+        oos.close();
+
+        GeocacheBatch copy = (GeocacheBatch) new ObjectInputStream(new ByteArrayInputStream(bos.toByteArray())).readObject();
+        assertEquals(1, copy.size());
+        assertEquals("CZ", copy.countryName(0));
+        assertTrue(copy.hasAttribute(0, AttributeType.DogsYes));
+    }
+
+    @Test
+    public void sortByDistanceTest() {
+        GeocacheBatch batch = GeocacheBatch.builder()
+                .add(geocache(5, null, GeocacheType.Traditional, 1, 0, null, null))
+                .add(geocache(1, null, GeocacheType.Traditional, 1, 0, null, null))
+                .add(geocache(9, null, GeocacheType.Traditional, 1, 0, null, null))
+                .add(geocache(3, null, GeocacheType.Traditional, 1, 0, null, null))
+                .build();
+
+        Coordinates coordinates = Coordinates.create(50.3, 14.3);
+        double[] distances = batch.distances(coordinates);
+        for (int row = 0; row < batch.size(); row++) {
+            assertEquals(coordinates.distanceTo(Coordinates.create(batch.latitude(row), batch.longitude(row))), distances[row], 0);
+        }
+
+        assertArrayEquals(new int[] {3, 0, 1, 2}, batch.sortByDistance(coordinates));
+        assertArrayEquals(new int[] {3, 0, 1, 2}, batch.sortByDistance(coordinates, DistanceMode.EQUIRECTANGULAR));
+
+        double radius = batch.distances(coordinates)[0] + 1;
+        for (DistanceMode mode : DistanceMode.values()) {
+            assertArrayEquals(new int[] {0, 3}, batch.filterByDistance(coordinates, radius, mode));
+        }
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void rowOutOfBoundsTest() {
+        GeocacheBatch.builder().build().id(0);
+    }
+
+    private static Geocache geocache(long id, String code, GeocacheType type, float difficulty, int favoritePoints, String country, EnumSet<AttributeType> attributes) {
+        return builder(id, code, type, difficulty, favoritePoints, country).attributes(attributes).build();
+    }
+
+    private static Geocache.Builder builder(long id, String code, GeocacheType type, float difficulty, int favoritePoints, String country) {
+        String cacheCode = code != null ? code : "GC" + Long.toHexString(id).toUpperCase();
+        return geocacheBuilder(id)
+                .code(cacheCode)
+                .name("Name " + cacheCode)
+                .coordinates(Coordinates.create(50 + id / 10.0, 14 + id / 10.0))
+                .geocacheType(type)
+                .difficulty(difficulty)
+                .terrain(2)
+                .favoritePoints(favoritePoints)
+                .premium(true)
+                .countryName(country);
+    }
+}
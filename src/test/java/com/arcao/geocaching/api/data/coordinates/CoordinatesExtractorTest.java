@@ -0,0 +1,96 @@
+package com.arcao.geocaching.api.data.coordinates;
+
+import com.arcao.geocaching.api.data.coordinates.CoordinatesMatch.Format;
+
+import org.jetbrains.annotations.NotNull;
+import org.junit.Test;
+
+import java.text.ParseException;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class CoordinatesExtractorTest {
+  private static final double PRECISION = 1e-8;
+
+  @Test
+  public void testExtractAll() {
+    String text = "Final: N 49° 56.031 E 8° 38.564, parking at N 49 56 1.86 / E 8 38 33.84\nStation3: N51 21.523 / E07 02.680";
+    List<CoordinatesMatch> matches = CoordinatesExtractor.extractAll(text);
+
+    assertEquals(3, matches.size());
+    assertMatch(text, matches.get(0), "N 49° 56.031 E 8° 38.564", Format.MINUTES, Format.MINUTES);
+    assertMatch(text, matches.get(1), "N 49 56 1.86 / E 8 38 33.84", Format.SECONDS, Format.SECONDS);
+    assertMatch(text, matches.get(2), "N51 21.523 / E07 02.680", Format.MINUTES, Format.MINUTES);
+
+    assertEquals(49.0 + 56.031 / 60.0, matches.get(0).coordinates().latitude(), PRECISION);
+    assertEquals(8.0 + 38.564 / 60.0, matches.get(0).coordinates().longitude(), PRECISION);
+    assertEquals(-(51.0 + 21.523 / 60.0), CoordinatesExtractor.extractAll(text.replace("N51", "S51")).get(2).coordinates().latitude(), PRECISION);
+  }
+
+  @Test
+  public void testNothingFound() {
+    assertTrue(CoordinatesExtractor.extractAll(null).isEmpty());
+    assertTrue(CoordinatesExtractor.extractAll("").isEmpty());
+    assertTrue(CoordinatesExtractor.extractAll("Found it, TFTC! 49.93385 8.642733").isEmpty());
+    assertTrue(CoordinatesExtractor.extractAll("N51 21.523 and some words in between, E07 02.680").isEmpty());
+    assertTrue(CoordinatesExtractor.extractAll("SN 49 56.031 E 8 38.564").isEmpty());
+    assertNull(CoordinatesExtractor.find("N 49 56.031 E 8 38.564", 1));
+  }
+
+  @Test
+  public void testLatitudeWithoutLongitude() {
+    String text = "N 5 or N 49 56.031 E 8";
+    List<CoordinatesMatch> matches = CoordinatesExtractor.extractAll(text);
+
+    assertEquals(1, matches.size());
+    assertMatch(text, matches.get(0), "N 49 56.031 E 8", Format.MINUTES, Format.DEGREES);
+  }
+
+  @Test
+  public void testStopExtracting() {
+    final int[] calls = new int[1];
+    int count = CoordinatesExtractor.extract("N 1 E 2, N 3 E 4, N 5 E 6", new CoordinatesExtractor.Callback() {
+      @Override
+      public boolean onMatch(@NotNull CoordinatesMatch match) {
+        return ++calls[0] < 2;
+      }
+    });
+
+    assertEquals(2, count);
+    assertEquals(2, calls[0]);
+  }
+
+  @Test
+  public void testSameAsParser() throws ParseException {
+    Random random = new Random(42);
+    String alphabet = "NSEWnsew0123456789   °'\",.-_x|/";
+    StringBuilder sb = new StringBuilder();
+    for (int i = 0; i < 100000; i++) {
+      sb.setLength(0);
+      int length = random.nextInt(40);
+      for (int j = 0; j < length; j++) {
+        sb.append(alphabet.charAt(random.nextInt(alphabet.length())));
+      }
+
+      String text = sb.toString();
+      int end = 0;
+      for (CoordinatesMatch match : CoordinatesExtractor.extractAll(text)) {
+        assertTrue(text, match.start() >= end);
+        end = match.end();
+
+        Coordinates expected = CoordinatesParser.parse(text.substring(match.start(), match.end()));
+        assertEquals(text, expected, match.coordinates());
+      }
+    }
+  }
+
+  private static void assertMatch(String text, CoordinatesMatch match, String expected, Format latitudeFormat, Format longitudeFormat) {
+    assertEquals(expected, text.substring(match.start(), match.end()));
+    assertEquals(latitudeFormat, match.latitudeFormat());
+    assertEquals(longitudeFormat, match.longitudeFormat());
+  }
+}
@@ -2,8 +2,13 @@ package com.arcao.geocaching.api.data.coordinates;
 
 import org.junit.Test;
 
+import java.io.IOException;
+import java.io.StringWriter;
+import java.math.BigDecimal;
 import java.text.DecimalFormatSymbols;
 import java.text.ParseException;
+import java.util.Locale;
+import java.util.Random;
 
 import static org.junit.Assert.assertEquals;
 
@@ -79,4 +84,94 @@ public class CoordinatesFormatterTest {
     CoordinatesFormatter f = new CoordinatesFormatter(CoordinatesFormatter.LON_DECMINUTE_RAW);
     assertEquals("E 8 38" + decSymbol + "564", f.format(refCoordinates));
   }
+
+  @Test
+  public void testFormatTo() throws IOException {
+    CoordinatesFormatter f = new CoordinatesFormatter(CoordinatesFormatter.LAT_LON_DECMINUTE_RAW);
+
+    StringWriter writer = new StringWriter();
+    f.formatTo(writer, refCoordinates).append(';');
+    assertEquals("N 49° 56.031 E 8° 38.564;", writer.toString());
+
+    assertEquals("x N 49° 56.031 E 8° 38.564", f.formatTo(new StringBuilder("x "), refCoordinates).toString());
+    assertEquals(null, new CoordinatesFormatter(-1).format(refCoordinates));
+  }
+
+  @Test
+  public void testSameAsStringFormat() {
+    Locale[] locales = {null, Locale.US, Locale.GERMANY, Locale.FRANCE, new Locale("ar", "EG"), new Locale("fa", "IR"), new Locale("hi", "IN")};
+    double[] values = {0, -0.0, 1e-7, -1e-7, 0.25, -0.5, 0.75, 1, 10.5, 89.999999999, 179.9999995, 180, -180,
+        0.0000005, 0.0078125, 0.99999999, 0.9999916666, 49.9338500, 8.6427333, 12.3456785, 1.0000083333};
+
+    Random random = new Random(0);
+    for (int i = 0; i < 20000; i++) {
+      double lat;
+      double lon;
+      if (i < values.length * values.length) {
+        lat = values[i / values.length];
+        lon = values[i % values.length];
+      } else if (i % 2 == 0) {
+        lat = (random.nextDouble() - 0.5) * 180;
+        lon = (random.nextDouble() - 0.5) * 360;
+      } else {
+        // decimal values close to rounding boundaries
+        lat = randomDecimal(random, 90);
+        lon = randomDecimal(random, 180);
+      }
+
+      Coordinates coordinates = Coordinates.create(lat, lon);
+      for (Locale locale : locales) {
+        for (int format = CoordinatesFormatter.LAT_LON_DECDEGREE; format <= CoordinatesFormatter.LON_DECMINUTE_RAW; format++) {
+          assertEquals(lat + " " + lon + " " + locale + " " + format, previousFormat(format, locale, lat, lon),
+              new CoordinatesFormatter(format, locale).format(coordinates));
+        }
+      }
+    }
+  }
+
+  @Test(expected = NumberFormatException.class)
+  public void testNaN() {
+    new CoordinatesFormatter(CoordinatesFormatter.LAT_DECDEGREE_RAW).format(Coordinates.create(1, Double.NaN));
+  }
+
+  private static double randomDecimal(Random random, int max) {
+    BigDecimal value = BigDecimal.valueOf(random.nextInt(max)).add(BigDecimal.valueOf(random.nextInt(1000000000), 9));
+    if (random.nextBoolean())
+      value = value.setScale(3 + random.nextInt(7), BigDecimal.ROUND_DOWN).add(BigDecimal.valueOf(5, value.scale() + 1));
+    return random.nextBoolean() ? value.doubleValue() : -value.doubleValue();
+  }
+
+  // previous implementation
+  private static String previousFormat(int format, Locale locale, double latSigned, double lonSigned) {
+    CoordinatesFormatter.DMM dmm = new CoordinatesFormatter.DMM(latSigned, lonSigned);
+    CoordinatesFormatter.DMS dms = new CoordinatesFormatter.DMS(latSigned, lonSigned);
+
+    switch (format) {
+      case CoordinatesFormatter.LAT_LON_DECDEGREE:
+        return String.format(locale, "%.6f %.6f", latSigned, lonSigned);
+      case CoordinatesFormatter.LAT_LON_DECDEGREE_COMMA:
+        return String.format((Locale) null, "%.6f,%.6f", latSigned, lonSigned);
+      case CoordinatesFormatter.LAT_LON_DECMINUTE:
+        return String.format(locale, "%c %d° %06.3f · %c %d° %06.3f", dmm.latDir, dmm.latDeg, dmm.latMinRaw, dmm.lonDir, dmm.lonDeg, dmm.lonMinRaw);
+      case CoordinatesFormatter.LAT_LON_DECMINUTE_RAW:
+        return String.format((Locale) null, "%c %d° %06.3f %c %d° %06.3f", dmm.latDir, dmm.latDeg, dmm.latMinRaw, dmm.lonDir, dmm.lonDeg, dmm.lonMinRaw);
+      case CoordinatesFormatter.LAT_LON_DECSECOND:
+        return String.format(locale, "%c %d° %d' %06.3f\" · %c %d° %d' %06.3f\"",
+            dms.latDir, dms.latDeg, dms.latMin, dms.latSecRaw, dms.lonDir, dms.lonDeg, dms.lonMin, dms.lonSecRaw);
+      case CoordinatesFormatter.LAT_DECDEGREE_RAW:
+        return String.format((Locale) null, "%.6f", latSigned);
+      case CoordinatesFormatter.LAT_DECMINUTE:
+        return String.format(locale, "%c %d° %06.3f", dmm.latDir, dmm.latDeg, dmm.latMinRaw);
+      case CoordinatesFormatter.LAT_DECMINUTE_RAW:
+        return String.format(locale, "%c %d %06.3f", dmm.latDir, dmm.latDeg, dmm.latMinRaw);
+      case CoordinatesFormatter.LON_DECDEGREE_RAW:
+        return String.format((Locale) null, "%.6f", lonSigned);
+      case CoordinatesFormatter.LON_DECMINUTE:
+        return String.format(locale, "%c %d° %06.3f", dmm.lonDir, dmm.lonDeg, dmm.lonMinRaw);
+      case CoordinatesFormatter.LON_DECMINUTE_RAW:
+        return String.format(locale, "%c %d %06.3f", dmm.lonDir, dmm.lonDeg, dmm.lonMinRaw);
+      default:
+        return null;
+    }
+  }
 }
@@ -1,8 +1,12 @@
 package com.arcao.geocaching.api.data.coordinates;
 
+import org.apache.commons.lang3.StringUtils;
 import org.junit.Test;
 
 import java.text.ParseException;
+import java.util.Random;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
@@ -126,4 +130,146 @@ public class CoordinatesParserTest {
   public void testParseCoordinatesNumberAndNormalize() throws ParseException {
     assertTrue(refCoordinates.equals(CoordinatesParser.parse("N 229° 56.031 | E 368° 38.564")));
   }
+
+  @Test
+  public void testSameAsRegex() throws ParseException {
+    String[] samples = {
+        "N 49° 56.031 | E 8° 38.564", "N 49° 43' 57\" | E 2 12' 35", "N 49 43.95 E2°12.5833333333",
+        "Station3: N51 21.523 / E07 02.680", "N 46° 27' 55,65''\nE 15° 53' 41,68''", "-49° 56.031",
+        "N 123456789123456789 | N 123456789123456789", "N 229° 56.031 | E 368° 38.564", "49.93385 8.642733",
+        "n49 56 1.86 e8 38 33.84", "XN 49 5", "N_ 4 E 5", "S-0 W-0", "49 56,1234567890123456789 8",
+        "N 0.1234567890123456 E 1 2,3'", "", "   ", "abc", "N", "N 49° ", "N 49' 5\"", "N49 5'' E1"
+    };
+    for (String sample : samples) {
+      assertSameAsRegex(sample);
+    }
+
+    Random random = new Random(42);
+    String alphabet = "NSEWnsew0123456789 \t\n°'\",.-_xX|/";
+    StringBuilder sb = new StringBuilder();
+    for (int i = 0; i < 200000; i++) {
+      sb.setLength(0);
+      int length = random.nextInt(24);
+      for (int j = 0; j < length; j++) {
+        sb.append(alphabet.charAt(random.nextInt(alphabet.length())));
+      }
+      assertSameAsRegex(sb.toString());
+    }
+  }
+
+  private static void assertSameAsRegex(String text) {
+    assertSameResult(text, RegexParser.parse(text, RegexParser.LAT), "lat:" + parseLatitude(text, true));
+    assertSameResult(text, RegexParser.parse(text, RegexParser.LON), "lon:" + parseLongitude(text, true));
+    assertSameResult(text, RegexParser.parse(text, RegexParser.LAT_UNSAFE), "lat:" + parseLatitude(text, false));
+    assertSameResult(text, RegexParser.parse(text, RegexParser.LON_UNSAFE), "lon:" + parseLongitude(text, false));
+    assertEquals(text, RegexParser.parse(text), parse(text));
+  }
+
+  private static void assertSameResult(String text, String expected, String actual) {
+    assertEquals(text, expected, actual.substring(4));
+  }
+
+  private static String parseLatitude(String text, boolean safe) {
+    try {
+      return String.valueOf(Double.doubleToLongBits(CoordinatesParser.parseLatitude(text, safe)));
+    } catch (ParseException e) {
+      return e.getMessage() + "@" + e.getErrorOffset();
+    }
+  }
+
+  private static String parseLongitude(String text, boolean safe) {
+    try {
+      return String.valueOf(Double.doubleToLongBits(CoordinatesParser.parseLongitude(text, safe)));
+    } catch (ParseException e) {
+      return e.getMessage() + "@" + e.getErrorOffset();
+    }
+  }
+
+  private static String parse(String text) {
+    try {
+      Coordinates coordinates = CoordinatesParser.parse(text);
+      return Double.doubleToLongBits(coordinates.latitude()) + " " + Double.doubleToLongBits(coordinates.longitude());
+    } catch (ParseException e) {
+      return e.getMessage() + "@" + e.getErrorOffset();
+    }
+  }
+
+  // previous implementation
+  private static class RegexParser {
+    static final Pattern LAT = Pattern.compile("\\b([NS])\\s*(\\d+)°?(?:\\s*(\\d+)(?:[.,](\\d+)|'?\\s*(\\d+(?:[.,]\\d+)?)(?:''|\")?)?)?", Pattern.CASE_INSENSITIVE);
+    static final Pattern LON = Pattern.compile("\\b([WE])\\s*(\\d+)°?(?:\\s*(\\d+)(?:[.,](\\d+)|'?\\s*(\\d+(?:[.,]\\d+)?)(?:''|\")?)?)?", Pattern.CASE_INSENSITIVE);
+    static final Pattern LAT_UNSAFE = Pattern.compile("(?:(?=[\\-\\w])(?<![\\-\\w])|(?<![^\\-\\w]))([NS]|)\\s*(-?\\d+)°?(?:\\s*(\\d+)(?:[.,](\\d+)|'?\\s*(\\d+(?:[.,]\\d+)?)(?:''|\")?)?)?", Pattern.CASE_INSENSITIVE);
+    static final Pattern LON_UNSAFE = Pattern.compile("(?:(?=[\\-\\w])(?<![\\-\\w])|(?<![^\\-\\w]))([WE]|)\\s*(-?\\d+)°?(?:\\s*(\\d+)(?:[.,](\\d+)|'?\\s*(\\d+(?:[.,]\\d+)?)(?:''|\")?)?)?", Pattern.CASE_INSENSITIVE);
+
+    static String parse(String text) {
+      try {
+        double[] lat = parseResult(text, LAT);
+        int latitudeEnd = (int) (lat[1] + lat[2]);
+        double[] lon = parseResult(text.substring(latitudeEnd), LON);
+        if (lon[1] - latitudeEnd >= 10)
+          throw new ParseException("Distance between latitude and longitude text is to large.", (int) (latitudeEnd + lon[1]));
+        return Double.doubleToLongBits(lat[0]) + " " + Double.doubleToLongBits(lon[0]);
+      } catch (ParseException e) {
+        return e.getMessage() + "@" + e.getErrorOffset();
+      }
+    }
+
+    static String parse(String text, Pattern pattern) {
+      try {
+        return String.valueOf(Double.doubleToLongBits(parseResult(text, pattern)[0]));
+      } catch (ParseException e) {
+        return e.getMessage() + "@" + e.getErrorOffset();
+      }
+    }
+
+    static double[] parseResult(String coordinate, Pattern pattern) throws ParseException {
+      boolean longitude = pattern == LON || pattern == LON_UNSAFE;
+      Matcher matcher = pattern.matcher(coordinate);
+
+      if (matcher.find()) {
+        double sign = "S".equalsIgnoreCase(matcher.group(1)) || "W".equalsIgnoreCase(matcher.group(1)) ? -1.0 : 1.0;
+        double degree = Double.parseDouble(matcher.group(2));
+
+        if (degree < 0) {
+          sign = -1;
+          degree = Math.abs(degree);
+        }
+
+        double minutes = 0.0;
+        double seconds = 0.0;
+
+        if (matcher.group(3) != null) {
+          minutes = Double.parseDouble(matcher.group(3));
+
+          if (matcher.group(4) != null) {
+            seconds = Double.parseDouble("0." + matcher.group(4)) * 60.0;
+          } else if (matcher.group(5) != null) {
+            seconds = Double.parseDouble(matcher.group(5).replace(",", "."));
+          }
+        }
+
+        double result = sign * (degree + minutes / 60.0 + seconds / 3600.0);
+        result = longitude ? normalize(result, -180, 180) : normalize(result, -90, 90);
+        return new double[] {result, matcher.start(), matcher.group().length()};
+      }
+
+      try {
+        String[] items = StringUtils.split(coordinate.trim());
+        if (items.length > 0) {
+          int index = pattern == LON ? items.length - 1 : 0;
+          int pos = pattern == LON ? coordinate.lastIndexOf(items[index]) : coordinate.indexOf(items[index]);
+          return new double[] {Double.parseDouble(items[index]), pos, items[index].length()};
+        }
+      } catch (NumberFormatException e) {
+        // fall through
+      }
+      throw new ParseException("Could not parse coordinate: \"" + coordinate + "\"", 0);
+    }
+
+    static double normalize(double value, double start, double end) {
+      double width = end - start;
+      double offsetValue = value - start;
+      return (offsetValue - (Math.floor(offsetValue / width) * width)) + start;
+    }
+  }
 }
@@ -3,7 +3,9 @@ package com.arcao.geocaching.api.data.coordinates;
 import org.junit.Test;
 
 import java.text.ParseException;
+import java.util.Random;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
@@ -41,4 +43,39 @@ public class CoordinatesTest {
 
     assertTrue(refCoordinates.equals(point2));
   }
+
+  @Test
+  public void testDistancesAndBearings() {
+    Random random = new Random(42);
+    int count = 1000;
+    double[] latitudes = new double[count];
+    double[] longitudes = new double[count];
+    for (int i = 0; i < count; i++) {
+      latitudes[i] = random.nextDouble() * 180 - 90;
+      longitudes[i] = random.nextDouble() * 360 - 180;
+    }
+
+    double[] distances = new double[count];
+    double[] bearings = new double[count];
+    double[] results = new double[2];
+    for (int j = 0; j < 10; j++) {
+      Coordinates source = Coordinates.create(latitudes[j], longitudes[j]);
+      Coordinates.distances(source.latitude(), source.longitude(), latitudes, longitudes, distances);
+      Coordinates.bearings(source.latitude(), source.longitude(), latitudes, longitudes, bearings);
+
+      for (int i = 0; i < count; i++) {
+        Coordinates destination = Coordinates.create(latitudes[i], longitudes[i]);
+        Coordinates.computeDistanceAndBearing(source, destination, results);
+
+        assertEquals(results[0], distances[i], 0);
+        assertEquals(results[1], bearings[i], 0);
+        assertEquals(results[0], source.distanceTo(destination), 0);
+      }
+    }
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testDistancesShortArray() {
+    Coordinates.distances(0, 0, new double[2], new double[1], new double[2]);
+  }
 }
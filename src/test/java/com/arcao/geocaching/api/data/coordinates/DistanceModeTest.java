@@ -0,0 +1,97 @@
+package com.arcao.geocaching.api.data.coordinates;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class DistanceModeTest {
+  private static final int COUNT = 10000;
+
+  @Test
+  public void testHaversine() {
+    Coordinates source = Coordinates.create(50.1, 14.4);
+    Coordinates destination = Coordinates.create(49.2, 16.6);
+
+    assertEquals(source.distanceTo(destination), source.distanceTo(destination, DistanceMode.HAVERSINE), 0);
+  }
+
+  @Test
+  public void testErrorBounds() {
+    Random random = new Random(42);
+    for (int i = 0; i < COUNT; i++) {
+      double latitude = random.nextDouble() * 140 - 70;
+      double longitude = random.nextDouble() * 360 - 180;
+      // up to 100 km
+      double latitude2 = Math.max(-70, Math.min(70, latitude + random.nextDouble() * 1.6 - 0.8));
+      double longitude2 = longitude + random.nextDouble() * 1.6 - 0.8;
+
+      double expected = DistanceMode.HAVERSINE.distance(latitude, longitude, latitude2, longitude2);
+      if (expected < 1 || expected > 100000)
+        continue;
+
+      assertEquals(expected, DistanceMode.SQUARED_CHORD.distance(latitude, longitude, latitude2, longitude2), expected * 1e-8);
+      assertEquals(expected, DistanceMode.EQUIRECTANGULAR.distance(latitude, longitude, latitude2, longitude2), expected * 1e-4);
+    }
+  }
+
+  @Test
+  public void testAntimeridian() {
+    double expected = DistanceMode.HAVERSINE.distance(0, 179.9, 0, -179.9);
+
+    assertEquals(expected, DistanceMode.EQUIRECTANGULAR.distance(0, 179.9, 0, -179.9), expected * 1e-4);
+    assertEquals(expected, DistanceMode.SQUARED_CHORD.distance(0, 179.9, 0, -179.9), expected * 1e-8);
+  }
+
+  @Test
+  public void testMeters() {
+    for (DistanceMode mode : DistanceMode.values()) {
+      for (double meters = 1; meters < 1e7; meters *= 3.7) {
+        assertEquals(mode.name(), meters, mode.toMeters(mode.fromMeters(meters)), meters * 1e-9);
+      }
+    }
+    assertEquals(Math.PI * Coordinates.AVERAGE_RADIUS_OF_EARTH, DistanceMode.SQUARED_CHORD.toMeters(DistanceMode.SQUARED_CHORD.fromMeters(3e7)), 1e-6);
+  }
+
+  @Test
+  public void testBatch() {
+    Random random = new Random(42);
+    double[] latitudes = new double[COUNT];
+    double[] longitudes = new double[COUNT];
+    for (int i = 0; i < COUNT; i++) {
+      latitudes[i] = random.nextDouble() * 180 - 90;
+      longitudes[i] = random.nextDouble() * 360 - 180;
+    }
+
+    double[] comparables = new double[COUNT];
+    double[] distances = new double[COUNT];
+    for (DistanceMode mode : DistanceMode.values()) {
+      mode.comparables(50.1, 14.4, latitudes, longitudes, comparables);
+      mode.distances(50.1, 14.4, latitudes, longitudes, distances);
+
+      for (int i = 0; i < COUNT; i++) {
+        assertEquals(mode.name(), mode.comparable(50.1, 14.4, latitudes[i], longitudes[i]), comparables[i], 0);
+        assertEquals(mode.name(), mode.distance(50.1, 14.4, latitudes[i], longitudes[i]), distances[i], 0);
+      }
+    }
+  }
+
+  @Test
+  public void testSquaredChordOrder() {
+    Random random = new Random(42);
+    double previousChord = -1;
+    double previousDistance = -1;
+    for (int i = 0; i < COUNT; i++) {
+      double distance = i * 1000.0 + random.nextDouble() * 10;
+      double latitude = Math.toDegrees(distance / Coordinates.AVERAGE_RADIUS_OF_EARTH) - 90;
+
+      double chord = DistanceMode.SQUARED_CHORD.comparable(-90, 0, latitude, 0);
+      assertTrue(chord > previousChord);
+      assertTrue(DistanceMode.HAVERSINE.comparable(-90, 0, latitude, 0) > previousDistance);
+      previousChord = chord;
+      previousDistance = DistanceMode.HAVERSINE.comparable(-90, 0, latitude, 0);
+    }
+  }
+}
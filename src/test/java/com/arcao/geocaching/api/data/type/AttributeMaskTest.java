@@ -0,0 +1,82 @@
+package com.arcao.geocaching.api.data.type;
+
+import org.junit.Test;
+
+import java.util.EnumSet;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class AttributeMaskTest {
+    @Test
+    public void allAttributesTest() {
+        for (AttributeType attribute : AttributeType.values()) {
+            AttributeMask mask = AttributeMask.of(attribute);
+            assertTrue(mask.contains(attribute));
+            assertEquals(1, mask.size());
+            assertEquals(EnumSet.of(attribute), mask.toEnumSet());
+        }
+
+        AttributeMask all = AttributeMask.of(EnumSet.allOf(AttributeType.class));
+        assertEquals(AttributeType.values().length, all.size());
+        assertEquals(EnumSet.allOf(AttributeType.class), all.toEnumSet());
+    }
+
+    @Test
+    public void onAndOffAreDifferentTest() {
+        AttributeMask mask = AttributeMask.of(AttributeType.WheelchairYes, AttributeType.DogsNo);
+
+        assertTrue(mask.contains(AttributeType.WheelchairYes));
+        assertFalse(mask.contains(AttributeType.WheelchairNo));
+        assertTrue(mask.containsAll(AttributeMask.of(AttributeType.DogsNo)));
+        assertFalse(mask.containsAll(AttributeMask.of(AttributeType.DogsNo, AttributeType.DogsYes)));
+        assertTrue(mask.containsAny(AttributeMask.of(AttributeType.DogsNo, AttributeType.DogsYes)));
+        assertFalse(mask.containsAny(AttributeMask.of(AttributeType.WheelchairNo)));
+        assertTrue(mask.containsAll(AttributeMask.EMPTY));
+        assertFalse(mask.containsAny(AttributeMask.EMPTY));
+    }
+
+    @Test
+    public void setOperationsTest() {
+        AttributeType last = AttributeType.values()[AttributeType.values().length - 1];
+        AttributeMask a = AttributeMask.of(AttributeType.DogsYes, last);
+        AttributeMask b = AttributeMask.of(AttributeType.DogsYes, AttributeType.FeeNo);
+
+        assertEquals(AttributeMask.of(AttributeType.DogsYes, AttributeType.FeeNo, last), a.union(b));
+        assertEquals(AttributeMask.of(AttributeType.DogsYes), a.intersect(b));
+        assertEquals(a.union(b), a.with(AttributeType.FeeNo));
+        assertSame(a, a.with(last));
+        assertSame(AttributeMask.EMPTY, AttributeMask.of(AttributeType.FeeNo).intersect(a));
+        assertSame(AttributeMask.EMPTY, AttributeMask.of((EnumSet<AttributeType>) null));
+        assertEquals(a.hashCode(), AttributeMask.of(last, AttributeType.DogsYes).hashCode());
+    }
+
+    @Test
+    public void bulkTest() {
+        AttributeType last = AttributeType.values()[AttributeType.values().length - 1];
+        AttributeMask[] masks = {
+                AttributeMask.of(AttributeType.WheelchairYes, AttributeType.DogsYes),
+                AttributeMask.EMPTY,
+                AttributeMask.of(AttributeType.WheelchairYes, last),
+                AttributeMask.of(AttributeType.WheelchairNo, AttributeType.DogsYes, last)
+        };
+
+        long[] words = new long[masks.length * AttributeMask.WORDS];
+        for (int i = 0; i < masks.length; i++) {
+            masks[i].copyTo(words, i);
+        }
+        for (int i = 0; i < masks.length; i++) {
+            assertEquals(masks[i], AttributeMask.valueOf(words, i));
+        }
+
+        assertArrayEquals(new int[]{0, 2}, AttributeMask.containsAll(words, AttributeMask.of(AttributeType.WheelchairYes)));
+        assertArrayEquals(new int[]{2}, AttributeMask.containsAll(words, AttributeMask.of(AttributeType.WheelchairYes, last)));
+        assertArrayEquals(new int[]{0, 1, 2, 3}, AttributeMask.containsAll(words, AttributeMask.EMPTY));
+        assertArrayEquals(new int[]{0, 2, 3}, AttributeMask.containsAny(words, AttributeMask.of(AttributeType.DogsYes, last)));
+        assertArrayEquals(new int[0], AttributeMask.containsAny(words, AttributeMask.EMPTY));
+    }
+
+}
@@ -0,0 +1,97 @@
+package com.arcao.geocaching.api.data.type;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+public class TypeLookupTest {
+    private static final int[] INVALID_IDS = {-1, Integer.MIN_VALUE, Integer.MAX_VALUE, 7006, 100000};
+
+    @Test
+    public void attributeTypeTest() {
+        for (AttributeType type : AttributeType.values()) {
+            assertEquals(type, AttributeType.fromId(type.id, type.on));
+        }
+
+        for (int id : INVALID_IDS) {
+            assertNull(AttributeType.fromId(id, true));
+            assertNull(AttributeType.fromId(id, false));
+        }
+        assertNull(AttributeType.fromId(0, true));
+    }
+
+    @Test
+    public void geocacheTypeTest() {
+        for (GeocacheType type : GeocacheType.values()) {
+            assertEquals(type, GeocacheType.fromId(type.id));
+            assertEquals(type, GeocacheType.fromName(type.name));
+        }
+
+        for (int id : INVALID_IDS) {
+            assertNull(GeocacheType.fromId(id));
+        }
+        assertNull(GeocacheType.fromId(0));
+        assertNull(GeocacheType.fromName("traditional cache"));
+        assertNull(GeocacheType.fromName(null));
+    }
+
+    @Test
+    public void containerTypeTest() {
+        for (ContainerType type : ContainerType.values()) {
+            assertEquals(type, ContainerType.fromId(type.id));
+            assertEquals(type, ContainerType.fromName(type.name));
+        }
+
+        for (int id : INVALID_IDS) {
+            assertEquals(ContainerType.Other, ContainerType.fromId(id));
+        }
+        assertEquals(ContainerType.Other, ContainerType.fromId(7));
+        assertEquals(ContainerType.Other, ContainerType.fromName(null));
+    }
+
+    @Test
+    public void trackableLogTypeTest() {
+        for (TrackableLogType type : TrackableLogType.values()) {
+            assertEquals(type, TrackableLogType.fromId(type.id));
+            assertEquals(type, TrackableLogType.fromName(type.name));
+        }
+
+        for (int id : INVALID_IDS) {
+            assertNull(TrackableLogType.fromId(id));
+        }
+        assertNull(TrackableLogType.fromId(5));
+        assertNull(TrackableLogType.fromName(null));
+    }
+
+    @Test
+    public void memberTypeTest() {
+        for (MemberType type : MemberType.values()) {
+            assertEquals(type, MemberType.fromId(type.id));
+        }
+
+        for (int id : INVALID_IDS) {
+            assertEquals(MemberType.Guest, MemberType.fromId(id));
+        }
+    }
+
+    @Test
+    public void waypointTypeTest() {
+        for (WaypointType type : WaypointType.values()) {
+            assertEquals(type, WaypointType.fromName(type.name));
+        }
+
+        assertEquals(WaypointType.ReferencePoint, WaypointType.fromName("Unknown"));
+        assertEquals(WaypointType.ReferencePoint, WaypointType.fromName(null));
+    }
+
+    @Test
+    public void geocacheLogTypeTest() {
+        for (GeocacheLogType type : GeocacheLogType.values()) {
+            assertEquals(type, GeocacheLogType.fromName(type.name));
+        }
+
+        assertNull(GeocacheLogType.fromName("Found It"));
+        assertNull(GeocacheLogType.fromName(null));
+    }
+}
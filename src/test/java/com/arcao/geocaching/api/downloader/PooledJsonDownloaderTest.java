@@ -0,0 +1,338 @@
+package com.arcao.geocaching.api.downloader;
+
+import com.arcao.geocaching.api.configuration.GeocachingApiConfiguration;
+import com.arcao.geocaching.api.exception.InvalidResponseException;
+import com.arcao.geocaching.api.exception.NetworkException;
+import com.arcao.geocaching.api.parser.JsonReader;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URL;
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class PooledJsonDownloaderTest {
+    private static final long TIMEOUT = 5000;
+
+    private HttpServer server = null;
+    private URL urlA = null;
+    private URL urlB = null;
+
+    @Before
+    public void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/json", new Handler(200, "application/json", "{\"a\":1}".getBytes("UTF-8")));
+        server.createContext("/error", new Handler(500, "application/json", "{\"error\":1}".getBytes("UTF-8")));
+        server.createContext("/html", new Handler(200, "text/html", "<html></html>".getBytes("UTF-8")));
+        server.createContext("/large", new Handler(200, "application/json", largeJson(256 * 1024)));
+        server.start();
+
+        urlA = new URL("http://127.0.0.1:" + server.getAddress().getPort() + "/json");
+        urlB = new URL("http://localhost:" + server.getAddress().getPort() + "/json");
+    }
+
+    @After
+    public void tearDown() {
+        server.stop(0);
+    }
+
+    @Test
+    public void testRouteLimitBlocksUntilRelease() throws Exception {
+        PooledJsonDownloader downloader = new PooledJsonDownloader(GeocachingApiConfiguration.STAGING, 10, 1);
+
+        downloader.acquireConnection(urlA);
+        Acquirer waiting = new Acquirer(downloader, urlA);
+
+        awaitPending(downloader, 1);
+        assertFalse(waiting.acquired.await(100, TimeUnit.MILLISECONDS));
+
+        // other route is not limited
+        downloader.acquireConnection(urlB);
+        assertEquals(2, downloader.stats().leased());
+
+        downloader.releaseConnection(urlA, true);
+        assertTrue(waiting.acquired.await(TIMEOUT, TimeUnit.MILLISECONDS));
+
+        ConnectionPoolStats stats = downloader.stats();
+        assertEquals(2, stats.leased());
+        assertEquals(0, stats.pending());
+        assertEquals(3, stats.requests());
+        assertEquals(1, stats.reusable());
+    }
+
+    @Test
+    public void testTotalLimitBlocksUntilRelease() throws Exception {
+        PooledJsonDownloader downloader = new PooledJsonDownloader(GeocachingApiConfiguration.STAGING, 1, 5);
+
+        downloader.acquireConnection(urlA);
+        Acquirer waiting = new Acquirer(downloader, urlB);
+
+        awaitPending(downloader, 1);
+        assertFalse(waiting.acquired.await(100, TimeUnit.MILLISECONDS));
+
+        downloader.releaseConnection(urlA, false);
+        assertTrue(waiting.acquired.await(TIMEOUT, TimeUnit.MILLISECONDS));
+
+        ConnectionPoolStats stats = downloader.stats();
+        assertEquals(1, stats.leased());
+        assertEquals(0, stats.pending());
+        assertEquals(0, stats.reusable());
+    }
+
+    @Test
+    public void testSaturatedRouteDoesNotStarveOtherRoutes() throws Exception {
+        PooledJsonDownloader downloader = new PooledJsonDownloader(GeocachingApiConfiguration.STAGING, 2, 1);
+
+        downloader.acquireConnection(urlA);
+        Acquirer waitingA = new Acquirer(downloader, urlA);
+        awaitPending(downloader, 1);
+
+        // the request waiting for route A must not hold the second total permit
+        Acquirer acquirerB = new Acquirer(downloader, urlB);
+        assertTrue(acquirerB.acquired.await(TIMEOUT, TimeUnit.MILLISECONDS));
+        assertFalse(waitingA.acquired.await(100, TimeUnit.MILLISECONDS));
+
+        downloader.releaseConnection(urlB, true);
+        downloader.releaseConnection(urlA, true);
+        assertTrue(waitingA.acquired.await(TIMEOUT, TimeUnit.MILLISECONDS));
+        assertEquals(1, downloader.stats().leased());
+    }
+
+    @Test
+    public void testInterruptedAcquireReleasesPermits() throws Exception {
+        PooledJsonDownloader downloader = new PooledJsonDownloader(GeocachingApiConfiguration.STAGING, 1, 1);
+
+        downloader.acquireConnection(urlA);
+        Acquirer waitingRoute = new Acquirer(downloader, urlA);
+        Acquirer waitingTotal = new Acquirer(downloader, urlB);
+        awaitPending(downloader, 2);
+
+        waitingRoute.thread.interrupt();
+        waitingTotal.thread.interrupt();
+        waitingRoute.thread.join(TIMEOUT);
+        waitingTotal.thread.join(TIMEOUT);
+
+        assertTrue(waitingRoute.error.get() instanceof InterruptedIOException);
+        assertTrue(waitingTotal.error.get() instanceof InterruptedIOException);
+        assertEquals(0, downloader.stats().pending());
+        assertEquals(1, downloader.stats().leased());
+
+        downloader.releaseConnection(urlA, true);
+
+        // no permit was lost by interrupted requests
+        Acquirer acquirerA = new Acquirer(downloader, urlA);
+        assertTrue(acquirerA.acquired.await(TIMEOUT, TimeUnit.MILLISECONDS));
+        downloader.releaseConnection(urlA, true);
+        Acquirer acquirerB = new Acquirer(downloader, urlB);
+        assertTrue(acquirerB.acquired.await(TIMEOUT, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    public void testReleaseOnceOnClose() throws Exception {
+        CountingJsonDownloader downloader = new CountingJsonDownloader();
+
+        JsonReader reader = downloader.get(urlA);
+        assertEquals(0, downloader.releases);
+
+        reader.beginObject();
+        reader.close();
+        reader.close();
+
+        assertEquals(1, downloader.releases);
+        assertTrue(downloader.lastReusable);
+    }
+
+    @Test
+    public void testReleaseOnceOnPostClose() throws Exception {
+        CountingJsonDownloader downloader = new CountingJsonDownloader();
+
+        JsonReader reader = downloader.post(urlA, "{}".getBytes("UTF-8"));
+        reader.close();
+
+        assertEquals(1, downloader.releases);
+        assertTrue(downloader.lastReusable);
+    }
+
+    @Test
+    public void testLargeResponseIsNotDrained() throws Exception {
+        CountingJsonDownloader downloader = new CountingJsonDownloader();
+
+        JsonReader reader = downloader.get(new URL(urlA, "/large"));
+        reader.beginObject();
+        reader.close();
+
+        assertEquals(1, downloader.releases);
+        assertFalse(downloader.lastReusable);
+    }
+
+    @Test
+    public void testReleaseOnErrorResponse() throws Exception {
+        CountingJsonDownloader downloader = new CountingJsonDownloader();
+
+        try {
+            downloader.get(new URL(urlA, "/error"));
+            fail("InvalidResponseException expected");
+        } catch (InvalidResponseException e) {
+            assertEquals(500, e.getStatusCode());
+        }
+
+        assertEquals(1, downloader.releases);
+    }
+
+    @Test
+    public void testReleaseOnNotJsonResponse() throws Exception {
+        CountingJsonDownloader downloader = new CountingJsonDownloader();
+
+        try {
+            downloader.get(new URL(urlA, "/html"));
+            fail("InvalidResponseException expected");
+        } catch (InvalidResponseException e) {
+            assertEquals(200, e.getStatusCode());
+        }
+
+        assertEquals(1, downloader.releases);
+    }
+
+    @Test
+    public void testReleaseOnNetworkError() throws Exception {
+        CountingJsonDownloader downloader = new CountingJsonDownloader();
+        server.stop(0);
+
+        try {
+            downloader.get(urlA);
+            fail("NetworkException expected");
+        } catch (NetworkException e) {
+            // expected
+        }
+
+        assertEquals(1, downloader.releases);
+        assertFalse(downloader.lastReusable);
+    }
+
+    @Test
+    public void testPooledRequests() throws Exception {
+        PooledJsonDownloader downloader = new PooledJsonDownloader(GeocachingApiConfiguration.STAGING, 2, 1);
+
+        for (int i = 0; i < 3; i++) {
+            JsonReader reader = downloader.get(urlA);
+            reader.close();
+        }
+
+        try {
+            downloader.get(new URL(urlA, "/error"));
+            fail("InvalidResponseException expected");
+        } catch (InvalidResponseException e) {
+            // expected
+        }
+
+        ConnectionPoolStats stats = downloader.stats();
+        assertEquals(0, stats.leased());
+        assertEquals(0, stats.pending());
+        assertEquals(4, stats.requests());
+    }
+
+    private static void awaitPending(PooledJsonDownloader downloader, int pending) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + TIMEOUT;
+        while (downloader.stats().pending() < pending) {
+            if (System.currentTimeMillis() > deadline)
+                fail("Request is not waiting for a connection");
+
+            Thread.sleep(5);
+        }
+    }
+
+    private static byte[] largeJson(int size) {
+        byte[] json = new byte[size];
+        Arrays.fill(json, (byte) ' ');
+        json[0] = '{';
+        json[size - 1] = '}';
+        return json;
+    }
+
+    private static class Acquirer implements Runnable {
+        final PooledJsonDownloader downloader;
+        final URL url;
+        final Thread thread;
+        final CountDownLatch acquired = new CountDownLatch(1);
+        final AtomicReference<Exception> error = new AtomicReference<Exception>();
+
+        Acquirer(PooledJsonDownloader downloader, URL url) {
+            this.downloader = downloader;
+            this.url = url;
+            thread = new Thread(this);
+            thread.setDaemon(true);
+            thread.start();
+        }
+
+        @Override
+        public void run() {
+            try {
+                downloader.acquireConnection(url);
+                acquired.countDown();
+            } catch (Exception e) {
+                error.set(e);
+            }
+        }
+    }
+
+    private static class CountingJsonDownloader extends DefaultJsonDownloader {
+        volatile int acquires = 0;
+        volatile int releases = 0;
+        volatile boolean lastReusable = false;
+
+        CountingJsonDownloader() {
+            super(GeocachingApiConfiguration.STAGING);
+        }
+
+        @Override
+        protected void acquireConnection(URL url) throws IOException {
+            acquires++;
+        }
+
+        @Override
+        protected void releaseConnection(URL url, boolean reusable) {
+            assertEquals("release without acquire", acquires, releases + 1);
+            releases++;
+            lastReusable = reusable;
+        }
+    }
+
+    private static class Handler implements HttpHandler {
+        private final int code;
+        private final String contentType;
+        private final byte[] body;
+
+        Handler(int code, String contentType, byte[] body) {
+            this.code = code;
+            this.contentType = contentType;
+            this.body = body;
+        }
+
+        @Override
+        public void handle(HttpExchange exchange) throws IOException {
+            exchange.getRequestBody().close();
+            exchange.getResponseHeaders().set("Content-Type", contentType);
+            exchange.sendResponseHeaders(code, body.length);
+
+            OutputStream os = exchange.getResponseBody();
+            os.write(body);
+            os.close();
+        }
+    }
+}
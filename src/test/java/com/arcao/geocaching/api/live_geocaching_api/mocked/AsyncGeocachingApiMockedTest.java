@@ -0,0 +1,69 @@
+package com.arcao.geocaching.api.live_geocaching_api.mocked;
+
+import com.arcao.geocaching.api.GeocachingApi;
+import com.arcao.geocaching.api.async.AsyncGeocachingApi;
+import com.arcao.geocaching.api.async.GeocachingApiFuture;
+import com.arcao.geocaching.api.data.Geocache;
+import com.arcao.geocaching.api.data.GeocacheLimits;
+import com.arcao.geocaching.api.exception.GeocachingApiException;
+import com.arcao.geocaching.api.exception.InvalidSessionException;
+import com.arcao.geocaching.api.parser.JsonReader;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.net.URL;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+public class AsyncGeocachingApiMockedTest extends AbstractMockedGeocachingTest {
+    private final static String CACHE_CODE = "GCY81P";
+
+    private ExecutorService executor = null;
+    private AsyncGeocachingApi asyncApi = null;
+
+    @Before
+    public void setUpAsync() {
+        executor = Executors.newSingleThreadExecutor();
+        asyncApi = new AsyncGeocachingApi(api, executor);
+    }
+
+    @After
+    public void tearDownAsync() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void getLiteGeocacheByCacheCodeTest() throws GeocachingApiException, InterruptedException {
+        JsonReader resultBody = createJsonReaderFromResource("result-lite-geocache-by-cache-code.json");
+
+        when(downloader.post(any(URL.class), any(byte[].class)))
+                .thenReturn(resultBody);
+
+        GeocachingApiFuture<Geocache> future = asyncApi.getGeocache(GeocachingApi.ResultQuality.LITE, CACHE_CODE, 0, 0);
+        Geocache geocache = future.getResult();
+
+        assertNotNull(geocache);
+        assertEquals(CACHE_CODE, geocache.code());
+
+        // limits are carried by the future, not by the calling thread
+        GeocacheLimits limits = future.geocacheLimits();
+        assertNotNull(limits);
+        assertEquals(9869, limits.geocacheLeft());
+        assertEquals(1, future.searchResultsFound());
+        assertNull(api.getLastGeocacheLimits());
+    }
+
+    @Test(expected = InvalidSessionException.class)
+    public void closedSessionTest() throws GeocachingApiException, InterruptedException {
+        asyncApi.closeSession();
+        asyncApi.getGeocache(GeocachingApi.ResultQuality.LITE, CACHE_CODE, 0, 0).getResult();
+    }
+}
@@ -1,18 +1,27 @@
 package com.arcao.geocaching.api.live_geocaching_api.mocked;
 
+import com.arcao.geocaching.api.GeocacheSink;
 import com.arcao.geocaching.api.GeocachingApi;
 import com.arcao.geocaching.api.data.Geocache;
+import com.arcao.geocaching.api.data.GeocacheField;
 import com.arcao.geocaching.api.data.GeocacheLimits;
+import com.arcao.geocaching.api.data.SearchForGeocachesRequest;
+import com.arcao.geocaching.api.data.SearchForGeocachesResponse;
 import com.arcao.geocaching.api.data.type.ContainerType;
 import com.arcao.geocaching.api.data.type.GeocacheType;
 import com.arcao.geocaching.api.data.type.MemberType;
 import com.arcao.geocaching.api.exception.GeocachingApiException;
+import com.arcao.geocaching.api.filter.CacheCodeFilter;
 import com.arcao.geocaching.api.parser.JsonReader;
 
+import org.jetbrains.annotations.NotNull;
 import org.junit.Test;
 
 import java.io.IOException;
 import java.net.URL;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
@@ -85,4 +94,98 @@ public class SearchForGeocachesMockedTest extends AbstractMockedGeocachingTest {
         assertEquals(9869, geocacheLimits.geocacheLeft());
         assertEquals(10000, geocacheLimits.maxGeocacheCount());
     }
+
+    @Test
+    public void searchForGeocachesResponseTest() throws GeocachingApiException, IOException {
+        byte[] expectedRequestBody = createByteArrayFromResource("request-lite-geocache-by-cache-code.json");
+        JsonReader resultBody = createJsonReaderFromResource("result-lite-geocache-by-cache-code.json");
+
+        when(downloader.post(any(URL.class), any(byte[].class)))
+                .thenReturn(resultBody);
+
+        SearchForGeocachesResponse response = api.searchForGeocachesResponse(SearchForGeocachesRequest.builder()
+                .resultQuality(GeocachingApi.ResultQuality.LITE)
+                .maxPerPage(1)
+                .geocacheLogCount(0)
+                .trackableLogCount(0)
+                .addFilter(new CacheCodeFilter(CACHE_CODE))
+                .build());
+
+        verify(downloader).post(any(URL.class), eq(expectedRequestBody));
+
+        assertEquals(1, response.geocaches().size());
+        assertEquals(CACHE_CODE, response.geocaches().get(0).code());
+        assertEquals(1, response.totalMatchingCaches());
+
+        GeocacheLimits geocacheLimits = response.geocacheLimits();
+        assertNotNull(geocacheLimits);
+        assertEquals(131, geocacheLimits.currentGeocacheCount());
+        assertEquals(9869, geocacheLimits.geocacheLeft());
+        assertEquals(10000, geocacheLimits.maxGeocacheCount());
+
+        // the shared "last" values aren't touched by the response variant
+        assertNull(api.getLastGeocacheLimits());
+        assertEquals(0, api.getLastSearchResultsFound());
+    }
+
+    @Test
+    public void searchForGeocachesSinkTest() throws GeocachingApiException {
+        JsonReader resultBody = createJsonReaderFromResource("result-lite-geocache-by-cache-code.json");
+
+        when(downloader.post(any(URL.class), any(byte[].class)))
+                .thenReturn(resultBody);
+
+        final List<Geocache> geocaches = new ArrayList<Geocache>();
+        SearchForGeocachesResponse response = api.searchForGeocaches(SearchForGeocachesRequest.builder()
+                .resultQuality(GeocachingApi.ResultQuality.LITE)
+                .maxPerPage(1)
+                .geocacheLogCount(0)
+                .trackableLogCount(0)
+                .addFilter(new CacheCodeFilter(CACHE_CODE))
+                .build(), new GeocacheSink() {
+            @Override
+            public void accept(@NotNull Geocache geocache) {
+                geocaches.add(geocache);
+            }
+        });
+
+        assertEquals(1, geocaches.size());
+        assertEquals(CACHE_CODE, geocaches.get(0).code());
+
+        assertTrue(response.geocaches().isEmpty());
+        assertEquals(1, response.totalMatchingCaches());
+        assertNotNull(response.geocacheLimits());
+    }
+
+    @Test
+    public void searchForGeocachesFieldMaskTest() throws GeocachingApiException {
+        JsonReader resultBody = createJsonReaderFromResource("result-lite-geocache-by-cache-code.json");
+
+        when(downloader.post(any(URL.class), any(byte[].class)))
+                .thenReturn(resultBody);
+
+        SearchForGeocachesResponse response = api.searchForGeocachesResponse(SearchForGeocachesRequest.builder()
+                .resultQuality(GeocachingApi.ResultQuality.LITE)
+                .maxPerPage(1)
+                .geocacheLogCount(0)
+                .trackableLogCount(0)
+                .addFilter(new CacheCodeFilter(CACHE_CODE))
+                .fields(EnumSet.of(GeocacheField.COORDINATES, GeocacheField.GEOCACHE_TYPE, GeocacheField.ARCHIVED))
+                .build());
+
+        Geocache geocache = response.geocaches().get(0);
+
+        // requested
+        assertEquals(CACHE_CODE, geocache.code());
+        assertEquals(GeocacheType.Multi, geocache.geocacheType());
+        assertFalse(Double.isNaN(geocache.coordinates().latitude()));
+        assertFalse(Double.isNaN(geocache.coordinates().longitude()));
+
+        // skipped
+        assertNull(geocache.owner());
+        assertNull(geocache.placeDate());
+        assertEquals("", geocache.name());
+        assertEquals(ContainerType.NotChosen, geocache.containerType());
+        assertEquals(0, geocache.difficulty(), 0);
+    }
 }
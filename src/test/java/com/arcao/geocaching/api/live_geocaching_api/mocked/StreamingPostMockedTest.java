@@ -0,0 +1,69 @@
+package com.arcao.geocaching.api.live_geocaching_api.mocked;
+
+import com.arcao.geocaching.api.GeocachingApi;
+import com.arcao.geocaching.api.LiveGeocachingApi;
+import com.arcao.geocaching.api.builder.JsonSerializable;
+import com.arcao.geocaching.api.data.Geocache;
+import com.arcao.geocaching.api.downloader.StreamingJsonDownloader;
+import com.arcao.geocaching.api.exception.GeocachingApiException;
+import com.arcao.geocaching.api.parser.JsonReader;
+import com.google.gson.stream.JsonWriter;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.net.URL;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class StreamingPostMockedTest extends AbstractMockedGeocachingTest {
+    private final static String CACHE_CODE = "GCY81P";
+
+    private StreamingJsonDownloader streamingDownloader = null;
+
+    @Before
+    public void setUpStreamingMock() throws GeocachingApiException {
+        streamingDownloader = mock(StreamingJsonDownloader.class);
+
+        api = LiveGeocachingApi.builder()
+                .downloader(streamingDownloader)
+                .build();
+
+        api.openSession("ACCESS_TOKEN");
+    }
+
+    @Test
+    public void getLiteGeocacheByCacheCodeStreamedRequestTest() throws GeocachingApiException, IOException {
+        byte[] expectedRequestBody = createByteArrayFromResource("request-lite-geocache-by-cache-code.json");
+        JsonReader resultBody = createJsonReaderFromResource("result-lite-geocache-by-cache-code.json");
+
+        when(streamingDownloader.post(any(URL.class), any(JsonSerializable.class)))
+                .thenReturn(resultBody);
+
+        Geocache geocache = api.getGeocache(GeocachingApi.ResultQuality.LITE, CACHE_CODE, 0, 0);
+
+        ArgumentCaptor<JsonSerializable> body = ArgumentCaptor.forClass(JsonSerializable.class);
+        verify(streamingDownloader).post(any(URL.class), body.capture());
+        verify(streamingDownloader, never()).post(any(URL.class), any(byte[].class));
+
+        StringWriter sw = new StringWriter();
+        JsonWriter w = new JsonWriter(sw);
+        body.getValue().writeJson(w);
+        w.close();
+
+        assertArrayEquals(expectedRequestBody, sw.toString().getBytes("UTF-8"));
+
+        assertNotNull(geocache);
+        assertEquals(CACHE_CODE, geocache.code());
+    }
+}
@@ -0,0 +1,55 @@
+package com.arcao.geocaching.api.parser;
+
+import com.arcao.geocaching.api.data.apilimits.ApiLimits;
+import com.arcao.geocaching.api.data.apilimits.CacheLimit;
+import com.arcao.geocaching.api.data.apilimits.MethodLimit;
+import com.arcao.geocaching.api.data.type.MemberType;
+
+import org.junit.Test;
+
+import java.io.IOException;
+
+import static com.arcao.geocaching.api.GeocacheFixtures.resourceReader;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class ApiLimitsJsonParserTest {
+    private static final String RESOURCE = "/com/arcao/geocaching/api/parser/api-limits.json";
+
+    @Test
+    public void parseTest() throws IOException {
+        ApiLimits limits = ApiLimitsJsonParser.parse(resourceReader(RESOURCE));
+
+        assertEquals(1, limits.cacheLimits().size());
+        assertCacheLimit(6000, 1440, limits.cacheLimits().get(0));
+        assertTrue(limits.enforceCacheLimits());
+        assertFalse(limits.enforceLiteCacheLimits());
+        assertTrue(limits.enforceMethodLimits());
+        assertEquals(MemberType.Premium, limits.forMembershipType());
+        assertEquals("license-key", limits.licenseKey());
+        assertEquals(2, limits.liteCacheLimits().size());
+        assertCacheLimit(10000, 1440, limits.liteCacheLimits().get(0));
+        assertCacheLimit(100, 1, limits.liteCacheLimits().get(1));
+        assertEquals(60, limits.maxCallsbyIPIn1Minute());
+        assertFalse(limits.restrictByIp());
+        assertTrue(limits.validateIpCounts());
+
+        assertEquals(2, limits.methodLimits().size());
+        MethodLimit search = limits.methodLimits().get(0);
+        assertEquals("SearchForGeocaches", search.methodName());
+        assertEquals(1, search.period());
+        assertEquals(30, search.limit());
+        assertFalse(search.partnerMethod());
+        MethodLimit apiLimits = limits.methodLimits().get(1);
+        assertEquals("GetAPILimits", apiLimits.methodName());
+        assertEquals(60, apiLimits.period());
+        assertEquals(1000, apiLimits.limit());
+        assertTrue(apiLimits.partnerMethod());
+    }
+
+    private static void assertCacheLimit(long limit, long period, CacheLimit cacheLimit) {
+        assertEquals(limit, cacheLimit.limit());
+        assertEquals(period, cacheLimit.period());
+    }
+}
@@ -0,0 +1,261 @@
+package com.arcao.geocaching.api.parser;
+
+import com.arcao.geocaching.api.GeocacheSink;
+import com.arcao.geocaching.api.data.Geocache;
+import com.arcao.geocaching.api.data.GeocacheField;
+import com.arcao.geocaching.api.data.GeocacheLog;
+import com.arcao.geocaching.api.data.ImageData;
+import com.arcao.geocaching.api.data.Trackable;
+import com.arcao.geocaching.api.data.TrackableLog;
+import com.arcao.geocaching.api.data.User;
+import com.arcao.geocaching.api.data.UserWaypoint;
+import com.arcao.geocaching.api.data.Waypoint;
+import com.arcao.geocaching.api.data.coordinates.Coordinates;
+import com.arcao.geocaching.api.data.type.AttributeType;
+import com.arcao.geocaching.api.data.type.ContainerType;
+import com.arcao.geocaching.api.data.type.GeocacheLogType;
+import com.arcao.geocaching.api.data.type.GeocacheType;
+import com.arcao.geocaching.api.data.type.MemberType;
+import com.arcao.geocaching.api.data.type.TrackableLogType;
+import com.arcao.geocaching.api.data.type.WaypointType;
+
+import org.jetbrains.annotations.NotNull;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.EnumSet;
+import java.util.List;
+
+import static com.arcao.geocaching.api.GeocacheFixtures.resourceReader;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class GeocacheJsonParserTest {
+    private static final String RESOURCE = "/com/arcao/geocaching/api/parser/geocache-full.json";
+    private static final long HOUR = 60 * 60 * 1000L;
+
+    @Test
+    public void parseTest() throws IOException {
+        List<Geocache> geocaches = GeocacheJsonParser.parseList(resourceReader(RESOURCE));
+        assertEquals(1, geocaches.size());
+
+        Geocache geocache = geocaches.get(0);
+        assertEquals(460560, geocache.id());
+        assertEquals("GCY81P", geocache.code());
+        assertEquals("Plzenske sady / Pilsener parks", geocache.name());
+        assertEquals(Coordinates.create(49.7454, 13.3741), geocache.coordinates());
+        assertEquals(GeocacheType.Multi, geocache.geocacheType());
+        assertEquals(1.5f, geocache.difficulty(), 0);
+        assertEquals(2.5f, geocache.terrain(), 0);
+        assertTrue(geocache.available());
+        assertTrue(geocache.archived());
+        assertTrue(geocache.premium());
+        assertEquals("Czech Republic", geocache.countryName());
+        assertEquals("Plzensky kraj", geocache.stateName());
+        // the zone is applied to local dates only
+        assertEquals(new Date(1300000000000L - HOUR), geocache.createDate());
+        assertEquals(new Date(1300000000000L), geocache.publishDate());
+        assertEquals(new Date(1157958000000L), geocache.placeDate());
+        assertEquals(new Date(1300000200000L), geocache.lastUpdateDate());
+        assertEquals(new Date(1300000300000L), geocache.lastVisitDate());
+        assertEquals("Georgecz, adopted by ALLiK team", geocache.placedBy());
+        assertEquals(ContainerType.Micro, geocache.containerType());
+        assertEquals(1, geocache.trackableCount());
+        assertTrue(geocache.foundByUser());
+        assertEquals("Short", geocache.shortDescription());
+        assertFalse(geocache.shortDescriptionHtml());
+        assertEquals("<p>Plzeňské sady</p>", geocache.longDescription());
+        assertTrue(geocache.longDescriptionHtml());
+        assertEquals("Under the stone", geocache.hint());
+        assertEquals(EnumSet.of(AttributeType.DogsYes, AttributeType.FeeNo), geocache.attributes());
+        assertEquals("Personal note", geocache.personalNote());
+        assertEquals(26, geocache.favoritePoints());
+        assertTrue(geocache.favoritable());
+        assertEquals(new Date(1300000400000L), geocache.foundDate());
+        assertTrue(geocache.favoritedByUser());
+        assertEquals(5, geocache.imageCount());
+        assertTrue(geocache.recommended());
+        assertEquals("http://coord.info/GCY81P", geocache.url());
+        assertEquals("22769fb7-df15-4f84-8cee-6519377f99c8", geocache.guid());
+
+        User owner = geocache.owner();
+        assertEquals(4915410, owner.id());
+        assertEquals("ALLiK team", owner.userName());
+        assertEquals("http://img.geocaching.com/user/avatar/owner.jpg", owner.avatarUrl());
+        assertEquals("5612ba0f-3e72-4462-afd8-df287a20273a", owner.publicGuid());
+        assertEquals(2012, owner.findCount());
+        assertEquals(4, owner.hideCount());
+        assertNull(owner.homeCoordinates());
+        assertFalse(owner.admin());
+        assertEquals(MemberType.Premium, owner.memberType());
+
+        Waypoint waypoint = geocache.waypoints().get(0);
+        assertEquals(1, geocache.waypoints().size());
+        assertEquals("PK1QV2X", waypoint.waypointCode());
+        assertEquals(WaypointType.ParkingArea, waypoint.waypointType());
+        assertEquals("Parking", waypoint.name());
+        assertEquals("Park here", waypoint.note());
+        assertEquals(Coordinates.create(49.7401, 13.3702), waypoint.coordinates());
+        assertEquals(new Date(1300000100000L), waypoint.time());
+
+        UserWaypoint userWaypoint = geocache.userWaypoints().get(0);
+        assertEquals(1, geocache.userWaypoints().size());
+        assertEquals(842021, userWaypoint.id());
+        assertEquals("GCY81P", userWaypoint.cacheCode());
+        assertEquals("Coordinate Override", userWaypoint.description());
+        assertEquals(Coordinates.create(49.7454, 14.3741), userWaypoint.coordinates());
+        assertEquals(new Date(1339070564280L), userWaypoint.date());
+        assertEquals(1672113, userWaypoint.userId());
+        assertTrue(userWaypoint.correctedCoordinate());
+
+        ImageData image = geocache.images().get(0);
+        assertEquals(1, geocache.images().size());
+        assertEquals("spoiler", image.name());
+        assertEquals("a \"b\"", image.description());
+        assertEquals("http://img.geocaching.com/cache/spoiler.jpg", image.url());
+        assertEquals(new Date(1300000800000L), image.created());
+    }
+
+    @Test
+    public void geocacheLogTest() throws IOException {
+        Geocache geocache = GeocacheJsonParser.parseList(resourceReader(RESOURCE)).get(0);
+        assertEquals(1, geocache.geocacheLogs().size());
+
+        GeocacheLog log = geocache.geocacheLogs().get(0);
+        assertEquals(11, log.id());
+        assertEquals("GCY81P", log.cacheCode());
+        assertEquals(new Date(1300000600000L), log.created());
+        assertEquals(new Date(1300000700000L + 2 * HOUR), log.visited());
+        assertEquals(GeocacheLogType.FoundIt, log.logType());
+        assertEquals("TFTC žluťoučký kůň", log.text());
+        assertEquals(Coordinates.create(49.75, 13.38), log.updatedCoordinates());
+        assertTrue(log.approved());
+        assertFalse(log.archived());
+        assertTrue(log.undeletable());
+
+        ImageData image = log.images().get(0);
+        assertEquals(1, log.images().size());
+        assertEquals("log", image.name());
+        assertEquals("log image", image.description());
+        assertEquals("http://img.geocaching.com/log/mobile.jpg", image.mobileUrl());
+        assertEquals("http://img.geocaching.com/log/thumb.jpg", image.thumbUrl());
+        assertEquals("http://img.geocaching.com/log/large.jpg", image.url());
+        assertEquals(new Date(1300000500000L), image.created());
+
+        User finder = log.author();
+        assertEquals(7, finder.id());
+        assertEquals("arcao", finder.userName());
+        assertEquals("http://img.geocaching.com/user/avatar/finder.jpg", finder.avatarUrl());
+        assertEquals("finder-guid", finder.publicGuid());
+        assertEquals(150, finder.findCount());
+        assertEquals(1, finder.hideCount());
+        // not parsed
+        assertEquals(0, finder.galleryImageCount());
+        assertEquals(Coordinates.create(50.5, 14.25), finder.homeCoordinates());
+        assertTrue(finder.admin());
+        assertEquals(MemberType.Basic, finder.memberType());
+    }
+
+    @Test
+    public void trackableTest() throws IOException {
+        Geocache geocache = GeocacheJsonParser.parseList(resourceReader(RESOURCE)).get(0);
+        assertEquals(1, geocache.trackables().size());
+
+        Trackable trackable = geocache.trackables().get(0);
+        assertEquals(42, trackable.id());
+        assertEquals("Bug", trackable.name());
+        assertEquals("Travel", trackable.goal());
+        assertEquals("Travel bug", trackable.description());
+        assertEquals("Travel Bug Dog Tag", trackable.trackableTypeName());
+        assertEquals("http://www.geocaching.com/images/wpttypes/21.gif", trackable.trackableTypeImage());
+        assertEquals("GCY81P", trackable.currentCacheCode());
+        assertNull(trackable.currentOwner());
+        assertEquals("TB1234", trackable.trackingNumber());
+        assertEquals(new Date(1300000900000L + HOUR), trackable.created());
+        assertTrue(trackable.allowedToBeCollected());
+        assertFalse(trackable.inCollection());
+        assertFalse(trackable.archived());
+        assertTrue(trackable.images().isEmpty());
+
+        User owner = trackable.owner();
+        assertEquals(8, owner.id());
+        assertEquals("tb owner", owner.userName());
+        // member type as a number
+        assertEquals(MemberType.Premium, owner.memberType());
+
+        assertEquals(1, trackable.trackableLogs().size());
+        TrackableLog log = trackable.trackableLogs().get(0);
+        assertEquals(460560, log.cacheId());
+        assertEquals("GCY81P", log.cacheCode());
+        assertEquals("TL1", log.code());
+        assertEquals(99, log.id());
+        assertTrue(log.images().isEmpty());
+        assertTrue(log.archived());
+        assertEquals("log-guid", log.guid());
+        assertEquals("Dropped", log.text());
+        assertEquals(TrackableLogType.DropOff, log.type());
+        assertEquals(new Date(1300001000000L), log.created());
+        assertEquals(Coordinates.create(0, 0), log.updatedCoordinates());
+        assertEquals("http://coord.info/TL1", log.url());
+        assertEquals(new Date(1300001100000L - 3 * HOUR), log.visited());
+
+        assertEquals("tb owner", log.loggedBy().userName());
+        assertNull(log.loggedBy().memberType());
+    }
+
+    @Test
+    public void fieldMaskTest() throws IOException {
+        final List<Geocache> geocaches = new ArrayList<Geocache>();
+        int count = GeocacheJsonParser.parseList(resourceReader(RESOURCE), new GeocacheSink() {
+            @Override
+            public void accept(@NotNull Geocache geocache) {
+                geocaches.add(geocache);
+            }
+        }, EnumSet.of(GeocacheField.NAME, GeocacheField.COORDINATES, GeocacheField.PLACE_DATE, GeocacheField.GEOCACHE_LOGS));
+
+        assertEquals(1, count);
+        Geocache geocache = geocaches.get(0);
+
+        // parsed
+        assertEquals("GCY81P", geocache.code());
+        assertEquals("Plzenske sady / Pilsener parks", geocache.name());
+        assertEquals(Coordinates.create(49.7454, 13.3741), geocache.coordinates());
+        assertEquals(new Date(1157958000000L), geocache.placeDate());
+        assertEquals(1, geocache.geocacheLogs().size());
+        assertEquals("arcao", geocache.geocacheLogs().get(0).author().userName());
+
+        // skipped
+        assertEquals(0, geocache.id());
+        assertNull(geocache.geocacheType());
+        assertEquals(0, geocache.difficulty(), 0);
+        assertNull(geocache.owner());
+        assertFalse(geocache.archived());
+        assertNull(geocache.countryName());
+        assertEquals("", geocache.placedBy());
+        assertEquals(ContainerType.NotChosen, geocache.containerType());
+        assertNull(geocache.longDescription());
+        assertNull(geocache.hint());
+        assertNull(geocache.trackables());
+        assertNull(geocache.waypoints());
+        assertNull(geocache.attributes());
+        assertNull(geocache.userWaypoints());
+        assertNull(geocache.images());
+        assertEquals(0, geocache.favoritePoints());
+        assertEquals("", geocache.url());
+        assertEquals("", geocache.guid());
+
+        // all fields are the same as no mask
+        final List<Geocache> all = new ArrayList<Geocache>();
+        GeocacheJsonParser.parseList(resourceReader(RESOURCE), new GeocacheSink() {
+            @Override
+            public void accept(@NotNull Geocache geocache) {
+                all.add(geocache);
+            }
+        }, EnumSet.allOf(GeocacheField.class));
+        assertEquals(GeocacheJsonParser.parseList(resourceReader(RESOURCE)), all);
+    }
+}
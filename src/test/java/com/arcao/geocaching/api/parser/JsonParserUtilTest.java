@@ -0,0 +1,97 @@
+package com.arcao.geocaching.api.parser;
+
+import com.arcao.geocaching.api.data.type.AttributeMask;
+import com.arcao.geocaching.api.data.type.AttributeType;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.Date;
+import java.util.EnumSet;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+public class JsonParserUtilTest {
+    private static final long HOUR_IN_MS = 1000 * 60 * 60;
+    private static final Pattern DATE_PATTERN = Pattern.compile("/Date\\((-?\\d+)([-+]\\d{4})?\\)/");
+
+    private static final String[] DATES = {
+            "/Date(1300000000000)/",
+            "/Date(1300000000000-0700)/",
+            "/Date(1300000000000+0200)/",
+            "/Date(1300000000000+0130)/",
+            "/Date(1300000000000-0030)/",
+            "/Date(0)/",
+            "/Date(-1)/",
+            "/Date(-62135596800000+0000)/",
+            "/Date(9223372036854775807)/",
+            "/Date(-9223372036854775808)/",
+            "/Date(0009)/",
+            "/Date()/",
+            "/Date(-)/",
+            "/Date(12a)/",
+            "/Date(1300000000000+020)/",
+            "/Date(1300000000000+02000)/",
+            "/Date(1300000000000*0200)/",
+            "/Date(1300000000000+02a0)/",
+            "/Date(1300000000000)",
+            "Date(1300000000000)/",
+            "/Date(",
+            "/Date(/",
+            "",
+            "2011-03-13T07:06:40Z"
+    };
+
+    @Test
+    public void parseJsonDateTest() {
+        assertEquals(new Date(1300000000000L), JsonParserUtil.parseJsonDate("/Date(1300000000000)/"));
+        assertEquals(new Date(1300000000000L - 7 * HOUR_IN_MS), JsonParserUtil.parseJsonDate("/Date(1300000000000-0700)/"));
+        assertEquals(new Date(1300000000000L + 2 * HOUR_IN_MS), JsonParserUtil.parseJsonDate("/Date(1300000000000+0200)/"));
+        assertNull(JsonParserUtil.parseJsonDate(null));
+        assertNull(JsonParserUtil.parseJsonDate("/Date(abc)/"));
+    }
+
+    @Test
+    public void parseJsonUTCDateTest() {
+        assertEquals(new Date(1300000000000L), JsonParserUtil.parseJsonUTCDate("/Date(1300000000000)/"));
+        assertEquals(new Date(1300000000000L), JsonParserUtil.parseJsonUTCDate("/Date(1300000000000-0700)/"));
+        assertNull(JsonParserUtil.parseJsonUTCDate(null));
+        assertNull(JsonParserUtil.parseJsonUTCDate("/Date(1300000000000-07)/"));
+    }
+
+    @Test
+    public void parseJsonDateSameAsRegexTest() {
+        for (String date : DATES) {
+            assertEquals(date, parseWithRegex(date, true), JsonParserUtil.parseJsonDate(date));
+            assertEquals(date, parseWithRegex(date, false), JsonParserUtil.parseJsonUTCDate(date));
+        }
+    }
+
+    @Test
+    public void parseAttributeMaskTest() throws IOException {
+        String json = "[{\"AttributeTypeID\": 24, \"IsOn\": true},"
+                + "{\"AttributeTypeID\": 1, \"IsOn\": false},"
+                + "{\"AttributeTypeID\": 9999, \"IsOn\": true}]";
+
+        assertEquals(AttributeMask.of(AttributeType.WheelchairYes, AttributeType.DogsNo), JsonParserUtil.parseAttributeMask(new JsonReader(new StringReader(json))));
+        assertEquals(EnumSet.of(AttributeType.WheelchairYes, AttributeType.DogsNo), JsonParserUtil.parseAttributeList(new JsonReader(new StringReader(json))));
+    }
+
+    // previous implementation
+    private static Date parseWithRegex(String date, boolean useZone) {
+        Matcher m = DATE_PATTERN.matcher(date);
+        if (m.matches()) {
+            long time = Long.parseLong(m.group(1));
+            long zone = 0;
+            if (useZone && m.group(2) != null && !m.group(2).isEmpty())
+                zone = Integer.parseInt(m.group(2)) / 100 * HOUR_IN_MS;
+            return new Date(time + zone);
+        }
+
+        return null;
+    }
+}
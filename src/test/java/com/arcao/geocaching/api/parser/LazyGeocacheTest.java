@@ -0,0 +1,174 @@
+package com.arcao.geocaching.api.parser;
+
+import com.arcao.geocaching.api.data.Geocache;
+import com.arcao.geocaching.api.data.GeocacheLog;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class LazyGeocacheTest {
+    private static final String GEOCACHE_RESOURCE = "/com/arcao/geocaching/api/live_geocaching_api/mocked/result-lite-geocache-by-cache-code.json";
+
+    private static final String USER = "{\"Id\": 7, \"UserName\": \"arcao\", \"AvatarUrl\": \"\", \"PublicGuid\": \"\", \"IsAdmin\": false, \"FindCount\": 0, \"HideCount\": 0}";
+    private static final String LOG = "{\"ID\": 11, \"CacheCode\": \"GCY81P\", \"UTCCreateDate\": \"/Date(1300000000000)/\", \"VisitDate\": \"/Date(1300000000000)/\", "
+            + "\"LogType\": {\"WptLogTypeName\": \"Found it\"}, \"Finder\": " + USER + ", \"LogText\": \"TFTC \\u017elu\\u0165ou\\u010dk\\u00fd k\\u016f\\u0148\", "
+            + "\"Images\": [], \"IsApproved\": true, \"IsArchived\": false, \"CannotDelete\": false}";
+    private static final String IMAGE = "{\"Name\": \"spoiler\", \"Description\": \"a \\\"b\\\"\", \"Url\": \"http://img.geocaching.com/a.jpg\", \"DateCreated\": \"/Date(1300000000000)/\"}";
+
+    private String json;
+
+    @Before
+    public void setUp() throws IOException {
+        StringBuilder longDescription = new StringBuilder();
+        for (int i = 0; i < 2000; i++) {
+            longDescription.append("<p>Plzeňské sady \\\"").append(i).append("\\\"</p>\\n");
+        }
+
+        String geocache = readGeocache()
+                .replace("\"EncodedHints\": null", "\"EncodedHints\": \"Under the stone\"")
+                .replace("\"GeocacheLogs\": []", "\"GeocacheLogs\": [" + LOG + "," + LOG + "]")
+                .replace("\"Images\": []", "\"Images\": [" + IMAGE + "]")
+                .replace("\"LongDescription\": null", "\"LongDescription\": \"" + longDescription + "\"")
+                .replace("\"ShortDescription\": null", "\"ShortDescription\": \"Short \\ud83d\\ude00\"");
+
+        json = "[" + geocache + "," + readGeocache() + "]";
+    }
+
+    @Test
+    public void sameAsEagerTest() throws IOException {
+        List<Geocache> expected = GeocacheJsonParser.parseList(new JsonReader(new StringReader(json)));
+        List<Geocache> actual = GeocacheJsonParser.parseList(lazyReader());
+
+        assertTrue(actual.get(0) instanceof LazyGeocache);
+
+        assertEquals(expected, actual);
+        assertEquals(actual, expected);
+        assertEquals(expected.hashCode(), actual.hashCode());
+        assertEquals(expected.toString(), actual.toString());
+
+        Geocache eager = expected.get(0);
+        Geocache lazy = actual.get(0);
+        assertEquals(eager.longDescription(), lazy.longDescription());
+        assertEquals("Short \uD83D\uDE00", lazy.shortDescription());
+        assertEquals("Under the stone", lazy.hint());
+        assertEquals(2, lazy.geocacheLogs().size());
+        assertEquals("a \"b\"", lazy.images().get(0).description());
+        assertNull(actual.get(1).longDescription());
+        assertTrue(actual.get(1).geocacheLogs().isEmpty());
+    }
+
+    @Test
+    public void equalsTest() throws IOException {
+        List<Geocache> eager = GeocacheJsonParser.parseList(new JsonReader(new StringReader(json)));
+        Geocache lazy = GeocacheJsonParser.parseList(lazyReader()).get(0);
+        Geocache other = GeocacheJsonParser.parseList(lazyReader()).get(0);
+
+        assertTrue(lazy.equals(lazy));
+        assertTrue(lazy.equals(other));
+        assertTrue(lazy.equals(eager.get(0)));
+        assertTrue(eager.get(0).equals(lazy));
+        assertFalse(lazy.equals(eager.get(1)));
+        assertFalse(eager.get(1).equals(lazy));
+        assertFalse(lazy.equals(null));
+        assertFalse(lazy.equals("GCY81P"));
+
+        assertEquals(eager.get(0).hashCode(), lazy.hashCode());
+        assertEquals(lazy.hashCode(), other.hashCode());
+    }
+
+    @Test
+    public void memoizedTest() throws Exception {
+        final Geocache geocache = GeocacheJsonParser.parseList(lazyReader()).get(0);
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<List<GeocacheLog>>> futures = new ArrayList<Future<List<GeocacheLog>>>();
+            for (int i = 0; i < 8; i++) {
+                futures.add(executor.submit(new Callable<List<GeocacheLog>>() {
+                    @Override
+                    public List<GeocacheLog> call() {
+                        return geocache.geocacheLogs();
+                    }
+                }));
+            }
+
+            for (Future<List<GeocacheLog>> future : futures) {
+                assertSame(geocache.geocacheLogs(), future.get());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertSame(geocache.longDescription(), geocache.longDescription());
+    }
+
+    @Test
+    public void serializationTest() throws Exception {
+        Geocache geocache = GeocacheJsonParser.parseList(lazyReader()).get(0);
+
+        ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        ObjectOutputStream oos = new ObjectOutputStream(bos);
+        oos.writeObject(geocache);
+        oos.close();
+
+        Object copy = new ObjectInputStream(new ByteArrayInputStream(bos.toByteArray())).readObject();
+
+        assertFalse(copy instanceof LazyGeocache);
+        assertEquals(geocache, copy);
+    }
+
+    private Utf8JsonReader lazyReader() throws IOException {
+        return new Utf8JsonReader(new ByteArrayInputStream(json.getBytes("UTF-8")), true);
+    }
+
+    private String readGeocache() throws IOException {
+        InputStream is = getClass().getResourceAsStream(GEOCACHE_RESOURCE);
+        String resource;
+        try {
+            ByteArrayOutputStream bos = new ByteArrayOutputStream();
+            byte[] buffer = new byte[4096];
+            int len;
+            while ((len = is.read(buffer)) != -1) {
+                bos.write(buffer, 0, len);
+            }
+            resource = bos.toString("UTF-8");
+        } finally {
+            is.close();
+        }
+
+        // the first object in Geocaches array
+        int start = resource.indexOf('{', resource.indexOf("\"Geocaches\""));
+        int depth = 0;
+        int end = start;
+        do {
+            char c = resource.charAt(end++);
+            if (c == '{') {
+                depth++;
+            } else if (c == '}') {
+                depth--;
+            }
+        } while (depth > 0);
+
+        return resource.substring(start, end);
+    }
+}
@@ -0,0 +1,95 @@
+package com.arcao.geocaching.api.parser;
+
+import com.arcao.geocaching.api.data.Geocache;
+import com.arcao.geocaching.api.data.User;
+
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.StringReader;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+public class ParseCacheTest {
+    private static final String GEOCACHE_RESOURCE = "/com/arcao/geocaching/api/live_geocaching_api/mocked/result-lite-geocache-by-cache-code.json";
+
+    @Test
+    public void sharedOwnerTest() throws IOException {
+        String geocache = readGeocache();
+        List<Geocache> geocaches = GeocacheJsonParser.parseList(new JsonReader(new StringReader("[" + geocache + "," + geocache + "]")));
+
+        assertEquals(2, geocaches.size());
+        assertNotSame(geocaches.get(0), geocaches.get(1));
+        assertNotNull(geocaches.get(0).owner());
+        assertSame(geocaches.get(0).owner(), geocaches.get(1).owner());
+        assertSame(geocaches.get(0).placedBy(), geocaches.get(1).placedBy());
+    }
+
+    @Test
+    public void differentUsersWithSameIdTest() throws IOException {
+        JsonReader r = new JsonReader(new StringReader("[" + user("a") + "," + user("b") + "," + user("a") + "]"));
+
+        r.beginArray();
+        User first = UserJsonParser.parse(r);
+        User second = UserJsonParser.parse(r);
+        User third = UserJsonParser.parse(r);
+        r.endArray();
+
+        assertNotNull(first);
+        assertEquals("b", second.userName());
+        assertSame(first, third);
+    }
+
+    @Test
+    public void stringTest() {
+        ParseCache cache = new ParseCache();
+
+        String value = cache.string(new String("Czech Republic"));
+        assertSame(value, cache.string(new String("Czech Republic")));
+        assertNull(cache.string(null));
+        assertNull(cache.user(null));
+    }
+
+    private static String user(String userName) {
+        return "{\"Id\": 1, \"UserName\": \"" + userName + "\", \"AvatarUrl\": \"\", \"PublicGuid\": \"\", "
+                + "\"IsAdmin\": false, \"FindCount\": 0, \"HideCount\": 0}";
+    }
+
+    private String readGeocache() throws IOException {
+        InputStream is = getClass().getResourceAsStream(GEOCACHE_RESOURCE);
+        String json;
+        try {
+            ByteArrayOutputStream bos = new ByteArrayOutputStream();
+            byte[] buffer = new byte[4096];
+            int len;
+            while ((len = is.read(buffer)) != -1) {
+                bos.write(buffer, 0, len);
+            }
+            json = bos.toString("UTF-8");
+        } finally {
+            is.close();
+        }
+
+        // the first object in Geocaches array
+        int start = json.indexOf('{', json.indexOf("\"Geocaches\""));
+        int depth = 0;
+        int end = start;
+        do {
+            char c = json.charAt(end++);
+            if (c == '{') {
+                depth++;
+            } else if (c == '}') {
+                depth--;
+            }
+        } while (depth > 0);
+
+        return json.substring(start, end);
+    }
+}
@@ -0,0 +1,389 @@
+package com.arcao.geocaching.api.parser;
+
+import com.arcao.geocaching.api.data.Geocache;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.MalformedJsonException;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UnsupportedEncodingException;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class Utf8JsonReaderTest {
+    private static final String CHARSET_UTF8 = "UTF-8";
+    private static final String GEOCACHE_RESOURCE = "/com/arcao/geocaching/api/live_geocaching_api/mocked/result-lite-geocache-by-cache-code.json";
+
+    private static final String[] MALFORMED = {
+            "",
+            "{",
+            "[1,]",
+            "[1 2]",
+            "{\"a\" 1}",
+            "{\"a\":1,}",
+            "{a:1}",
+            "['a']",
+            "[\"a]",
+            "[\"\\x\"]",
+            "[\"\\u12\"]",
+            "[tru]",
+            "[truex]",
+            "[nul]",
+            "[01]",
+            "[1.]",
+            "[-]",
+            "[1e]",
+            "[.5]",
+            "[NaN]",
+            "[1] [2]"
+    };
+
+    @Test
+    public void sameTokensAsGsonTest() throws IOException {
+        Random random = new Random(42);
+        for (int i = 0; i < 300; i++) {
+            StringBuilder sb = new StringBuilder();
+            appendValue(sb, random, 0);
+            assertSameTokens(sb.toString());
+        }
+    }
+
+    @Test
+    public void sameTokensAsGsonForFixtureTest() throws IOException {
+        assertSameTokens(readResource(GEOCACHE_RESOURCE));
+    }
+
+    @Test
+    public void stringTest() throws IOException {
+        String json = "[\"a\\\"b\\\\c\\/d\\b\\f\\n\\r\\t\", \"\\u00e1\\u010D\", \"žluťoučký kůň\", \"\uD83D\uDE00 \u20AC\"]";
+        Utf8JsonReader r = reader(json);
+
+        r.beginArray();
+        assertEquals("a\"b\\c/d\b\f\n\r\t", r.nextString());
+        assertEquals("\u00e1\u010d", r.nextString());
+        assertEquals("žluťoučký kůň", r.nextString());
+        assertEquals("\uD83D\uDE00 \u20AC", r.nextString());
+        r.endArray();
+        assertEquals(JsonToken.END_DOCUMENT, r.peek());
+    }
+
+    @Test
+    public void malformedUtf8Test() throws IOException {
+        byte[] json = {'[', '"', 'a', (byte) 0xC3, '"', ',', '"', (byte) 0xFF, 'b', '"', ']'};
+        Utf8JsonReader r = new Utf8JsonReader(new ByteArrayInputStream(json));
+
+        r.beginArray();
+        assertEquals("a\uFFFD", r.nextString());
+        assertEquals("\uFFFDb", r.nextString());
+        r.endArray();
+    }
+
+    @Test
+    public void numberTest() throws IOException {
+        Utf8JsonReader r = reader("[1, -1, 9223372036854775807, -9223372036854775808, 1.0, 1e2, \"12\", 1.5, 2147483648, -0.5e-3, null, 12.75]");
+
+        r.beginArray();
+        assertEquals(1, r.nextInt());
+        assertEquals(-1L, r.nextLong());
+        assertEquals(Long.MAX_VALUE, r.nextLong());
+        assertEquals(Long.MIN_VALUE, r.nextLong());
+        assertEquals(1, r.nextInt());
+        assertEquals(100L, r.nextLong());
+        assertEquals(12, r.nextInt());
+        assertEquals("1.5", r.nextString());
+        assertEquals(2147483648L, r.nextLong());
+        assertEquals(-0.5e-3, r.nextDouble(), 0);
+        assertEquals(7, r.nextInt(7));
+        assertEquals(12.75, r.nextDouble(), 0);
+        r.endArray();
+    }
+
+    @Test(expected = NumberFormatException.class)
+    public void fractionalLongTest() throws IOException {
+        Utf8JsonReader r = reader("[1.5]");
+        r.beginArray();
+        r.nextLong();
+    }
+
+    @Test(expected = NumberFormatException.class)
+    public void intOverflowTest() throws IOException {
+        Utf8JsonReader r = reader("[2147483648]");
+        r.beginArray();
+        r.nextInt();
+    }
+
+    @Test
+    public void failedNumberReadAgainTest() throws IOException {
+        Utf8JsonReader r = reader("[2147483648, 1.5, 1e400, \"x\", 4]");
+        r.beginArray();
+
+        // the value is consumed, but it stays readable as with Gson's JsonReader
+        try {
+            r.nextInt();
+            fail("Read int overflow.");
+        } catch (NumberFormatException e) {
+            // expected
+        }
+        assertEquals(JsonToken.STRING, r.peek());
+        assertEquals(2147483648L, r.nextLong());
+
+        try {
+            r.nextLong();
+            fail("Read fraction as long.");
+        } catch (NumberFormatException e) {
+            // expected
+        }
+        assertEquals("1.5", r.nextString());
+
+        try {
+            r.nextDouble();
+            fail("Read infinity.");
+        } catch (MalformedJsonException e) {
+            // expected
+        }
+        r.skipValue();
+
+        try {
+            r.nextInt();
+            fail("Read string as int.");
+        } catch (NumberFormatException e) {
+            // expected
+        }
+        assertEquals("x", r.nextString());
+
+        assertEquals(4, r.nextInt());
+        r.endArray();
+    }
+
+    @Test
+    public void nullDefaultsTest() throws IOException {
+        Utf8JsonReader r = reader("[null, null, null, null, null, null]");
+
+        r.beginArray();
+        assertEquals(null, r.nextString());
+        assertEquals("x", r.nextString("x"));
+        assertTrue(r.nextBoolean(true));
+        assertEquals(2.5, r.nextDouble(2.5), 0);
+        assertEquals(3L, r.nextLong(3L));
+        r.nextNull();
+        assertFalse(r.hasNext());
+        r.endArray();
+    }
+
+    @Test
+    public void skipValueTest() throws IOException {
+        Utf8JsonReader r = reader("{\"a\": {\"b\": [1, \"]}\\\"\", {\"c\": null}], \"d\": true}, \"e\": \"f\", \"g\": [[], {}]}");
+
+        r.beginObject();
+        assertEquals("a", r.nextName());
+        r.skipValue();
+        r.skipValue();
+        r.skipValue();
+        assertEquals("g", r.nextName());
+        r.skipValue();
+        r.endObject();
+        assertEquals(JsonToken.END_DOCUMENT, r.peek());
+    }
+
+    @Test
+    public void nameCacheTest() throws IOException {
+        Utf8JsonReader r = reader("[{\"Name\": 1}, {\"Name\": 2}]");
+
+        r.beginArray();
+        r.beginObject();
+        String name = r.nextName();
+        r.skipValue();
+        r.endObject();
+        r.beginObject();
+        assertSame(name, r.nextName());
+    }
+
+    @Test
+    public void byteOrderMarkTest() throws IOException {
+        byte[] json = {(byte) 0xEF, (byte) 0xBB, (byte) 0xBF, '[', '1', ']'};
+        Utf8JsonReader r = new Utf8JsonReader(new ByteArrayInputStream(json));
+
+        r.beginArray();
+        assertEquals(1, r.nextInt());
+        r.endArray();
+    }
+
+    @Test
+    public void malformedTest() {
+        for (String json : MALFORMED) {
+            try {
+                Utf8JsonReader r = reader(json);
+                consume(r, new StringBuilder());
+                fail("Malformed JSON accepted: " + json);
+            } catch (IOException e) {
+                // expected
+            } catch (IllegalStateException e) {
+                // expected
+            }
+        }
+    }
+
+    @Test
+    public void parseGeocacheTest() throws IOException {
+        String json = readResource(GEOCACHE_RESOURCE);
+        String geocaches = json.substring(json.indexOf('[', json.indexOf("\"Geocaches\"")));
+
+        List<Geocache> expected = GeocacheJsonParser.parseList(new JsonReader(new InputStreamReader(new ByteArrayInputStream(geocaches.getBytes(CHARSET_UTF8)), CHARSET_UTF8)));
+        List<Geocache> actual = GeocacheJsonParser.parseList(new Utf8JsonReader(new OneByteInputStream(geocaches.getBytes(CHARSET_UTF8))));
+
+        assertEquals(expected, actual);
+    }
+
+    private static void assertSameTokens(String json) throws IOException {
+        byte[] bytes = json.getBytes(CHARSET_UTF8);
+
+        StringBuilder expected = new StringBuilder();
+        consume(new JsonReader(new InputStreamReader(new ByteArrayInputStream(bytes), CHARSET_UTF8)), expected);
+
+        StringBuilder actual = new StringBuilder();
+        consume(new Utf8JsonReader(new ByteArrayInputStream(bytes)), actual);
+        assertEquals(json, expected.toString(), actual.toString());
+
+        // refill the buffer after every byte
+        actual.setLength(0);
+        consume(new Utf8JsonReader(new OneByteInputStream(bytes)), actual);
+        assertEquals(json, expected.toString(), actual.toString());
+    }
+
+    private static void consume(JsonReader r, StringBuilder out) throws IOException {
+        while (true) {
+            JsonToken token = r.peek();
+            out.append(token).append(' ');
+
+            switch (token) {
+                case BEGIN_ARRAY:
+                    r.beginArray();
+                    break;
+                case END_ARRAY:
+                    r.endArray();
+                    break;
+                case BEGIN_OBJECT:
+                    r.beginObject();
+                    break;
+                case END_OBJECT:
+                    r.endObject();
+                    break;
+                case NAME:
+                    String name = r.nextName();
+                    out.append(name).append(' ');
+                    // skip values of names starting by 's'
+                    if (name.startsWith("s"))
+                        r.skipValue();
+                    break;
+                case STRING:
+                    out.append(r.nextString()).append(' ');
+                    break;
+                case NUMBER:
+                    out.append(r.nextDouble()).append(' ');
+                    break;
+                case BOOLEAN:
+                    out.append(r.nextBoolean()).append(' ');
+                    break;
+                case NULL:
+                    r.nextNull();
+                    break;
+                default:
+                    return;
+            }
+        }
+    }
+
+    private static void appendValue(StringBuilder sb, Random random, int depth) {
+        int type = random.nextInt(depth < 4 ? 7 : 5);
+        switch (type) {
+            case 0:
+                appendString(sb, random);
+                break;
+            case 1:
+                sb.append(random.nextInt(3) == 0 ? random.nextLong() : random.nextInt(1000) - 500);
+                break;
+            case 2:
+                sb.append(random.nextDouble() * 1000 - 500);
+                break;
+            case 3:
+                sb.append(random.nextBoolean());
+                break;
+            case 4:
+                sb.append("null");
+                break;
+            case 5:
+                sb.append('[');
+                for (int i = random.nextInt(5); i > 0; i--) {
+                    appendValue(sb, random, depth + 1);
+                    if (i > 1)
+                        sb.append(random.nextBoolean() ? "," : " ,\n ");
+                }
+                sb.append(']');
+                break;
+            default:
+                sb.append('{');
+                for (int i = random.nextInt(5); i > 0; i--) {
+                    appendString(sb, random);
+                    sb.append(random.nextBoolean() ? ":" : " : ");
+                    appendValue(sb, random, depth + 1);
+                    if (i > 1)
+                        sb.append(',');
+                }
+                sb.append('}');
+                break;
+        }
+    }
+
+    private static void appendString(StringBuilder sb, Random random) {
+        String[] parts = {"a", "s", "Name", "\\\"", "\\\\", "\\n", "\\u00e9", "\\uD83D\\uDE00", "\u00e9", "\u010d", "\u20ac", "\uD83D\uDE00", " ", "]}", "0"};
+
+        sb.append('"');
+        int length = random.nextInt(10) == 0 ? 3000 : random.nextInt(8);
+        for (int i = 0; i < length; i++) {
+            sb.append(parts[random.nextInt(parts.length)]);
+        }
+        sb.append('"');
+    }
+
+    private static Utf8JsonReader reader(String json) throws UnsupportedEncodingException {
+        return new Utf8JsonReader(new ByteArrayInputStream(json.getBytes(CHARSET_UTF8)));
+    }
+
+    private String readResource(String name) throws IOException {
+        InputStream is = getClass().getResourceAsStream(name);
+        try {
+            ByteArrayOutputStream bos = new ByteArrayOutputStream();
+            byte[] buffer = new byte[4096];
+            int len;
+            while ((len = is.read(buffer)) != -1) {
+                bos.write(buffer, 0, len);
+            }
+            return bos.toString(CHARSET_UTF8);
+        } finally {
+            is.close();
+        }
+    }
+
+    private static class OneByteInputStream extends FilterInputStream {
+        OneByteInputStream(byte[] bytes) {
+            super(new ByteArrayInputStream(bytes));
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            return super.read(b, off, Math.min(len, 1));
+        }
+    }
+}
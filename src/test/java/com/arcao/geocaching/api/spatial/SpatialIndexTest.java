@@ -0,0 +1,214 @@
+package com.arcao.geocaching.api.spatial;
+
+import com.arcao.geocaching.api.data.Geocache;
+import com.arcao.geocaching.api.data.GeocacheBatch;
+import com.arcao.geocaching.api.data.coordinates.Coordinates;
+import com.arcao.geocaching.api.data.coordinates.DistanceMode;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static com.arcao.geocaching.api.GeocacheFixtures.geocacheBuilder;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class SpatialIndexTest {
+    private static final int COUNT = 5000;
+
+    @Test
+    public void queryTest() {
+        Random random = new Random(42);
+        List<Coordinates> points = randomPoints(random, COUNT);
+        SpatialIndex<Coordinates> index = SpatialIndex.of(points, points);
+        assertEquals(COUNT, index.size());
+
+        for (int i = 0; i < 200; i++) {
+            assertQueries(random, index, points);
+        }
+
+        // a bulk loaded index stays valid after modifications
+        for (int i = 0; i < COUNT; i++) {
+            Coordinates point = randomPoint(random);
+            points.add(point);
+            index.add(point, point);
+        }
+        for (int i = 0; i < COUNT; i++) {
+            assertTrue(index.remove(points.get(i), points.get(i)));
+        }
+        points = points.subList(COUNT, points.size());
+        assertEquals(COUNT, index.size());
+
+        for (int i = 0; i < 100; i++) {
+            assertQueries(random, index, points);
+        }
+    }
+
+    @Test
+    public void addRemoveTest() {
+        Random random = new Random(42);
+        List<Coordinates> points = new ArrayList<Coordinates>(randomPoints(random, COUNT));
+        SpatialIndex<Coordinates> index = new SpatialIndex<Coordinates>();
+        for (Coordinates point : points) {
+            index.add(point, point);
+        }
+        assertEquals(COUNT, index.size());
+        assertQueries(random, index, points);
+
+        for (int i = 0; i < COUNT / 2; i++) {
+            Coordinates point = points.remove(random.nextInt(points.size()));
+            assertFalse(index.remove(Coordinates.create(point.latitude() + 1e-6, point.longitude()), point));
+            assertTrue(index.remove(point, point));
+            assertFalse(index.remove(point, point));
+
+            if (i % 100 == 0) {
+                Coordinates added = randomPoint(random);
+                points.add(added);
+                index.add(added, added);
+            }
+        }
+        assertEquals(points.size(), index.size());
+
+        for (int i = 0; i < 100; i++) {
+            assertQueries(random, index, points);
+        }
+
+        for (Coordinates point : points) {
+            assertTrue(index.remove(point, point));
+        }
+        assertTrue(index.isEmpty());
+        assertTrue(index.viewport(90, -180, -90, 180).isEmpty());
+        assertTrue(index.nearest(Coordinates.create(0, 0), 10).isEmpty());
+    }
+
+    @Test
+    public void antimeridianAndPoleTest() {
+        List<Coordinates> points = new ArrayList<Coordinates>();
+        points.add(Coordinates.create(0, 179.99));
+        points.add(Coordinates.create(0, -179.99));
+        points.add(Coordinates.create(0, 170));
+        points.add(Coordinates.create(89.99, 0));
+        points.add(Coordinates.create(89.99, 180));
+        SpatialIndex<Coordinates> index = index(points);
+
+        assertEquals(2, index.viewport(1, 179, -1, -179).size());
+        assertEquals(2, index.radius(Coordinates.create(0, 180), 2000).size());
+        assertEquals(points.get(1), index.nearest(Coordinates.create(0, -179.999), 1).get(0));
+        assertEquals(2, index.radius(Coordinates.create(90, 0), 2000).size());
+    }
+
+    @Test
+    public void geocacheTest() {
+        List<Geocache> geocaches = new ArrayList<Geocache>();
+        for (int i = 0; i < 100; i++) {
+            geocaches.add(geocache(i + 1, 50 + i / 100.0, 14 + i / 100.0));
+        }
+
+        SpatialIndex<Geocache> index = SpatialIndex.of(geocaches);
+        List<Geocache> nearest = index.nearest(Coordinates.create(50.5, 14.5), 3);
+        assertEquals(51, nearest.get(0).id());
+        assertEquals(3, nearest.size());
+
+        GeocacheBatch.Builder builder = GeocacheBatch.builder();
+        for (Geocache geocache : geocaches) {
+            builder.add(geocache);
+        }
+        GeocacheBatch batch = builder.build();
+        SpatialIndex<GeocacheBatch.Row> batchIndex = SpatialIndex.of(batch);
+
+        List<GeocacheBatch.Row> rows = batchIndex.viewport(50.105, 14.1, 50.1, 14.2);
+        assertEquals(1, rows.size());
+        assertEquals("GCB", rows.get(0).code());
+        assertTrue(batchIndex.remove(batch.latitude(10), batch.longitude(10), batch.row(10)));
+        assertEquals(99, batchIndex.size());
+    }
+
+    private static void assertQueries(Random random, SpatialIndex<Coordinates> index, List<Coordinates> points) {
+        Coordinates center = randomPoint(random);
+
+        // viewport, sometimes over the 180 meridian
+        double north = center.latitude() + random.nextDouble() * 20;
+        double west = center.longitude();
+        double east = west + random.nextDouble() * 40;
+        if (east > 180)
+            east -= 360;
+        Set<Coordinates> expected = new HashSet<Coordinates>();
+        for (Coordinates point : points) {
+            boolean longitude = west <= east ? point.longitude() >= west && point.longitude() <= east : point.longitude() >= west || point.longitude() <= east;
+            if (point.latitude() >= center.latitude() && point.latitude() <= north && longitude)
+                expected.add(point);
+        }
+        assertEquals(expected, set(index.viewport(north, west, center.latitude(), east)));
+
+        // radius
+        double radius = Math.pow(10, 3 + random.nextDouble() * 4);
+        expected.clear();
+        for (Coordinates point : points) {
+            if (center.distanceTo(point) <= radius)
+                expected.add(point);
+        }
+        assertEquals(expected, set(index.radius(center, radius)));
+
+        // nearest
+        List<Coordinates> sorted = new ArrayList<Coordinates>(points);
+        Collections.sort(sorted, byDistance(center));
+        int count = random.nextInt(20);
+        assertEquals(sorted.subList(0, Math.min(count, sorted.size())), index.nearest(center, count));
+
+        List<Coordinates> nearest = index.nearest(center.latitude(), center.longitude(), COUNT, radius);
+        assertEquals(expected.size(), nearest.size());
+        assertEquals(expected, set(nearest));
+    }
+
+    private static Comparator<Coordinates> byDistance(final Coordinates center) {
+        return new Comparator<Coordinates>() {
+            @Override
+            public int compare(Coordinates point1, Coordinates point2) {
+                return Double.compare(
+                        DistanceMode.SQUARED_CHORD.comparable(center.latitude(), center.longitude(), point1.latitude(), point1.longitude()),
+                        DistanceMode.SQUARED_CHORD.comparable(center.latitude(), center.longitude(), point2.latitude(), point2.longitude()));
+            }
+        };
+    }
+
+    private static SpatialIndex<Coordinates> index(List<Coordinates> points) {
+        SpatialIndex<Coordinates> index = new SpatialIndex<Coordinates>();
+        for (Coordinates point : points) {
+            index.add(point, point);
+        }
+        return index;
+    }
+
+    private static Set<Coordinates> set(List<Coordinates> list) {
+        Set<Coordinates> set = new HashSet<Coordinates>(list);
+        assertEquals(list.size(), set.size());
+        return set;
+    }
+
+    private static List<Coordinates> randomPoints(Random random, int count) {
+        List<Coordinates> points = new ArrayList<Coordinates>(count);
+        for (int i = 0; i < count; i++) {
+            points.add(randomPoint(random));
+        }
+        return points;
+    }
+
+    private static Coordinates randomPoint(Random random) {
+        // clustered points as geocaches are
+        if (random.nextBoolean())
+            return Coordinates.create(49 + random.nextDouble() * 2, 14 + random.nextDouble() * 3);
+
+        return Coordinates.create(random.nextDouble() * 180 - 90, random.nextDouble() * 360 - 180);
+    }
+
+    private static Geocache geocache(long id, double latitude, double longitude) {
+        return geocacheBuilder(id).coordinates(Coordinates.create(latitude, longitude)).build();
+    }
+}
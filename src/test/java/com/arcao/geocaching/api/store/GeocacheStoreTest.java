@@ -0,0 +1,203 @@
+package com.arcao.geocaching.api.store;
+
+import com.arcao.geocaching.api.data.Geocache;
+import com.arcao.geocaching.api.data.GeocacheBatch;
+import com.arcao.geocaching.api.data.coordinates.Coordinates;
+import com.arcao.geocaching.api.data.type.AttributeType;
+import com.arcao.geocaching.api.data.type.ContainerType;
+import com.arcao.geocaching.api.data.type.GeocacheType;
+import com.arcao.geocaching.api.parser.GeocacheJsonParser;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.Date;
+import java.util.EnumSet;
+import java.util.List;
+
+import static com.arcao.geocaching.api.GeocacheFixtures.geocacheBuilder;
+import static com.arcao.geocaching.api.GeocacheFixtures.geocachesReader;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class GeocacheStoreTest {
+    private File file;
+
+    @Before
+    public void setUp() throws IOException {
+        file = File.createTempFile("geocaches", ".store");
+    }
+
+    @After
+    public void tearDown() {
+        //noinspection ResultOfMethodCallIgnored
+        file.delete();
+    }
+
+    @Test
+    public void writeAndReadTest() throws IOException {
+        Geocache first = geocache(100000, "První keš", GeocacheType.Mystery, EnumSet.of(AttributeType.DogsYes, AttributeType.TeamworkNo));
+        Geocache second = geocache(5, "Second", null, null);
+
+        GeocacheStore.Writer writer = GeocacheStore.writer(file);
+        writer.add(first).add(second);
+        writer.close();
+
+        GeocacheStore store = GeocacheStore.open(file);
+        assertEquals(2, store.size());
+
+        // sorted by id
+        assertEquals(5, store.id(0));
+        assertEquals(100000, store.id(1));
+        assertEquals(1, store.indexOf(100000));
+        assertEquals(-1, store.indexOf(6));
+
+        assertEquals(first, store.get(first.code()));
+        assertEquals(second, store.get("gc5"));
+        assertNull(store.get("GC6"));
+
+        assertEquals("První keš", store.name(1));
+        assertTrue(store.hasAttribute(1, AttributeType.TeamworkNo));
+        assertEquals(GeocacheBatch.AVAILABLE | GeocacheBatch.FAVORITABLE, store.status(1));
+        assertNull(store.geocacheType(0));
+        assertEquals(GeocacheStore.NO_DATE, store.lastVisitDate(0));
+    }
+
+    @Test
+    public void lastOfSameIdTest() throws IOException {
+        GeocacheStore.Writer writer = GeocacheStore.writer(file);
+        writer.add(geocache(7, "Old", GeocacheType.Traditional, null));
+        writer.add(geocache(3, "Other", GeocacheType.Traditional, null));
+        writer.add(geocache(7, "New", GeocacheType.Traditional, null));
+        writer.close();
+
+        GeocacheStore store = GeocacheStore.open(file);
+        assertEquals(2, store.size());
+        assertEquals("New", store.name(store.indexOf(7)));
+    }
+
+    @Test
+    public void replaceOpenedStoreTest() throws IOException {
+        GeocacheStore.Writer writer = GeocacheStore.writer(file);
+        writer.add(geocache(7, "Old", GeocacheType.Traditional, null));
+        writer.add(geocache(8, "Removed", GeocacheType.Traditional, null));
+        writer.close();
+
+        GeocacheStore old = GeocacheStore.open(file);
+
+        writer = GeocacheStore.writer(file);
+        writer.add(geocache(7, "New", GeocacheType.Traditional, null));
+        writer.close();
+
+        // opened store still maps the previous file
+        assertEquals(2, old.size());
+        assertEquals("Old", old.name(0));
+        assertEquals("Removed", old.name(1));
+
+        GeocacheStore store = GeocacheStore.open(file);
+        assertEquals(1, store.size());
+        assertEquals("New", store.name(0));
+
+        assertNoTempFiles();
+    }
+
+    @Test
+    public void emptyStoreTest() throws IOException {
+        GeocacheStore.writer(file).close();
+
+        GeocacheStore store = GeocacheStore.open(file);
+        assertEquals(0, store.size());
+        assertEquals(-1, store.indexOf(1));
+        assertNoTempFiles();
+    }
+
+    @Test
+    public void manyGeocachesTest() throws IOException {
+        GeocacheStore.Writer writer = GeocacheStore.writer(file);
+        for (int i = 5000; i > 0; i--) {
+            writer.add(geocache(i * 31L, "Name " + (i % 100), GeocacheType.Multi, null));
+        }
+        writer.close();
+
+        assertNoTempFiles();
+
+        GeocacheStore store = GeocacheStore.open(file);
+        assertEquals(5000, store.size());
+        for (int i = 1; i <= 5000; i++) {
+            int index = store.indexOf(i * 31L);
+            assertEquals(i - 1, index);
+            assertEquals("Name " + (i % 100), store.name(index));
+            assertEquals(-1, store.indexOf(i * 31L + 1));
+        }
+    }
+
+    @Test
+    public void parsedGeocachesTest() throws IOException {
+        List<Geocache> geocaches = GeocacheJsonParser.parseList(geocachesReader());
+
+        GeocacheStore.Writer writer = GeocacheStore.writer(file);
+        GeocacheJsonParser.parseList(geocachesReader(), writer);
+        writer.close();
+
+        GeocacheStore store = GeocacheStore.open(file);
+        for (Geocache geocache : geocaches) {
+            Geocache stored = store.get(geocache.code());
+            assertEquals(geocache.name(), stored.name());
+            assertEquals(geocache.coordinates(), stored.coordinates());
+            assertEquals(geocache.geocacheType(), stored.geocacheType());
+            assertEquals(geocache.containerType(), stored.containerType());
+            assertEquals(geocache.difficulty(), stored.difficulty(), 0);
+            assertEquals(geocache.terrain(), stored.terrain(), 0);
+            assertEquals(geocache.archived(), stored.archived());
+            assertEquals(geocache.available(), stored.available());
+            assertEquals(geocache.placeDate(), stored.placeDate());
+            assertEquals(geocache.attributes() != null ? geocache.attributes() : EnumSet.noneOf(AttributeType.class), stored.attributes());
+        }
+    }
+
+    @Test(expected = IOException.class)
+    public void invalidFileTest() throws IOException {
+        FileOutputStream os = new FileOutputStream(file);
+        try {
+            os.write("{\"Geocaches\": []}                                   ".getBytes("UTF-8"));
+        } finally {
+            os.close();
+        }
+
+        GeocacheStore.open(file);
+    }
+
+    private void assertNoTempFiles() {
+        File[] files = file.getAbsoluteFile().getParentFile().listFiles();
+        assertNotNull(files);
+        for (File other : files) {
+            assertFalse(other.getName().startsWith(file.getName()) && other.getName().endsWith(".tmp"));
+        }
+    }
+
+    private static Geocache geocache(long id, String name, GeocacheType type, EnumSet<AttributeType> attributes) {
+        return geocacheBuilder(id)
+                .name(name)
+                .coordinates(Coordinates.create(50.5, -14.25))
+                .geocacheType(type)
+                .containerType(ContainerType.Micro)
+                .difficulty(2.5f)
+                .favoritePoints(12)
+                .trackableCount(2)
+                .imageCount(3)
+                .favoritable(true)
+                .publishDate(new Date(1300000100000L))
+                .countryName("Czech Republic")
+                .attributes(attributes != null ? attributes : EnumSet.noneOf(AttributeType.class))
+                .url("http://coord.info/" + id)
+                .guid("guid-" + id)
+                .build();
+    }
+}
@@ -0,0 +1,111 @@
+package com.arcao.geocaching.api.util;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeSet;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class CacheCodeBitmapTest {
+    @Test
+    public void cacheCodesTest() {
+        CacheCodeBitmap set = new CacheCodeBitmap(Arrays.asList("GC1TG15", "gc0"));
+
+        assertTrue(set.add("GCFFFF"));
+        assertFalse(set.add("gc1tg15"));
+        assertEquals(3, set.size());
+        assertTrue(set.contains("gcffff"));
+        assertFalse(set.contains("GCFFFE"));
+        assertFalse(set.contains("invalid"));
+
+        // ordered by cache id
+        assertEquals(Arrays.asList("GC0", "GCFFFF", "GC1TG15"), new ArrayList<String>(set));
+        assertEquals(new HashSet<String>(Arrays.asList("GC0", "GCFFFF", "GC1TG15")), set);
+
+        assertTrue(set.remove("GC0"));
+        assertFalse(set.remove("GC0"));
+        assertArrayEquals(new long[] {0xFFFF, 1272588}, set.toIdArray());
+    }
+
+    @Test
+    public void sameAsTreeSetTest() {
+        CacheCodeBitmap set = new CacheCodeBitmap();
+        TreeSet<Long> expected = new TreeSet<Long>();
+
+        Random random = new Random(0);
+        for (int i = 0; i < 300000; i++) {
+            // a dense chunk, a sparse chunk and sparse far ids
+            long id;
+            switch (random.nextInt(3)) {
+                case 0:
+                    id = random.nextInt(1 << 16);
+                    break;
+                case 1:
+                    id = (5L << 16) + random.nextInt(1 << 16) / 13 * 13;
+                    break;
+                default:
+                    id = random.nextLong() >>> 20;
+                    break;
+            }
+
+            if (random.nextInt(4) != 0) {
+                assertEquals(expected.add(id), set.add(id));
+            } else {
+                assertEquals(expected.remove(id), set.remove(id));
+            }
+            assertEquals(expected.size(), set.size());
+        }
+
+        long[] expectedIds = new long[expected.size()];
+        int index = 0;
+        for (long id : expected) {
+            expectedIds[index++] = id;
+            assertTrue(set.contains(id));
+            assertEquals(expected.contains(id + 1), set.contains(id + 1));
+        }
+        assertArrayEquals(expectedIds, set.toIdArray());
+
+        List<Long> iterated = new ArrayList<Long>();
+        for (String cacheCode : set) {
+            iterated.add(GeocachingUtils.cacheCodeToCacheId(cacheCode));
+        }
+        assertEquals(new ArrayList<Long>(expected), iterated);
+    }
+
+    @Test
+    public void iteratorRemoveTest() {
+        CacheCodeBitmap set = new CacheCodeBitmap();
+        for (long id = 0; id < 100000; id++) {
+            set.add(id * 3);
+        }
+
+        int count = 0;
+        for (Iterator<String> iterator = set.iterator(); iterator.hasNext(); ) {
+            long id = GeocachingUtils.cacheCodeToCacheId(iterator.next());
+            assertEquals(count * 3L, id);
+            // removes whole chunks too
+            if (id % 2 == 0 || id < 70000)
+                iterator.remove();
+            count++;
+        }
+
+        assertEquals(100000, count);
+        for (long id = 0; id < 100000; id++) {
+            assertEquals(id * 3 >= 70000 && id % 2 != 0, set.contains(id * 3));
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void negativeIdTest() {
+        new CacheCodeBitmap().add(-1);
+    }
+}
@@ -0,0 +1,86 @@
+package com.arcao.geocaching.api.util;
+
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class CacheCodeMapTest {
+    @Test
+    public void cacheCodesTest() {
+        CacheCodeMap<String> map = new CacheCodeMap<String>();
+
+        assertNull(map.put("GC1TG15", "a"));
+        assertNull(map.put(0, "b"));
+        assertEquals("a", map.put("gc1tg15", "c"));
+        assertEquals(2, map.size());
+
+        assertEquals("c", map.get("GC1TG15"));
+        assertEquals("c", map.get(1272588L));
+        assertEquals("b", map.get("gc0"));
+        assertNull(map.get("GC1"));
+        assertNull(map.get("invalid"));
+        assertTrue(map.containsKey("GC0"));
+        assertFalse(map.containsKey(1L));
+        assertTrue(map.keySet().contains("gc0"));
+
+        Map<String, String> expected = new HashMap<String, String>();
+        expected.put("GC1TG15", "c");
+        expected.put("GC0", "b");
+        assertEquals(expected, map);
+        assertEquals(expected.hashCode(), map.hashCode());
+        assertEquals(map, new CacheCodeMap<String>(expected));
+
+        for (Map.Entry<String, String> entry : map.entrySet()) {
+            entry.setValue(entry.getValue() + "!");
+        }
+        assertEquals("c!", map.get("GC1TG15"));
+
+        assertEquals("b!", map.remove("GC0"));
+        assertNull(map.remove("GC0"));
+        assertEquals(1, map.size());
+    }
+
+    @Test
+    public void sameAsHashMapTest() {
+        CacheCodeMap<Integer> map = new CacheCodeMap<Integer>();
+        Map<Long, Integer> expected = new HashMap<Long, Integer>();
+
+        Random random = new Random(0);
+        for (int i = 0; i < 200000; i++) {
+            long id = random.nextInt(20000);
+            if (random.nextInt(3) < 2) {
+                assertEquals(expected.put(id, i), map.put(id, i));
+            } else {
+                assertEquals(expected.remove(id), map.remove(id));
+            }
+            assertEquals(expected.size(), map.size());
+        }
+
+        for (long id = 0; id < 20000; id++) {
+            assertEquals(expected.get(id), map.get(id));
+        }
+
+        int count = 0;
+        for (Iterator<Map.Entry<String, Integer>> iterator = map.entrySet().iterator(); iterator.hasNext(); ) {
+            Map.Entry<String, Integer> entry = iterator.next();
+            assertEquals(expected.get(GeocachingUtils.cacheCodeToCacheId(entry.getKey())), entry.getValue());
+            if (count++ % 2 == 0)
+                iterator.remove();
+        }
+        assertEquals(expected.size(), count);
+        assertEquals(count / 2, map.size());
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void nullValueTest() {
+        new CacheCodeMap<String>().put("GC1", null);
+    }
+}
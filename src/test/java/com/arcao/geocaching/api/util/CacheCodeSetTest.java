@@ -0,0 +1,95 @@
+package com.arcao.geocaching.api.util;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class CacheCodeSetTest {
+    @Test
+    public void cacheCodesTest() {
+        CacheCodeSet set = new CacheCodeSet(Arrays.asList("GC1TG15", "gc0"));
+
+        assertTrue(set.add("GCFFFF"));
+        assertFalse(set.add("gc1tg15"));
+        assertEquals(3, set.size());
+
+        assertTrue(set.contains("GC1TG15"));
+        assertTrue(set.contains(1272588L));
+        assertFalse(set.contains("GC1"));
+        assertFalse(set.contains("invalid"));
+        assertFalse(set.contains(1272588L + 1));
+        assertFalse(set.contains((Object) 1272588L));
+
+        assertEquals(new HashSet<String>(Arrays.asList("GC0", "GCFFFF", "GC1TG15")), set);
+
+        assertTrue(set.remove("gc0"));
+        assertFalse(set.remove("GC0"));
+        assertEquals(new HashSet<String>(Arrays.asList("GCFFFF", "GC1TG15")), new HashSet<String>(set));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void invalidCacheCodeTest() {
+        new CacheCodeSet().add("OC1234");
+    }
+
+    @Test
+    public void sameAsHashSetTest() {
+        CacheCodeSet set = new CacheCodeSet();
+        Set<Long> expected = new HashSet<Long>();
+
+        Random random = new Random(0);
+        for (int i = 0; i < 200000; i++) {
+            long id = random.nextInt(20000);
+            switch (random.nextInt(3)) {
+                case 0:
+                case 1:
+                    assertEquals(expected.add(id), set.add(id));
+                    break;
+                default:
+                    assertEquals(expected.remove(id), set.remove(id));
+                    break;
+            }
+            assertEquals(expected.size(), set.size());
+        }
+
+        for (long id = 0; id < 20000; id++) {
+            assertEquals(expected.contains(id), set.contains(id));
+        }
+
+        long[] ids = set.toIdArray();
+        assertEquals(expected.size(), ids.length);
+        for (long id : ids) {
+            assertTrue(expected.contains(id));
+        }
+    }
+
+    @Test
+    public void iteratorRemoveTest() {
+        CacheCodeSet set = new CacheCodeSet();
+        for (long id = 0; id < 1000; id++) {
+            set.add(id * 7919);
+        }
+
+        Set<String> seen = new HashSet<String>();
+        for (Iterator<String> iterator = set.iterator(); iterator.hasNext(); ) {
+            String cacheCode = iterator.next();
+            assertTrue(seen.add(cacheCode));
+            if (GeocachingUtils.cacheCodeToCacheId(cacheCode) % 2 == 0)
+                iterator.remove();
+        }
+
+        assertEquals(1000, seen.size());
+        assertEquals(500, set.size());
+        for (long id = 0; id < 1000; id++) {
+            assertEquals(id % 2 != 0, set.contains(id * 7919));
+        }
+    }
+}
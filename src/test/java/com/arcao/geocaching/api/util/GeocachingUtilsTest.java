@@ -2,6 +2,11 @@ package com.arcao.geocaching.api.util;
 
 import org.junit.Test;
 
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.Arrays;
+import java.util.Random;
+
 import static org.junit.Assert.*;
 
 public class GeocachingUtilsTest {
@@ -62,4 +67,154 @@ public class GeocachingUtilsTest {
     assertFalse(GeocachingUtils.isCacheCodeValid("GC"));
     assertFalse(GeocachingUtils.isCacheCodeValid("OC1234"));
   }
+
+  @Test
+  public void testCacheCodeInCharSequence() {
+    StringBuilder sb = new StringBuilder("see gc1tg15, GCFFFF");
+    assertEquals(1272588, GeocachingUtils.cacheCodeToCacheId(sb, 4, 11));
+    assertEquals(0xFFFF,  GeocachingUtils.cacheCodeToCacheId(sb, 13, 19));
+    assertEquals(31*31,   GeocachingUtils.base31Decode("x100x", 1, 4));
+  }
+
+  @Test
+  public void testBulkConversion() {
+    String[] codes = {"GC0", "gcffff", "GCG000", "GC1TG15"};
+    long[] ids = {0, 0xFFFF, 0x10000, 1272588};
+
+    assertArrayEquals(ids, GeocachingUtils.cacheCodesToCacheIds(codes));
+    assertArrayEquals(ids, GeocachingUtils.cacheCodesToCacheIds(Arrays.asList(codes)));
+    assertArrayEquals(new String[] {"GC0", "GCFFFF", "GCG000", "GC1TG15"}, GeocachingUtils.cacheIdsToCacheCodes(ids));
+    assertEquals(0, GeocachingUtils.cacheIdsToCacheCodes().length);
+  }
+
+  @Test
+  public void testAppendCacheCode() throws IOException {
+    StringWriter writer = new StringWriter();
+    GeocachingUtils.appendCacheCode(writer, 1272588).append(' ');
+    GeocachingUtils.appendCacheCode(writer, 10);
+    assertEquals("GC1TG15 GCA", writer.toString());
+
+    assertEquals("x GCG000", GeocachingUtils.appendCacheCode(new StringBuilder("x "), 0x10000).toString());
+  }
+
+  @Test
+  public void testRoundTripExhaustive() {
+    // all 4 char and shorter codes and first codes of 5 chars
+    for (long id = 0; id < 2000000; id++) {
+      String code = GeocachingUtils.cacheIdToCacheCode(id);
+      assertEquals(code, previousCacheIdToCacheCode(id), code);
+      assertEquals(code, id, GeocachingUtils.cacheCodeToCacheId(code));
+    }
+
+    Random random = new Random(0);
+    for (int i = 0; i < 1000000; i++) {
+      long id = random.nextLong() >>> (1 + random.nextInt(63));
+      String code = GeocachingUtils.cacheIdToCacheCode(id);
+      assertEquals(code, previousCacheIdToCacheCode(id), code);
+      assertEquals(code, id, GeocachingUtils.cacheCodeToCacheId(code));
+      assertEquals(code, id, GeocachingUtils.cacheCodeToCacheId(code.toLowerCase()));
+    }
+
+    long maxId = Long.MAX_VALUE - 411120;
+    assertEquals(maxId, GeocachingUtils.cacheCodeToCacheId(GeocachingUtils.cacheIdToCacheCode(maxId)));
+    assertEquals(previousBase31Encode(Long.MAX_VALUE), GeocachingUtils.base31Encode(Long.MAX_VALUE));
+    assertEquals("", GeocachingUtils.base31Encode(0));
+  }
+
+  @Test
+  public void testSameAsPreviousImplementation() {
+    // all ASCII codes up to 3 chars after GC prefix
+    char[] chars = new char[5];
+    chars[0] = 'G';
+    chars[1] = 'C';
+    for (int length = 1; length <= 3; length++) {
+      int count = (int) Math.pow(96, length);
+      for (int n = 0; n < count; n++) {
+        int value = n;
+        for (int i = 0; i < length; i++) {
+          chars[2 + i] = (char) (' ' + value % 96);
+          value /= 96;
+        }
+        assertSameAsPrevious(new String(chars, 0, 2 + length));
+      }
+    }
+
+    String alphabet = "0123456789ABCDEFGHJKMNPQRTVWXYZabcdefghijklmnopqrstuvwxyzILOSU+-! ";
+    Random random = new Random(0);
+    for (int i = 0; i < 1000000; i++) {
+      StringBuilder sb = new StringBuilder(random.nextInt(3) == 0 ? "gC" : "GC");
+      int length = random.nextInt(14);
+      for (int j = 0; j < length; j++) {
+        sb.append(alphabet.charAt(random.nextInt(random.nextBoolean() ? 31 : alphabet.length())));
+      }
+      assertSameAsPrevious(sb.toString());
+    }
+
+    assertSameAsPrevious("");
+    assertSameAsPrevious("G");
+    assertSameAsPrevious("GC");
+    assertSameAsPrevious("OC1234");
+  }
+
+  private static void assertSameAsPrevious(String code) {
+    Long expected;
+    try {
+      expected = previousCacheCodeToCacheId(code);
+    } catch (IllegalArgumentException e) {
+      expected = null;
+    }
+
+    Long actual;
+    try {
+      actual = GeocachingUtils.cacheCodeToCacheId(code);
+    } catch (IllegalArgumentException e) {
+      actual = null;
+    }
+
+    assertEquals(code, expected, actual);
+  }
+
+  // previous implementation
+  private static final String BASE_31_CHARS = "0123456789ABCDEFGHJKMNPQRTVWXYZ";
+
+  private static long previousCacheCodeToCacheId(String cacheCode) {
+    String cacheCodeNorm = cacheCode.toUpperCase();
+
+    if (cacheCodeNorm.length() < 3 || !cacheCodeNorm.startsWith("GC"))
+      throw new IllegalArgumentException("Cache code is too short or does not contains GC prefix.");
+
+    String code = cacheCodeNorm.substring(2);
+    if (code.length() <= 4 && code.charAt(0) < 'G') {
+      try {
+        return Long.parseLong(code, 16);
+      } catch (NumberFormatException e) {
+        throw new IllegalArgumentException("Only chars " + BASE_31_CHARS + " are supported.");
+      }
+    }
+
+    long ret = 0;
+    for (char ch : code.toCharArray()) {
+      int index = BASE_31_CHARS.indexOf(ch);
+      if (index == -1)
+        throw new IllegalArgumentException("Only chars " + BASE_31_CHARS + " are supported.");
+      ret = ret * 31 + index;
+    }
+    return ret - 411120;
+  }
+
+  private static String previousCacheIdToCacheCode(long cacheId) {
+    if (cacheId <= 0xFFFF)
+      return "GC" + Long.toString(cacheId, 16).toUpperCase();
+
+    return "GC" + previousBase31Encode(cacheId + 411120);
+  }
+
+  private static String previousBase31Encode(long input) {
+    StringBuilder sb = new StringBuilder();
+    while (input != 0) {
+      sb.append(BASE_31_CHARS.charAt((int) (input % 31)));
+      input /= 31;
+    }
+    return sb.reverse().toString();
+  }
 }